@@ -1,5 +1,8 @@
 package com.binbash.mobigo.config;
 
+import com.binbash.mobigo.domain.enumeration.NotificationType;
+import java.util.ArrayList;
+import java.util.List;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
 /**
@@ -18,6 +21,10 @@ public class ApplicationProperties {
     private final Storage storage = new Storage();
     private final Firebase firebase = new Firebase();
     private final Campay campay = new Campay();
+    private final Ledger ledger = new Ledger();
+    private final Wallet wallet = new Wallet();
+    private final Notification notification = new Notification();
+    private final Websocket websocket = new Websocket();
 
     public String getFrontendUrl() {
         return frontendUrl;
@@ -51,6 +58,22 @@ public class ApplicationProperties {
         return campay;
     }
 
+    public Ledger getLedger() {
+        return ledger;
+    }
+
+    public Wallet getWallet() {
+        return wallet;
+    }
+
+    public Notification getNotification() {
+        return notification;
+    }
+
+    public Websocket getWebsocket() {
+        return websocket;
+    }
+
     public static class Tesseract {
 
         private String dataPath;
@@ -189,6 +212,18 @@ public class ApplicationProperties {
         private String baseUrl = "https://demo.campay.net/api";
         private boolean enabled = false;
         private int paymentTimeoutMinutes = 5;
+        private int webhookWorkers = 4;
+        private int webhookBatchSize = 50;
+        private int webhookMaxAttempts = 8;
+        private long webhookPollDelayMs = 1000;
+        private int reconciliationStaleMinutes = 30;
+        private long reconciliationDelayMs = 300000;
+        private int reconciliationWorkers = 4;
+        private double reconciliationRatePerSecond = 5;
+        private long requestTimeoutMs = 15000;
+        private int maxRetries = 2;
+        private int circuitFailureThreshold = 5;
+        private long circuitOpenMs = 30000;
 
         public String getAppId() {
             return appId;
@@ -253,5 +288,441 @@ public class ApplicationProperties {
         public void setPaymentTimeoutMinutes(int paymentTimeoutMinutes) {
             this.paymentTimeoutMinutes = paymentTimeoutMinutes;
         }
+
+        public int getWebhookWorkers() {
+            return webhookWorkers;
+        }
+
+        public void setWebhookWorkers(int webhookWorkers) {
+            this.webhookWorkers = webhookWorkers;
+        }
+
+        public int getWebhookBatchSize() {
+            return webhookBatchSize;
+        }
+
+        public void setWebhookBatchSize(int webhookBatchSize) {
+            this.webhookBatchSize = webhookBatchSize;
+        }
+
+        public int getWebhookMaxAttempts() {
+            return webhookMaxAttempts;
+        }
+
+        public void setWebhookMaxAttempts(int webhookMaxAttempts) {
+            this.webhookMaxAttempts = webhookMaxAttempts;
+        }
+
+        public long getWebhookPollDelayMs() {
+            return webhookPollDelayMs;
+        }
+
+        public void setWebhookPollDelayMs(long webhookPollDelayMs) {
+            this.webhookPollDelayMs = webhookPollDelayMs;
+        }
+
+        public int getReconciliationStaleMinutes() {
+            return reconciliationStaleMinutes;
+        }
+
+        public void setReconciliationStaleMinutes(int reconciliationStaleMinutes) {
+            this.reconciliationStaleMinutes = reconciliationStaleMinutes;
+        }
+
+        public long getReconciliationDelayMs() {
+            return reconciliationDelayMs;
+        }
+
+        public void setReconciliationDelayMs(long reconciliationDelayMs) {
+            this.reconciliationDelayMs = reconciliationDelayMs;
+        }
+
+        public int getReconciliationWorkers() {
+            return reconciliationWorkers;
+        }
+
+        public void setReconciliationWorkers(int reconciliationWorkers) {
+            this.reconciliationWorkers = reconciliationWorkers;
+        }
+
+        public double getReconciliationRatePerSecond() {
+            return reconciliationRatePerSecond;
+        }
+
+        public void setReconciliationRatePerSecond(double reconciliationRatePerSecond) {
+            this.reconciliationRatePerSecond = reconciliationRatePerSecond;
+        }
+
+        public long getRequestTimeoutMs() {
+            return requestTimeoutMs;
+        }
+
+        public void setRequestTimeoutMs(long requestTimeoutMs) {
+            this.requestTimeoutMs = requestTimeoutMs;
+        }
+
+        public int getMaxRetries() {
+            return maxRetries;
+        }
+
+        public void setMaxRetries(int maxRetries) {
+            this.maxRetries = maxRetries;
+        }
+
+        public int getCircuitFailureThreshold() {
+            return circuitFailureThreshold;
+        }
+
+        public void setCircuitFailureThreshold(int circuitFailureThreshold) {
+            this.circuitFailureThreshold = circuitFailureThreshold;
+        }
+
+        public long getCircuitOpenMs() {
+            return circuitOpenMs;
+        }
+
+        public void setCircuitOpenMs(long circuitOpenMs) {
+            this.circuitOpenMs = circuitOpenMs;
+        }
+    }
+
+    public static class Ledger {
+
+        private int reconciliationWorkers = 4;
+        private long reconciliationDelayMs = 3600000;
+        private long checkpointGraceMs = 600000;
+        private int archiveAfterDays = 90;
+        private int archiveBatchSize = 500;
+        private long archiveDelayMs = 86400000;
+
+        public int getReconciliationWorkers() {
+            return reconciliationWorkers;
+        }
+
+        public void setReconciliationWorkers(int reconciliationWorkers) {
+            this.reconciliationWorkers = reconciliationWorkers;
+        }
+
+        public long getReconciliationDelayMs() {
+            return reconciliationDelayMs;
+        }
+
+        public void setReconciliationDelayMs(long reconciliationDelayMs) {
+            this.reconciliationDelayMs = reconciliationDelayMs;
+        }
+
+        public long getCheckpointGraceMs() {
+            return checkpointGraceMs;
+        }
+
+        public void setCheckpointGraceMs(long checkpointGraceMs) {
+            this.checkpointGraceMs = checkpointGraceMs;
+        }
+
+        public int getArchiveAfterDays() {
+            return archiveAfterDays;
+        }
+
+        public void setArchiveAfterDays(int archiveAfterDays) {
+            this.archiveAfterDays = archiveAfterDays;
+        }
+
+        public int getArchiveBatchSize() {
+            return archiveBatchSize;
+        }
+
+        public void setArchiveBatchSize(int archiveBatchSize) {
+            this.archiveBatchSize = archiveBatchSize;
+        }
+
+        public long getArchiveDelayMs() {
+            return archiveDelayMs;
+        }
+
+        public void setArchiveDelayMs(long archiveDelayMs) {
+            this.archiveDelayMs = archiveDelayMs;
+        }
+    }
+
+    public static class Wallet {
+
+        private long scheduledPayoutDelayMs = 86400000;
+        private int payoutWorkers = 8;
+        private int payoutBatchSize = 200;
+        private double payoutRatePerSecond = 5;
+
+        public long getScheduledPayoutDelayMs() {
+            return scheduledPayoutDelayMs;
+        }
+
+        public void setScheduledPayoutDelayMs(long scheduledPayoutDelayMs) {
+            this.scheduledPayoutDelayMs = scheduledPayoutDelayMs;
+        }
+
+        public int getPayoutWorkers() {
+            return payoutWorkers;
+        }
+
+        public void setPayoutWorkers(int payoutWorkers) {
+            this.payoutWorkers = payoutWorkers;
+        }
+
+        public int getPayoutBatchSize() {
+            return payoutBatchSize;
+        }
+
+        public void setPayoutBatchSize(int payoutBatchSize) {
+            this.payoutBatchSize = payoutBatchSize;
+        }
+
+        public double getPayoutRatePerSecond() {
+            return payoutRatePerSecond;
+        }
+
+        public void setPayoutRatePerSecond(double payoutRatePerSecond) {
+            this.payoutRatePerSecond = payoutRatePerSecond;
+        }
+    }
+
+    public static class Notification {
+
+        private int queueCapacity = 10000;
+        private int batchSize = 200;
+        private long lingerMs = 50;
+        private int deliveryWorkers = 8;
+        private long unreadCacheTtlMs = 60000;
+        private int retentionBatchSize = 1000;
+        private long retentionDelayMs = 3600000;
+        private long coalesceWindowMs = 30000;
+        private long digestIntervalMs = 900000;
+        private List<NotificationType> digestTypes = new ArrayList<>();
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public long getLingerMs() {
+            return lingerMs;
+        }
+
+        public void setLingerMs(long lingerMs) {
+            this.lingerMs = lingerMs;
+        }
+
+        public int getDeliveryWorkers() {
+            return deliveryWorkers;
+        }
+
+        public void setDeliveryWorkers(int deliveryWorkers) {
+            this.deliveryWorkers = deliveryWorkers;
+        }
+
+        public long getUnreadCacheTtlMs() {
+            return unreadCacheTtlMs;
+        }
+
+        public void setUnreadCacheTtlMs(long unreadCacheTtlMs) {
+            this.unreadCacheTtlMs = unreadCacheTtlMs;
+        }
+
+        public int getRetentionBatchSize() {
+            return retentionBatchSize;
+        }
+
+        public void setRetentionBatchSize(int retentionBatchSize) {
+            this.retentionBatchSize = retentionBatchSize;
+        }
+
+        public long getRetentionDelayMs() {
+            return retentionDelayMs;
+        }
+
+        public void setRetentionDelayMs(long retentionDelayMs) {
+            this.retentionDelayMs = retentionDelayMs;
+        }
+
+        public long getCoalesceWindowMs() {
+            return coalesceWindowMs;
+        }
+
+        public void setCoalesceWindowMs(long coalesceWindowMs) {
+            this.coalesceWindowMs = coalesceWindowMs;
+        }
+
+        public long getDigestIntervalMs() {
+            return digestIntervalMs;
+        }
+
+        public void setDigestIntervalMs(long digestIntervalMs) {
+            this.digestIntervalMs = digestIntervalMs;
+        }
+
+        public List<NotificationType> getDigestTypes() {
+            return digestTypes;
+        }
+
+        public void setDigestTypes(List<NotificationType> digestTypes) {
+            this.digestTypes = digestTypes;
+        }
+    }
+
+    public static class Websocket {
+
+        private long broadcastWindowMs = 250;
+        private boolean relayEnabled = false;
+        private String relayHost = "localhost";
+        private int relayPort = 61613;
+        private String relayLogin = "guest";
+        private String relayPasscode = "guest";
+        private String relayVirtualHost;
+        private boolean embeddedBroker = false;
+        private int sendTimeLimitMs = 5000;
+        private int sendBufferSizeLimit = 256 * 1024;
+        private int messageSizeLimit = 64 * 1024;
+        private int inboundPoolSize = 8;
+        private int inboundQueueCapacity = 1000;
+        private int outboundPoolSize = 8;
+        private int outboundQueueCapacity = 5000;
+        private long presenceSnapshotMs = 5000;
+
+        public long getBroadcastWindowMs() {
+            return broadcastWindowMs;
+        }
+
+        public void setBroadcastWindowMs(long broadcastWindowMs) {
+            this.broadcastWindowMs = broadcastWindowMs;
+        }
+
+        public boolean isRelayEnabled() {
+            return relayEnabled;
+        }
+
+        public void setRelayEnabled(boolean relayEnabled) {
+            this.relayEnabled = relayEnabled;
+        }
+
+        public String getRelayHost() {
+            return relayHost;
+        }
+
+        public void setRelayHost(String relayHost) {
+            this.relayHost = relayHost;
+        }
+
+        public int getRelayPort() {
+            return relayPort;
+        }
+
+        public void setRelayPort(int relayPort) {
+            this.relayPort = relayPort;
+        }
+
+        public String getRelayLogin() {
+            return relayLogin;
+        }
+
+        public void setRelayLogin(String relayLogin) {
+            this.relayLogin = relayLogin;
+        }
+
+        public String getRelayPasscode() {
+            return relayPasscode;
+        }
+
+        public void setRelayPasscode(String relayPasscode) {
+            this.relayPasscode = relayPasscode;
+        }
+
+        public String getRelayVirtualHost() {
+            return relayVirtualHost;
+        }
+
+        public void setRelayVirtualHost(String relayVirtualHost) {
+            this.relayVirtualHost = relayVirtualHost;
+        }
+
+        public boolean isEmbeddedBroker() {
+            return embeddedBroker;
+        }
+
+        public void setEmbeddedBroker(boolean embeddedBroker) {
+            this.embeddedBroker = embeddedBroker;
+        }
+
+        public int getSendTimeLimitMs() {
+            return sendTimeLimitMs;
+        }
+
+        public void setSendTimeLimitMs(int sendTimeLimitMs) {
+            this.sendTimeLimitMs = sendTimeLimitMs;
+        }
+
+        public int getSendBufferSizeLimit() {
+            return sendBufferSizeLimit;
+        }
+
+        public void setSendBufferSizeLimit(int sendBufferSizeLimit) {
+            this.sendBufferSizeLimit = sendBufferSizeLimit;
+        }
+
+        public int getMessageSizeLimit() {
+            return messageSizeLimit;
+        }
+
+        public void setMessageSizeLimit(int messageSizeLimit) {
+            this.messageSizeLimit = messageSizeLimit;
+        }
+
+        public int getInboundPoolSize() {
+            return inboundPoolSize;
+        }
+
+        public void setInboundPoolSize(int inboundPoolSize) {
+            this.inboundPoolSize = inboundPoolSize;
+        }
+
+        public int getInboundQueueCapacity() {
+            return inboundQueueCapacity;
+        }
+
+        public void setInboundQueueCapacity(int inboundQueueCapacity) {
+            this.inboundQueueCapacity = inboundQueueCapacity;
+        }
+
+        public int getOutboundPoolSize() {
+            return outboundPoolSize;
+        }
+
+        public void setOutboundPoolSize(int outboundPoolSize) {
+            this.outboundPoolSize = outboundPoolSize;
+        }
+
+        public int getOutboundQueueCapacity() {
+            return outboundQueueCapacity;
+        }
+
+        public void setOutboundQueueCapacity(int outboundQueueCapacity) {
+            this.outboundQueueCapacity = outboundQueueCapacity;
+        }
+
+        public long getPresenceSnapshotMs() {
+            return presenceSnapshotMs;
+        }
+
+        public void setPresenceSnapshotMs(long presenceSnapshotMs) {
+            this.presenceSnapshotMs = presenceSnapshotMs;
+        }
     }
 }
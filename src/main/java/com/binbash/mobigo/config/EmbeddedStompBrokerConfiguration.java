@@ -0,0 +1,37 @@
+package com.binbash.mobigo.config;
+
+import org.apache.activemq.artemis.core.config.impl.ConfigurationImpl;
+import org.apache.activemq.artemis.core.server.embedded.EmbeddedActiveMQ;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Starts an embedded ActiveMQ Artemis broker accepting STOMP on {@code application.websocket.relay-host:relay-port}, for
+ * tests and single-host deployments running several nodes against the broker relay.
+ */
+@Configuration
+@ConditionalOnProperty(name = "application.websocket.embedded-broker", havingValue = "true")
+public class EmbeddedStompBrokerConfiguration {
+
+    private static final Logger LOG = LoggerFactory.getLogger(EmbeddedStompBrokerConfiguration.class);
+
+    @Bean(destroyMethod = "stop")
+    public EmbeddedActiveMQ embeddedStompBroker(ApplicationProperties applicationProperties) throws Exception {
+        ApplicationProperties.Websocket websocket = applicationProperties.getWebsocket();
+        String acceptor = "tcp://" + websocket.getRelayHost() + ":" + websocket.getRelayPort() + "?protocols=STOMP";
+        // Messages are transient frames for connected sockets: nothing is persisted.
+        ConfigurationImpl configuration = new ConfigurationImpl();
+        configuration.setPersistenceEnabled(false);
+        configuration.setSecurityEnabled(false);
+        configuration.setJMXManagementEnabled(false);
+        configuration.addAcceptorConfiguration("stomp", acceptor);
+        EmbeddedActiveMQ broker = new EmbeddedActiveMQ();
+        broker.setConfiguration(configuration);
+        broker.start();
+        LOG.info("Embedded STOMP broker started on {}", acceptor);
+        return broker;
+    }
+}
@@ -1,14 +1,20 @@
 package com.binbash.mobigo.config;
 
 import com.binbash.mobigo.security.AuthoritiesConstants;
+import com.binbash.mobigo.web.websocket.WebSocketSessionMetrics;
 import java.security.Principal;
 import java.util.*;
+import java.util.concurrent.ThreadPoolExecutor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.server.*;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.messaging.simp.config.StompBrokerRelayRegistration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.security.authentication.AnonymousAuthenticationToken;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.util.StringUtils;
 import org.springframework.web.socket.WebSocketHandler;
 import org.springframework.web.socket.config.annotation.*;
 import org.springframework.web.socket.server.HandshakeInterceptor;
@@ -21,15 +27,115 @@ public class WebsocketConfiguration implements WebSocketMessageBrokerConfigurer
 
     public static final String IP_ADDRESS = "IP_ADDRESS";
 
+    /**
+     * Broker destination on which a node re-publishes user messages it cannot resolve locally, so the node holding
+     * the session delivers them.
+     */
+    public static final String USER_DESTINATION_BROADCAST = "/topic/unresolved-user";
+
+    /**
+     * Broker destination on which every node periodically publishes its local user registry.
+     */
+    public static final String USER_REGISTRY_BROADCAST = "/topic/user-registry";
+
     private final JHipsterProperties jHipsterProperties;
+    private final ApplicationProperties applicationProperties;
+    private final WebSocketSessionMetrics sessionMetrics;
 
-    public WebsocketConfiguration(JHipsterProperties jHipsterProperties) {
+    public WebsocketConfiguration(
+        JHipsterProperties jHipsterProperties,
+        ApplicationProperties applicationProperties,
+        WebSocketSessionMetrics sessionMetrics
+    ) {
         this.jHipsterProperties = jHipsterProperties;
+        this.applicationProperties = applicationProperties;
+        this.sessionMetrics = sessionMetrics;
     }
 
+    /**
+     * Uses the in-memory broker by default. With {@code application.websocket.relay-enabled}, destinations are relayed to
+     * an external STOMP broker shared by all nodes, and user destinations are resolved across nodes through the two
+     * broadcast destinations above.
+     */
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config) {
-        config.enableSimpleBroker("/topic");
+        ApplicationProperties.Websocket websocket = applicationProperties.getWebsocket();
+        if (!websocket.isRelayEnabled()) {
+            config.enableSimpleBroker("/topic");
+            return;
+        }
+        StompBrokerRelayRegistration relay = config
+            .enableStompBrokerRelay("/topic")
+            .setRelayHost(websocket.getRelayHost())
+            .setRelayPort(websocket.getRelayPort())
+            .setClientLogin(websocket.getRelayLogin())
+            .setClientPasscode(websocket.getRelayPasscode())
+            .setSystemLogin(websocket.getRelayLogin())
+            .setSystemPasscode(websocket.getRelayPasscode())
+            .setUserDestinationBroadcast(USER_DESTINATION_BROADCAST)
+            .setUserRegistryBroadcast(USER_REGISTRY_BROADCAST);
+        if (StringUtils.hasText(websocket.getRelayVirtualHost())) {
+            relay.setVirtualHost(websocket.getRelayVirtualHost());
+        }
+    }
+
+    /**
+     * Bounds what a slow client can make the server buffer: a session whose send blocks longer than the send-time limit
+     * or whose pending frames exceed the buffer limit is closed (and counted as evicted).
+     */
+    @Override
+    public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+        ApplicationProperties.Websocket websocket = applicationProperties.getWebsocket();
+        registration
+            .setSendTimeLimit(websocket.getSendTimeLimitMs())
+            .setSendBufferSizeLimit(websocket.getSendBufferSizeLimit())
+            .setMessageSizeLimit(websocket.getMessageSizeLimit())
+            .addDecoratorFactory(sessionMetrics);
+    }
+
+    /**
+     * When the inbound queue is full the socket thread handles the frame itself, which slows down the flooding client
+     * without losing its CONNECT/DISCONNECT frames.
+     */
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        ApplicationProperties.Websocket websocket = applicationProperties.getWebsocket();
+        ThreadPoolTaskExecutor executor = channelExecutor(
+            "websocket-inbound-",
+            websocket.getInboundPoolSize(),
+            websocket.getInboundQueueCapacity()
+        );
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        sessionMetrics.monitorChannel("inbound", executor);
+        registration.taskExecutor(executor);
+    }
+
+    /**
+     * When the outbound queue is full, broadcast frames are dropped instead of piling up behind slow sessions; control
+     * frames and user-destination messages are sent by the calling broker thread, trading broker throughput for not
+     * losing them (see {@link WebSocketSessionMetrics#outboundRejectionPolicy()}).
+     */
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        ApplicationProperties.Websocket websocket = applicationProperties.getWebsocket();
+        ThreadPoolTaskExecutor executor = channelExecutor(
+            "websocket-outbound-",
+            websocket.getOutboundPoolSize(),
+            websocket.getOutboundQueueCapacity()
+        );
+        executor.setRejectedExecutionHandler(sessionMetrics.outboundRejectionPolicy());
+        sessionMetrics.monitorChannel("outbound", executor);
+        registration.taskExecutor(executor);
+    }
+
+    private static ThreadPoolTaskExecutor channelExecutor(String threadNamePrefix, int poolSize, int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix(threadNamePrefix);
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setAllowCoreThreadTimeOut(true);
+        return executor;
     }
 
     @Override
@@ -16,6 +16,9 @@ public class WebsocketSecurityConfiguration extends AbstractSecurityWebSocketMes
             .authenticated()
             .simpDestMatchers("/topic/tracker")
             .hasAuthority(AuthoritiesConstants.ADMIN)
+            // broker-relay plumbing, carries other users' messages
+            .simpDestMatchers(WebsocketConfiguration.USER_DESTINATION_BROADCAST, WebsocketConfiguration.USER_REGISTRY_BROADCAST)
+            .denyAll()
             // matches any destination that starts with /topic/
             // (i.e. cannot send messages directly to /topic/)
             // (i.e. cannot subscribe to /topic/messages/* to get messages sent to
@@ -0,0 +1,262 @@
+package com.binbash.mobigo.domain;
+
+import com.binbash.mobigo.domain.enumeration.CampayWebhookEventState;
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import java.io.Serializable;
+import java.time.Instant;
+
+/**
+ * Campay callback persisted by the webhook endpoint before it answers, then applied
+ * asynchronously by {@code CampayWebhookQueueService}. Events sharing an
+ * {@code orderKey} (external reference, else Campay reference) are applied one at a
+ * time in id order; an event that keeps failing ends up DEAD.
+ */
+@Entity
+@Table(
+    name = "campay_webhook_event",
+    uniqueConstraints = @UniqueConstraint(name = "ux_campay_webhook_event_dedupe", columnNames = "dedupe_key"),
+    indexes = {
+        @Index(name = "idx_campay_webhook_event_due", columnList = "state, next_attempt_at"),
+        @Index(name = "idx_campay_webhook_event_order", columnList = "order_key, id"),
+    }
+)
+public class CampayWebhookEvent implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sequenceGenerator")
+    @SequenceGenerator(name = "sequenceGenerator")
+    @Column(name = "id")
+    private Long id;
+
+    @NotNull
+    @Column(name = "dedupe_key", nullable = false, length = 64)
+    private String dedupeKey;
+
+    @NotNull
+    @Column(name = "order_key", nullable = false)
+    private String orderKey;
+
+    @Column(name = "reference")
+    private String reference;
+
+    @Column(name = "external_reference")
+    private String externalReference;
+
+    @Column(name = "status", length = 32)
+    private String status;
+
+    @Column(name = "payload", columnDefinition = "text")
+    private String payload;
+
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    @Column(name = "state", nullable = false, length = 16)
+    private CampayWebhookEventState state;
+
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    @NotNull
+    @Column(name = "received_at", nullable = false)
+    private Instant receivedAt;
+
+    @NotNull
+    @Column(name = "next_attempt_at", nullable = false)
+    private Instant nextAttemptAt;
+
+    @Column(name = "processed_at")
+    private Instant processedAt;
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+
+    public Long getId() {
+        return id;
+    }
+
+    public CampayWebhookEvent id(Long id) {
+        this.setId(id);
+        return this;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getDedupeKey() {
+        return dedupeKey;
+    }
+
+    public CampayWebhookEvent dedupeKey(String dedupeKey) {
+        this.setDedupeKey(dedupeKey);
+        return this;
+    }
+
+    public void setDedupeKey(String dedupeKey) {
+        this.dedupeKey = dedupeKey;
+    }
+
+    public String getOrderKey() {
+        return orderKey;
+    }
+
+    public CampayWebhookEvent orderKey(String orderKey) {
+        this.setOrderKey(orderKey);
+        return this;
+    }
+
+    public void setOrderKey(String orderKey) {
+        this.orderKey = orderKey;
+    }
+
+    public String getReference() {
+        return reference;
+    }
+
+    public CampayWebhookEvent reference(String reference) {
+        this.setReference(reference);
+        return this;
+    }
+
+    public void setReference(String reference) {
+        this.reference = reference;
+    }
+
+    public String getExternalReference() {
+        return externalReference;
+    }
+
+    public CampayWebhookEvent externalReference(String externalReference) {
+        this.setExternalReference(externalReference);
+        return this;
+    }
+
+    public void setExternalReference(String externalReference) {
+        this.externalReference = externalReference;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public CampayWebhookEvent status(String status) {
+        this.setStatus(status);
+        return this;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public String getPayload() {
+        return payload;
+    }
+
+    public CampayWebhookEvent payload(String payload) {
+        this.setPayload(payload);
+        return this;
+    }
+
+    public void setPayload(String payload) {
+        this.payload = payload;
+    }
+
+    public CampayWebhookEventState getState() {
+        return state;
+    }
+
+    public CampayWebhookEvent state(CampayWebhookEventState state) {
+        this.setState(state);
+        return this;
+    }
+
+    public void setState(CampayWebhookEventState state) {
+        this.state = state;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public void setAttempts(int attempts) {
+        this.attempts = attempts;
+    }
+
+    public Instant getReceivedAt() {
+        return receivedAt;
+    }
+
+    public CampayWebhookEvent receivedAt(Instant receivedAt) {
+        this.setReceivedAt(receivedAt);
+        return this;
+    }
+
+    public void setReceivedAt(Instant receivedAt) {
+        this.receivedAt = receivedAt;
+    }
+
+    public Instant getNextAttemptAt() {
+        return nextAttemptAt;
+    }
+
+    public CampayWebhookEvent nextAttemptAt(Instant nextAttemptAt) {
+        this.setNextAttemptAt(nextAttemptAt);
+        return this;
+    }
+
+    public void setNextAttemptAt(Instant nextAttemptAt) {
+        this.nextAttemptAt = nextAttemptAt;
+    }
+
+    public Instant getProcessedAt() {
+        return processedAt;
+    }
+
+    public void setProcessedAt(Instant processedAt) {
+        this.processedAt = processedAt;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    public void setLastError(String lastError) {
+        this.lastError = lastError;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof CampayWebhookEvent)) {
+            return false;
+        }
+        return getId() != null && getId().equals(((CampayWebhookEvent) o).getId());
+    }
+
+    @Override
+    public int hashCode() {
+        // see https://vladmihalcea.com/how-to-implement-equals-and-hashcode-using-the-jpa-entity-identifier/
+        return getClass().hashCode();
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "CampayWebhookEvent{" +
+            "id=" + getId() +
+            ", orderKey='" + getOrderKey() + "'" +
+            ", reference='" + getReference() + "'" +
+            ", externalReference='" + getExternalReference() + "'" +
+            ", status='" + getStatus() + "'" +
+            ", state='" + getState() + "'" +
+            ", attempts=" + getAttempts() +
+            ", receivedAt='" + getReceivedAt() + "'" +
+            ", nextAttemptAt='" + getNextAttemptAt() + "'" +
+            "}";
+    }
+}
@@ -4,7 +4,13 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 
 @Entity
-@Table(name = "device_token")
+@Table(
+    name = "device_token",
+    indexes = {
+        @Index(name = "idx_device_token_user", columnList = "user_id"),
+        @Index(name = "idx_device_token_token", columnList = "token"),
+    }
+)
 public class DeviceToken extends AbstractAuditingEntity<Long> {
 
     @Id
@@ -0,0 +1,141 @@
+package com.binbash.mobigo.domain;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * Immutable snapshot of a ledger account: the sum of its POSTED entries up to and
+ * including {@code lastEntryId}. Written by the reconciliation job only below the
+ * account's oldest DRAFT line and below lines younger than the checkpoint grace period,
+ * so no entry covered by a checkpoint can still change status or still be uncommitted.
+ * Reconciliation and point-in-time balance queries start from the latest checkpoint
+ * instead of summing the whole history.
+ */
+@Entity
+@Table(
+    name = "ledger_balance_checkpoint",
+    indexes = @Index(name = "idx_ledger_checkpoint_account", columnList = "account_id, last_entry_id")
+)
+public class LedgerBalanceCheckpoint implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sequenceGenerator")
+    @SequenceGenerator(name = "sequenceGenerator")
+    @Column(name = "id")
+    private Long id;
+
+    @NotNull
+    @Column(name = "account_id", nullable = false)
+    private Long accountId;
+
+    @NotNull
+    @Column(name = "last_entry_id", nullable = false)
+    private Long lastEntryId;
+
+    @NotNull
+    @Column(name = "balance", nullable = false, precision = 19, scale = 0)
+    private BigDecimal balance;
+
+    @NotNull
+    @Column(name = "checkpoint_at", nullable = false)
+    private Instant checkpointAt;
+
+    public Long getId() {
+        return id;
+    }
+
+    public LedgerBalanceCheckpoint id(Long id) {
+        this.setId(id);
+        return this;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getAccountId() {
+        return accountId;
+    }
+
+    public LedgerBalanceCheckpoint accountId(Long accountId) {
+        this.setAccountId(accountId);
+        return this;
+    }
+
+    public void setAccountId(Long accountId) {
+        this.accountId = accountId;
+    }
+
+    public Long getLastEntryId() {
+        return lastEntryId;
+    }
+
+    public LedgerBalanceCheckpoint lastEntryId(Long lastEntryId) {
+        this.setLastEntryId(lastEntryId);
+        return this;
+    }
+
+    public void setLastEntryId(Long lastEntryId) {
+        this.lastEntryId = lastEntryId;
+    }
+
+    public BigDecimal getBalance() {
+        return balance;
+    }
+
+    public LedgerBalanceCheckpoint balance(BigDecimal balance) {
+        this.setBalance(balance);
+        return this;
+    }
+
+    public void setBalance(BigDecimal balance) {
+        this.balance = balance;
+    }
+
+    public Instant getCheckpointAt() {
+        return checkpointAt;
+    }
+
+    public LedgerBalanceCheckpoint checkpointAt(Instant checkpointAt) {
+        this.setCheckpointAt(checkpointAt);
+        return this;
+    }
+
+    public void setCheckpointAt(Instant checkpointAt) {
+        this.checkpointAt = checkpointAt;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof LedgerBalanceCheckpoint)) {
+            return false;
+        }
+        return getId() != null && getId().equals(((LedgerBalanceCheckpoint) o).getId());
+    }
+
+    @Override
+    public int hashCode() {
+        // see https://vladmihalcea.com/how-to-implement-equals-and-hashcode-using-the-jpa-entity-identifier/
+        return getClass().hashCode();
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "LedgerBalanceCheckpoint{" +
+            "id=" + getId() +
+            ", accountId=" + getAccountId() +
+            ", lastEntryId=" + getLastEntryId() +
+            ", balance=" + getBalance() +
+            ", checkpointAt='" + getCheckpointAt() + "'" +
+            "}";
+    }
+}
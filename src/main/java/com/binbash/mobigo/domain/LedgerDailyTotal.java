@@ -0,0 +1,202 @@
+package com.binbash.mobigo.domain;
+
+import com.binbash.mobigo.domain.enumeration.LedgerAccountType;
+import com.binbash.mobigo.domain.enumeration.LedgerTransactionType;
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Pre-aggregated POSTED ledger lines: Σ credits, Σ debits and line count per posting day,
+ * account type and transaction type. Incremented by {@code WalletService} in the same
+ * database transaction that posts the lines. Each (day, account type, transaction type)
+ * is split over a few {@code slot} rows so concurrent postings to the same bucket
+ * (e.g. every settlement credits PLATFORM) do not serialize on one row; readers sum
+ * the slots.
+ */
+@Entity
+@Table(
+    name = "ledger_daily_total",
+    uniqueConstraints = @UniqueConstraint(
+        name = "ux_ledger_daily_total_bucket",
+        columnNames = { "total_date", "account_type", "transaction_type", "slot" }
+    )
+)
+public class LedgerDailyTotal implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sequenceGenerator")
+    @SequenceGenerator(name = "sequenceGenerator")
+    @Column(name = "id")
+    private Long id;
+
+    @NotNull
+    @Column(name = "total_date", nullable = false)
+    private LocalDate totalDate;
+
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    @Column(name = "account_type", nullable = false)
+    private LedgerAccountType accountType;
+
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    @Column(name = "transaction_type", nullable = false)
+    private LedgerTransactionType transactionType;
+
+    @NotNull
+    @Column(name = "slot", nullable = false)
+    private Integer slot;
+
+    @NotNull
+    @Column(name = "credit_total", nullable = false, precision = 19, scale = 0)
+    private BigDecimal creditTotal;
+
+    @NotNull
+    @Column(name = "debit_total", nullable = false, precision = 19, scale = 0)
+    private BigDecimal debitTotal;
+
+    @NotNull
+    @Column(name = "line_count", nullable = false)
+    private Long lineCount;
+
+    public Long getId() {
+        return id;
+    }
+
+    public LedgerDailyTotal id(Long id) {
+        this.setId(id);
+        return this;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public LocalDate getTotalDate() {
+        return totalDate;
+    }
+
+    public LedgerDailyTotal totalDate(LocalDate totalDate) {
+        this.setTotalDate(totalDate);
+        return this;
+    }
+
+    public void setTotalDate(LocalDate totalDate) {
+        this.totalDate = totalDate;
+    }
+
+    public LedgerAccountType getAccountType() {
+        return accountType;
+    }
+
+    public LedgerDailyTotal accountType(LedgerAccountType accountType) {
+        this.setAccountType(accountType);
+        return this;
+    }
+
+    public void setAccountType(LedgerAccountType accountType) {
+        this.accountType = accountType;
+    }
+
+    public LedgerTransactionType getTransactionType() {
+        return transactionType;
+    }
+
+    public LedgerDailyTotal transactionType(LedgerTransactionType transactionType) {
+        this.setTransactionType(transactionType);
+        return this;
+    }
+
+    public void setTransactionType(LedgerTransactionType transactionType) {
+        this.transactionType = transactionType;
+    }
+
+    public Integer getSlot() {
+        return slot;
+    }
+
+    public LedgerDailyTotal slot(Integer slot) {
+        this.setSlot(slot);
+        return this;
+    }
+
+    public void setSlot(Integer slot) {
+        this.slot = slot;
+    }
+
+    public BigDecimal getCreditTotal() {
+        return creditTotal;
+    }
+
+    public LedgerDailyTotal creditTotal(BigDecimal creditTotal) {
+        this.setCreditTotal(creditTotal);
+        return this;
+    }
+
+    public void setCreditTotal(BigDecimal creditTotal) {
+        this.creditTotal = creditTotal;
+    }
+
+    public BigDecimal getDebitTotal() {
+        return debitTotal;
+    }
+
+    public LedgerDailyTotal debitTotal(BigDecimal debitTotal) {
+        this.setDebitTotal(debitTotal);
+        return this;
+    }
+
+    public void setDebitTotal(BigDecimal debitTotal) {
+        this.debitTotal = debitTotal;
+    }
+
+    public Long getLineCount() {
+        return lineCount;
+    }
+
+    public LedgerDailyTotal lineCount(Long lineCount) {
+        this.setLineCount(lineCount);
+        return this;
+    }
+
+    public void setLineCount(Long lineCount) {
+        this.lineCount = lineCount;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof LedgerDailyTotal)) {
+            return false;
+        }
+        return getId() != null && getId().equals(((LedgerDailyTotal) o).getId());
+    }
+
+    @Override
+    public int hashCode() {
+        // see https://vladmihalcea.com/how-to-implement-equals-and-hashcode-using-the-jpa-entity-identifier/
+        return getClass().hashCode();
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "LedgerDailyTotal{" +
+            "id=" + getId() +
+            ", totalDate='" + getTotalDate() + "'" +
+            ", accountType='" + getAccountType() + "'" +
+            ", transactionType='" + getTransactionType() + "'" +
+            ", slot=" + getSlot() +
+            ", creditTotal=" + getCreditTotal() +
+            ", debitTotal=" + getDebitTotal() +
+            ", lineCount=" + getLineCount() +
+            "}";
+    }
+}
@@ -5,21 +5,44 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import java.io.Serializable;
 import java.math.BigDecimal;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.OptimizableGenerator;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
 
 /**
  * Immutable debit/credit line of a {@link LedgerTransaction}. Deliberately does
  * NOT extend AbstractAuditingEntity: entries are created atomically with their
  * owning transaction (cascade), whose audit timestamps cover them.
+ * <p>
+ * Ids come from the shared sequence but without the pooled optimizer: each insert takes
+ * its own {@code nextval}, so ids follow insertion time across nodes. Balance checkpoints
+ * rely on it (see {@code LedgerReconciliationService}); a pooled block would let a node
+ * insert, hours later, an id below an existing checkpoint.
  */
 @Entity
-@Table(name = "ledger_entry")
+@Table(
+    name = "ledger_entry",
+    indexes = {
+        @Index(name = "idx_ledger_entry_account_id", columnList = "account_id, id"),
+        @Index(name = "idx_ledger_entry_transaction", columnList = "transaction_id"),
+    }
+)
 public class LedgerEntry implements Serializable {
 
     private static final long serialVersionUID = 1L;
 
     @Id
-    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sequenceGenerator")
-    @SequenceGenerator(name = "sequenceGenerator")
+    @GeneratedValue(generator = "ledgerEntrySequenceGenerator")
+    @GenericGenerator(
+        name = "ledgerEntrySequenceGenerator",
+        type = SequenceStyleGenerator.class,
+        parameters = {
+            @Parameter(name = SequenceStyleGenerator.SEQUENCE_PARAM, value = "sequence_generator"),
+            @Parameter(name = OptimizableGenerator.INCREMENT_PARAM, value = "50"),
+            @Parameter(name = OptimizableGenerator.OPT_PARAM, value = "none"),
+        }
+    )
     @Column(name = "id")
     private Long id;
 
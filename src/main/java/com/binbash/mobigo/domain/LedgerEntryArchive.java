@@ -0,0 +1,92 @@
+package com.binbash.mobigo.domain;
+
+import com.binbash.mobigo.domain.enumeration.LedgerDirection;
+import jakarta.persistence.*;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import org.hibernate.annotations.Immutable;
+
+/**
+ * Cold copy of a {@link LedgerEntry} whose transaction was moved to
+ * {@link LedgerTransactionArchive}. Transaction and account are plain ids: archived
+ * lines are only read through native statement/balance queries.
+ */
+@Entity
+@Immutable
+@Table(
+    name = "ledger_entry_archive",
+    indexes = {
+        @Index(name = "idx_ledger_entry_archive_account_id", columnList = "account_id, id"),
+        @Index(name = "idx_ledger_entry_archive_transaction", columnList = "transaction_id"),
+    }
+)
+public class LedgerEntryArchive implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @Column(name = "id")
+    private Long id;
+
+    @Column(name = "transaction_id", nullable = false)
+    private Long transactionId;
+
+    @Column(name = "account_id", nullable = false)
+    private Long accountId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "direction", nullable = false)
+    private LedgerDirection direction;
+
+    @Column(name = "amount", nullable = false, precision = 19, scale = 0)
+    private BigDecimal amount;
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getTransactionId() {
+        return transactionId;
+    }
+
+    public Long getAccountId() {
+        return accountId;
+    }
+
+    public LedgerDirection getDirection() {
+        return direction;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof LedgerEntryArchive)) {
+            return false;
+        }
+        return getId() != null && getId().equals(((LedgerEntryArchive) o).getId());
+    }
+
+    @Override
+    public int hashCode() {
+        // see https://vladmihalcea.com/how-to-implement-equals-and-hashcode-using-the-jpa-entity-identifier/
+        return getClass().hashCode();
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "LedgerEntryArchive{" +
+            "id=" + getId() +
+            ", transactionId=" + getTransactionId() +
+            ", accountId=" + getAccountId() +
+            ", direction='" + getDirection() + "'" +
+            ", amount=" + getAmount() +
+            "}";
+    }
+}
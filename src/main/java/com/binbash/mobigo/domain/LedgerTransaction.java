@@ -14,7 +14,8 @@ import java.util.List;
     uniqueConstraints = {
         @UniqueConstraint(name = "ux_ledger_tx_idem", columnNames = "idempotency_key"),
         @UniqueConstraint(name = "ux_ledger_tx_extref", columnNames = "external_reference"),
-    }
+    },
+    indexes = @Index(name = "idx_ledger_tx_status_created", columnList = "status, created_date")
 )
 public class LedgerTransaction extends AbstractAuditingEntity<Long> implements Serializable {
 
@@ -0,0 +1,151 @@
+package com.binbash.mobigo.domain;
+
+import com.binbash.mobigo.domain.enumeration.LedgerTransactionStatus;
+import com.binbash.mobigo.domain.enumeration.LedgerTransactionType;
+import jakarta.persistence.*;
+import java.io.Serializable;
+import java.time.Instant;
+import org.hibernate.annotations.Immutable;
+
+/**
+ * Cold copy of a settled (POSTED or VOID) {@link LedgerTransaction} moved out of the hot
+ * table by the archive job once every line is covered by its account's latest balance
+ * checkpoint. Rows keep their original id and are only ever written by
+ * {@code LedgerTransactionArchiveRepository#copyTransactions} (INSERT ... SELECT).
+ */
+@Entity
+@Immutable
+@Table(
+    name = "ledger_transaction_archive",
+    uniqueConstraints = @UniqueConstraint(name = "ux_ledger_tx_archive_idem", columnNames = "idempotency_key"),
+    indexes = @Index(name = "idx_ledger_tx_archive_extref", columnList = "external_reference")
+)
+public class LedgerTransactionArchive implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @Column(name = "id")
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "type", nullable = false)
+    private LedgerTransactionType type;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false)
+    private LedgerTransactionStatus status;
+
+    @Column(name = "booking_id")
+    private Long bookingId;
+
+    @Column(name = "idempotency_key", length = 80)
+    private String idempotencyKey;
+
+    @Column(name = "external_reference", length = 80)
+    private String externalReference;
+
+    @Column(name = "campay_reference", length = 120)
+    private String campayReference;
+
+    @Column(name = "description", length = 240)
+    private String description;
+
+    @Column(name = "created_by", length = 50)
+    private String createdBy;
+
+    @Column(name = "created_date")
+    private Instant createdDate;
+
+    @Column(name = "last_modified_by", length = 50)
+    private String lastModifiedBy;
+
+    @Column(name = "last_modified_date")
+    private Instant lastModifiedDate;
+
+    @Column(name = "archived_at", nullable = false)
+    private Instant archivedAt;
+
+    public Long getId() {
+        return id;
+    }
+
+    public LedgerTransactionType getType() {
+        return type;
+    }
+
+    public LedgerTransactionStatus getStatus() {
+        return status;
+    }
+
+    public Long getBookingId() {
+        return bookingId;
+    }
+
+    public String getIdempotencyKey() {
+        return idempotencyKey;
+    }
+
+    public String getExternalReference() {
+        return externalReference;
+    }
+
+    public String getCampayReference() {
+        return campayReference;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public String getCreatedBy() {
+        return createdBy;
+    }
+
+    public Instant getCreatedDate() {
+        return createdDate;
+    }
+
+    public String getLastModifiedBy() {
+        return lastModifiedBy;
+    }
+
+    public Instant getLastModifiedDate() {
+        return lastModifiedDate;
+    }
+
+    public Instant getArchivedAt() {
+        return archivedAt;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof LedgerTransactionArchive)) {
+            return false;
+        }
+        return getId() != null && getId().equals(((LedgerTransactionArchive) o).getId());
+    }
+
+    @Override
+    public int hashCode() {
+        // see https://vladmihalcea.com/how-to-implement-equals-and-hashcode-using-the-jpa-entity-identifier/
+        return getClass().hashCode();
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "LedgerTransactionArchive{" +
+            "id=" + getId() +
+            ", type='" + getType() + "'" +
+            ", status='" + getStatus() + "'" +
+            ", bookingId=" + getBookingId() +
+            ", externalReference='" + getExternalReference() + "'" +
+            ", idempotencyKey='" + getIdempotencyKey() + "'" +
+            ", archivedAt='" + getArchivedAt() + "'" +
+            "}";
+    }
+}
@@ -9,7 +9,14 @@ import java.io.Serializable;
  * A Notification.
  */
 @Entity
-@Table(name = "notification")
+@Table(
+    name = "notification",
+    indexes = {
+        @Index(name = "idx_notification_user_read_created", columnList = "user_id, is_read, created_date"),
+        @Index(name = "idx_notification_created", columnList = "created_date"),
+        @Index(name = "idx_notification_user_created", columnList = "user_id, created_date, id"),
+    }
+)
 @SuppressWarnings("common-java:DuplicatedBlocks")
 public class Notification extends AbstractAuditingEntity<Long> implements Serializable {
 
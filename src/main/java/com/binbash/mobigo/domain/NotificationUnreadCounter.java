@@ -0,0 +1,77 @@
+package com.binbash.mobigo.domain;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import java.io.Serializable;
+
+/**
+ * Number of unread notifications of a user, maintained incrementally by
+ * {@code NotificationUnreadCountService} in the transactions that create, read or delete
+ * notifications, so the app badge never has to count the notification table.
+ */
+@Entity
+@Table(name = "notification_unread_counter")
+public class NotificationUnreadCounter implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @NotNull
+    @Column(name = "unread_count", nullable = false)
+    private Long unreadCount;
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public NotificationUnreadCounter userId(Long userId) {
+        this.setUserId(userId);
+        return this;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public Long getUnreadCount() {
+        return unreadCount;
+    }
+
+    public NotificationUnreadCounter unreadCount(Long unreadCount) {
+        this.setUnreadCount(unreadCount);
+        return this;
+    }
+
+    public void setUnreadCount(Long unreadCount) {
+        this.unreadCount = unreadCount;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof NotificationUnreadCounter)) {
+            return false;
+        }
+        return getUserId() != null && getUserId().equals(((NotificationUnreadCounter) o).getUserId());
+    }
+
+    @Override
+    public int hashCode() {
+        // see https://vladmihalcea.com/how-to-implement-equals-and-hashcode-using-the-jpa-entity-identifier/
+        return getClass().hashCode();
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "NotificationUnreadCounter{" +
+            "userId=" + getUserId() +
+            ", unreadCount=" + getUnreadCount() +
+            "}";
+    }
+}
@@ -12,7 +12,7 @@ import java.time.LocalDate;
  * A Payment.
  */
 @Entity
-@Table(name = "payment")
+@Table(name = "payment", indexes = { @Index(name = "idx_payment_statut_date", columnList = "statut, date_paiement") })
 @org.springframework.data.elasticsearch.annotations.Document(indexName = "payment")
 @SuppressWarnings("common-java:DuplicatedBlocks")
 public class Payment extends AbstractAuditingEntity<Long> implements Serializable {
@@ -0,0 +1,171 @@
+package com.binbash.mobigo.domain;
+
+import com.binbash.mobigo.domain.enumeration.PayoutRunStatus;
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import java.io.Serializable;
+import java.time.Instant;
+
+/**
+ * One sweep of the scheduled driver payouts. {@code lastAccountId} is the checkpoint:
+ * every DRIVER account with an id up to it has been handled, so a run interrupted by a
+ * crash or a redeploy resumes after it instead of starting over.
+ */
+@Entity
+@Table(name = "payout_run", indexes = @Index(name = "idx_payout_run_status", columnList = "status, id"))
+public class PayoutRun implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sequenceGenerator")
+    @SequenceGenerator(name = "sequenceGenerator")
+    @Column(name = "id")
+    private Long id;
+
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 16)
+    private PayoutRunStatus status;
+
+    @NotNull
+    @Column(name = "started_at", nullable = false)
+    private Instant startedAt;
+
+    @Column(name = "finished_at")
+    private Instant finishedAt;
+
+    @NotNull
+    @Column(name = "last_account_id", nullable = false)
+    private Long lastAccountId = 0L;
+
+    @Column(name = "initiated_count", nullable = false)
+    private int initiatedCount;
+
+    @Column(name = "failed_count", nullable = false)
+    private int failedCount;
+
+    @Column(name = "skipped_count", nullable = false)
+    private int skippedCount;
+
+    public Long getId() {
+        return id;
+    }
+
+    public PayoutRun id(Long id) {
+        this.setId(id);
+        return this;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public PayoutRunStatus getStatus() {
+        return status;
+    }
+
+    public PayoutRun status(PayoutRunStatus status) {
+        this.setStatus(status);
+        return this;
+    }
+
+    public void setStatus(PayoutRunStatus status) {
+        this.status = status;
+    }
+
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+
+    public PayoutRun startedAt(Instant startedAt) {
+        this.setStartedAt(startedAt);
+        return this;
+    }
+
+    public void setStartedAt(Instant startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    public Instant getFinishedAt() {
+        return finishedAt;
+    }
+
+    public PayoutRun finishedAt(Instant finishedAt) {
+        this.setFinishedAt(finishedAt);
+        return this;
+    }
+
+    public void setFinishedAt(Instant finishedAt) {
+        this.finishedAt = finishedAt;
+    }
+
+    public Long getLastAccountId() {
+        return lastAccountId;
+    }
+
+    public PayoutRun lastAccountId(Long lastAccountId) {
+        this.setLastAccountId(lastAccountId);
+        return this;
+    }
+
+    public void setLastAccountId(Long lastAccountId) {
+        this.lastAccountId = lastAccountId;
+    }
+
+    public int getInitiatedCount() {
+        return initiatedCount;
+    }
+
+    public void setInitiatedCount(int initiatedCount) {
+        this.initiatedCount = initiatedCount;
+    }
+
+    public int getFailedCount() {
+        return failedCount;
+    }
+
+    public void setFailedCount(int failedCount) {
+        this.failedCount = failedCount;
+    }
+
+    public int getSkippedCount() {
+        return skippedCount;
+    }
+
+    public void setSkippedCount(int skippedCount) {
+        this.skippedCount = skippedCount;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof PayoutRun)) {
+            return false;
+        }
+        return getId() != null && getId().equals(((PayoutRun) o).getId());
+    }
+
+    @Override
+    public int hashCode() {
+        // see https://vladmihalcea.com/how-to-implement-equals-and-hashcode-using-the-jpa-entity-identifier/
+        return getClass().hashCode();
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "PayoutRun{" +
+            "id=" + getId() +
+            ", status='" + getStatus() + "'" +
+            ", startedAt='" + getStartedAt() + "'" +
+            ", finishedAt='" + getFinishedAt() + "'" +
+            ", lastAccountId=" + getLastAccountId() +
+            ", initiatedCount=" + getInitiatedCount() +
+            ", failedCount=" + getFailedCount() +
+            ", skippedCount=" + getSkippedCount() +
+            "}";
+    }
+}
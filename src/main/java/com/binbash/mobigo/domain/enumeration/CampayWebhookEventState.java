@@ -0,0 +1,10 @@
+package com.binbash.mobigo.domain.enumeration;
+
+/**
+ * The CampayWebhookEventState enumeration.
+ */
+public enum CampayWebhookEventState {
+    PENDING,
+    PROCESSED,
+    DEAD,
+}
@@ -0,0 +1,9 @@
+package com.binbash.mobigo.domain.enumeration;
+
+/**
+ * The PayoutRunStatus enumeration.
+ */
+public enum PayoutRunStatus {
+    RUNNING,
+    COMPLETED,
+}
@@ -2,6 +2,7 @@ package com.binbash.mobigo.repository;
 
 import com.binbash.mobigo.domain.Booking;
 import com.binbash.mobigo.domain.enumeration.BookingStatusEnum;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import org.springframework.data.domain.Page;
@@ -46,6 +47,15 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
     )
     List<Booking> findByTrajetIdWithRelations(@Param("rideId") Long rideId);
 
+    @Query(
+        "SELECT b FROM Booking b " +
+        "JOIN FETCH b.passager p " +
+        "LEFT JOIN FETCH p.user " +
+        "JOIN FETCH b.trajet r " +
+        "WHERE b.id IN :ids"
+    )
+    List<Booking> findAllByIdWithRelations(@Param("ids") Collection<Long> ids);
+
     @Query("SELECT b FROM Booking b JOIN b.trajet r WHERE r.createdBy = :login")
     List<Booking> findByTrajetCreatedBy(@Param("login") String login);
 
@@ -0,0 +1,39 @@
+package com.binbash.mobigo.repository;
+
+import com.binbash.mobigo.domain.CampayWebhookEvent;
+import com.binbash.mobigo.domain.enumeration.CampayWebhookEventState;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface CampayWebhookEventRepository extends JpaRepository<CampayWebhookEvent, Long> {
+    boolean existsByDedupeKey(String dedupeKey);
+
+    /**
+     * Ids of due PENDING events that are the oldest PENDING event of their order key (so at
+     * most one event per reference is ever in flight), locked with SKIP LOCKED so several
+     * nodes can drain the queue concurrently. Must run in a transaction.
+     */
+    @Query(
+        value = "select e.id from campay_webhook_event e " +
+        "where e.state = 'PENDING' and e.next_attempt_at <= :now " +
+        "and not exists (select 1 from campay_webhook_event o where o.order_key = e.order_key and o.state = 'PENDING' and o.id < e.id) " +
+        "order by e.id limit :limit for update of e skip locked",
+        nativeQuery = true
+    )
+    List<Long> lockDueIds(@Param("now") Instant now, @Param("limit") int limit);
+
+    /** Leases claimed events: they are not due again until {@code until} unless processed first. */
+    @Modifying
+    @Query("update CampayWebhookEvent e set e.nextAttemptAt = :until where e.id in :ids")
+    int leaseUntil(@Param("ids") Collection<Long> ids, @Param("until") Instant until);
+
+    List<CampayWebhookEvent> findByStateOrderByIdDesc(CampayWebhookEventState state, Pageable pageable);
+}
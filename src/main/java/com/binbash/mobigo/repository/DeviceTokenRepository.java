@@ -1,14 +1,26 @@
 package com.binbash.mobigo.repository;
 
 import com.binbash.mobigo.domain.DeviceToken;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 @Repository
 public interface DeviceTokenRepository extends JpaRepository<DeviceToken, Long> {
     List<DeviceToken> findByUserId(Long userId);
+    List<DeviceToken> findByUserIdIn(Collection<Long> userIds);
     Optional<DeviceToken> findByToken(String token);
     void deleteByToken(String token);
+
+    /** Bulk delete of the dead tokens reported by FCM. */
+    @Modifying
+    @Transactional
+    @Query("delete from DeviceToken d where d.token in :tokens")
+    int deleteByTokenIn(@Param("tokens") Collection<String> tokens);
 }
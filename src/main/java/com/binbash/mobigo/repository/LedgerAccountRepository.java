@@ -6,6 +6,7 @@ import jakarta.persistence.LockModeType;
 import java.math.BigDecimal;
 import java.util.List;
 import java.util.Optional;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
@@ -20,5 +21,42 @@ public interface LedgerAccountRepository extends JpaRepository<LedgerAccount, Lo
     @Query("select a from LedgerAccount a where a.accountKey = :key")
     Optional<LedgerAccount> lockByAccountKey(@Param("key") String key);
 
-    List<LedgerAccount> findByAccountTypeAndBalanceGreaterThanEqual(LedgerAccountType accountType, BigDecimal balance);
+    /** Driver eligible for a scheduled payout, with its phone and available balance (posted − DRAFT debits). */
+    interface PayoutCandidate {
+        Long getAccountId();
+
+        String getAccountKey();
+
+        Long getOwnerPeopleId();
+
+        String getTelephone();
+
+        BigDecimal getAvailable();
+    }
+
+    /**
+     * One keyset page of payout candidates (accounts with id &gt; {@code afterId}, by id),
+     * with the owner's phone and the available balance fetched in the same query.
+     */
+    @Query(
+        "select a.id as accountId, a.accountKey as accountKey, a.ownerPeopleId as ownerPeopleId, p.telephone as telephone, " +
+        "a.balance - coalesce((select sum(e.amount) from LedgerEntry e where e.account = a " +
+        "and e.direction = com.binbash.mobigo.domain.enumeration.LedgerDirection.DEBIT " +
+        "and e.transaction.status = com.binbash.mobigo.domain.enumeration.LedgerTransactionStatus.DRAFT), 0) as available " +
+        "from LedgerAccount a left join People p on p.id = a.ownerPeopleId " +
+        "where a.accountType = :type and a.balance >= :min and a.id > :afterId order by a.id"
+    )
+    List<PayoutCandidate> findPayoutCandidates(
+        @Param("type") LedgerAccountType type,
+        @Param("min") BigDecimal min,
+        @Param("afterId") Long afterId,
+        Pageable pageable
+    );
+
+    @Query("select a.id from LedgerAccount a order by a.id")
+    List<Long> findAllIds();
+
+    /** Logical balance of a sharded system account type: the sum of every shard row. */
+    @Query("select coalesce(sum(a.balance), 0) from LedgerAccount a where a.accountType = :type")
+    BigDecimal sumBalanceByAccountType(@Param("type") LedgerAccountType type);
 }
@@ -0,0 +1,14 @@
+package com.binbash.mobigo.repository;
+
+import com.binbash.mobigo.domain.LedgerBalanceCheckpoint;
+import java.time.Instant;
+import java.util.Optional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface LedgerBalanceCheckpointRepository extends JpaRepository<LedgerBalanceCheckpoint, Long> {
+    Optional<LedgerBalanceCheckpoint> findFirstByAccountIdOrderByLastEntryIdDesc(Long accountId);
+
+    Optional<LedgerBalanceCheckpoint> findFirstByAccountIdAndCheckpointAtLessThanEqualOrderByLastEntryIdDesc(Long accountId, Instant at);
+}
@@ -0,0 +1,72 @@
+package com.binbash.mobigo.repository;
+
+import com.binbash.mobigo.domain.LedgerDailyTotal;
+import com.binbash.mobigo.domain.enumeration.LedgerAccountType;
+import com.binbash.mobigo.domain.enumeration.LedgerTransactionType;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface LedgerDailyTotalRepository extends JpaRepository<LedgerDailyTotal, Long> {
+    /** Totals of one bucket, all slots summed. {@code getDay()} is null for the range totals. */
+    interface BucketTotal {
+        LocalDate getDay();
+
+        LedgerAccountType getAccountType();
+
+        LedgerTransactionType getTransactionType();
+
+        BigDecimal getCredits();
+
+        BigDecimal getDebits();
+
+        Long getLines();
+    }
+
+    /**
+     * Adds POSTED lines to a (day, account type, transaction type, slot) bucket, creating it
+     * on first use. Single-statement upsert, so concurrent first postings of the day cannot
+     * fail on the unique key. Must run in the transaction that posts the lines.
+     */
+    @Modifying
+    @Query(
+        value = "insert into ledger_daily_total " +
+        "(id, total_date, account_type, transaction_type, slot, credit_total, debit_total, line_count) " +
+        "values (nextval('sequence_generator'), :day, :accountType, :transactionType, :slot, :credits, :debits, :lines) " +
+        "on conflict (total_date, account_type, transaction_type, slot) do update set " +
+        "credit_total = ledger_daily_total.credit_total + excluded.credit_total, " +
+        "debit_total = ledger_daily_total.debit_total + excluded.debit_total, " +
+        "line_count = ledger_daily_total.line_count + excluded.line_count",
+        nativeQuery = true
+    )
+    int addToBucket(
+        @Param("day") LocalDate day,
+        @Param("accountType") String accountType,
+        @Param("transactionType") String transactionType,
+        @Param("slot") int slot,
+        @Param("credits") BigDecimal credits,
+        @Param("debits") BigDecimal debits,
+        @Param("lines") long lines
+    );
+
+    @Query(
+        "select d.totalDate as day, d.accountType as accountType, d.transactionType as transactionType, " +
+        "sum(d.creditTotal) as credits, sum(d.debitTotal) as debits, sum(d.lineCount) as lines " +
+        "from LedgerDailyTotal d where d.totalDate between :from and :to " +
+        "group by d.totalDate, d.accountType, d.transactionType order by d.totalDate, d.accountType, d.transactionType"
+    )
+    List<BucketTotal> findDailyTotals(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Query(
+        "select d.accountType as accountType, d.transactionType as transactionType, " +
+        "sum(d.creditTotal) as credits, sum(d.debitTotal) as debits, sum(d.lineCount) as lines " +
+        "from LedgerDailyTotal d group by d.accountType, d.transactionType"
+    )
+    List<BucketTotal> findAllTimeTotals();
+}
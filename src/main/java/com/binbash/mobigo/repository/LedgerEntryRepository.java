@@ -3,15 +3,44 @@ package com.binbash.mobigo.repository;
 import com.binbash.mobigo.domain.LedgerEntry;
 import com.binbash.mobigo.domain.enumeration.LedgerDirection;
 import com.binbash.mobigo.domain.enumeration.LedgerTransactionStatus;
+import jakarta.persistence.QueryHint;
 import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public interface LedgerEntryRepository extends JpaRepository<LedgerEntry, Long> {
+    /**
+     * POSTED lines of {@code :accountId} from the hot tables and from the archive (see
+     * {@code LedgerArchiveService}), as one derived table {@code l}. Both branches are served
+     * by their (account_id, id) index, so keyset predicates on {@code l.id} are pushed down.
+     */
+    String POSTED_LINES =
+        "(select e.id, e.transaction_id, e.direction, e.amount, t.type, t.description, t.created_date, t.last_modified_date " +
+        "from ledger_entry e join ledger_transaction t on t.id = e.transaction_id " +
+        "where e.account_id = :accountId and t.status = 'POSTED' " +
+        "union all " +
+        "select e.id, e.transaction_id, e.direction, e.amount, t.type, t.description, t.created_date, t.last_modified_date " +
+        "from ledger_entry_archive e join ledger_transaction_archive t on t.id = e.transaction_id " +
+        "where e.account_id = :accountId and t.status = 'POSTED') l";
+
+    /** Statement lines with their running balance; see {@link #findStatementPage}. */
+    String STATEMENT_SELECT =
+        "select l.id, l.transaction_id, l.type, l.description, l.created_date, l.direction, l.amount, " +
+        ":anchor - coalesce(sum(case when l.direction = 'CREDIT' then l.amount else -l.amount end) " +
+        "over (order by l.id desc rows between unbounded preceding and 1 preceding), 0) as balance_after " +
+        "from " +
+        POSTED_LINES;
+
     @Query(
         "select coalesce(sum(e.amount), 0) from LedgerEntry e " +
         "where e.account.accountKey = :key and e.direction = :dir and e.transaction.status = :status"
@@ -22,5 +51,93 @@ public interface LedgerEntryRepository extends JpaRepository<LedgerEntry, Long>
         @Param("status") LedgerTransactionStatus status
     );
 
-    List<LedgerEntry> findByAccount_AccountKeyOrderByIdDesc(String accountKey);
+    /**
+     * Σ(signed POSTED amounts) of the account's entries with {@code id >= fromId}. Used to
+     * anchor the running balance of a statement page below the newest entries already shown.
+     */
+    @Query(
+        value = "select coalesce(sum(case when l.direction = 'CREDIT' then l.amount else -l.amount end), 0) from " +
+        POSTED_LINES +
+        " where l.id >= :fromId",
+        nativeQuery = true
+    )
+    BigDecimal sumPostedDeltaFromId(@Param("accountId") Long accountId, @Param("fromId") Long fromId);
+
+    /**
+     * Σ(signed POSTED amounts) of the account's entries with {@code afterId < id <= upToId}.
+     * Hot table only: reconciliation always starts from the latest checkpoint, and only lines
+     * at or below it are ever archived.
+     */
+    @Query(
+        value = "select coalesce(sum(case when e.direction = 'CREDIT' then e.amount else -e.amount end), 0) " +
+        "from ledger_entry e join ledger_transaction t on t.id = e.transaction_id " +
+        "where e.account_id = :accountId and e.id > :afterId and e.id <= :upToId and t.status = 'POSTED'",
+        nativeQuery = true
+    )
+    BigDecimal sumPostedDeltaInRange(@Param("accountId") Long accountId, @Param("afterId") Long afterId, @Param("upToId") Long upToId);
+
+    /**
+     * Σ(signed amounts) of the account's entries after {@code afterId} whose transaction was
+     * POSTED at or before {@code at} (posting time = last modification of the transaction).
+     * Includes archived lines, since {@code at} may predate every remaining checkpoint.
+     */
+    @Query(
+        value = "select coalesce(sum(case when l.direction = 'CREDIT' then l.amount else -l.amount end), 0) from " +
+        POSTED_LINES +
+        " where l.id > :afterId and l.last_modified_date <= :at",
+        nativeQuery = true
+    )
+    BigDecimal sumPostedDeltaAfterIdPostedBy(@Param("accountId") Long accountId, @Param("afterId") Long afterId, @Param("at") Instant at);
+
+    @Query("select max(e.id) from LedgerEntry e where e.account.id = :accountId")
+    Long findMaxIdByAccountId(@Param("accountId") Long accountId);
+
+    /**
+     * Highest entry id above {@code afterId} of the account whose transaction was created before {@code cutoff}.
+     * Entry ids are taken from the sequence one by one at insert (see {@link com.binbash.mobigo.domain.LedgerEntry}),
+     * so once {@code cutoff} is older than any running transaction, every id up to this one is committed.
+     * The {@code afterId} bound keeps the scan on the (account_id, id) index range past the last checkpoint.
+     */
+    @Query(
+        "select max(e.id) from LedgerEntry e where e.account.id = :accountId and e.id > :afterId and e.transaction.createdDate < :cutoff"
+    )
+    Long findMaxIdByAccountIdAfterIdCreatedBefore(
+        @Param("accountId") Long accountId,
+        @Param("afterId") Long afterId,
+        @Param("cutoff") Instant cutoff
+    );
+
+    /** Lowest entry id above {@code afterId} of the account whose transaction has the given status. */
+    @Query("select min(e.id) from LedgerEntry e where e.account.id = :accountId and e.id > :afterId and e.transaction.status = :status")
+    Long findMinIdByAccountIdAfterIdAndStatus(
+        @Param("accountId") Long accountId,
+        @Param("afterId") Long afterId,
+        @Param("status") LedgerTransactionStatus status
+    );
+
+    /**
+     * One keyset page of the account statement (POSTED lines, newest first, {@code id < beforeId}).
+     * Columns: entry id, transaction id, type, description, created date, direction, amount,
+     * balance after the line. The running balance is derived in SQL from {@code :anchor} (the
+     * balance after the newest line of the page) by a window over the newer lines of the page,
+     * so PostgreSQL walks the (account_id, id) indexes backwards and stops at the limit.
+     * Archived lines are included (see {@link #POSTED_LINES}).
+     */
+    @Query(value = STATEMENT_SELECT + " where l.id < :beforeId order by l.id desc limit :size", nativeQuery = true)
+    List<Object[]> findStatementPage(
+        @Param("accountId") Long accountId,
+        @Param("anchor") BigDecimal anchor,
+        @Param("beforeId") Long beforeId,
+        @Param("size") int size
+    );
+
+    /** Whole statement, newest first, as a forward-only cursor (same columns as {@link #findStatementPage}). */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(value = STATEMENT_SELECT + " order by l.id desc", nativeQuery = true)
+    Stream<Object[]> streamStatement(@Param("accountId") Long accountId, @Param("anchor") BigDecimal anchor);
+
+    /** Removes the lines of archived transactions from the hot table. */
+    @Modifying
+    @Query(value = "delete from ledger_entry where transaction_id in (:transactionIds)", nativeQuery = true)
+    int deleteByTransactionIds(@Param("transactionIds") Collection<Long> transactionIds);
 }
@@ -0,0 +1,37 @@
+package com.binbash.mobigo.repository;
+
+import com.binbash.mobigo.domain.LedgerTransactionArchive;
+import java.time.Instant;
+import java.util.Collection;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Cold ledger tables. Rows are copied set-based from the hot tables by
+ * {@code LedgerArchiveService}; both statements must run in the transaction that deletes
+ * the hot rows.
+ */
+@Repository
+public interface LedgerTransactionArchiveRepository extends JpaRepository<LedgerTransactionArchive, Long> {
+    @Modifying
+    @Query(
+        value = "insert into ledger_transaction_archive (id, type, status, booking_id, idempotency_key, external_reference, " +
+        "campay_reference, description, created_by, created_date, last_modified_by, last_modified_date, archived_at) " +
+        "select t.id, t.type, t.status, t.booking_id, t.idempotency_key, t.external_reference, t.campay_reference, " +
+        "t.description, t.created_by, t.created_date, t.last_modified_by, t.last_modified_date, :now " +
+        "from ledger_transaction t where t.id in (:ids)",
+        nativeQuery = true
+    )
+    int copyTransactions(@Param("ids") Collection<Long> ids, @Param("now") Instant now);
+
+    @Modifying
+    @Query(
+        value = "insert into ledger_entry_archive (id, transaction_id, account_id, direction, amount) " +
+        "select e.id, e.transaction_id, e.account_id, e.direction, e.amount from ledger_entry e where e.transaction_id in (:ids)",
+        nativeQuery = true
+    )
+    int copyEntries(@Param("ids") Collection<Long> ids);
+}
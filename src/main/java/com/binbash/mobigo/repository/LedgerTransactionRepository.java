@@ -1,11 +1,16 @@
 package com.binbash.mobigo.repository;
 
 import com.binbash.mobigo.domain.LedgerTransaction;
+import com.binbash.mobigo.domain.enumeration.LedgerTransactionType;
 import jakarta.persistence.LockModeType;
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -22,7 +27,86 @@ public interface LedgerTransactionRepository extends JpaRepository<LedgerTransac
     @Query("select t from LedgerTransaction t where t.idempotencyKey = :key")
     Optional<LedgerTransaction> lockByIdempotencyKey(@Param("key") String key);
 
+    /** Locks the settlements of several bookings at once, in id order so concurrent batches cannot deadlock. */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select t from LedgerTransaction t where t.idempotencyKey in :keys order by t.id")
+    List<LedgerTransaction> lockByIdempotencyKeyIn(@Param("keys") Collection<String> keys);
+
     @Lock(LockModeType.PESSIMISTIC_WRITE)
     @Query("select t from LedgerTransaction t where t.externalReference = :ref")
     Optional<LedgerTransaction> lockByExternalReference(@Param("ref") String ref);
+
+    /** Campay-backed transaction still in DRAFT (webhook not received yet). */
+    interface StaleDraft {
+        Long getId();
+
+        LedgerTransactionType getType();
+
+        String getExternalReference();
+
+        String getCampayReference();
+    }
+
+    /**
+     * Keyset page (id &gt; {@code afterId}) of DRAFT transactions of the given types created
+     * before {@code before}; served by the (status, created_date) index.
+     */
+    @Query(
+        "select t.id as id, t.type as type, t.externalReference as externalReference, t.campayReference as campayReference " +
+        "from LedgerTransaction t where t.status = com.binbash.mobigo.domain.enumeration.LedgerTransactionStatus.DRAFT " +
+        "and t.createdDate < :before and t.type in :types and t.id > :afterId order by t.id"
+    )
+    List<StaleDraft> findStaleDrafts(
+        @Param("types") Collection<LedgerTransactionType> types,
+        @Param("before") Instant before,
+        @Param("afterId") Long afterId,
+        Pageable pageable
+    );
+
+    /**
+     * Same as {@link #findStaleDrafts}, restricted to drafts without a Campay reference (the
+     * collect / withdraw call timed out, failed with a 5xx or never completed).
+     */
+    @Query(
+        "select t.id as id, t.type as type, t.externalReference as externalReference, t.campayReference as campayReference " +
+        "from LedgerTransaction t where t.status = com.binbash.mobigo.domain.enumeration.LedgerTransactionStatus.DRAFT " +
+        "and t.createdDate < :before and t.type in :types and t.campayReference is null and t.id > :afterId order by t.id"
+    )
+    List<StaleDraft> findStaleUnreferencedDrafts(
+        @Param("types") Collection<LedgerTransactionType> types,
+        @Param("before") Instant before,
+        @Param("afterId") Long afterId,
+        Pageable pageable
+    );
+
+    /**
+     * Locks the next page (id &gt; {@code afterId}) of POSTED/VOID transactions created before
+     * {@code before} whose every line is at or below the latest balance checkpoint of its
+     * account, i.e. history that no reconciliation or balance query reads from the hot table
+     * any more. Must run in a transaction.
+     */
+    @Query(
+        value = "select t.id from ledger_transaction t " +
+        "where t.status in ('POSTED', 'VOID') and t.created_date < :before and t.id > :afterId " +
+        "and not exists (select 1 from ledger_entry e where e.transaction_id = t.id and e.id > coalesce(" +
+        "(select max(c.last_entry_id) from ledger_balance_checkpoint c where c.account_id = e.account_id), 0)) " +
+        "order by t.id limit :limit for update of t skip locked",
+        nativeQuery = true
+    )
+    List<Long> lockArchivableIds(@Param("before") Instant before, @Param("afterId") Long afterId, @Param("limit") int limit);
+
+    /** Removes archived transactions from the hot table; their lines must be deleted first. */
+    @Modifying
+    @Query(value = "delete from ledger_transaction where id in (:ids)", nativeQuery = true)
+    int deleteByIds(@Param("ids") Collection<Long> ids);
+
+    /** Status of an archived transaction by idempotency key (archived rows are never DRAFT). */
+    @Query(value = "select t.status from ledger_transaction_archive t where t.idempotency_key = :key", nativeQuery = true)
+    Optional<String> findArchivedStatusByIdempotencyKey(@Param("key") String key);
+
+    @Query(
+        value = "select count(*) > 0 from ledger_transaction_archive t where t.external_reference = :ref",
+        nativeQuery = true
+    )
+    boolean existsArchivedByExternalReference(@Param("ref") String ref);
 }
@@ -1,15 +1,103 @@
 package com.binbash.mobigo.repository;
 
 import com.binbash.mobigo.domain.Notification;
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public interface NotificationRepository extends JpaRepository<Notification, Long> {
+    /** Planner estimate of the table size, see {@link #findTableStats}. */
+    interface TableStats {
+        Long getRows();
+
+        Long getBytes();
+    }
+
     Page<Notification> findByUserIdOrderByCreatedDateDesc(Long userId, Pageable pageable);
     long countByUserIdAndReadFalse(Long userId);
-    List<Notification> findByUserIdAndReadFalse(Long userId);
+
+    /** Newest notifications of a user, newest first (first page of the keyset feed). */
+    @Query("select n from Notification n where n.userId = :userId order by n.createdDate desc, n.id desc")
+    List<Notification> findFeed(@Param("userId") Long userId, Limit limit);
+
+    /** Notifications of a user strictly older than the (createdDate, id) cursor, newest first. */
+    @Query(
+        "select n from Notification n where n.userId = :userId " +
+        "and (n.createdDate < :createdDate or (n.createdDate = :createdDate and n.id < :id)) " +
+        "order by n.createdDate desc, n.id desc"
+    )
+    List<Notification> findFeedBefore(
+        @Param("userId") Long userId,
+        @Param("createdDate") Instant createdDate,
+        @Param("id") Long id,
+        Limit limit
+    );
+
+    /** Notifications of a user strictly newer than the (createdDate, id) cursor, oldest first. */
+    @Query(
+        "select n from Notification n where n.userId = :userId " +
+        "and (n.createdDate > :createdDate or (n.createdDate = :createdDate and n.id > :id)) " +
+        "order by n.createdDate asc, n.id asc"
+    )
+    List<Notification> findFeedSince(
+        @Param("userId") Long userId,
+        @Param("createdDate") Instant createdDate,
+        @Param("id") Long id,
+        Limit limit
+    );
+
+    /** Marks every unread notification of a user as read in one statement. */
+    @Modifying
+    @Query(
+        "update Notification n set n.read = true, n.lastModifiedBy = :login, n.lastModifiedDate = :now " +
+        "where n.userId = :userId and n.read = false"
+    )
+    int markAllRead(@Param("userId") Long userId, @Param("login") String login, @Param("now") Instant now);
+
+    /**
+     * Marks the given unread notifications of a user as read; ids of other users are ignored.
+     * The {@code read = false} guard makes the returned count exact under concurrent calls. The
+     * persistence context is flushed before and cleared after, so entities read afterwards are fresh.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(
+        "update Notification n set n.read = true, n.lastModifiedBy = :login, n.lastModifiedDate = :now " +
+        "where n.userId = :userId and n.id in :ids and n.read = false"
+    )
+    int markRead(@Param("userId") Long userId, @Param("ids") Collection<Long> ids, @Param("login") String login, @Param("now") Instant now);
+
+    /** Deletes the given notifications of a user; ids of other users are ignored. */
+    @Modifying
+    @Query("delete from Notification n where n.userId = :userId and n.id in :ids")
+    int deleteByUserIdAndIds(@Param("userId") Long userId, @Param("ids") Collection<Long> ids);
+
+    /**
+     * Deletes up to {@code limit} read notifications created before {@code before}. Rows
+     * locked by a concurrent update are skipped and picked up by the next batch. Must run in
+     * a read-write transaction.
+     */
+    @Modifying
+    @Query(
+        value = "delete from notification where id in (select id from notification " +
+        "where created_date < :before and is_read = true limit :limit for update skip locked)",
+        nativeQuery = true
+    )
+    int deleteReadBefore(@Param("before") Instant before, @Param("limit") int limit);
+
+    /** Row estimate (from the last ANALYZE) and total size on disk, indexes included. */
+    @Query(
+        value = "select cast(c.reltuples as bigint) as \"rows\", pg_total_relation_size(c.oid) as \"bytes\" " +
+        "from pg_class c where c.relname = 'notification' and c.relkind in ('r', 'p')",
+        nativeQuery = true
+    )
+    TableStats findTableStats();
 }
@@ -0,0 +1,42 @@
+package com.binbash.mobigo.repository;
+
+import com.binbash.mobigo.domain.NotificationUnreadCounter;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface NotificationUnreadCounterRepository extends JpaRepository<NotificationUnreadCounter, Long> {
+    /**
+     * Adds {@code delta} to the counter of a user and returns the new value (never below 0).
+     * A missing counter is seeded from the notification table, which already holds the rows
+     * of the current transaction, so the delta is not applied twice. Single-statement
+     * upsert; must run in the read-write transaction that changed the notifications.
+     */
+    @Query(
+        value = "insert into notification_unread_counter (user_id, unread_count) " +
+        "select :userId, count(*) from notification where user_id = :userId and is_read = false " +
+        "on conflict (user_id) do update set " +
+        "unread_count = greatest(notification_unread_counter.unread_count + :delta, 0) " +
+        "returning unread_count",
+        nativeQuery = true
+    )
+    long addAndGet(@Param("userId") Long userId, @Param("delta") long delta);
+
+    /**
+     * Resets the counter of a user to the number of unread rows of the notification table
+     * and returns it. Must run in a read-write transaction that already holds the counter row
+     * lock (see {@code NotificationUnreadCountService#recount}): the count is taken from the
+     * statement snapshot, so a delta committed after it but before the upsert gets the row
+     * would otherwise be overwritten.
+     */
+    @Query(
+        value = "insert into notification_unread_counter (user_id, unread_count) " +
+        "select :userId, count(*) from notification where user_id = :userId and is_read = false " +
+        "on conflict (user_id) do update set unread_count = excluded.unread_count " +
+        "returning unread_count",
+        nativeQuery = true
+    )
+    long recount(@Param("userId") Long userId);
+}
@@ -2,6 +2,7 @@ package com.binbash.mobigo.repository;
 
 import com.binbash.mobigo.domain.Payment;
 import com.binbash.mobigo.domain.enumeration.PaymentStatusEnum;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 import org.springframework.data.jpa.repository.*;
@@ -26,6 +27,27 @@ public interface PaymentRepository extends JpaRepository<Payment, Long> {
 
     List<Payment> findByStatut(PaymentStatusEnum statut);
 
+    /** Payment expired by {@link #expireStaleChunk}, with its booking (may be null). */
+    interface ExpiredPayment {
+        Long getId();
+
+        Long getBookingId();
+    }
+
+    /**
+     * Moves up to {@code limit} EN_COURS payments dated before {@code today} to ECHOUE in a
+     * single statement and returns them. Rows locked by a concurrent callback are skipped and
+     * picked up by the next run. Must run in a read-write transaction.
+     */
+    @Query(
+        value = "update payment set statut = 'ECHOUE', last_modified_by = 'system', last_modified_date = now() " +
+        "where id in (select id from payment where statut = 'EN_COURS' and date_paiement < :today " +
+        "order by id limit :limit for update skip locked) " +
+        "returning id as \"id\", booking_id as \"bookingId\"",
+        nativeQuery = true
+    )
+    List<ExpiredPayment> expireStaleChunk(@Param("today") LocalDate today, @Param("limit") int limit);
+
     @Query("SELECT COUNT(p) FROM Payment p")
     long countAll();
 
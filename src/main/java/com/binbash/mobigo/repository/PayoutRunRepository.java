@@ -0,0 +1,12 @@
+package com.binbash.mobigo.repository;
+
+import com.binbash.mobigo.domain.PayoutRun;
+import com.binbash.mobigo.domain.enumeration.PayoutRunStatus;
+import java.util.Optional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface PayoutRunRepository extends JpaRepository<PayoutRun, Long> {
+    Optional<PayoutRun> findFirstByStatusOrderByIdDesc(PayoutRunStatus status);
+}
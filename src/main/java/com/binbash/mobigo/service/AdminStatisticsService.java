@@ -5,14 +5,19 @@ import com.binbash.mobigo.domain.People;
 import com.binbash.mobigo.domain.Ride;
 import com.binbash.mobigo.domain.User;
 import com.binbash.mobigo.domain.enumeration.BookingStatusEnum;
+import com.binbash.mobigo.domain.enumeration.LedgerAccountType;
+import com.binbash.mobigo.domain.enumeration.LedgerTransactionType;
 import com.binbash.mobigo.domain.enumeration.RideStatusEnum;
 import com.binbash.mobigo.repository.BookingRepository;
+import com.binbash.mobigo.repository.LedgerDailyTotalRepository;
+import com.binbash.mobigo.repository.LedgerDailyTotalRepository.BucketTotal;
 import com.binbash.mobigo.repository.PaymentRepository;
 import com.binbash.mobigo.repository.PeopleRepository;
 import com.binbash.mobigo.repository.RideRepository;
 import com.binbash.mobigo.repository.UserRepository;
 import com.binbash.mobigo.service.dto.AdminStatisticsDTO;
 import java.time.Instant;
+import java.time.LocalDate;
 import java.time.YearMonth;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
@@ -39,19 +44,22 @@ public class AdminStatisticsService {
     private final RideRepository rideRepository;
     private final BookingRepository bookingRepository;
     private final PaymentRepository paymentRepository;
+    private final LedgerDailyTotalRepository ledgerDailyTotalRepository;
 
     public AdminStatisticsService(
         UserRepository userRepository,
         PeopleRepository peopleRepository,
         RideRepository rideRepository,
         BookingRepository bookingRepository,
-        PaymentRepository paymentRepository
+        PaymentRepository paymentRepository,
+        LedgerDailyTotalRepository ledgerDailyTotalRepository
     ) {
         this.userRepository = userRepository;
         this.peopleRepository = peopleRepository;
         this.rideRepository = rideRepository;
         this.bookingRepository = bookingRepository;
         this.paymentRepository = paymentRepository;
+        this.ledgerDailyTotalRepository = ledgerDailyTotalRepository;
     }
 
     /**
@@ -111,6 +119,9 @@ public class AdminStatisticsService {
         }
         dto.setPaymentsByStatus(paymentsByStatus);
 
+        // Wallet ledger (pre-aggregated daily totals)
+        dto.setLedgerTotals(toLedgerTotals(null, ledgerDailyTotalRepository.findAllTimeTotals()));
+
         // Monthly activity (last 12 months)
         dto.setMonthlyActivity(buildMonthlyActivity(allRides, allBookings));
 
@@ -120,6 +131,47 @@ public class AdminStatisticsService {
         return dto;
     }
 
+    /**
+     * Wallet ledger totals per posting day over {@code [from, to]} (days without any posting
+     * are omitted), read from the daily aggregates.
+     */
+    public List<AdminStatisticsDTO.LedgerTotals> getLedgerDailyTotals(LocalDate from, LocalDate to) {
+        LOG.debug("Computing ledger daily totals from {} to {}", from, to);
+        Map<LocalDate, List<BucketTotal>> byDay = ledgerDailyTotalRepository
+            .findDailyTotals(from, to)
+            .stream()
+            .collect(Collectors.groupingBy(BucketTotal::getDay, TreeMap::new, Collectors.toList()));
+        List<AdminStatisticsDTO.LedgerTotals> result = new ArrayList<>(byDay.size());
+        byDay.forEach((day, buckets) -> result.add(toLedgerTotals(day, buckets)));
+        return result;
+    }
+
+    static AdminStatisticsDTO.LedgerTotals toLedgerTotals(LocalDate day, List<BucketTotal> buckets) {
+        AdminStatisticsDTO.LedgerTotals totals = new AdminStatisticsDTO.LedgerTotals();
+        totals.setDate(day);
+        for (BucketTotal b : buckets) {
+            double credits = b.getCredits() == null ? 0 : b.getCredits().doubleValue();
+            double debits = b.getDebits() == null ? 0 : b.getDebits().doubleValue();
+            totals.setPostedLines(totals.getPostedLines() + (b.getLines() == null ? 0 : b.getLines()));
+            LedgerAccountType account = b.getAccountType();
+            LedgerTransactionType type = b.getTransactionType();
+            if (type == LedgerTransactionType.RECHARGE && account == LedgerAccountType.EXTERNAL) {
+                totals.setWalletRecharges(totals.getWalletRecharges() + debits);
+            } else if (type == LedgerTransactionType.BOOKING_SETTLEMENT && account == LedgerAccountType.ESCROW) {
+                totals.setEscrowCollected(totals.getEscrowCollected() + credits);
+            } else if (type == LedgerTransactionType.BOOKING_SETTLEMENT && account == LedgerAccountType.DRIVER) {
+                totals.setDriverEarnings(totals.getDriverEarnings() + credits);
+            } else if (type == LedgerTransactionType.BOOKING_SETTLEMENT && account == LedgerAccountType.PLATFORM) {
+                totals.setCommission(totals.getCommission() + credits);
+            } else if (type == LedgerTransactionType.WITHDRAWAL && account == LedgerAccountType.DRIVER) {
+                totals.setDriverPayouts(totals.getDriverPayouts() + debits);
+            } else if (type == LedgerTransactionType.WITHDRAWAL && account == LedgerAccountType.PLATFORM) {
+                totals.setPayoutFees(totals.getPayoutFees() + debits);
+            }
+        }
+        return totals;
+    }
+
     private List<AdminStatisticsDTO.MonthlyStats> buildMonthlyActivity(List<Ride> rides, List<Booking> bookings) {
         YearMonth now = YearMonth.now();
         List<YearMonth> months = new ArrayList<>();
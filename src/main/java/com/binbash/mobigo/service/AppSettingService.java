@@ -25,6 +25,12 @@ public class AppSettingService {
     public static final String WALLET_MIN_WITHDRAWAL = "wallet_min_withdrawal";
     private static final String DEFAULT_WALLET_MIN_WITHDRAWAL = "5000";
 
+    public static final String LEDGER_HOT_ACCOUNT_SHARDS = "ledger_hot_account_shards";
+    private static final String DEFAULT_LEDGER_HOT_ACCOUNT_SHARDS = "8";
+
+    public static final String NOTIFICATION_RETENTION_DAYS = "notification_retention_days";
+    private static final String DEFAULT_NOTIFICATION_RETENTION_DAYS = "90";
+
     private final AppSettingRepository repository;
     private final Map<String, String> cache = new ConcurrentHashMap<>();
 
@@ -83,4 +89,36 @@ public class AppSettingService {
             return new BigDecimal(DEFAULT_WALLET_MIN_WITHDRAWAL);
         }
     }
+
+    /**
+     * Number of sub-accounts the ESCROW and PLATFORM system accounts are spread over.
+     * Raising it at runtime is safe: existing shards keep their balance and the logical
+     * balance is always the sum of every shard of the type.
+     */
+    public int getLedgerHotAccountShards() {
+        String value = get(LEDGER_HOT_ACCOUNT_SHARDS, DEFAULT_LEDGER_HOT_ACCOUNT_SHARDS);
+        try {
+            return Math.max(1, Integer.parseInt(value.trim()));
+        } catch (NumberFormatException e) {
+            LOG.warn("Invalid ledger hot account shards in DB: {}, using default", value);
+            return Integer.parseInt(DEFAULT_LEDGER_HOT_ACCOUNT_SHARDS);
+        }
+    }
+
+    /**
+     * Age in days after which read notifications are purged; 0 disables the purge.
+     */
+    public int getNotificationRetentionDays() {
+        String value = get(NOTIFICATION_RETENTION_DAYS, DEFAULT_NOTIFICATION_RETENTION_DAYS);
+        try {
+            return Math.max(0, Integer.parseInt(value.trim()));
+        } catch (NumberFormatException e) {
+            LOG.warn("Invalid notification retention days in DB: {}, using default", value);
+            return Integer.parseInt(DEFAULT_NOTIFICATION_RETENTION_DAYS);
+        }
+    }
+
+    public void setNotificationRetentionDays(int days) {
+        set(NOTIFICATION_RETENTION_DAYS, String.valueOf(days));
+    }
 }
@@ -0,0 +1,215 @@
+package com.binbash.mobigo.service;
+
+import com.binbash.mobigo.config.ApplicationProperties;
+import com.binbash.mobigo.domain.LedgerTransaction;
+import com.binbash.mobigo.domain.enumeration.LedgerTransactionStatus;
+import com.binbash.mobigo.domain.enumeration.LedgerTransactionType;
+import com.binbash.mobigo.repository.LedgerTransactionRepository;
+import com.binbash.mobigo.repository.LedgerTransactionRepository.StaleDraft;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Safety net for lost Campay webhooks: RECHARGE / WITHDRAWAL transactions still DRAFT after
+ * {@code application.campay.reconciliation-stale-minutes} are looked up with
+ * {@link CampayService#getTransactionStatus} (concurrently, rate limited), and terminal
+ * statuses are fed to {@link CampayWebhookQueueService#enqueue} — the same idempotent path
+ * as a real callback, deduplicated against it. DRAFTs without a Campay reference cannot be
+ * looked up; they are listed for an admin to settle ({@link #resolveUnreferenced}).
+ */
+@Service
+public class CampayReconciliationService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CampayReconciliationService.class);
+
+    static final Set<LedgerTransactionType> CAMPAY_TYPES = EnumSet.of(LedgerTransactionType.RECHARGE, LedgerTransactionType.WITHDRAWAL);
+    static final int PAGE_SIZE = 100;
+
+    enum Outcome {
+        RESOLVED,
+        PENDING,
+        UNREFERENCED,
+        ERROR,
+    }
+
+    public record ReconciliationSummary(int resolved, int pending, int unreferenced, int errors) {}
+
+    private final LedgerTransactionRepository txRepo;
+    private final CampayService campayService;
+    private final CampayWebhookQueueService webhookQueueService;
+    private final Duration staleAfter;
+    private final int workers;
+    private final KeyedRateLimiter rateLimiter;
+    private final Map<Outcome, Counter> counters = new EnumMap<>(Outcome.class);
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public CampayReconciliationService(
+        LedgerTransactionRepository txRepo,
+        CampayService campayService,
+        CampayWebhookQueueService webhookQueueService,
+        ApplicationProperties applicationProperties,
+        MeterRegistry registry
+    ) {
+        this.txRepo = txRepo;
+        this.campayService = campayService;
+        this.webhookQueueService = webhookQueueService;
+        ApplicationProperties.Campay campay = applicationProperties.getCampay();
+        this.staleAfter = Duration.ofMinutes(Math.max(1, campay.getReconciliationStaleMinutes()));
+        this.workers = Math.max(1, campay.getReconciliationWorkers());
+        this.rateLimiter = new KeyedRateLimiter(campay.getReconciliationRatePerSecond());
+        for (Outcome outcome : Outcome.values()) {
+            counters.put(
+                outcome,
+                Counter.builder("campay.reconciliation.drafts")
+                    .description("Stale Campay DRAFT transactions checked, by outcome")
+                    .tag("outcome", outcome.name().toLowerCase(Locale.ROOT))
+                    .register(registry)
+            );
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${application.campay.reconciliation-delay-ms:300000}", initialDelay = 60000)
+    public void scheduledReconciliation() {
+        reconcileStaleDrafts();
+    }
+
+    /**
+     * Checks every stale DRAFT once. Returns {@code null} if a run is already in progress.
+     */
+    public ReconciliationSummary reconcileStaleDrafts() {
+        if (!running.compareAndSet(false, true)) {
+            LOG.debug("Campay reconciliation already running, skipping");
+            return null;
+        }
+        ExecutorService pool = Executors.newFixedThreadPool(workers, r -> {
+            Thread t = new Thread(r, "campay-reconciliation");
+            t.setDaemon(true);
+            return t;
+        });
+        Map<Outcome, Integer> totals = new EnumMap<>(Outcome.class);
+        try {
+            Instant before = Instant.now().minus(staleAfter);
+            long afterId = 0;
+            while (true) {
+                List<StaleDraft> page = txRepo.findStaleDrafts(CAMPAY_TYPES, before, afterId, PageRequest.of(0, PAGE_SIZE));
+                if (page.isEmpty()) {
+                    break;
+                }
+                List<Future<Outcome>> futures = new ArrayList<>(page.size());
+                for (StaleDraft draft : page) {
+                    futures.add(pool.submit(() -> check(draft)));
+                }
+                for (Future<Outcome> future : futures) {
+                    Outcome outcome;
+                    try {
+                        outcome = future.get();
+                    } catch (ExecutionException e) {
+                        outcome = Outcome.ERROR;
+                    }
+                    totals.merge(outcome, 1, Integer::sum);
+                    counters.get(outcome).increment();
+                }
+                afterId = page.get(page.size() - 1).getId();
+                if (page.size() < PAGE_SIZE) {
+                    break;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            pool.shutdownNow();
+            running.set(false);
+        }
+        ReconciliationSummary summary = new ReconciliationSummary(
+            totals.getOrDefault(Outcome.RESOLVED, 0),
+            totals.getOrDefault(Outcome.PENDING, 0),
+            totals.getOrDefault(Outcome.UNREFERENCED, 0),
+            totals.getOrDefault(Outcome.ERROR, 0)
+        );
+        if (summary.resolved() + summary.pending() + summary.unreferenced() + summary.errors() > 0) {
+            LOG.info("Campay reconciliation: {}", summary);
+        }
+        return summary;
+    }
+
+    Outcome check(StaleDraft draft) throws InterruptedException {
+        String reference = draft.getCampayReference();
+        if (reference == null || reference.isBlank()) {
+            // The collect / withdraw call timed out, failed with a 5xx or never completed (crash):
+            // nothing to ask Campay. Left to the webhook, or to an admin (see resolveUnreferenced).
+            LOG.warn("Stale {} DRAFT {} has no Campay reference", draft.getType(), draft.getExternalReference());
+            return Outcome.UNREFERENCED;
+        }
+        rateLimiter.acquire("campay");
+        try {
+            String status = campayService.getTransactionStatus(reference);
+            if (!CampayService.isTerminalStatus(status)) {
+                return Outcome.PENDING;
+            }
+            webhookQueueService.enqueue(reference, draft.getExternalReference(), status, null);
+            LOG.info("Stale {} DRAFT {} resolved by polling: {}", draft.getType(), draft.getExternalReference(), status);
+            return Outcome.RESOLVED;
+        } catch (Exception e) {
+            LOG.warn("Campay status lookup failed for {}: {}", reference, e.getMessage());
+            return Outcome.ERROR;
+        }
+    }
+
+    /**
+     * Stale DRAFTs without a Campay reference (keyset page after {@code afterId}), which the
+     * poller cannot look up: an admin checks them in the Campay dashboard and settles them with
+     * {@link #resolveUnreferenced}.
+     */
+    public List<StaleDraft> findUnreferencedDrafts(long afterId) {
+        Instant before = Instant.now().minus(staleAfter);
+        return txRepo.findStaleUnreferencedDrafts(CAMPAY_TYPES, before, afterId, PageRequest.of(0, PAGE_SIZE));
+    }
+
+    /**
+     * Settles a stale DRAFT without Campay reference with the terminal status an admin read in
+     * the Campay dashboard, through the same idempotent queue as a webhook (FAILED voids it and
+     * releases the held amount). Returns {@code false} if the same event was already queued.
+     *
+     * @throws IllegalArgumentException if {@code status} is not a terminal Campay status
+     * @throws IllegalStateException if the transaction is not a stale Campay DRAFT without reference
+     */
+    public boolean resolveUnreferenced(String externalReference, String status) {
+        if (!CampayService.isTerminalStatus(status)) {
+            throw new IllegalArgumentException("Not a terminal Campay status: " + status);
+        }
+        LedgerTransaction tx = txRepo
+            .findByExternalReference(externalReference)
+            .orElseThrow(() -> new IllegalStateException("No ledger transaction " + externalReference));
+        Instant before = Instant.now().minus(staleAfter);
+        boolean eligible =
+            tx.getStatus() == LedgerTransactionStatus.DRAFT &&
+            tx.getCampayReference() == null &&
+            CAMPAY_TYPES.contains(tx.getType()) &&
+            tx.getCreatedDate() != null &&
+            tx.getCreatedDate().isBefore(before);
+        if (!eligible) {
+            throw new IllegalStateException("Not a stale Campay DRAFT without reference: " + externalReference);
+        }
+        LOG.info("Stale {} DRAFT {} resolved by an admin: {}", tx.getType(), externalReference, status);
+        return webhookQueueService.enqueue(null, externalReference, status.toUpperCase(Locale.ROOT), null);
+    }
+}
@@ -3,183 +3,538 @@ package com.binbash.mobigo.service;
 import com.binbash.mobigo.config.ApplicationProperties;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.ConnectException;
 import java.net.URI;
 import java.net.http.HttpClient;
+import java.net.http.HttpConnectTimeoutException;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
+/**
+ * Campay HTTP client. Every call is asynchronous ({@code HttpClient.sendAsync}) with a
+ * per-request timeout, bounded retries with jittered exponential backoff, a shared circuit
+ * breaker and a {@code campay.client.requests} timer per endpoint and outcome. The
+ * username/password token is refreshed single-flight: concurrent callers share the one
+ * in-flight {@code /token/} request.
+ * <p>
+ * Only failures where Campay cannot have executed the request (connection refused / connect
+ * timeout, 401, 429) are retried for {@code /collect/} and {@code /withdraw/}; a read
+ * timeout or a 5xx on those may hide a successful operation and is left to the webhook /
+ * reconciliation path. {@code /token/} and {@code /transaction/} are retried on any
+ * transient failure.
+ */
 @Service
 public class CampayService {
 
     private static final Logger LOG = LoggerFactory.getLogger(CampayService.class);
 
+    private static final Duration TOKEN_TTL = Duration.ofSeconds(3000);
+    private static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(30);
+    private static final long RETRY_BASE_DELAY_MS = 200;
+    private static final int HTTP_THREADS = 8;
+
+    enum Endpoint {
+        TOKEN("token", true),
+        COLLECT("collect", false),
+        WITHDRAW("withdraw", false),
+        TRANSACTION("transaction", true);
+
+        final String tag;
+        final boolean idempotent;
+
+        Endpoint(String tag, boolean idempotent) {
+            this.tag = tag;
+            this.idempotent = idempotent;
+        }
+    }
+
+    /** Thrown when the circuit breaker rejects a call without contacting Campay. */
+    public static class CampayUnavailableException extends RuntimeException {
+
+        private static final long serialVersionUID = 1L;
+
+        public CampayUnavailableException(String message) {
+            super(message);
+        }
+    }
+
+    /** Campay answered with a status other than 200. */
+    public static class CampayHttpException extends RuntimeException {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int statusCode;
+
+        public CampayHttpException(String message, HttpResponse<String> response) {
+            super(message + ": " + response.statusCode() + " " + response.body());
+            this.statusCode = response.statusCode();
+        }
+
+        public int getStatusCode() {
+            return statusCode;
+        }
+    }
+
+    private record CachedToken(String value, Instant expiry) {}
+
     private final ApplicationProperties.Campay config;
     private final ObjectMapper objectMapper;
+    private final ExecutorService httpExecutor;
     private final HttpClient httpClient;
+    private final MeterRegistry registry;
+    private final CircuitBreaker circuitBreaker;
+    private final Duration requestTimeout;
+    private final int maxRetries;
 
-    private String cachedToken;
-    private Instant tokenExpiry;
+    private final AtomicReference<CachedToken> cachedToken = new AtomicReference<>();
+    private final AtomicReference<CompletableFuture<String>> tokenRefresh = new AtomicReference<>();
 
-    public CampayService(ApplicationProperties applicationProperties, ObjectMapper objectMapper) {
+    public CampayService(ApplicationProperties applicationProperties, ObjectMapper objectMapper, MeterRegistry registry) {
         this.config = applicationProperties.getCampay();
         this.objectMapper = objectMapper;
-        this.httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(30)).build();
+        this.registry = registry;
+        this.httpExecutor = Executors.newFixedThreadPool(HTTP_THREADS, r -> {
+            Thread t = new Thread(r, "campay-http");
+            t.setDaemon(true);
+            return t;
+        });
+        this.httpClient = HttpClient.newBuilder().connectTimeout(CONNECT_TIMEOUT).executor(httpExecutor).build();
+        this.requestTimeout = Duration.ofMillis(Math.max(1, config.getRequestTimeoutMs()));
+        this.maxRetries = Math.max(0, config.getMaxRetries());
+        this.circuitBreaker = new CircuitBreaker(config.getCircuitFailureThreshold(), Duration.ofMillis(config.getCircuitOpenMs()));
+        Gauge.builder("campay.client.circuit.open", circuitBreaker, cb -> cb.state() == CircuitBreaker.State.CLOSED ? 0 : 1)
+            .description("1 while the Campay circuit breaker is open or half-open")
+            .register(registry);
     }
 
+    @PreDestroy
+    void shutdown() {
+        httpExecutor.shutdownNow();
+    }
+
+    // --- Token ---
+
     /**
      * Get Campay API token.
      * Uses permanent token if configured, otherwise falls back to username/password authentication.
      */
     public String getToken() throws Exception {
+        return await(getTokenAsync());
+    }
+
+    public CompletableFuture<String> getTokenAsync() {
         // Use permanent token if available
         if (config.getPermanentToken() != null && !config.getPermanentToken().isBlank()) {
-            return config.getPermanentToken();
+            return CompletableFuture.completedFuture(config.getPermanentToken());
         }
-
-        // Fallback: authenticate with username/password
-        if (cachedToken != null && tokenExpiry != null && Instant.now().isBefore(tokenExpiry)) {
-            return cachedToken;
+        CachedToken current = cachedToken.get();
+        if (isValid(current)) {
+            return CompletableFuture.completedFuture(current.value());
         }
-
-        String body = objectMapper.writeValueAsString(Map.of("username", config.getApiUsername(), "password", config.getApiPassword()));
-
-        HttpRequest request = HttpRequest.newBuilder()
-            .uri(URI.create(config.getBaseUrl() + "/token/"))
-            .header("Content-Type", "application/json")
-            .POST(HttpRequest.BodyPublishers.ofString(body))
-            .build();
-
-        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
-        if (response.statusCode() != 200) {
-            throw new RuntimeException("Campay token request failed: " + response.statusCode() + " " + response.body());
+        // Single flight: the first caller starts the refresh, the others join its future.
+        CompletableFuture<String> mine = new CompletableFuture<>();
+        CompletableFuture<String> inFlight = tokenRefresh.compareAndExchange(null, mine);
+        if (inFlight != null) {
+            return inFlight;
         }
+        current = cachedToken.get();
+        if (isValid(current)) {
+            // Another refresh completed between our cache check and winning the slot.
+            tokenRefresh.set(null);
+            mine.complete(current.value());
+            return mine;
+        }
+        CompletableFuture<String> request;
+        try {
+            request = requestToken();
+        } catch (RuntimeException e) {
+            // e.g. missing credentials: release the slot, or every later caller would wait on it forever
+            tokenRefresh.set(null);
+            mine.completeExceptionally(e);
+            return mine;
+        }
+        request
+            .whenComplete((token, error) -> {
+                if (error == null) {
+                    cachedToken.set(new CachedToken(token, Instant.now().plus(TOKEN_TTL)));
+                    LOG.debug("Campay token refreshed");
+                }
+                tokenRefresh.set(null);
+                if (error == null) {
+                    mine.complete(token);
+                } else {
+                    mine.completeExceptionally(unwrap(error));
+                }
+            });
+        return mine;
+    }
+
+    private static boolean isValid(CachedToken token) {
+        return token != null && Instant.now().isBefore(token.expiry());
+    }
 
-        JsonNode json = objectMapper.readTree(response.body());
-        cachedToken = json.get("token").asText();
-        tokenExpiry = Instant.now().plusSeconds(3000);
-        LOG.debug("Campay token refreshed");
-        return cachedToken;
+    private CompletableFuture<String> requestToken() {
+        String body = json(Map.of("username", config.getApiUsername(), "password", config.getApiPassword()));
+        return execute(Endpoint.TOKEN, false, token ->
+            HttpRequest.newBuilder()
+                .uri(URI.create(config.getBaseUrl() + "/token/"))
+                .timeout(requestTimeout)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build()
+        ).thenApply(response -> {
+            if (response.statusCode() != 200) {
+                throw new CampayHttpException("Campay token request failed", response);
+            }
+            return readTree(response.body()).get("token").asText();
+        });
     }
 
+    // --- Collect ---
+
     /**
      * Initiate a collect (non-blocking — sends USSD prompt to user's phone).
      * Returns reference, status, and optional ussd_code.
      */
     public CollectResponse collect(String phoneNumber, int amount, String externalReference, String description) throws Exception {
+        return await(collectAsync(phoneNumber, amount, externalReference, description));
+    }
+
+    public CompletableFuture<CollectResponse> collectAsync(String phoneNumber, int amount, String externalReference, String description) {
         if (!config.isEnabled()) {
             LOG.warn("Campay disabled — simulating collect for ref {}", externalReference);
-            return new CollectResponse(externalReference, "SUCCESSFUL", "*126#");
+            return CompletableFuture.completedFuture(new CollectResponse(externalReference, "SUCCESSFUL", "*126#"));
         }
 
-        String token = getToken();
-        String body = objectMapper.writeValueAsString(
-            Map.of(
-                "amount",
-                String.valueOf(amount),
-                "currency",
-                "XAF",
-                "from",
-                phoneNumber,
-                "description",
-                description,
-                "external_reference",
-                externalReference
-            )
-        );
-
-        HttpRequest request = HttpRequest.newBuilder()
-            .uri(URI.create(config.getBaseUrl() + "/collect/"))
-            .header("Content-Type", "application/json")
-            .header("Authorization", "Token " + token)
-            .POST(HttpRequest.BodyPublishers.ofString(body))
-            .build();
-
-        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
-        LOG.info("Campay collect response: {} {}", response.statusCode(), response.body());
-
-        if (response.statusCode() != 200) {
-            throw new RuntimeException("Campay collect failed: " + response.statusCode() + " " + response.body());
+        String body;
+        try {
+            body = json(
+                Map.of(
+                    "amount",
+                    String.valueOf(amount),
+                    "currency",
+                    "XAF",
+                    "from",
+                    phoneNumber,
+                    "description",
+                    description,
+                    "external_reference",
+                    externalReference
+                )
+            );
+        } catch (RuntimeException e) {
+            // e.g. a null phone: fail the future rather than the caller
+            return CompletableFuture.failedFuture(e);
         }
 
-        JsonNode json = objectMapper.readTree(response.body());
-        String reference = json.has("reference") ? json.get("reference").asText() : externalReference;
-        String status = json.has("status") ? json.get("status").asText() : "PENDING";
-        String ussdCode = json.has("ussd_code") ? json.get("ussd_code").asText() : null;
-
-        return new CollectResponse(reference, status, ussdCode);
+        return execute(Endpoint.COLLECT, true, token ->
+            HttpRequest.newBuilder()
+                .uri(URI.create(config.getBaseUrl() + "/collect/"))
+                .timeout(requestTimeout)
+                .header("Content-Type", "application/json")
+                .header("Authorization", "Token " + token)
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build()
+        ).thenApply(response -> {
+            LOG.info("Campay collect response: {} {}", response.statusCode(), response.body());
+            if (response.statusCode() != 200) {
+                throw new CampayHttpException("Campay collect failed", response);
+            }
+            JsonNode json = readTree(response.body());
+            String reference = json.has("reference") ? json.get("reference").asText() : externalReference;
+            String status = json.has("status") ? json.get("status").asText() : "PENDING";
+            String ussdCode = json.has("ussd_code") ? json.get("ussd_code").asText() : null;
+            return new CollectResponse(reference, status, ussdCode);
+        });
     }
 
+    // --- Withdraw ---
+
     /**
      * Disburse funds (transfer to a mobile money number).
      * Used for: driver payment after trip completion, passenger refund.
      */
     public DisbursementResponse disburse(String phoneNumber, int amount, String externalReference, String description) throws Exception {
+        return await(disburseAsync(phoneNumber, amount, externalReference, description));
+    }
+
+    public CompletableFuture<DisbursementResponse> disburseAsync(
+        String phoneNumber,
+        int amount,
+        String externalReference,
+        String description
+    ) {
         if (!config.isEnabled()) {
             LOG.warn("Campay disabled — simulating disbursement for ref {}", externalReference);
-            return new DisbursementResponse(externalReference, "SUCCESSFUL");
+            return CompletableFuture.completedFuture(new DisbursementResponse(externalReference, "SUCCESSFUL"));
         }
 
-        String token = getToken();
-        String body = objectMapper.writeValueAsString(
-            Map.of(
-                "amount",
-                String.valueOf(amount),
-                "currency",
-                "XAF",
-                "to",
-                phoneNumber,
-                "description",
-                description,
-                "external_reference",
-                externalReference
-            )
-        );
+        String body;
+        try {
+            body = json(
+                Map.of(
+                    "amount",
+                    String.valueOf(amount),
+                    "currency",
+                    "XAF",
+                    "to",
+                    phoneNumber,
+                    "description",
+                    description,
+                    "external_reference",
+                    externalReference
+                )
+            );
+        } catch (RuntimeException e) {
+            // e.g. a null phone: fail the future rather than the caller
+            return CompletableFuture.failedFuture(e);
+        }
 
-        HttpRequest request = HttpRequest.newBuilder()
-            .uri(URI.create(config.getBaseUrl() + "/withdraw/"))
-            .header("Content-Type", "application/json")
-            .header("Authorization", "Token " + token)
-            .POST(HttpRequest.BodyPublishers.ofString(body))
-            .build();
+        return execute(Endpoint.WITHDRAW, true, token ->
+            HttpRequest.newBuilder()
+                .uri(URI.create(config.getBaseUrl() + "/withdraw/"))
+                .timeout(requestTimeout)
+                .header("Content-Type", "application/json")
+                .header("Authorization", "Token " + token)
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build()
+        ).thenApply(response -> {
+            LOG.info("Campay disburse response: {} {}", response.statusCode(), response.body());
+            if (response.statusCode() != 200) {
+                throw new CampayHttpException("Campay disburse failed", response);
+            }
+            JsonNode json = readTree(response.body());
+            String reference = json.has("reference") ? json.get("reference").asText() : externalReference;
+            String status = json.has("status") ? json.get("status").asText() : "PENDING";
+            return new DisbursementResponse(reference, status);
+        });
+    }
+
+    // --- Transaction status ---
+
+    /**
+     * Check status of a transaction by its Campay reference.
+     */
+    public String getTransactionStatus(String reference) throws Exception {
+        return await(getTransactionStatusAsync(reference));
+    }
+
+    public CompletableFuture<String> getTransactionStatusAsync(String reference) {
+        if (!config.isEnabled()) {
+            return CompletableFuture.completedFuture("SUCCESSFUL");
+        }
+
+        return execute(Endpoint.TRANSACTION, true, token ->
+            HttpRequest.newBuilder()
+                .uri(URI.create(config.getBaseUrl() + "/transaction/" + reference + "/"))
+                .timeout(requestTimeout)
+                .header("Authorization", "Token " + token)
+                .GET()
+                .build()
+        ).thenApply(response -> {
+            if (response.statusCode() != 200) {
+                throw new CampayHttpException("Campay transaction status failed", response);
+            }
+            JsonNode json = readTree(response.body());
+            return json.has("status") ? json.get("status").asText() : "UNKNOWN";
+        });
+    }
+
+    // --- Transport ---
+
+    /**
+     * Sends the request built for the current token, with breaker, retries and metrics.
+     * Completes with any response below 500 (except 401 / 429, which are retried); the
+     * caller interprets the status code.
+     */
+    private CompletableFuture<HttpResponse<String>> execute(
+        Endpoint endpoint,
+        boolean authenticated,
+        Function<String, HttpRequest> requestForToken
+    ) {
+        return attempt(endpoint, authenticated, requestForToken, 0);
+    }
+
+    private CompletableFuture<HttpResponse<String>> attempt(
+        Endpoint endpoint,
+        boolean authenticated,
+        Function<String, HttpRequest> requestForToken,
+        int attempt
+    ) {
+        // The token is fetched (and accounted for) as its own TOKEN call before the breaker slot is taken.
+        CompletableFuture<String> token = authenticated ? getTokenAsync() : CompletableFuture.completedFuture(null);
+        return token.thenCompose(t -> send(endpoint, authenticated, requestForToken, requestForToken.apply(t), attempt));
+    }
+
+    private CompletableFuture<HttpResponse<String>> send(
+        Endpoint endpoint,
+        boolean authenticated,
+        Function<String, HttpRequest> requestForToken,
+        HttpRequest request,
+        int attempt
+    ) {
+        if (!circuitBreaker.tryAcquire()) {
+            record(endpoint, "rejected", 0);
+            return CompletableFuture.failedFuture(new CampayUnavailableException("Campay circuit breaker open (" + endpoint.tag + ")"));
+        }
+        long start = System.nanoTime();
+        return httpClient
+            .sendAsync(request, HttpResponse.BodyHandlers.ofString())
+            .handle((response, error) -> {
+                long elapsed = System.nanoTime() - start;
+                Throwable failure;
+                boolean retryable;
+                if (error == null) {
+                    int status = response.statusCode();
+                    if (status < 500 && status != 401 && status != 429) {
+                        // A 4xx is the caller's problem, not a sign that Campay is unhealthy.
+                        circuitBreaker.onSuccess();
+                        record(endpoint, status < 400 ? "success" : "client_error", elapsed);
+                        return CompletableFuture.completedFuture(response);
+                    }
+                    if (status == 401 && authenticated) {
+                        cachedToken.set(null);
+                    }
+                    failure = new CampayHttpException("Campay " + endpoint.tag + " failed", response);
+                    // 401 / 429 are rejected before execution; a 5xx may hide an executed collect / withdraw.
+                    retryable = (status == 401 && authenticated) || status == 429 || endpoint.idempotent;
+                    record(endpoint, status >= 500 ? "server_error" : "client_error", elapsed);
+                } else {
+                    failure = unwrap(error);
+                    boolean notSent = failure instanceof ConnectException || failure instanceof HttpConnectTimeoutException;
+                    retryable = notSent || (endpoint.idempotent && failure instanceof IOException);
+                    record(endpoint, failure instanceof HttpTimeoutException ? "timeout" : "io_error", elapsed);
+                }
+                circuitBreaker.onFailure();
+                if (!retryable || attempt >= maxRetries) {
+                    return CompletableFuture.<HttpResponse<String>>failedFuture(failure);
+                }
+                long delay = backoffMillis(attempt);
+                LOG.debug("Campay {} attempt {} failed ({}), retrying in {} ms", endpoint.tag, attempt + 1, failure.getMessage(), delay);
+                return CompletableFuture.supplyAsync(
+                    () -> null,
+                    CompletableFuture.delayedExecutor(delay, TimeUnit.MILLISECONDS, httpExecutor)
+                ).thenCompose(ignored -> attempt(endpoint, authenticated, requestForToken, attempt + 1));
+            })
+            .thenCompose(Function.identity());
+    }
+
+    /** Full-jitter exponential backoff: uniform in [0, base·2^attempt]. */
+    static long backoffMillis(int attempt) {
+        long cap = RETRY_BASE_DELAY_MS << Math.min(attempt, 10);
+        return ThreadLocalRandom.current().nextLong(cap + 1);
+    }
 
-        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
-        LOG.info("Campay disburse response: {} {}", response.statusCode(), response.body());
+    private void record(Endpoint endpoint, String outcome, long nanos) {
+        Timer.builder("campay.client.requests")
+            .description("Campay API calls by endpoint and outcome")
+            .tag("endpoint", endpoint.tag)
+            .tag("outcome", outcome)
+            .register(registry)
+            .record(nanos, TimeUnit.NANOSECONDS);
+    }
 
-        if (response.statusCode() != 200) {
-            throw new RuntimeException("Campay disburse failed: " + response.statusCode() + " " + response.body());
+    private String json(Map<String, String> body) {
+        try {
+            return objectMapper.writeValueAsString(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
         }
+    }
 
-        JsonNode json = objectMapper.readTree(response.body());
-        String reference = json.has("reference") ? json.get("reference").asText() : externalReference;
-        String status = json.has("status") ? json.get("status").asText() : "PENDING";
+    private JsonNode readTree(String body) {
+        try {
+            return objectMapper.readTree(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
 
-        return new DisbursementResponse(reference, status);
+    private static Throwable unwrap(Throwable error) {
+        Throwable t = error;
+        while ((t instanceof CompletionException || t instanceof ExecutionException) && t.getCause() != null) {
+            t = t.getCause();
+        }
+        return t;
+    }
+
+    /** Blocking bridge for synchronous callers; rethrows the original failure. */
+    private static <T> T await(CompletableFuture<T> future) throws Exception {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            Throwable cause = unwrap(e);
+            if (cause instanceof Exception ex) {
+                throw ex;
+            }
+            throw e;
+        }
     }
 
     /**
-     * Check status of a transaction by its Campay reference.
+     * Whether a failed {@code /collect/} or {@code /withdraw/} certainly did not reach Campay: the
+     * breaker rejected it, the connection was never made, or Campay refused it with a 4xx
+     * (including 401 / 429 once their retries are exhausted). After a read timeout, a 5xx or
+     * anything else the operation may have gone through, and only the webhook, a status lookup
+     * or an admin can tell.
      */
-    public String getTransactionStatus(String reference) throws Exception {
-        if (!config.isEnabled()) {
-            return "SUCCESSFUL";
+    public static boolean isNotExecuted(Throwable error) {
+        Throwable cause = unwrap(error);
+        if (cause instanceof CampayUnavailableException) {
+            return true;
         }
+        if (cause instanceof ConnectException || cause instanceof HttpConnectTimeoutException) {
+            return true;
+        }
+        if (cause instanceof CampayHttpException http) {
+            int status = http.getStatusCode();
+            return status >= 400 && status < 500;
+        }
+        return false;
+    }
 
-        String token = getToken();
-        HttpRequest request = HttpRequest.newBuilder()
-            .uri(URI.create(config.getBaseUrl() + "/transaction/" + reference + "/"))
-            .header("Authorization", "Token " + token)
-            .GET()
-            .build();
+    // --- Transaction statuses ---
+
+    /** Campay status of a transaction that went through: the ledger transaction is POSTED. */
+    public static boolean isSuccessfulStatus(String status) {
+        return status != null && status.toUpperCase(Locale.ROOT).contains("SUCCESS");
+    }
+
+    /** Campay status of a transaction that will never go through: the ledger transaction is VOID. */
+    public static boolean isFailedStatus(String status) {
+        if (status == null) {
+            return false;
+        }
+        String s = status.toUpperCase(Locale.ROOT);
+        return s.contains("FAIL") || s.contains("CANCEL") || s.contains("EXPIR") || s.contains("REJECT");
+    }
 
-        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
-        JsonNode json = objectMapper.readTree(response.body());
-        return json.has("status") ? json.get("status").asText() : "UNKNOWN";
+    /** Whether a webhook or a status lookup settles the transaction; any other status is still pending. */
+    public static boolean isTerminalStatus(String status) {
+        return isSuccessfulStatus(status) || isFailedStatus(status);
     }
 
     // --- Response records ---
@@ -0,0 +1,286 @@
+package com.binbash.mobigo.service;
+
+import com.binbash.mobigo.config.ApplicationProperties;
+import com.binbash.mobigo.domain.CampayWebhookEvent;
+import com.binbash.mobigo.domain.enumeration.CampayWebhookEventState;
+import com.binbash.mobigo.repository.CampayWebhookEventRepository;
+import com.binbash.mobigo.repository.LedgerTransactionRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Durable inbound queue for Campay callbacks. The webhook endpoint only verifies the
+ * signature and {@link #enqueue enqueues} the event; {@link #drain()} then applies due
+ * events on a bounded worker pool through {@link WalletService#handleCampayCallback} or
+ * {@link PaymentService#handleWebhook}, one event per reference at a time and in arrival
+ * order. Failures are retried with exponential backoff, then dead-lettered (state DEAD)
+ * until an admin {@link #requeue requeues} them.
+ */
+@Service
+public class CampayWebhookQueueService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CampayWebhookQueueService.class);
+
+    /** How long a claimed event stays invisible to other drainers (crash recovery). */
+    static final Duration LEASE = Duration.ofMinutes(5);
+    static final Duration MAX_BACKOFF = Duration.ofHours(1);
+
+    private final CampayWebhookEventRepository eventRepo;
+    private final LedgerTransactionRepository ledgerTransactionRepository;
+    private final WalletService walletService;
+    private final PaymentService paymentService;
+    private final TransactionTemplate txTemplate;
+    private final ExecutorService workers;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Counter receivedCounter;
+    private final Counter duplicateCounter;
+    private final Counter processedCounter;
+    private final Counter retriedCounter;
+    private final Counter deadCounter;
+
+    public CampayWebhookQueueService(
+        CampayWebhookEventRepository eventRepo,
+        LedgerTransactionRepository ledgerTransactionRepository,
+        WalletService walletService,
+        PaymentService paymentService,
+        PlatformTransactionManager transactionManager,
+        ApplicationProperties applicationProperties,
+        MeterRegistry registry
+    ) {
+        this.eventRepo = eventRepo;
+        this.ledgerTransactionRepository = ledgerTransactionRepository;
+        this.walletService = walletService;
+        this.paymentService = paymentService;
+        this.txTemplate = new TransactionTemplate(transactionManager);
+        ApplicationProperties.Campay campay = applicationProperties.getCampay();
+        this.batchSize = Math.max(1, campay.getWebhookBatchSize());
+        this.maxAttempts = Math.max(1, campay.getWebhookMaxAttempts());
+        this.workers = Executors.newFixedThreadPool(Math.max(1, campay.getWebhookWorkers()), r -> {
+            Thread t = new Thread(r, "campay-webhook");
+            t.setDaemon(true);
+            return t;
+        });
+        this.receivedCounter = eventCounter(registry, "received");
+        this.duplicateCounter = eventCounter(registry, "duplicate");
+        this.processedCounter = eventCounter(registry, "processed");
+        this.retriedCounter = eventCounter(registry, "retried");
+        this.deadCounter = eventCounter(registry, "dead");
+    }
+
+    private static Counter eventCounter(MeterRegistry registry, String outcome) {
+        return Counter.builder("campay.webhook.events")
+            .description("Campay webhook events by outcome")
+            .tag("outcome", outcome)
+            .register(registry);
+    }
+
+    /**
+     * Persists a verified callback. Returns {@code false} if the same callback (same
+     * references and status) was already received; Campay redelivers on timeouts.
+     */
+    public boolean enqueue(String reference, String externalReference, String status, String rawBody) {
+        String dedupeKey = dedupeKey(reference, externalReference, status);
+        Instant now = Instant.now();
+        CampayWebhookEvent event = new CampayWebhookEvent()
+            .dedupeKey(dedupeKey)
+            .orderKey(externalReference != null ? externalReference : reference)
+            .reference(reference)
+            .externalReference(externalReference)
+            .status(status)
+            .payload(rawBody)
+            .state(CampayWebhookEventState.PENDING)
+            .receivedAt(now)
+            .nextAttemptAt(now);
+        try {
+            Boolean saved = txTemplate.execute(st -> {
+                if (eventRepo.existsByDedupeKey(dedupeKey)) {
+                    return false;
+                }
+                eventRepo.saveAndFlush(event);
+                return true;
+            });
+            if (Boolean.TRUE.equals(saved)) {
+                receivedCounter.increment();
+                return true;
+            }
+        } catch (DataIntegrityViolationException e) {
+            // Concurrent redelivery won the unique-key race.
+            LOG.debug("Duplicate Campay webhook {}", dedupeKey);
+        }
+        duplicateCounter.increment();
+        return false;
+    }
+
+    static String dedupeKey(String reference, String externalReference, String status) {
+        String raw = reference + "|" + externalReference + "|" + (status == null ? "" : status.toUpperCase(Locale.ROOT));
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(raw.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${application.campay.webhook-poll-delay-ms:1000}")
+    public void scheduledDrain() {
+        drain();
+    }
+
+    /**
+     * Claims and applies due events until the queue has none left. Returns the number of
+     * events attempted.
+     */
+    public int drain() {
+        int total = 0;
+        while (true) {
+            List<Long> ids = claimBatch();
+            if (ids.isEmpty()) {
+                return total;
+            }
+            total += ids.size();
+            List<Future<?>> futures = new ArrayList<>(ids.size());
+            for (Long id : ids) {
+                futures.add(workers.submit(() -> process(id)));
+            }
+            for (Future<?> f : futures) {
+                try {
+                    f.get();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return total;
+                } catch (ExecutionException e) {
+                    LOG.error("Campay webhook worker failed: {}", e.getCause().getMessage());
+                }
+            }
+            if (ids.size() < batchSize) {
+                return total;
+            }
+        }
+    }
+
+    List<Long> claimBatch() {
+        List<Long> ids = txTemplate.execute(st -> {
+            Instant now = Instant.now();
+            List<Long> due = eventRepo.lockDueIds(now, batchSize);
+            if (!due.isEmpty()) {
+                eventRepo.leaseUntil(due, now.plus(LEASE));
+            }
+            return due;
+        });
+        return ids == null ? List.of() : ids;
+    }
+
+    void process(Long id) {
+        try {
+            txTemplate.executeWithoutResult(st -> {
+                CampayWebhookEvent event = eventRepo.findById(id).orElse(null);
+                if (event == null || event.getState() != CampayWebhookEventState.PENDING) {
+                    return;
+                }
+                dispatch(event);
+                event.setState(CampayWebhookEventState.PROCESSED);
+                event.setProcessedAt(Instant.now());
+                event.setAttempts(event.getAttempts() + 1);
+                eventRepo.save(event);
+            });
+            processedCounter.increment();
+        } catch (Exception e) {
+            recordFailure(id, e);
+        }
+    }
+
+    private void dispatch(CampayWebhookEvent event) {
+        String externalReference = event.getExternalReference();
+        if (externalReference != null && isLedgerTransaction(externalReference)) {
+            walletService.handleCampayCallback(externalReference, event.getStatus());
+            return;
+        }
+        // Fallback: legacy paymentService handler for non-ledger transactions
+        paymentService.handleWebhook(event.getReference(), event.getStatus(), externalReference);
+    }
+
+    /** Ledger-backed reference, live or already archived (a late duplicate webhook is then a no-op). */
+    private boolean isLedgerTransaction(String externalReference) {
+        return (
+            ledgerTransactionRepository.findByExternalReference(externalReference).isPresent() ||
+            ledgerTransactionRepository.existsArchivedByExternalReference(externalReference)
+        );
+    }
+
+    private void recordFailure(Long id, Exception cause) {
+        String message = cause.getMessage() == null ? cause.getClass().getSimpleName() : cause.getMessage();
+        txTemplate.executeWithoutResult(st ->
+            eventRepo
+                .findById(id)
+                .ifPresent(event -> {
+                    int attempts = event.getAttempts() + 1;
+                    event.setAttempts(attempts);
+                    event.setLastError(message.length() > 500 ? message.substring(0, 500) : message);
+                    if (attempts >= maxAttempts) {
+                        event.setState(CampayWebhookEventState.DEAD);
+                        deadCounter.increment();
+                        LOG.error("Campay webhook {} dead-lettered after {} attempts: {}", event.getOrderKey(), attempts, message);
+                    } else {
+                        event.setNextAttemptAt(Instant.now().plus(backoff(attempts)));
+                        retriedCounter.increment();
+                        LOG.warn("Campay webhook {} failed (attempt {}), will retry: {}", event.getOrderKey(), attempts, message);
+                    }
+                    eventRepo.save(event);
+                })
+        );
+    }
+
+    /** 2^attempts seconds, capped at {@link #MAX_BACKOFF}. */
+    static Duration backoff(int attempts) {
+        Duration delay = Duration.ofSeconds(1L << Math.min(attempts, 20));
+        return delay.compareTo(MAX_BACKOFF) > 0 ? MAX_BACKOFF : delay;
+    }
+
+    /** Puts a DEAD event back in the queue with a fresh attempt budget. */
+    public Optional<CampayWebhookEvent> requeue(Long id) {
+        return txTemplate.execute(st ->
+            eventRepo
+                .findById(id)
+                .filter(event -> event.getState() == CampayWebhookEventState.DEAD)
+                .map(event -> {
+                    event.setState(CampayWebhookEventState.PENDING);
+                    event.setAttempts(0);
+                    event.setNextAttemptAt(Instant.now());
+                    event.setLastError(null);
+                    return eventRepo.save(event);
+                })
+        );
+    }
+
+    @PreDestroy
+    void shutdown() {
+        workers.shutdownNow();
+    }
+
+    public List<CampayWebhookEvent> findByState(CampayWebhookEventState state, int size) {
+        return eventRepo.findByStateOrderByIdDesc(state, PageRequest.of(0, Math.max(1, Math.min(size, 200))));
+    }
+}
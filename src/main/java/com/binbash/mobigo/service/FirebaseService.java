@@ -1,17 +1,29 @@
 package com.binbash.mobigo.service;
 
 import com.binbash.mobigo.config.ApplicationProperties;
+import com.binbash.mobigo.repository.DeviceTokenRepository;
 import com.google.auth.oauth2.GoogleCredentials;
 import com.google.firebase.FirebaseApp;
 import com.google.firebase.FirebaseOptions;
+import com.google.firebase.messaging.BatchResponse;
 import com.google.firebase.messaging.FirebaseMessaging;
+import com.google.firebase.messaging.FirebaseMessagingException;
 import com.google.firebase.messaging.Message;
+import com.google.firebase.messaging.MessagingErrorCode;
 import com.google.firebase.messaging.Notification;
+import com.google.firebase.messaging.SendResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.annotation.PostConstruct;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
@@ -21,11 +33,56 @@ public class FirebaseService {
 
     private static final Logger LOG = LoggerFactory.getLogger(FirebaseService.class);
 
+    /** FCM limit of messages per {@link FirebaseMessaging#sendEach} call. */
+    static final int MAX_MESSAGES_PER_CALL = 500;
+
+    /**
+     * Errors meaning the token itself is dead (app uninstalled, token rotated, or issued for
+     * another Firebase project); such tokens are deleted. INVALID_ARGUMENT is not included:
+     * it is also returned for a bad payload, which says nothing about the token.
+     */
+    private static final Set<MessagingErrorCode> DEAD_TOKEN_ERRORS = EnumSet.of(
+        MessagingErrorCode.UNREGISTERED,
+        MessagingErrorCode.SENDER_ID_MISMATCH
+    );
+
+    /** One push to one device. {@code data} is the optional JSON payload. */
+    public record PushMessage(String token, String title, String body, String data) {}
+
+    public record PushResult(int sent, int failed, int pruned) {
+        static final PushResult NONE = new PushResult(0, 0, 0);
+
+        PushResult plus(PushResult other) {
+            return new PushResult(sent + other.sent, failed + other.failed, pruned + other.pruned);
+        }
+    }
+
     private final ApplicationProperties applicationProperties;
-    private boolean initialized = false;
+    private final DeviceTokenRepository deviceTokenRepository;
+    private final Counter sentCounter;
+    private final Counter failedCounter;
+    private final Counter prunedCounter;
+    private volatile FirebaseMessaging messaging;
 
-    public FirebaseService(ApplicationProperties applicationProperties) {
+    public FirebaseService(
+        ApplicationProperties applicationProperties,
+        DeviceTokenRepository deviceTokenRepository,
+        MeterRegistry registry
+    ) {
         this.applicationProperties = applicationProperties;
+        this.deviceTokenRepository = deviceTokenRepository;
+        this.sentCounter = pushCounter(registry, "sent");
+        this.failedCounter = pushCounter(registry, "failed");
+        this.prunedCounter = Counter.builder("firebase.push.tokens.pruned")
+            .description("Dead FCM device tokens deleted after a send")
+            .register(registry);
+    }
+
+    private static Counter pushCounter(MeterRegistry registry, String outcome) {
+        return Counter.builder("firebase.push.messages")
+            .description("FCM messages by outcome")
+            .tag("outcome", outcome)
+            .register(registry);
     }
 
     @PostConstruct
@@ -46,47 +103,93 @@ public class FirebaseService {
                 InputStream serviceAccount = Files.newInputStream(Path.of(credentialsPath));
                 FirebaseOptions options = FirebaseOptions.builder().setCredentials(GoogleCredentials.fromStream(serviceAccount)).build();
                 FirebaseApp.initializeApp(options);
-                initialized = true;
                 LOG.info("Firebase initialized successfully");
             } else {
-                initialized = true;
                 LOG.info("Firebase already initialized");
             }
+            messaging = FirebaseMessaging.getInstance();
         } catch (IOException e) {
             LOG.error("Failed to initialize Firebase: {}", e.getMessage());
         }
     }
 
+    /** Uses the given app instead of the default one (tests against a local FCM stub). */
+    void initialize(FirebaseApp app) {
+        messaging = FirebaseMessaging.getInstance(app);
+    }
+
+    /** Uses the given client (tests that inspect the {@code sendEach} calls). */
+    void initialize(FirebaseMessaging messaging) {
+        this.messaging = messaging;
+    }
+
     /**
-     * Send a push notification to a specific device.
-     * @param deviceToken FCM device token
-     * @param title notification title
-     * @param body notification body
-     * @param data optional data payload (JSON string)
+     * Sends the pushes in chunks of {@value #MAX_MESSAGES_PER_CALL} messages per {@code sendEach},
+     * then deletes in one statement every token FCM reported as dead. {@code sendEach} still
+     * issues one HTTP request per message (the SDK runs them concurrently); chunking only bounds
+     * the number of SDK calls and their per-call limit.
      */
-    public void sendPush(String deviceToken, String title, String body, String data) {
-        if (!initialized) {
-            LOG.debug("Firebase not initialized, skipping push for token {}", deviceToken);
-            return;
+    public PushResult sendPushes(List<PushMessage> pushes) {
+        FirebaseMessaging fcm = messaging;
+        if (fcm == null) {
+            LOG.debug("Firebase not initialized, skipping {} pushes", pushes.size());
+            return PushResult.NONE;
+        }
+        PushResult total = PushResult.NONE;
+        Set<String> deadTokens = new LinkedHashSet<>();
+        for (int from = 0; from < pushes.size(); from += MAX_MESSAGES_PER_CALL) {
+            List<PushMessage> chunk = pushes.subList(from, Math.min(pushes.size(), from + MAX_MESSAGES_PER_CALL));
+            total = total.plus(sendChunk(fcm, chunk, deadTokens));
+        }
+        if (!deadTokens.isEmpty()) {
+            try {
+                int pruned = deviceTokenRepository.deleteByTokenIn(deadTokens);
+                prunedCounter.increment(pruned);
+                total = total.plus(new PushResult(0, 0, pruned));
+                LOG.info("Pruned {} dead FCM tokens", pruned);
+            } catch (Exception e) {
+                LOG.warn("Failed to prune {} dead FCM tokens: {}", deadTokens.size(), e.getMessage());
+            }
         }
+        return total;
+    }
 
+    private PushResult sendChunk(FirebaseMessaging fcm, List<PushMessage> chunk, Set<String> deadTokens) {
+        List<Message> messages = new ArrayList<>(chunk.size());
+        for (PushMessage push : chunk) {
+            Message.Builder builder = Message.builder()
+                .setToken(push.token())
+                .setNotification(Notification.builder().setTitle(push.title()).setBody(push.body()).build());
+            if (push.data() != null) {
+                builder.putData("payload", push.data());
+            }
+            messages.add(builder.build());
+        }
         try {
-            Message.Builder messageBuilder = Message.builder()
-                .setToken(deviceToken)
-                .setNotification(Notification.builder().setTitle(title).setBody(body).build());
-
-            if (data != null) {
-                messageBuilder.putData("payload", data);
+            BatchResponse response = fcm.sendEach(messages);
+            List<SendResponse> responses = response.getResponses();
+            for (int i = 0; i < responses.size(); i++) {
+                SendResponse r = responses.get(i);
+                if (!r.isSuccessful()) {
+                    FirebaseMessagingException error = r.getException();
+                    if (error != null && DEAD_TOKEN_ERRORS.contains(error.getMessagingErrorCode())) {
+                        deadTokens.add(chunk.get(i).token());
+                    } else {
+                        LOG.debug("Push to {} failed: {}", chunk.get(i).token(), error == null ? null : error.getMessage());
+                    }
+                }
             }
-
-            String response = FirebaseMessaging.getInstance().send(messageBuilder.build());
-            LOG.debug("Push notification sent: {}", response);
-        } catch (Exception e) {
-            LOG.warn("Failed to send push notification to {}: {}", deviceToken, e.getMessage());
+            sentCounter.increment(response.getSuccessCount());
+            failedCounter.increment(response.getFailureCount());
+            return new PushResult(response.getSuccessCount(), response.getFailureCount(), 0);
+        } catch (FirebaseMessagingException e) {
+            failedCounter.increment(chunk.size());
+            LOG.warn("Failed to send {} push notifications: {}", chunk.size(), e.getMessage());
+            return new PushResult(0, chunk.size(), 0);
         }
     }
 
     public boolean isInitialized() {
-        return initialized;
+        return messaging != null;
     }
 }
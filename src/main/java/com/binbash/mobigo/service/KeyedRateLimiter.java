@@ -0,0 +1,34 @@
+package com.binbash.mobigo.service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Spaces calls evenly per key (e.g. per mobile-money provider): each caller reserves the
+ * next free slot (1/rate apart) and sleeps until it. A rate ≤ 0 disables throttling.
+ */
+final class KeyedRateLimiter {
+
+    private final long intervalNanos;
+    private final Map<String, AtomicLong> nextSlot = new ConcurrentHashMap<>();
+
+    KeyedRateLimiter(double permitsPerSecond) {
+        this.intervalNanos = permitsPerSecond <= 0 ? 0 : (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond);
+    }
+
+    void acquire(String key) throws InterruptedException {
+        if (intervalNanos == 0) {
+            return;
+        }
+        long now = System.nanoTime();
+        long previous = nextSlot
+            .computeIfAbsent(key, k -> new AtomicLong(now))
+            .getAndAccumulate(now, (slot, n) -> Math.max(slot, n) + intervalNanos);
+        long wait = Math.max(previous, now) - now;
+        if (wait > 0) {
+            TimeUnit.NANOSECONDS.sleep(wait);
+        }
+    }
+}
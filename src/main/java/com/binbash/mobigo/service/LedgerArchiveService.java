@@ -0,0 +1,120 @@
+package com.binbash.mobigo.service;
+
+import com.binbash.mobigo.config.ApplicationProperties;
+import com.binbash.mobigo.domain.LedgerBalanceCheckpoint;
+import com.binbash.mobigo.repository.LedgerEntryRepository;
+import com.binbash.mobigo.repository.LedgerTransactionArchiveRepository;
+import com.binbash.mobigo.repository.LedgerTransactionRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Keeps {@code ledger_transaction} / {@code ledger_entry} small by moving settled history
+ * (POSTED or VOID, older than {@code application.ledger.archive-after-days}) to the
+ * {@code *_archive} tables. A transaction is only moved once every one of its lines is
+ * covered by the latest {@link LedgerBalanceCheckpoint} of its account, so reconciliation
+ * never needs the archive; statements and point-in-time balances read both tables.
+ * Each batch is copied and deleted in its own short transaction (locked with SKIP LOCKED),
+ * so a run can be interrupted at any point without losing or duplicating a line.
+ */
+@Service
+public class LedgerArchiveService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(LedgerArchiveService.class);
+
+    public record ArchiveRun(int transactions, int entries) {}
+
+    private final LedgerTransactionRepository txRepo;
+    private final LedgerEntryRepository entryRepo;
+    private final LedgerTransactionArchiveRepository archiveRepo;
+    private final TransactionTemplate txTemplate;
+    private final int afterDays;
+    private final int batchSize;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final Counter archivedCounter;
+
+    public LedgerArchiveService(
+        LedgerTransactionRepository txRepo,
+        LedgerEntryRepository entryRepo,
+        LedgerTransactionArchiveRepository archiveRepo,
+        PlatformTransactionManager transactionManager,
+        ApplicationProperties applicationProperties,
+        MeterRegistry registry
+    ) {
+        this.txRepo = txRepo;
+        this.entryRepo = entryRepo;
+        this.archiveRepo = archiveRepo;
+        this.txTemplate = new TransactionTemplate(transactionManager);
+        this.afterDays = Math.max(1, applicationProperties.getLedger().getArchiveAfterDays());
+        this.batchSize = Math.max(1, applicationProperties.getLedger().getArchiveBatchSize());
+        this.archivedCounter = Counter.builder("ledger.archive.transactions")
+            .description("Ledger transactions moved to the archive tables")
+            .register(registry);
+    }
+
+    @Scheduled(fixedDelayString = "${application.ledger.archive-delay-ms:86400000}", initialDelay = 600000)
+    public void scheduledArchive() {
+        archive();
+    }
+
+    /**
+     * Archives every eligible transaction. Returns {@code null} if a run is already in progress.
+     */
+    public ArchiveRun archive() {
+        if (!running.compareAndSet(false, true)) {
+            LOG.info("Ledger archive already running, skipping");
+            return null;
+        }
+        try {
+            Instant before = Instant.now().minus(Duration.ofDays(afterDays));
+            long afterId = 0L;
+            int transactions = 0;
+            int entries = 0;
+            while (true) {
+                long from = afterId;
+                Batch batch = txTemplate.execute(st -> archiveBatch(before, from));
+                if (batch == null || batch.ids().isEmpty()) {
+                    break;
+                }
+                transactions += batch.ids().size();
+                entries += batch.entries();
+                archivedCounter.increment(batch.ids().size());
+                afterId = batch.ids().get(batch.ids().size() - 1);
+                if (batch.ids().size() < batchSize) {
+                    break;
+                }
+            }
+            if (transactions > 0) {
+                LOG.info("Archived {} ledger transactions ({} entries) created before {}", transactions, entries, before);
+            }
+            return new ArchiveRun(transactions, entries);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private record Batch(List<Long> ids, int entries) {}
+
+    private Batch archiveBatch(Instant before, long afterId) {
+        List<Long> ids = txRepo.lockArchivableIds(before, afterId, batchSize);
+        if (ids.isEmpty()) {
+            return new Batch(ids, 0);
+        }
+        archiveRepo.copyTransactions(ids, Instant.now());
+        int entries = archiveRepo.copyEntries(ids);
+        entryRepo.deleteByTransactionIds(ids);
+        txRepo.deleteByIds(ids);
+        return new Batch(ids, entries);
+    }
+}
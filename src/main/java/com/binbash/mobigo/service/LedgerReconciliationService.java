@@ -0,0 +1,281 @@
+package com.binbash.mobigo.service;
+
+import com.binbash.mobigo.config.ApplicationProperties;
+import com.binbash.mobigo.domain.LedgerAccount;
+import com.binbash.mobigo.domain.LedgerBalanceCheckpoint;
+import com.binbash.mobigo.domain.enumeration.LedgerTransactionStatus;
+import com.binbash.mobigo.repository.LedgerAccountRepository;
+import com.binbash.mobigo.repository.LedgerBalanceCheckpointRepository;
+import com.binbash.mobigo.repository.LedgerEntryRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Verifies that every {@link LedgerAccount#getBalance()} equals the sum of its POSTED
+ * entries, incrementally from the account's latest {@link LedgerBalanceCheckpoint}, and
+ * advances the checkpoint. Accounts are partitioned across a bounded worker pool; each
+ * account is checked in its own REPEATABLE READ transaction so the balance and the entry
+ * statuses come from the same snapshot. Drift is exposed as metrics and in
+ * {@link #getLastReport()}.
+ */
+@Service
+public class LedgerReconciliationService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(LedgerReconciliationService.class);
+
+    public record AccountDrift(Long accountId, String accountKey, BigDecimal balance, BigDecimal expected, BigDecimal drift) {}
+
+    public record ReconciliationReport(
+        Instant startedAt,
+        Instant finishedAt,
+        int accountsChecked,
+        int checkpointsWritten,
+        int failures,
+        List<AccountDrift> drifts
+    ) {}
+
+    record AccountResult(AccountDrift drift, boolean checkpointWritten) {}
+
+    private final LedgerAccountRepository accountRepo;
+    private final LedgerEntryRepository entryRepo;
+    private final LedgerBalanceCheckpointRepository checkpointRepo;
+    private final TransactionTemplate snapshotTx;
+    private final TransactionTemplate readTx;
+    private final int workers;
+    private final long checkpointGraceMs;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final AtomicInteger driftedAccounts = new AtomicInteger();
+    private final AtomicLong absoluteDrift = new AtomicLong();
+    private final Counter checkedCounter;
+    private final Counter driftCounter;
+    private final Timer runTimer;
+    private volatile ReconciliationReport lastReport;
+
+    public LedgerReconciliationService(
+        LedgerAccountRepository accountRepo,
+        LedgerEntryRepository entryRepo,
+        LedgerBalanceCheckpointRepository checkpointRepo,
+        PlatformTransactionManager transactionManager,
+        ApplicationProperties applicationProperties,
+        MeterRegistry registry
+    ) {
+        this.accountRepo = accountRepo;
+        this.entryRepo = entryRepo;
+        this.checkpointRepo = checkpointRepo;
+        this.snapshotTx = new TransactionTemplate(transactionManager);
+        this.snapshotTx.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.readTx = new TransactionTemplate(transactionManager);
+        this.readTx.setReadOnly(true);
+        this.workers = Math.max(1, applicationProperties.getLedger().getReconciliationWorkers());
+        this.checkpointGraceMs = Math.max(0, applicationProperties.getLedger().getCheckpointGraceMs());
+        this.checkedCounter = Counter.builder("ledger.reconciliation.accounts")
+            .description("Ledger accounts verified by the reconciliation job")
+            .register(registry);
+        this.driftCounter = Counter.builder("ledger.reconciliation.drifts")
+            .description("Ledger accounts found with a balance different from the sum of their POSTED entries")
+            .register(registry);
+        this.runTimer = Timer.builder("ledger.reconciliation.duration").description("Duration of a reconciliation run").register(registry);
+        Gauge.builder("ledger.reconciliation.drifted.accounts", driftedAccounts, AtomicInteger::get)
+            .description("Accounts drifted at the last reconciliation run")
+            .register(registry);
+        Gauge.builder("ledger.reconciliation.drift.total", absoluteDrift, AtomicLong::get)
+            .description("Σ|drift| (FCFA) over all accounts at the last reconciliation run")
+            .register(registry);
+    }
+
+    @Scheduled(fixedDelayString = "${application.ledger.reconciliation-delay-ms:3600000}", initialDelay = 300000)
+    public void scheduledReconciliation() {
+        LOG.info("Running scheduled ledger reconciliation");
+        reconcileAll();
+    }
+
+    /**
+     * Reconciles every account. Returns {@code null} if a run is already in progress.
+     */
+    public ReconciliationReport reconcileAll() {
+        if (!running.compareAndSet(false, true)) {
+            LOG.info("Ledger reconciliation already running, skipping");
+            return null;
+        }
+        try {
+            return runTimer.record(this::doReconcileAll);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private ReconciliationReport doReconcileAll() {
+        Instant startedAt = Instant.now();
+        List<Long> accountIds = accountRepo.findAllIds();
+        ConcurrentLinkedQueue<AccountDrift> drifts = new ConcurrentLinkedQueue<>();
+        AtomicInteger checked = new AtomicInteger();
+        AtomicInteger checkpoints = new AtomicInteger();
+        AtomicInteger failures = new AtomicInteger();
+
+        int poolSize = Math.min(workers, Math.max(1, accountIds.size()));
+        ExecutorService pool = Executors.newFixedThreadPool(poolSize, r -> {
+            Thread t = new Thread(r, "ledger-reconciliation");
+            t.setDaemon(true);
+            return t;
+        });
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int w = 0; w < poolSize; w++) {
+                // Static partition: worker w takes every poolSize-th account.
+                final int slice = w;
+                futures.add(
+                    pool.submit(() -> {
+                        for (int i = slice; i < accountIds.size(); i += poolSize) {
+                            Long accountId = accountIds.get(i);
+                            try {
+                                AccountResult result = reconcileAccount(accountId);
+                                checked.incrementAndGet();
+                                if (result.checkpointWritten()) {
+                                    checkpoints.incrementAndGet();
+                                }
+                                if (result.drift() != null) {
+                                    drifts.add(result.drift());
+                                }
+                            } catch (Exception e) {
+                                failures.incrementAndGet();
+                                LOG.error("Reconciliation failed for ledger account {}: {}", accountId, e.getMessage());
+                            }
+                        }
+                    })
+                );
+            }
+            for (Future<?> f : futures) {
+                f.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Ledger reconciliation interrupted", e);
+        } catch (Exception e) {
+            throw new IllegalStateException("Ledger reconciliation failed", e);
+        } finally {
+            pool.shutdownNow();
+        }
+
+        List<AccountDrift> sorted = drifts.stream().sorted(Comparator.comparing(AccountDrift::accountKey)).toList();
+        checkedCounter.increment(checked.get());
+        driftCounter.increment(sorted.size());
+        driftedAccounts.set(sorted.size());
+        absoluteDrift.set(sorted.stream().map(d -> d.drift().abs()).reduce(BigDecimal.ZERO, BigDecimal::add).longValue());
+        ReconciliationReport report = new ReconciliationReport(
+            startedAt,
+            Instant.now(),
+            checked.get(),
+            checkpoints.get(),
+            failures.get(),
+            sorted
+        );
+        lastReport = report;
+        if (sorted.isEmpty()) {
+            LOG.info("Ledger reconciliation OK: {} accounts, {} checkpoints written", checked.get(), checkpoints.get());
+        } else {
+            LOG.warn("Ledger reconciliation found {} drifted accounts out of {}", sorted.size(), checked.get());
+        }
+        return report;
+    }
+
+    /**
+     * Verifies one account from its latest checkpoint and writes a new checkpoint up to the
+     * stable watermark: the newest line whose transaction is older than the checkpoint grace
+     * period (a younger line may sit next to a lower id that is not committed yet, hence
+     * invisible to this snapshot), and just below the account's oldest DRAFT line, since a
+     * DRAFT line can still become POSTED.
+     */
+    AccountResult reconcileAccount(Long accountId) {
+        return snapshotTx.execute(st -> {
+            LedgerAccount account = accountRepo.findById(accountId).orElse(null);
+            if (account == null) {
+                return new AccountResult(null, false);
+            }
+            Optional<LedgerBalanceCheckpoint> checkpoint = checkpointRepo.findFirstByAccountIdOrderByLastEntryIdDesc(accountId);
+            long fromId = checkpoint.map(LedgerBalanceCheckpoint::getLastEntryId).orElse(0L);
+            BigDecimal base = checkpoint.map(LedgerBalanceCheckpoint::getBalance).orElse(BigDecimal.ZERO);
+
+            Long maxId = entryRepo.findMaxIdByAccountId(accountId);
+            long upToId = maxId == null ? fromId : Math.max(fromId, maxId);
+            // Both watermark bounds only look at the tail past the checkpoint: lines at or below it
+            // are settled already, and no DRAFT line can sit there (the watermark always stops below one).
+            Instant cutoff = Instant.now().minusMillis(checkpointGraceMs);
+            Long settledId = entryRepo.findMaxIdByAccountIdAfterIdCreatedBefore(accountId, fromId, cutoff);
+            long watermark = settledId == null ? fromId : settledId;
+            Long oldestDraftId = entryRepo.findMinIdByAccountIdAfterIdAndStatus(accountId, fromId, LedgerTransactionStatus.DRAFT);
+            if (oldestDraftId != null) {
+                watermark = Math.min(watermark, oldestDraftId - 1);
+            }
+
+            BigDecimal expected = base;
+            boolean written = false;
+            if (watermark > fromId) {
+                BigDecimal stable = base.add(entryRepo.sumPostedDeltaInRange(accountId, fromId, watermark));
+                LedgerBalanceCheckpoint next = new LedgerBalanceCheckpoint()
+                    .accountId(accountId)
+                    .lastEntryId(watermark)
+                    .balance(stable)
+                    .checkpointAt(Instant.now());
+                checkpointRepo.save(next);
+                expected = stable;
+                fromId = watermark;
+                written = true;
+            }
+            if (upToId > fromId) {
+                expected = expected.add(entryRepo.sumPostedDeltaInRange(accountId, fromId, upToId));
+            }
+
+            BigDecimal drift = account.getBalance().subtract(expected);
+            if (drift.signum() == 0) {
+                return new AccountResult(null, written);
+            }
+            LOG.warn("Ledger drift on {}: balance={} expected={} drift={}", account.getAccountKey(), account.getBalance(), expected, drift);
+            return new AccountResult(new AccountDrift(accountId, account.getAccountKey(), account.getBalance(), expected, drift), written);
+        });
+    }
+
+    /**
+     * POSTED balance of an account as of {@code at}: the latest checkpoint taken at or before
+     * {@code at} plus the lines posted after it and no later than {@code at}.
+     */
+    public Optional<BigDecimal> balanceAt(String accountKey, Instant at) {
+        return readTx.execute(st ->
+            accountRepo
+                .findByAccountKey(accountKey)
+                .map(account -> {
+                    Optional<LedgerBalanceCheckpoint> checkpoint =
+                        checkpointRepo.findFirstByAccountIdAndCheckpointAtLessThanEqualOrderByLastEntryIdDesc(account.getId(), at);
+                    long fromId = checkpoint.map(LedgerBalanceCheckpoint::getLastEntryId).orElse(0L);
+                    BigDecimal base = checkpoint.map(LedgerBalanceCheckpoint::getBalance).orElse(BigDecimal.ZERO);
+                    return base.add(entryRepo.sumPostedDeltaAfterIdPostedBy(account.getId(), fromId, at));
+                })
+        );
+    }
+
+    public ReconciliationReport getLastReport() {
+        return lastReport;
+    }
+}
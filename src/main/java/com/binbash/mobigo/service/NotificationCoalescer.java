@@ -0,0 +1,190 @@
+package com.binbash.mobigo.service;
+
+import com.binbash.mobigo.config.ApplicationProperties;
+import com.binbash.mobigo.domain.enumeration.NotificationType;
+import com.binbash.mobigo.service.NotificationDispatcher.NotificationIntent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Merges bursts of notifications before they reach the {@link NotificationDispatcher}.
+ * <ul>
+ *   <li>{@link #coalesce}: intents for the same (user, type, subject) received within
+ *   {@code application.notification.coalesce-window-ms} of the first one become a single
+ *   notification, sent when the window closes (e.g. several edits of the same ride).</li>
+ *   <li>{@link #digest}: intents of the {@code application.notification.digest-types} are
+ *   held per (user, type) and sent as one summary every
+ *   {@code application.notification.digest-interval-ms}.</li>
+ * </ul>
+ * The merged notification carries the latest title, message and data, plus a
+ * {@code count} entry. Pending intents are only held in memory, as the dispatcher queue.
+ */
+@Service
+public class NotificationCoalescer {
+
+    private static final Logger LOG = LoggerFactory.getLogger(NotificationCoalescer.class);
+
+    private record Key(Long userId, NotificationType type, Object subject) {}
+
+    private static final class Pending {
+
+        private final long dueAt;
+        private final boolean digest;
+        private NotificationIntent latest;
+        private int count;
+
+        private Pending(NotificationIntent intent, long dueAt, boolean digest) {
+            this.latest = intent;
+            this.dueAt = dueAt;
+            this.digest = digest;
+            this.count = 1;
+        }
+    }
+
+    private final NotificationDispatcher dispatcher;
+    private final long windowMs;
+    private final long digestIntervalMs;
+    private final Set<NotificationType> digestTypes = EnumSet.noneOf(NotificationType.class);
+    private final Map<Key, Pending> pending = new ConcurrentHashMap<>();
+    private final Counter mergedCounter;
+    private final Counter flushedCounter;
+    private volatile ScheduledExecutorService ticker;
+
+    public NotificationCoalescer(NotificationDispatcher dispatcher, ApplicationProperties applicationProperties, MeterRegistry registry) {
+        this.dispatcher = dispatcher;
+        ApplicationProperties.Notification props = applicationProperties.getNotification();
+        this.windowMs = Math.max(0, props.getCoalesceWindowMs());
+        this.digestIntervalMs = Math.max(0, props.getDigestIntervalMs());
+        if (props.getDigestTypes() != null) {
+            this.digestTypes.addAll(props.getDigestTypes());
+        }
+        this.mergedCounter = Counter.builder("notification.coalesce.merged")
+            .description("Notification intents merged into a pending notification")
+            .register(registry);
+        this.flushedCounter = Counter.builder("notification.coalesce.flushed")
+            .description("Coalesced notifications handed to the dispatcher")
+            .register(registry);
+        Gauge.builder("notification.coalesce.pending", pending, Map::size)
+            .description("Coalesced notifications waiting for their window to close")
+            .register(registry);
+    }
+
+    @PostConstruct
+    public void start() {
+        ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "notification-coalescer");
+            t.setDaemon(true);
+            return t;
+        });
+        executor.scheduleWithFixedDelay(() -> flushDue(System.currentTimeMillis()), 1, 1, TimeUnit.SECONDS);
+        ticker = executor;
+    }
+
+    @PreDestroy
+    public void stop() {
+        ScheduledExecutorService executor = ticker;
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+        flushDue(Long.MAX_VALUE);
+    }
+
+    public boolean isDigestType(NotificationType type) {
+        return digestTypes.contains(type);
+    }
+
+    /** Holds the intent until the coalescing window of its (user, type, subject) closes. */
+    public void coalesce(NotificationIntent intent, Object subject) {
+        submitAfterCommit(new Key(intent.userId(), intent.type(), subject), intent, windowMs, false);
+    }
+
+    /** Holds the intent until the next digest of its (user, type). */
+    public void digest(NotificationIntent intent) {
+        submitAfterCommit(new Key(intent.userId(), intent.type(), null), intent, digestIntervalMs, true);
+    }
+
+    private void submitAfterCommit(Key key, NotificationIntent intent, long delayMs, boolean digest) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        submit(key, intent, delayMs, digest);
+                    }
+                }
+            );
+        } else {
+            submit(key, intent, delayMs, digest);
+        }
+    }
+
+    private void submit(Key key, NotificationIntent intent, long delayMs, boolean digest) {
+        if (delayMs == 0) {
+            dispatcher.enqueue(intent);
+            return;
+        }
+        long now = System.currentTimeMillis();
+        pending.compute(key, (k, p) -> {
+            if (p == null) {
+                return new Pending(intent, now + delayMs, digest);
+            }
+            p.latest = intent;
+            p.count++;
+            mergedCounter.increment();
+            return p;
+        });
+    }
+
+    /** Hands every pending notification whose window closed at {@code now} to the dispatcher. */
+    void flushDue(long now) {
+        List<Pending> due = new ArrayList<>();
+        for (Key key : pending.keySet()) {
+            pending.computeIfPresent(key, (k, p) -> {
+                if (p.dueAt > now) {
+                    return p;
+                }
+                due.add(p);
+                return null;
+            });
+        }
+        for (Pending p : due) {
+            try {
+                dispatcher.enqueue(merge(p));
+                flushedCounter.increment();
+            } catch (Exception e) {
+                LOG.warn("Failed to dispatch coalesced notification for user {}: {}", p.latest.userId(), e.getMessage());
+            }
+        }
+    }
+
+    private static NotificationIntent merge(Pending p) {
+        NotificationIntent latest = p.latest;
+        if (p.count == 1) {
+            return latest;
+        }
+        String message = p.digest
+            ? p.count + " nouvelles notifications. Derni\u00e8re : " + latest.message()
+            : latest.message() + " (" + p.count + " mises \u00e0 jour)";
+        Map<String, Object> data = latest.data() == null ? new HashMap<>() : new HashMap<>(latest.data());
+        data.put("count", p.count);
+        return new NotificationIntent(latest.userLogin(), latest.userId(), latest.type(), latest.title(), message, data);
+    }
+}
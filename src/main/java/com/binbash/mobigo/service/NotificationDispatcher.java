@@ -0,0 +1,357 @@
+package com.binbash.mobigo.service;
+
+import com.binbash.mobigo.config.ApplicationProperties;
+import com.binbash.mobigo.domain.DeviceToken;
+import com.binbash.mobigo.domain.Notification;
+import com.binbash.mobigo.domain.enumeration.NotificationType;
+import com.binbash.mobigo.repository.DeviceTokenRepository;
+import com.binbash.mobigo.repository.NotificationRepository;
+import com.binbash.mobigo.service.FirebaseService.PushMessage;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.messaging.simp.SimpMessageSendingOperations;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Asynchronous fan-out of notifications. Callers {@link #enqueue} an intent (after their
+ * transaction commits, if one is active); a single batcher thread collects up to
+ * {@code application.notification.batch-size} intents, inserts them with one
+ * {@code saveAll} (bumping the unread counter of each recipient in the same transaction),
+ * loads the device tokens of every recipient in one query, then delivers the WebSocket
+ * frames on a bounded worker pool while the pushes of the whole batch go to FCM in batched
+ * calls ({@link FirebaseService#sendPushes}). The batcher waits for a batch to
+ * be delivered before taking the next one, so at most one batch is in flight. When the
+ * queue is full the caller dispatches its own intent (caller-runs backpressure).
+ * The queue is in memory: intents not yet flushed are lost on a crash, as the previous
+ * fire-and-forget delivery was.
+ */
+@Service
+public class NotificationDispatcher {
+
+    private static final Logger LOG = LoggerFactory.getLogger(NotificationDispatcher.class);
+
+    public record NotificationIntent(
+        String userLogin,
+        Long userId,
+        NotificationType type,
+        String title,
+        String message,
+        Map<String, Object> data
+    ) {}
+
+    private final NotificationRepository notificationRepository;
+    private final DeviceTokenRepository deviceTokenRepository;
+    private final SimpMessageSendingOperations messagingTemplate;
+    private final FirebaseService firebaseService;
+    private final NotificationUnreadCountService unreadCountService;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate txTemplate;
+    private final BlockingQueue<NotificationIntent> queue;
+    private final int batchSize;
+    private final long lingerMs;
+    private final ExecutorService deliveryPool;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Counter queuedCounter;
+    private final Counter callerRunsCounter;
+    private final Counter failedCounter;
+    private final Counter websocketSentCounter;
+    private final Counter websocketFailedCounter;
+    private final Timer batchTimer;
+    private volatile Thread batcher;
+    private volatile boolean running;
+
+    public NotificationDispatcher(
+        NotificationRepository notificationRepository,
+        DeviceTokenRepository deviceTokenRepository,
+        SimpMessageSendingOperations messagingTemplate,
+        FirebaseService firebaseService,
+        NotificationUnreadCountService unreadCountService,
+        ObjectMapper objectMapper,
+        PlatformTransactionManager transactionManager,
+        ApplicationProperties applicationProperties,
+        MeterRegistry registry
+    ) {
+        this.notificationRepository = notificationRepository;
+        this.deviceTokenRepository = deviceTokenRepository;
+        this.messagingTemplate = messagingTemplate;
+        this.firebaseService = firebaseService;
+        this.unreadCountService = unreadCountService;
+        this.objectMapper = objectMapper;
+        this.txTemplate = new TransactionTemplate(transactionManager);
+        // Caller-runs dispatches happen in the afterCommit callback of the caller's transaction.
+        this.txTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        ApplicationProperties.Notification props = applicationProperties.getNotification();
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, props.getQueueCapacity()));
+        this.batchSize = Math.max(1, props.getBatchSize());
+        this.lingerMs = Math.max(0, props.getLingerMs());
+        this.deliveryPool = Executors.newFixedThreadPool(Math.max(1, props.getDeliveryWorkers()), r -> {
+            Thread t = new Thread(r, "notification-delivery");
+            t.setDaemon(true);
+            return t;
+        });
+        this.queuedCounter = intentCounter(registry, "queued");
+        this.callerRunsCounter = intentCounter(registry, "caller_runs");
+        this.failedCounter = intentCounter(registry, "failed");
+        this.websocketSentCounter = deliveryCounter(registry, "websocket", "sent");
+        this.websocketFailedCounter = deliveryCounter(registry, "websocket", "failed");
+        this.batchTimer = Timer.builder("notification.dispatch.batch")
+            .description("Persistence and delivery of one notification batch")
+            .register(registry);
+        Gauge.builder("notification.dispatch.queue.size", queue, BlockingQueue::size)
+            .description("Notification intents waiting for the batcher")
+            .register(registry);
+        Gauge.builder("notification.dispatch.inflight", inFlight, AtomicInteger::get)
+            .description("Notifications of the current batch not yet delivered")
+            .register(registry);
+    }
+
+    private static Counter intentCounter(MeterRegistry registry, String outcome) {
+        return Counter.builder("notification.dispatch.intents")
+            .description("Notification intents by outcome")
+            .tag("outcome", outcome)
+            .register(registry);
+    }
+
+    private static Counter deliveryCounter(MeterRegistry registry, String channel, String outcome) {
+        return Counter.builder("notification.delivery")
+            .description("Notification deliveries by channel and outcome")
+            .tag("channel", channel)
+            .tag("outcome", outcome)
+            .register(registry);
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        Thread t = new Thread(this::runBatcher, "notification-batcher");
+        t.setDaemon(true);
+        batcher = t;
+        t.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        Thread t = batcher;
+        if (t != null) {
+            t.interrupt();
+            try {
+                t.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        // Flush what is left on the stopping thread.
+        List<NotificationIntent> rest = new ArrayList<>();
+        queue.drainTo(rest);
+        for (int i = 0; i < rest.size(); i += batchSize) {
+            dispatchSafely(rest.subList(i, Math.min(rest.size(), i + batchSize)));
+        }
+        deliveryPool.shutdown();
+    }
+
+    /**
+     * Queues a notification. Inside a transaction the intent is only queued once it commits,
+     * so a rolled-back booking or payment never notifies anyone.
+     */
+    public void enqueue(NotificationIntent intent) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        offer(intent);
+                    }
+                }
+            );
+        } else {
+            offer(intent);
+        }
+    }
+
+    private void offer(NotificationIntent intent) {
+        if (queue.offer(intent)) {
+            queuedCounter.increment();
+            return;
+        }
+        callerRunsCounter.increment();
+        dispatchSafely(List.of(intent));
+    }
+
+    private void runBatcher() {
+        List<NotificationIntent> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                NotificationIntent first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(lingerMs);
+                while (batch.size() < batchSize) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    long left = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || left <= 0) {
+                        break;
+                    }
+                    NotificationIntent next = queue.poll(left, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                dispatchSafely(batch);
+            } catch (InterruptedException e) {
+                if (!running) {
+                    // Hand the partial batch back to stop(); what no longer fits is dispatched here.
+                    List<NotificationIntent> overflow = batch.stream().filter(intent -> !queue.offer(intent)).toList();
+                    if (!overflow.isEmpty()) {
+                        dispatchSafely(overflow);
+                    }
+                    return;
+                }
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Dispatches a batch; if it cannot be persisted, retries its intents one by one so that a
+     * single bad intent does not take the rest of the batch down with it.
+     */
+    private void dispatchSafely(List<NotificationIntent> batch) {
+        try {
+            dispatch(batch);
+        } catch (Exception e) {
+            if (batch.size() == 1) {
+                failedCounter.increment();
+                LOG.error("Failed to dispatch notification for user {}: {}", batch.get(0).userId(), e.getMessage());
+                return;
+            }
+            LOG.warn("Failed to dispatch {} notifications, retrying one by one: {}", batch.size(), e.getMessage());
+            for (NotificationIntent intent : batch) {
+                dispatchSafely(List.of(intent));
+            }
+        }
+    }
+
+    /**
+     * Persists a batch of intents in one transaction and delivers it. Returns the saved
+     * notifications, in intent order. Only a persistence failure propagates, so a batch that
+     * throws left no rows behind and can be dispatched again.
+     */
+    List<Notification> dispatch(List<NotificationIntent> batch) {
+        if (batch.isEmpty()) {
+            return List.of();
+        }
+        return batchTimer.record(() -> {
+            List<Notification> entities = batch.stream().map(this::toNotification).toList();
+            Map<Long, Long> unreadDeltas = batch
+                .stream()
+                .collect(Collectors.groupingBy(NotificationIntent::userId, Collectors.counting()));
+            Map<Long, String> logins = new HashMap<>();
+            batch.forEach(intent -> logins.putIfAbsent(intent.userId(), intent.userLogin()));
+            List<Notification> saved = txTemplate.execute(st -> {
+                List<Notification> rows = notificationRepository.saveAllAndFlush(entities);
+                unreadDeltas.forEach((userId, delta) -> unreadCountService.add(userId, logins.get(userId), delta));
+                return rows;
+            });
+            LOG.debug("Persisted {} notifications", saved.size());
+            try {
+                deliverBatch(batch, saved);
+            } catch (RuntimeException e) {
+                LOG.warn("Failed to deliver {} persisted notifications: {}", saved.size(), e.getMessage());
+            }
+            return saved;
+        });
+    }
+
+    private void deliverBatch(List<NotificationIntent> batch, List<Notification> saved) {
+        Set<Long> userIds = batch.stream().map(NotificationIntent::userId).collect(Collectors.toSet());
+        Map<Long, List<String>> tokens = deviceTokenRepository
+            .findByUserIdIn(userIds)
+            .stream()
+            .collect(Collectors.groupingBy(DeviceToken::getUserId, Collectors.mapping(DeviceToken::getToken, Collectors.toList())));
+
+        inFlight.addAndGet(saved.size());
+        List<Future<?>> futures = new ArrayList<>(saved.size() + 1);
+        List<PushMessage> pushes = new ArrayList<>();
+        for (int i = 0; i < saved.size(); i++) {
+            NotificationIntent intent = batch.get(i);
+            Notification notification = saved.get(i);
+            futures.add(deliveryPool.submit(() -> deliver(intent.userLogin(), notification)));
+            for (String token : tokens.getOrDefault(intent.userId(), List.of())) {
+                pushes.add(new PushMessage(token, notification.getTitle(), notification.getMessage(), notification.getData()));
+            }
+        }
+        if (!pushes.isEmpty()) {
+            futures.add(deliveryPool.submit(() -> firebaseService.sendPushes(pushes)));
+        }
+        for (Future<?> f : futures) {
+            try {
+                f.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (ExecutionException e) {
+                LOG.warn("Notification delivery failed: {}", e.getCause().getMessage());
+            }
+        }
+    }
+
+    private Notification toNotification(NotificationIntent intent) {
+        Notification notification = new Notification();
+        notification.setUserId(intent.userId());
+        notification.setType(intent.type());
+        notification.setTitle(intent.title());
+        notification.setMessage(intent.message());
+        notification.setRead(false);
+        if (intent.data() != null) {
+            try {
+                notification.setData(objectMapper.writeValueAsString(intent.data()));
+            } catch (Exception e) {
+                LOG.warn("Failed to serialize notification data: {}", e.getMessage());
+            }
+        }
+        return notification;
+    }
+
+    private void deliver(String userLogin, Notification notification) {
+        try {
+            messagingTemplate.convertAndSendToUser(userLogin, "/topic/notifications", notification);
+            websocketSentCounter.increment();
+        } catch (Exception e) {
+            websocketFailedCounter.increment();
+            LOG.warn("Failed to send WebSocket notification to user {}: {}", userLogin, e.getMessage());
+        } finally {
+            inFlight.decrementAndGet();
+        }
+    }
+}
@@ -7,6 +7,7 @@ import com.binbash.mobigo.domain.Ride;
 import com.binbash.mobigo.domain.enumeration.BookingStatusEnum;
 import com.binbash.mobigo.domain.enumeration.NotificationType;
 import com.binbash.mobigo.repository.BookingRepository;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -249,7 +250,8 @@ public class NotificationEventService {
     }
 
     /**
-     * A ride was modified -- notify all booked passengers.
+     * A ride was modified -- notify all booked passengers. Successive edits of the same
+     * ride within the coalescing window reach each passenger as one notification.
      */
     public void onTripModified(Ride ride) {
         try {
@@ -267,13 +269,14 @@ public class NotificationEventService {
                         data.put("rideId", ride.getId());
 
                         try {
-                            notificationService.createAndSend(
+                            notificationService.createAndSendCoalesced(
                                 passenger.getUser().getLogin(),
                                 passenger.getId(),
                                 NotificationType.TRIP_MODIFIED,
                                 title,
                                 message,
-                                data
+                                data,
+                                ride.getId()
                             );
                         } catch (Exception e) {
                             LOG.warn(
@@ -417,6 +420,21 @@ public class NotificationEventService {
         }
     }
 
+    /**
+     * Payments of these bookings expired in bulk -- one query for all bookings, then the same
+     * notification as {@link #onPaymentFailed} for each.
+     */
+    public void onPaymentsFailed(Collection<Long> bookingIds) {
+        if (bookingIds.isEmpty()) return;
+        try {
+            for (Booking booking : bookingRepository.findAllByIdWithRelations(bookingIds)) {
+                onPaymentFailed(booking);
+            }
+        } catch (Exception e) {
+            LOG.warn("Failed to notify payment failures for {} bookings: {}", bookingIds.size(), e.getMessage());
+        }
+    }
+
     public void onPaymentRefunded(Booking booking) {
         try {
             People passenger = booking.getPassager();
@@ -0,0 +1,118 @@
+package com.binbash.mobigo.service;
+
+import com.binbash.mobigo.config.ApplicationProperties;
+import com.binbash.mobigo.repository.NotificationRepository;
+import com.binbash.mobigo.repository.NotificationRepository.TableStats;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Keeps the {@code notification} table bounded: read notifications older than the
+ * {@code notification_retention_days} admin setting are deleted in batches of
+ * {@code application.notification.retention-batch-size}, each in its own short
+ * transaction so autovacuum can keep up and user updates are never blocked for long.
+ * Unread notifications are kept, so unread counters are not affected. Each run also
+ * refreshes the table size gauges.
+ */
+@Service
+public class NotificationRetentionService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(NotificationRetentionService.class);
+
+    private final NotificationRepository notificationRepository;
+    private final AppSettingService appSettingService;
+    private final TransactionTemplate txTemplate;
+    private final int batchSize;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final AtomicLong tableRows = new AtomicLong();
+    private final AtomicLong tableBytes = new AtomicLong();
+    private final Counter purgedCounter;
+
+    public NotificationRetentionService(
+        NotificationRepository notificationRepository,
+        AppSettingService appSettingService,
+        PlatformTransactionManager transactionManager,
+        ApplicationProperties applicationProperties,
+        MeterRegistry registry
+    ) {
+        this.notificationRepository = notificationRepository;
+        this.appSettingService = appSettingService;
+        this.txTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = Math.max(1, applicationProperties.getNotification().getRetentionBatchSize());
+        this.purgedCounter = Counter.builder("notification.retention.purged")
+            .description("Read notifications deleted by the retention purge")
+            .register(registry);
+        Gauge.builder("notification.table.rows", tableRows, AtomicLong::get)
+            .description("Estimated rows of the notification table, as of the last purge")
+            .register(registry);
+        Gauge.builder("notification.table.size", tableBytes, AtomicLong::get)
+            .description("Size on disk of the notification table and its indexes, as of the last purge")
+            .baseUnit("bytes")
+            .register(registry);
+    }
+
+    @Scheduled(fixedDelayString = "${application.notification.retention-delay-ms:3600000}", initialDelay = 300000)
+    public void scheduledPurge() {
+        purge();
+    }
+
+    /**
+     * Deletes every read notification past the retention. Returns the number of rows
+     * deleted, or -1 if a run is already in progress.
+     */
+    public int purge() {
+        if (!running.compareAndSet(false, true)) {
+            LOG.info("Notification purge already running, skipping");
+            return -1;
+        }
+        try {
+            int days = appSettingService.getNotificationRetentionDays();
+            int total = 0;
+            if (days > 0) {
+                Instant before = Instant.now().minus(Duration.ofDays(days));
+                while (true) {
+                    Integer deleted = txTemplate.execute(st -> notificationRepository.deleteReadBefore(before, batchSize));
+                    if (deleted == null || deleted == 0) {
+                        break;
+                    }
+                    total += deleted;
+                    purgedCounter.increment(deleted);
+                    if (deleted < batchSize) {
+                        break;
+                    }
+                }
+                if (total > 0) {
+                    LOG.info("Purged {} read notifications created before {}", total, before);
+                }
+            }
+            refreshTableStats();
+            return total;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private void refreshTableStats() {
+        try {
+            TableStats stats = notificationRepository.findTableStats();
+            if (stats != null) {
+                tableRows.set(stats.getRows() == null ? 0 : Math.max(0, stats.getRows()));
+                tableBytes.set(stats.getBytes() == null ? 0 : stats.getBytes());
+            }
+        } catch (Exception e) {
+            LOG.debug("Could not read notification table stats: {}", e.getMessage());
+        }
+    }
+}
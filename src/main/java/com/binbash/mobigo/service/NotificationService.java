@@ -1,19 +1,24 @@
 package com.binbash.mobigo.service;
 
-import com.binbash.mobigo.domain.DeviceToken;
+import com.binbash.mobigo.config.Constants;
 import com.binbash.mobigo.domain.Notification;
 import com.binbash.mobigo.domain.enumeration.NotificationType;
-import com.binbash.mobigo.repository.DeviceTokenRepository;
 import com.binbash.mobigo.repository.NotificationRepository;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.binbash.mobigo.security.SecurityUtils;
+import com.binbash.mobigo.service.NotificationDispatcher.NotificationIntent;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
-import org.springframework.messaging.simp.SimpMessageSendingOperations;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 @Service
@@ -22,27 +27,72 @@ public class NotificationService {
 
     private static final Logger LOG = LoggerFactory.getLogger(NotificationService.class);
 
+    static final int MAX_FEED_PAGE_SIZE = 100;
+
+    /**
+     * How far a {@code nextSince} handed back to a caught-up client lags behind now. The
+     * (createdDate, id) order is not the commit order: a notification stamped earlier may
+     * commit after a newer one was read, or come from a node with a slightly late clock.
+     * Such rows are picked up by the next sync as long as they commit within this window.
+     */
+    static final Duration SINCE_OVERLAP = Duration.ofSeconds(30);
+
+    /** Position in a user's feed, written {@code <createdDate>,<id>} (ISO-8601 instant). */
+    public record FeedCursor(Instant createdDate, Long id) {
+        public static FeedCursor of(Notification notification) {
+            return new FeedCursor(notification.getCreatedDate(), notification.getId());
+        }
+
+        /** @throws IllegalArgumentException if {@code value} is not a valid cursor. */
+        public static FeedCursor parse(String value) {
+            int comma = value.lastIndexOf(',');
+            if (comma <= 0) {
+                throw new IllegalArgumentException("Invalid feed cursor: " + value);
+            }
+            try {
+                return new FeedCursor(Instant.parse(value.substring(0, comma).trim()), Long.valueOf(value.substring(comma + 1).trim()));
+            } catch (DateTimeParseException | NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid feed cursor: " + value, e);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return createdDate + "," + id;
+        }
+    }
+
+    /**
+     * A page of the feed. {@code nextBefore} is set when older notifications may remain;
+     * {@code nextSince} is the cursor to pass to {@link #getFeedSince} on reconnect: the
+     * newest notification the client has seen, or now minus {@link #SINCE_OVERLAP} if older.
+     */
+    public record FeedPage(List<Notification> notifications, String nextBefore, String nextSince) {}
+
     private final NotificationRepository notificationRepository;
-    private final SimpMessageSendingOperations messagingTemplate;
-    private final ObjectMapper objectMapper;
-    private final FirebaseService firebaseService;
-    private final DeviceTokenRepository deviceTokenRepository;
+    private final NotificationDispatcher notificationDispatcher;
+    private final NotificationUnreadCountService unreadCountService;
+    private final NotificationCoalescer notificationCoalescer;
 
     public NotificationService(
         NotificationRepository notificationRepository,
-        SimpMessageSendingOperations messagingTemplate,
-        ObjectMapper objectMapper,
-        FirebaseService firebaseService,
-        DeviceTokenRepository deviceTokenRepository
+        NotificationDispatcher notificationDispatcher,
+        NotificationUnreadCountService unreadCountService,
+        NotificationCoalescer notificationCoalescer
     ) {
         this.notificationRepository = notificationRepository;
-        this.messagingTemplate = messagingTemplate;
-        this.objectMapper = objectMapper;
-        this.firebaseService = firebaseService;
-        this.deviceTokenRepository = deviceTokenRepository;
+        this.notificationDispatcher = notificationDispatcher;
+        this.unreadCountService = unreadCountService;
+        this.notificationCoalescer = notificationCoalescer;
     }
 
-    public Notification createAndSend(
+    /**
+     * Queues a notification for asynchronous persistence, WebSocket and push delivery
+     * (see {@link NotificationDispatcher}); nothing is sent if the caller's transaction
+     * rolls back. The unread counter of the user is incremented when the batch is saved.
+     * Types configured as digest types are held for the next digest instead.
+     */
+    public void createAndSend(
         String userLogin,
         Long userId,
         NotificationType type,
@@ -50,42 +100,32 @@ public class NotificationService {
         String message,
         Map<String, Object> data
     ) {
-        Notification notification = new Notification();
-        notification.setUserId(userId);
-        notification.setType(type);
-        notification.setTitle(title);
-        notification.setMessage(message);
-        notification.setRead(false);
-
-        if (data != null) {
-            try {
-                notification.setData(objectMapper.writeValueAsString(data));
-            } catch (Exception e) {
-                LOG.warn("Failed to serialize notification data: {}", e.getMessage());
-            }
-        }
-
-        notification = notificationRepository.save(notification);
-        LOG.info("Notification created: type={}, userId={}, title={}", type, userId, title);
-
-        try {
-            messagingTemplate.convertAndSendToUser(userLogin, "/topic/notifications", notification);
-            LOG.debug("WebSocket notification sent to user {}", userLogin);
-        } catch (Exception e) {
-            LOG.warn("Failed to send WebSocket notification to user {}: {}", userLogin, e.getMessage());
-        }
-
-        // Send push notifications to all registered devices for this user
-        try {
-            List<DeviceToken> devices = deviceTokenRepository.findByUserId(userId);
-            for (DeviceToken device : devices) {
-                firebaseService.sendPush(device.getToken(), title, message, notification.getData());
-            }
-        } catch (Exception e) {
-            LOG.warn("Failed to send push notifications for userId {}: {}", userId, e.getMessage());
+        NotificationIntent intent = new NotificationIntent(userLogin, userId, type, title, message, data);
+        if (notificationCoalescer.isDigestType(type)) {
+            notificationCoalescer.digest(intent);
+            LOG.debug("Notification held for digest: type={}, userId={}", type, userId);
+            return;
         }
+        notificationDispatcher.enqueue(intent);
+        LOG.debug("Notification queued: type={}, userId={}, title={}", type, userId, title);
+    }
 
-        return notification;
+    /**
+     * Like {@link #createAndSend}, but notifications of the same type about the same
+     * {@code subject} (e.g. a ride id) sent to a user within the coalescing window are
+     * merged into one (see {@link NotificationCoalescer}).
+     */
+    public void createAndSendCoalesced(
+        String userLogin,
+        Long userId,
+        NotificationType type,
+        String title,
+        String message,
+        Map<String, Object> data,
+        Object subject
+    ) {
+        notificationCoalescer.coalesce(new NotificationIntent(userLogin, userId, type, title, message, data), subject);
+        LOG.debug("Notification coalescing: type={}, userId={}, subject={}", type, userId, subject);
     }
 
     @Transactional(readOnly = true)
@@ -93,29 +133,116 @@ public class NotificationService {
         return notificationRepository.findByUserIdOrderByCreatedDateDesc(userId, pageable);
     }
 
+    /**
+     * Keyset page of the user's feed, newest first, strictly older than {@code before}
+     * (from the newest notification if null). No count query, no offset.
+     */
+    @Transactional(readOnly = true)
+    public FeedPage getFeed(Long userId, FeedCursor before, int size) {
+        Limit limit = Limit.of(Math.max(1, Math.min(size, MAX_FEED_PAGE_SIZE)));
+        List<Notification> page = before == null
+            ? notificationRepository.findFeed(userId, limit)
+            : notificationRepository.findFeedBefore(userId, before.createdDate(), before.id(), limit);
+        String nextBefore = page.size() == limit.max() ? FeedCursor.of(page.get(page.size() - 1)).toString() : null;
+        String nextSince = before == null && !page.isEmpty() ? resumeCursor(page.get(0)).toString() : null;
+        return new FeedPage(page, nextBefore, nextSince);
+    }
+
+    /**
+     * Notifications created after {@code since}, oldest first. Call again with the returned
+     * {@code nextSince} while a full page comes back. Best effort: once caught up, the
+     * returned cursor lags {@link #SINCE_OVERLAP} behind now, so the next sync returns the
+     * most recent notifications again and the client must drop the ids it already has.
+     */
     @Transactional(readOnly = true)
+    public FeedPage getFeedSince(Long userId, FeedCursor since, int size) {
+        Limit limit = Limit.of(Math.max(1, Math.min(size, MAX_FEED_PAGE_SIZE)));
+        List<Notification> page = notificationRepository.findFeedSince(userId, since.createdDate(), since.id(), limit);
+        String nextSince;
+        if (page.isEmpty()) {
+            nextSince = since.toString();
+        } else {
+            Notification last = page.get(page.size() - 1);
+            // While paging, resume exactly after the last row so that every call makes progress.
+            nextSince = (page.size() == limit.max() ? FeedCursor.of(last) : resumeCursor(last)).toString();
+        }
+        return new FeedPage(page, null, nextSince);
+    }
+
+    /** Cursor of {@code newest}, moved back to now minus {@link #SINCE_OVERLAP} if more recent. */
+    private static FeedCursor resumeCursor(Notification newest) {
+        Instant horizon = Instant.now().minus(SINCE_OVERLAP);
+        return newest.getCreatedDate().isBefore(horizon) ? FeedCursor.of(newest) : new FeedCursor(horizon, 0L);
+    }
+
+    /** Served from the incremental counter, see {@link NotificationUnreadCountService}. */
+    @Transactional(propagation = Propagation.SUPPORTS)
     public long getUnreadCount(Long userId) {
-        return notificationRepository.countByUserIdAndReadFalse(userId);
+        return unreadCountService.getUnreadCount(userId);
     }
 
+    /**
+     * Marks one notification as read with the guarded set-based UPDATE, so that two concurrent
+     * calls decrement the unread counter once.
+     */
     public Notification markAsRead(Long notificationId) {
         Notification notification = notificationRepository
             .findById(notificationId)
             .orElseThrow(() -> new IllegalArgumentException("Notification not found: " + notificationId));
-        notification.setRead(true);
-        return notificationRepository.save(notification);
+        if (Boolean.TRUE.equals(notification.getRead())) {
+            return notification;
+        }
+        Long userId = notification.getUserId();
+        String login = currentLogin();
+        int updated = notificationRepository.markRead(userId, List.of(notificationId), auditLogin(login), Instant.now());
+        unreadCountService.add(userId, login, -updated);
+        return notificationRepository.findById(notificationId).orElse(notification);
     }
 
+    /** One set-based UPDATE over the user's unread rows, no entity is loaded. */
     public void markAllAsRead(Long userId) {
-        List<Notification> unread = notificationRepository.findByUserIdAndReadFalse(userId);
-        for (Notification n : unread) {
-            n.setRead(true);
+        String login = currentLogin();
+        int updated = notificationRepository.markAllRead(userId, auditLogin(login), Instant.now());
+        unreadCountService.recount(userId, login);
+        LOG.info("Marked {} notifications as read for userId={}", updated, userId);
+    }
+
+    /** Marks the given notifications of the user as read and returns how many were unread. */
+    public int markAsRead(Long userId, Collection<Long> notificationIds) {
+        String login = currentLogin();
+        int updated = notificationRepository.markRead(userId, notificationIds, auditLogin(login), Instant.now());
+        unreadCountService.add(userId, login, -updated);
+        LOG.debug("Marked {} of {} notifications as read for userId={}", updated, notificationIds.size(), userId);
+        return updated;
+    }
+
+    /** Deletes the given notifications of the user and returns how many were deleted. */
+    public int deleteNotifications(Long userId, Collection<Long> notificationIds) {
+        int deleted = notificationRepository.deleteByUserIdAndIds(userId, notificationIds);
+        if (deleted > 0) {
+            unreadCountService.recount(userId, currentLogin());
         }
-        notificationRepository.saveAll(unread);
-        LOG.info("Marked {} notifications as read for userId={}", unread.size(), userId);
+        LOG.debug("Deleted {} of {} notifications for userId={}", deleted, notificationIds.size(), userId);
+        return deleted;
     }
 
     public void deleteNotification(Long notificationId) {
-        notificationRepository.deleteById(notificationId);
+        notificationRepository
+            .findById(notificationId)
+            .ifPresent(notification -> {
+                notificationRepository.delete(notification);
+                if (!Boolean.TRUE.equals(notification.getRead())) {
+                    notificationRepository.flush();
+                    unreadCountService.add(notification.getUserId(), currentLogin(), -1);
+                }
+            });
+    }
+
+    private static String currentLogin() {
+        return SecurityUtils.getCurrentUserLogin().orElse(null);
+    }
+
+    private static String auditLogin(String login) {
+        return login != null ? login : Constants.SYSTEM;
     }
 }
@@ -0,0 +1,116 @@
+package com.binbash.mobigo.service;
+
+import com.binbash.mobigo.config.ApplicationProperties;
+import com.binbash.mobigo.domain.NotificationUnreadCounter;
+import com.binbash.mobigo.repository.NotificationUnreadCounterRepository;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.messaging.simp.SimpMessageSendingOperations;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Per-user unread notification counters. The {@code notification_unread_counter} table is
+ * the source of truth and is changed with single-statement upserts in the transactions
+ * that create, read or delete notifications. Committed values are cached in memory for
+ * {@code application.notification.unread-cache-ttl-ms} (the TTL bounds staleness when
+ * several nodes serve the same user) and pushed to the user on {@code /topic/notifications}
+ * as an {@link UnreadCountEvent}, so clients do not have to poll.
+ */
+@Service
+public class NotificationUnreadCountService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(NotificationUnreadCountService.class);
+
+    /** Frame sent on {@code /topic/notifications} when the unread count of the user changes. */
+    public record UnreadCountEvent(long unreadCount) {}
+
+    private record CachedCount(long count, long expiresAt) {}
+
+    private final NotificationUnreadCounterRepository counterRepository;
+    private final SimpMessageSendingOperations messagingTemplate;
+    private final TransactionTemplate txTemplate;
+    private final long ttlMs;
+    private final Map<Long, CachedCount> cache = new ConcurrentHashMap<>();
+
+    public NotificationUnreadCountService(
+        NotificationUnreadCounterRepository counterRepository,
+        SimpMessageSendingOperations messagingTemplate,
+        PlatformTransactionManager transactionManager,
+        ApplicationProperties applicationProperties
+    ) {
+        this.counterRepository = counterRepository;
+        this.messagingTemplate = messagingTemplate;
+        this.txTemplate = new TransactionTemplate(transactionManager);
+        this.ttlMs = Math.max(0, applicationProperties.getNotification().getUnreadCacheTtlMs());
+    }
+
+    /** Unread count of a user, from the cache when fresh; a missing counter is seeded. */
+    public long getUnreadCount(Long userId) {
+        CachedCount cached = cache.get(userId);
+        long now = System.currentTimeMillis();
+        if (cached != null && cached.expiresAt() > now) {
+            return cached.count();
+        }
+        long count = counterRepository
+            .findById(userId)
+            .map(NotificationUnreadCounter::getUnreadCount)
+            .orElseGet(() -> txTemplate.execute(st -> counterRepository.addAndGet(userId, 0)));
+        cache.put(userId, new CachedCount(count, now + ttlMs));
+        return count;
+    }
+
+    /**
+     * Adds {@code delta} to the counter of a user within the current transaction (whose
+     * notification changes must already be flushed). The cache and the user are updated
+     * once it commits.
+     */
+    public void add(Long userId, String userLogin, long delta) {
+        if (delta == 0) {
+            return;
+        }
+        publishAfterCommit(userId, userLogin, counterRepository.addAndGet(userId, delta));
+    }
+
+    /**
+     * Recomputes the counter of a user from the notification table (after a bulk change). The
+     * counter row is locked (seeded if missing) by a zero delta first, so the count runs after
+     * every concurrent delta has committed and later ones wait for this transaction.
+     */
+    public void recount(Long userId, String userLogin) {
+        counterRepository.addAndGet(userId, 0);
+        publishAfterCommit(userId, userLogin, counterRepository.recount(userId));
+    }
+
+    private void publishAfterCommit(Long userId, String userLogin, long count) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        publish(userId, userLogin, count);
+                    }
+                }
+            );
+        } else {
+            publish(userId, userLogin, count);
+        }
+    }
+
+    private void publish(Long userId, String userLogin, long count) {
+        cache.put(userId, new CachedCount(count, System.currentTimeMillis() + ttlMs));
+        if (userLogin == null) {
+            return;
+        }
+        try {
+            messagingTemplate.convertAndSendToUser(userLogin, "/topic/notifications", new UnreadCountEvent(count));
+        } catch (Exception e) {
+            LOG.warn("Failed to send unread count to user {}: {}", userLogin, e.getMessage());
+        }
+    }
+}
@@ -1,49 +1,62 @@
 package com.binbash.mobigo.service;
 
-import com.binbash.mobigo.domain.Payment;
-import com.binbash.mobigo.domain.enumeration.PaymentStatusEnum;
 import com.binbash.mobigo.repository.PaymentRepository;
+import com.binbash.mobigo.repository.PaymentRepository.ExpiredPayment;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Objects;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 @Component
 public class PaymentScheduler {
 
     private static final Logger LOG = LoggerFactory.getLogger(PaymentScheduler.class);
 
+    static final int EXPIRY_CHUNK_SIZE = 500;
+
     private final PaymentRepository paymentRepository;
     private final NotificationEventService notificationEventService;
+    private final TransactionTemplate txTemplate;
 
-    public PaymentScheduler(PaymentRepository paymentRepository, NotificationEventService notificationEventService) {
+    public PaymentScheduler(
+        PaymentRepository paymentRepository,
+        NotificationEventService notificationEventService,
+        PlatformTransactionManager transactionManager
+    ) {
         this.paymentRepository = paymentRepository;
         this.notificationEventService = notificationEventService;
+        this.txTemplate = new TransactionTemplate(transactionManager);
     }
 
     /**
-     * Every 2 minutes, check for EN_COURS payments older than today and mark as ECHOUE.
+     * Every 2 minutes, mark EN_COURS payments older than today as ECHOUE. Each chunk is one
+     * set-based UPDATE ... RETURNING in its own short transaction; the passengers of a chunk
+     * are notified in one batch once it is committed.
      */
     @Scheduled(fixedDelay = 120000)
-    @Transactional
     public void expireStalePayments() {
-        List<Payment> stalePayments = paymentRepository.findByStatut(PaymentStatusEnum.EN_COURS);
-        for (Payment payment : stalePayments) {
-            if (payment.getDatePaiement() != null && payment.getDatePaiement().isBefore(LocalDate.now())) {
-                payment.setStatut(PaymentStatusEnum.ECHOUE);
-                paymentRepository.save(payment);
-                if (payment.getBooking() != null) {
-                    notificationEventService.onPaymentFailed(payment.getBooking());
-                }
-                LOG.info(
-                    "Expired stale payment {} for booking {}",
-                    payment.getId(),
-                    payment.getBooking() != null ? payment.getBooking().getId() : "unknown"
-                );
+        LocalDate today = LocalDate.now();
+        int total = 0;
+        while (true) {
+            List<ExpiredPayment> expired = txTemplate.execute(st -> paymentRepository.expireStaleChunk(today, EXPIRY_CHUNK_SIZE));
+            if (expired == null || expired.isEmpty()) {
+                break;
+            }
+            total += expired.size();
+            List<Long> bookingIds = expired.stream().map(ExpiredPayment::getBookingId).filter(Objects::nonNull).toList();
+            LOG.debug("Expired stale payments {} (bookings {})", expired.stream().map(ExpiredPayment::getId).toList(), bookingIds);
+            notificationEventService.onPaymentsFailed(bookingIds);
+            if (expired.size() < EXPIRY_CHUNK_SIZE) {
+                break;
             }
         }
+        if (total > 0) {
+            LOG.info("Expired {} stale payments", total);
+        }
     }
 }
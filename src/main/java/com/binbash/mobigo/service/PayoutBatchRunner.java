@@ -0,0 +1,216 @@
+package com.binbash.mobigo.service;
+
+import com.binbash.mobigo.config.ApplicationProperties;
+import com.binbash.mobigo.domain.PayoutRun;
+import com.binbash.mobigo.domain.enumeration.LedgerAccountType;
+import com.binbash.mobigo.domain.enumeration.PayoutRunStatus;
+import com.binbash.mobigo.repository.LedgerAccountRepository;
+import com.binbash.mobigo.repository.LedgerAccountRepository.PayoutCandidate;
+import com.binbash.mobigo.repository.PayoutRunRepository;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Scheduled grouped driver payouts. Candidates (DRIVER accounts with an available balance
+ * ≥ the minimum withdrawal, with their phone) are read in keyset pages of one query each;
+ * the disbursements of a page are fanned out on a bounded worker pool, throttled per
+ * mobile-money provider, and the page's last account id is checkpointed in a
+ * {@link PayoutRun} so an interrupted run resumes where it stopped.
+ * <p>
+ * Re-processing the page that was in flight during a crash cannot pay a driver twice:
+ * {@link WalletService#requestPayout} commits its DRAFT before calling Campay, and DRAFT
+ * debits are deducted from the available balance it re-checks under the account lock.
+ */
+@Service
+public class PayoutBatchRunner {
+
+    private static final Logger LOG = LoggerFactory.getLogger(PayoutBatchRunner.class);
+
+    enum Outcome {
+        INITIATED,
+        SKIPPED,
+        FAILED,
+    }
+
+    private final WalletService walletService;
+    private final AppSettingService appSettingService;
+    private final LedgerAccountRepository accountRepo;
+    private final PayoutRunRepository runRepo;
+    private final TransactionTemplate txTemplate;
+    private final int workers;
+    private final int batchSize;
+    private final KeyedRateLimiter rateLimiter;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public PayoutBatchRunner(
+        WalletService walletService,
+        AppSettingService appSettingService,
+        LedgerAccountRepository accountRepo,
+        PayoutRunRepository runRepo,
+        PlatformTransactionManager transactionManager,
+        ApplicationProperties applicationProperties
+    ) {
+        this.walletService = walletService;
+        this.appSettingService = appSettingService;
+        this.accountRepo = accountRepo;
+        this.runRepo = runRepo;
+        this.txTemplate = new TransactionTemplate(transactionManager);
+        ApplicationProperties.Wallet wallet = applicationProperties.getWallet();
+        this.workers = Math.max(1, wallet.getPayoutWorkers());
+        this.batchSize = Math.max(1, wallet.getPayoutBatchSize());
+        this.rateLimiter = new KeyedRateLimiter(wallet.getPayoutRatePerSecond());
+    }
+
+    /**
+     * Runs (or resumes) a payout sweep. Returns the run, or {@code null} if one is already
+     * in progress on this node.
+     */
+    public PayoutRun run() {
+        if (!running.compareAndSet(false, true)) {
+            LOG.info("Scheduled payouts already running, skipping");
+            return null;
+        }
+        try {
+            return doRun();
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private PayoutRun doRun() {
+        BigDecimal min = appSettingService.getMinWithdrawal();
+        PayoutRun run = txTemplate.execute(st ->
+            runRepo
+                .findFirstByStatusOrderByIdDesc(PayoutRunStatus.RUNNING)
+                .map(resumed -> {
+                    LOG.info("Resuming payout run {} after account {}", resumed.getId(), resumed.getLastAccountId());
+                    return resumed;
+                })
+                .orElseGet(() ->
+                    runRepo.save(new PayoutRun().status(PayoutRunStatus.RUNNING).startedAt(Instant.now()).lastAccountId(0L))
+                )
+        );
+
+        ExecutorService pool = Executors.newFixedThreadPool(workers, r -> {
+            Thread t = new Thread(r, "wallet-payout");
+            t.setDaemon(true);
+            return t;
+        });
+        try {
+            while (true) {
+                Long afterId = run.getLastAccountId();
+                List<PayoutCandidate> page = accountRepo.findPayoutCandidates(
+                    LedgerAccountType.DRIVER,
+                    min,
+                    afterId,
+                    PageRequest.of(0, batchSize)
+                );
+                if (page.isEmpty()) {
+                    break;
+                }
+                List<Future<Outcome>> futures = new ArrayList<>(page.size());
+                for (PayoutCandidate candidate : page) {
+                    futures.add(pool.submit(() -> payOne(candidate, min)));
+                }
+                for (Future<Outcome> future : futures) {
+                    Outcome outcome;
+                    try {
+                        outcome = future.get();
+                    } catch (ExecutionException e) {
+                        outcome = Outcome.FAILED;
+                    }
+                    switch (outcome) {
+                        case INITIATED -> run.setInitiatedCount(run.getInitiatedCount() + 1);
+                        case SKIPPED -> run.setSkippedCount(run.getSkippedCount() + 1);
+                        case FAILED -> run.setFailedCount(run.getFailedCount() + 1);
+                    }
+                }
+                run.setLastAccountId(page.get(page.size() - 1).getAccountId());
+                run = save(run);
+                if (page.size() < batchSize) {
+                    break;
+                }
+            }
+            run.status(PayoutRunStatus.COMPLETED).finishedAt(Instant.now());
+            run = save(run);
+            LOG.info(
+                "Payout run {} completed: {} initiated, {} failed, {} skipped",
+                run.getId(),
+                run.getInitiatedCount(),
+                run.getFailedCount(),
+                run.getSkippedCount()
+            );
+            return run;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            LOG.warn("Payout run {} interrupted after account {}; it will resume on next schedule", run.getId(), run.getLastAccountId());
+            return run;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private PayoutRun save(PayoutRun run) {
+        return txTemplate.execute(st -> runRepo.save(run));
+    }
+
+    Outcome payOne(PayoutCandidate candidate, BigDecimal min) throws InterruptedException {
+        BigDecimal available = candidate.getAvailable();
+        if (available == null || available.compareTo(min) < 0) {
+            return Outcome.SKIPPED;
+        }
+        String phone = candidate.getTelephone();
+        if (phone == null || phone.isBlank()) {
+            LOG.warn("Scheduled payout skipped: no phone for driver account {}", candidate.getAccountKey());
+            return Outcome.SKIPPED;
+        }
+        rateLimiter.acquire(provider(phone));
+        try {
+            walletService.requestPayout(candidate.getOwnerPeopleId(), available, phone);
+            LOG.info("Scheduled payout initiated for {} amount {}", candidate.getAccountKey(), available);
+            return Outcome.INITIATED;
+        } catch (InsufficientWalletBalanceException e) {
+            // Balance moved between the candidate query and the locked re-check.
+            LOG.debug("Scheduled payout skipped for {}: {}", candidate.getAccountKey(), e.getMessage());
+            return Outcome.SKIPPED;
+        } catch (Exception e) {
+            LOG.error("Scheduled payout failed for {}: {}", candidate.getAccountKey(), e.getMessage());
+            return Outcome.FAILED;
+        }
+    }
+
+    /**
+     * Mobile-money provider of a Cameroonian number (MTN or ORANGE), by prefix; "OTHER"
+     * when unknown. Only used to throttle each provider separately.
+     */
+    static String provider(String phone) {
+        String digits = phone.replaceAll("\\D", "");
+        if (digits.length() == 12 && digits.startsWith("237")) {
+            digits = digits.substring(3);
+        }
+        if (digits.length() != 9 || digits.charAt(0) != '6') {
+            return "OTHER";
+        }
+        int prefix = Integer.parseInt(digits.substring(0, 3));
+        if (prefix >= 670 && prefix <= 679 || prefix >= 650 && prefix <= 654 || prefix >= 680 && prefix <= 684) {
+            return "MTN";
+        }
+        if (prefix >= 690 && prefix <= 699 || prefix >= 655 && prefix <= 659 || prefix >= 685 && prefix <= 689) {
+            return "ORANGE";
+        }
+        return "OTHER";
+    }
+}
@@ -8,6 +8,7 @@ import com.binbash.mobigo.domain.enumeration.RideStatusEnum;
 import com.binbash.mobigo.repository.BookingRepository;
 import com.binbash.mobigo.repository.RideRepository;
 import jakarta.persistence.EntityManager;
+import java.util.ArrayList;
 import java.util.List;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -70,8 +71,9 @@ public class RideService {
         ride.setStatut(RideStatusEnum.EFFECTUE);
         ride = rideRepository.save(ride);
 
-        // Confirm all pending bookings (the trip happened) and settle wallet in a single pass
+        // Confirm all pending bookings (the trip happened), then settle the whole ride in one ledger pass
         List<Booking> activeBookings = bookingRepository.findByTrajetId(rideId);
+        List<Long> settledBookingIds = new ArrayList<>();
         for (Booking bk : activeBookings) {
             if (bk.getStatut() == BookingStatusEnum.EN_ATTENTE) {
                 bk.setStatut(BookingStatusEnum.CONFIRME);
@@ -79,9 +81,10 @@ public class RideService {
                 LOG.debug("Confirmed pending booking {} for completed ride {}", bk.getId(), rideId);
             }
             if (bk.getStatut() == BookingStatusEnum.CONFIRME) {
-                walletService.confirmBookingSettlement(bk.getId());
+                settledBookingIds.add(bk.getId());
             }
         }
+        walletService.confirmRideSettlements(settledBookingIds);
 
         LOG.info("Ride {} completed successfully", rideId);
 
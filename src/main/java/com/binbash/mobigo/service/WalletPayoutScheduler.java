@@ -10,19 +10,20 @@ public class WalletPayoutScheduler {
 
     private static final Logger LOG = LoggerFactory.getLogger(WalletPayoutScheduler.class);
 
-    private final WalletService walletService;
+    private final PayoutBatchRunner payoutBatchRunner;
 
-    public WalletPayoutScheduler(WalletService walletService) {
-        this.walletService = walletService;
+    public WalletPayoutScheduler(PayoutBatchRunner payoutBatchRunner) {
+        this.payoutBatchRunner = payoutBatchRunner;
     }
 
     /**
      * Periodic grouped driver payouts. Sweep DRIVER accounts and disburse
      * accumulated balance ≥ min withdrawal. Default interval: 24h (configurable).
+     * An interrupted run is resumed from its checkpoint.
      */
     @Scheduled(fixedDelayString = "${application.wallet.scheduled-payout-delay-ms:86400000}")
     public void scheduledGroupedPayout() {
         LOG.info("Running scheduled grouped driver payouts");
-        walletService.runScheduledPayouts();
+        payoutBatchRunner.run();
     }
 }
@@ -12,10 +12,25 @@ import com.binbash.mobigo.domain.enumeration.LedgerTransactionType;
 import com.binbash.mobigo.repository.*;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.EnumMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.dao.DataIntegrityViolationException;
@@ -31,11 +46,16 @@ public class WalletService {
 
     private static final Logger LOG = LoggerFactory.getLogger(WalletService.class);
 
+    static final int MAX_STATEMENT_PAGE_SIZE = 100;
+
+    /** Rows per {@link com.binbash.mobigo.domain.LedgerDailyTotal} bucket, see {@link #addDailyTotals}. */
+    static final int DAILY_TOTAL_SLOTS = 8;
+
     private final LedgerAccountRepository accountRepo;
     private final LedgerTransactionRepository txRepo;
     private final LedgerEntryRepository entryRepo;
+    private final LedgerDailyTotalRepository dailyTotalRepo;
     private final BookingRepository bookingRepo;
-    private final PeopleRepository peopleRepo;
     private final CampayService campayService;
     private final AppSettingService appSettingService;
     private final TransactionTemplate txTemplate;
@@ -44,8 +64,8 @@ public class WalletService {
         LedgerAccountRepository accountRepo,
         LedgerTransactionRepository txRepo,
         LedgerEntryRepository entryRepo,
+        LedgerDailyTotalRepository dailyTotalRepo,
         BookingRepository bookingRepo,
-        PeopleRepository peopleRepo,
         CampayService campayService,
         AppSettingService appSettingService,
         PlatformTransactionManager transactionManager
@@ -53,8 +73,8 @@ public class WalletService {
         this.accountRepo = accountRepo;
         this.txRepo = txRepo;
         this.entryRepo = entryRepo;
+        this.dailyTotalRepo = dailyTotalRepo;
         this.bookingRepo = bookingRepo;
-        this.peopleRepo = peopleRepo;
         this.campayService = campayService;
         this.appSettingService = appSettingService;
         this.txTemplate = new TransactionTemplate(transactionManager);
@@ -64,8 +84,41 @@ public class WalletService {
         return ownerPeopleId == null ? type.name() : type.name() + ":" + ownerPeopleId;
     }
 
+    /**
+     * Key of shard {@code shard} of a system account. Shard 0 keeps the legacy singleton
+     * key so the pre-sharding ESCROW / PLATFORM rows (and their balances) stay in use.
+     */
+    static String shardKey(LedgerAccountType type, int shard) {
+        return shard == 0 ? type.name() : type.name() + "#" + shard;
+    }
+
+    static int shardIndex(Long discriminator, int shards) {
+        return shards <= 1 || discriminator == null ? 0 : Math.floorMod(Long.hashCode(discriminator), shards);
+    }
+
     public LedgerAccount getOrCreateAccount(LedgerAccountType type, Long ownerPeopleId) {
-        String key = accountKey(type, ownerPeopleId);
+        return getOrCreateAccount(accountKey(type, ownerPeopleId), type, ownerPeopleId);
+    }
+
+    /**
+     * Hot system accounts (ESCROW, PLATFORM) are split into N sub-accounts so concurrent
+     * settlements lock different rows. The shard is picked by hashing the booking (or
+     * driver) id, so all lines of one transaction for a given discriminator hit the same
+     * shard. The logical balance is {@link #systemBalance(LedgerAccountType)}.
+     */
+    public LedgerAccount getOrCreateSystemAccount(LedgerAccountType type, Long discriminator) {
+        int shard = shardIndex(discriminator, appSettingService.getLedgerHotAccountShards());
+        return getOrCreateAccount(shardKey(type, shard), type, null);
+    }
+
+    /** Logical balance of a (possibly sharded) system account type. */
+    @Transactional(readOnly = true)
+    public BigDecimal systemBalance(LedgerAccountType type) {
+        BigDecimal sum = accountRepo.sumBalanceByAccountType(type);
+        return sum == null ? BigDecimal.ZERO : sum;
+    }
+
+    private LedgerAccount getOrCreateAccount(String key, LedgerAccountType type, Long ownerPeopleId) {
         return accountRepo
             .findByAccountKey(key)
             .orElseGet(() -> {
@@ -100,6 +153,89 @@ public class WalletService {
         return posted.subtract(draftDebits == null ? BigDecimal.ZERO : draftDebits);
     }
 
+    public record StatementLine(
+        Long entryId,
+        Long transactionId,
+        String type,
+        String description,
+        Instant createdDate,
+        String direction,
+        BigDecimal amount,
+        BigDecimal balanceAfter
+    ) {}
+
+    public record StatementPage(List<StatementLine> lines, Long nextBefore) {}
+
+    /**
+     * Keyset-paginated statement of POSTED lines, newest first. {@code beforeId} is the
+     * {@code nextBefore} cursor of the previous page (null for the first page). Each line
+     * carries the balance right after it, computed in SQL; no entity is loaded.
+     */
+    @Transactional(readOnly = true)
+    public StatementPage statement(String accountKey, Long beforeId, int size) {
+        LedgerAccount acc = accountRepo.findByAccountKey(accountKey).orElse(null);
+        if (acc == null) {
+            return new StatementPage(List.of(), null);
+        }
+        int limit = Math.max(1, Math.min(size, MAX_STATEMENT_PAGE_SIZE));
+        BigDecimal anchor = acc.getBalance();
+        if (beforeId != null) {
+            // Balance right after the newest line of this page = balance minus every newer line.
+            anchor = anchor.subtract(entryRepo.sumPostedDeltaFromId(acc.getId(), beforeId));
+        }
+        List<StatementLine> lines = entryRepo
+            .findStatementPage(acc.getId(), anchor, beforeId == null ? Long.MAX_VALUE : beforeId, limit)
+            .stream()
+            .map(WalletService::toStatementLine)
+            .toList();
+        Long nextBefore = lines.size() == limit ? lines.get(lines.size() - 1).entryId() : null;
+        return new StatementPage(lines, nextBefore);
+    }
+
+    /**
+     * Streams the whole statement (newest first) to {@code sink} row by row from a database
+     * cursor, so the history is never held in memory. Must run inside this read-only transaction.
+     */
+    @Transactional(readOnly = true)
+    public void exportStatement(String accountKey, Consumer<StatementLine> sink) {
+        LedgerAccount acc = accountRepo.findByAccountKey(accountKey).orElse(null);
+        if (acc == null) {
+            return;
+        }
+        try (Stream<Object[]> rows = entryRepo.streamStatement(acc.getId(), acc.getBalance())) {
+            rows.map(WalletService::toStatementLine).forEach(sink);
+        }
+    }
+
+    private static StatementLine toStatementLine(Object[] r) {
+        return new StatementLine(
+            ((Number) r[0]).longValue(),
+            ((Number) r[1]).longValue(),
+            (String) r[2],
+            (String) r[3],
+            toInstant(r[4]),
+            (String) r[5],
+            (BigDecimal) r[6],
+            (BigDecimal) r[7]
+        );
+    }
+
+    private static Instant toInstant(Object value) {
+        if (value == null || value instanceof Instant) {
+            return (Instant) value;
+        }
+        if (value instanceof Timestamp ts) {
+            return ts.toInstant();
+        }
+        if (value instanceof OffsetDateTime odt) {
+            return odt.toInstant();
+        }
+        if (value instanceof LocalDateTime ldt) {
+            return ldt.toInstant(ZoneOffset.UTC);
+        }
+        throw new IllegalStateException("Unexpected created_date type: " + value.getClass());
+    }
+
     static int toInt(BigDecimal b) {
         return b.setScale(0, RoundingMode.HALF_UP).intValueExact();
     }
@@ -107,7 +243,7 @@ public class WalletService {
     public void holdForBooking(Booking booking) {
         Long bookingId = booking.getId();
         String idem = "SETTLE-" + bookingId;
-        if (txRepo.findByIdempotencyKey(idem).isPresent()) {
+        if (txRepo.findByIdempotencyKey(idem).isPresent() || txRepo.findArchivedStatusByIdempotencyKey(idem).isPresent()) {
             LOG.debug("holdForBooking idempotent skip for booking {}", bookingId);
             return;
         }
@@ -145,9 +281,9 @@ public class WalletService {
         }
 
         LedgerAccount passenger = getOrCreateAccount(LedgerAccountType.PASSENGER, passengerId);
-        LedgerAccount escrow = getOrCreateAccount(LedgerAccountType.ESCROW, null);
+        LedgerAccount escrow = getOrCreateSystemAccount(LedgerAccountType.ESCROW, bookingId);
         LedgerAccount driverAcc = getOrCreateAccount(LedgerAccountType.DRIVER, driver.getId());
-        LedgerAccount platform = getOrCreateAccount(LedgerAccountType.PLATFORM, null);
+        LedgerAccount platform = getOrCreateSystemAccount(LedgerAccountType.PLATFORM, bookingId);
 
         LedgerTransaction tx = new LedgerTransaction();
         tx.setType(LedgerTransactionType.BOOKING_SETTLEMENT);
@@ -181,9 +317,43 @@ public class WalletService {
         LOG.info("Settlement POSTED for booking {}", bookingId);
     }
 
+    /**
+     * Ride-level settlement: posts every DRAFT {@code SETTLE-<bookingId>} transaction of the
+     * given bookings in this single database transaction. Each affected account is locked
+     * once (sorted by key) and saved once with the aggregated delta of all settlements;
+     * each booking keeps its own audited transaction and idempotency key, so mixing this
+     * with {@link #confirmBookingSettlement(Long)} is safe.
+     *
+     * @return the number of settlements posted
+     */
+    public int confirmRideSettlements(Collection<Long> bookingIds) {
+        if (bookingIds == null || bookingIds.isEmpty()) {
+            return 0;
+        }
+        List<String> keys = bookingIds.stream().distinct().map(id -> "SETTLE-" + id).toList();
+        List<LedgerTransaction> drafts = txRepo
+            .lockByIdempotencyKeyIn(keys)
+            .stream()
+            .filter(t -> t.getStatus() == LedgerTransactionStatus.DRAFT)
+            .toList();
+        if (drafts.isEmpty()) {
+            LOG.debug("confirmRideSettlements: no DRAFT settlement among {} bookings", keys.size());
+            return 0;
+        }
+        applyEntries(drafts);
+        drafts.forEach(t -> t.setStatus(LedgerTransactionStatus.POSTED));
+        txRepo.saveAll(drafts);
+        LOG.info("Ride settlement POSTED for {} of {} bookings", drafts.size(), keys.size());
+        return drafts.size();
+    }
+
     public void voidBookingSettlement(Long bookingId) {
         LedgerTransaction tx = txRepo.lockByIdempotencyKey("SETTLE-" + bookingId).orElse(null);
         if (tx == null) {
+            // Settled history may have been moved to the archive tables.
+            if ("POSTED".equals(txRepo.findArchivedStatusByIdempotencyKey("SETTLE-" + bookingId).orElse(null))) {
+                throw new IllegalStateException("Cannot void a POSTED settlement for booking " + bookingId);
+            }
             LOG.debug("voidBookingSettlement: no settlement for booking {}", bookingId);
             return;
         }
@@ -201,6 +371,18 @@ public class WalletService {
 
     @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public LedgerTransaction rechargeWallet(Long passengerPeopleId, BigDecimal netAmount, String phone) {
+        return join(rechargeWalletAsync(passengerPeopleId, netAmount, phone));
+    }
+
+    /**
+     * Same as {@link #rechargeWallet}, but the Campay collect does not hold the caller's
+     * thread: the DRAFT is committed synchronously, the returned future completes once the
+     * Campay reference is attached. On failure the DRAFT is voided only when Campay certainly
+     * did not execute the collect ({@link CampayService#isNotExecuted}); after a timeout or a
+     * 5xx it stays DRAFT until the webhook or the reconciliation settles it.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public CompletableFuture<LedgerTransaction> rechargeWalletAsync(Long passengerPeopleId, BigDecimal netAmount, String phone) {
         if (netAmount.signum() <= 0) {
             throw new IllegalArgumentException("Recharge amount must be positive");
         }
@@ -224,34 +406,39 @@ public class WalletService {
         });
 
         // 2. Call Campay OUTSIDE any DB transaction (no connection held during network I/O).
-        try {
-            CampayService.CollectResponse resp = campayService.collect(phone, toInt(gross), extRef, "Recharge Mobigo #" + extRef);
-            // 3. Attach the Campay reference in its own short transaction.
-            txTemplate.execute(st -> {
-                LedgerTransaction managed = txRepo.findByExternalReference(extRef).orElse(draft);
-                managed.setCampayReference(resp.reference());
-                return txRepo.save(managed);
-            });
-            draft.setCampayReference(resp.reference());
-            return draft;
-        } catch (Exception e) {
-            LOG.error("Campay collect failed for recharge {}", extRef, e);
-            // DRAFT was already committed; VOID it so it does not linger.
-            txTemplate.execute(st -> {
-                txRepo
-                    .findByExternalReference(extRef)
-                    .ifPresent(t -> {
-                        t.setStatus(LedgerTransactionStatus.VOID);
-                        txRepo.save(t);
-                    });
-                return null;
+        return campayService
+            .collectAsync(phone, toInt(gross), extRef, "Recharge Mobigo #" + extRef)
+            .handle((resp, error) -> {
+                if (error == null) {
+                    // 3. Attach the Campay reference in its own short transaction.
+                    attachCampayReference(draft, extRef, resp.reference());
+                    return draft;
+                }
+                Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+                if (CampayService.isNotExecuted(cause)) {
+                    LOG.error("Campay collect failed for recharge {}", extRef, cause);
+                    voidDraft(extRef);
+                } else {
+                    // Campay may still have executed it: the webhook (or an admin, once stale) settles the DRAFT.
+                    LOG.error("Campay collect outcome unknown for recharge {}, DRAFT kept", extRef, cause);
+                }
+                throw new CompletionException(new RuntimeException("Échec de l'initiation de la recharge: " + cause.getMessage(), cause));
             });
-            throw new RuntimeException("Échec de l'initiation de la recharge: " + e.getMessage(), e);
-        }
     }
 
     @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public LedgerTransaction requestPayout(Long driverPeopleId, BigDecimal amount, String phone) {
+        return join(requestPayoutAsync(driverPeopleId, amount, phone));
+    }
+
+    /**
+     * Same as {@link #requestPayout}; validation and the locked balance check still throw
+     * synchronously, only the Campay disbursement is asynchronous. As for recharges, a failed
+     * disbursement keeps its DRAFT, and its hold on the driver balance, unless Campay certainly
+     * did not execute it.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public CompletableFuture<LedgerTransaction> requestPayoutAsync(Long driverPeopleId, BigDecimal amount, String phone) {
         BigDecimal min = appSettingService.getMinWithdrawal();
         if (amount.compareTo(min) < 0) {
             throw new IllegalArgumentException("Montant inférieur au minimum de retrait (" + min + ")");
@@ -274,7 +461,7 @@ public class WalletService {
             }
             LedgerAccount driver = getOrCreateAccount(LedgerAccountType.DRIVER, driverPeopleId);
             LedgerAccount external = getOrCreateAccount(LedgerAccountType.EXTERNAL, null);
-            LedgerAccount platform = getOrCreateAccount(LedgerAccountType.PLATFORM, null);
+            LedgerAccount platform = getOrCreateSystemAccount(LedgerAccountType.PLATFORM, driverPeopleId);
             LedgerTransaction t = new LedgerTransaction();
             t.setType(LedgerTransactionType.WITHDRAWAL);
             t.setStatus(LedgerTransactionStatus.DRAFT);
@@ -288,49 +475,80 @@ public class WalletService {
         });
 
         // 2. Call Campay OUTSIDE any DB transaction (no connection held during network I/O).
-        try {
-            CampayService.DisbursementResponse resp = campayService.disburse(phone, toInt(amount), extRef, "Versement Mobigo #" + extRef);
-            // 3. Attach the Campay reference in its own short transaction.
-            txTemplate.execute(st -> {
-                LedgerTransaction managed = txRepo.findByExternalReference(extRef).orElse(draft);
-                managed.setCampayReference(resp.reference());
-                return txRepo.save(managed);
-            });
-            draft.setCampayReference(resp.reference());
-            return draft;
-        } catch (Exception e) {
-            LOG.error("Campay disburse failed for payout {}", extRef, e);
-            // DRAFT was already committed; VOID it so it does not linger.
-            txTemplate.execute(st -> {
-                txRepo
-                    .findByExternalReference(extRef)
-                    .ifPresent(t -> {
-                        t.setStatus(LedgerTransactionStatus.VOID);
-                        txRepo.save(t);
-                    });
-                return null;
+        return campayService
+            .disburseAsync(phone, toInt(amount), extRef, "Versement Mobigo #" + extRef)
+            .handle((resp, error) -> {
+                if (error == null) {
+                    // 3. Attach the Campay reference in its own short transaction.
+                    attachCampayReference(draft, extRef, resp.reference());
+                    return draft;
+                }
+                Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+                if (CampayService.isNotExecuted(cause)) {
+                    LOG.error("Campay disburse failed for payout {}", extRef, cause);
+                    voidDraft(extRef);
+                } else {
+                    // Campay may still have executed it: the webhook (or an admin, once stale) settles the DRAFT.
+                    LOG.error("Campay disburse outcome unknown for payout {}, DRAFT kept", extRef, cause);
+                }
+                throw new CompletionException(new RuntimeException("Échec de l'initiation du retrait: " + cause.getMessage(), cause));
             });
-            throw new RuntimeException("Échec de l'initiation du retrait: " + e.getMessage(), e);
+    }
+
+    private void attachCampayReference(LedgerTransaction draft, String extRef, String campayReference) {
+        txTemplate.execute(st -> {
+            LedgerTransaction managed = txRepo.findByExternalReference(extRef).orElse(draft);
+            managed.setCampayReference(campayReference);
+            return txRepo.save(managed);
+        });
+        draft.setCampayReference(campayReference);
+    }
+
+    /** The DRAFT was already committed and Campay never executed it; VOID it so it does not linger. */
+    private void voidDraft(String extRef) {
+        txTemplate.execute(st -> {
+            txRepo
+                .findByExternalReference(extRef)
+                .ifPresent(t -> {
+                    t.setStatus(LedgerTransactionStatus.VOID);
+                    txRepo.save(t);
+                });
+            return null;
+        });
+    }
+
+    /** Waits for a Campay-backed wallet operation, rethrowing its RuntimeException as is. */
+    private static LedgerTransaction join(CompletableFuture<LedgerTransaction> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException re) {
+                throw re;
+            }
+            throw e;
         }
     }
 
     public void handleCampayCallback(String externalReference, String status) {
         LedgerTransaction tx = txRepo.lockByExternalReference(externalReference).orElse(null);
         if (tx == null) {
-            LOG.warn("Campay callback: no ledger tx for externalReference {}", externalReference);
+            if (txRepo.existsArchivedByExternalReference(externalReference)) {
+                LOG.debug("Campay callback idempotent skip {} (archived)", externalReference);
+            } else {
+                LOG.warn("Campay callback: no ledger tx for externalReference {}", externalReference);
+            }
             return;
         }
         if (tx.getStatus() != LedgerTransactionStatus.DRAFT) {
             LOG.debug("Campay callback idempotent skip {} status {}", externalReference, tx.getStatus());
             return;
         }
-        String s = status == null ? "" : status.toUpperCase();
-        if (s.contains("SUCCESS")) {
+        if (CampayService.isSuccessfulStatus(status)) {
             applyEntries(tx);
             tx.setStatus(LedgerTransactionStatus.POSTED);
             txRepo.save(tx);
             LOG.info("Campay tx {} POSTED ({})", externalReference, tx.getType());
-        } else if (s.contains("FAIL") || s.contains("CANCEL") || s.contains("EXPIR") || s.contains("REJECT")) {
+        } else if (CampayService.isFailedStatus(status)) {
             tx.setStatus(LedgerTransactionStatus.VOID);
             txRepo.save(tx);
             LOG.info("Campay tx {} VOID ({})", externalReference, tx.getType());
@@ -339,50 +557,65 @@ public class WalletService {
         }
     }
 
-    @Transactional(propagation = Propagation.NOT_SUPPORTED)
-    public void runScheduledPayouts() {
-        BigDecimal min = appSettingService.getMinWithdrawal();
-        for (LedgerAccount acc : accountRepo.findByAccountTypeAndBalanceGreaterThanEqual(LedgerAccountType.DRIVER, min)) {
-            BigDecimal available = availableBalance(acc.getAccountKey());
-            if (available.compareTo(min) < 0) {
-                continue;
-            }
-            People driver = peopleRepo.findById(acc.getOwnerPeopleId()).orElse(null);
-            if (driver == null || driver.getTelephone() == null) {
-                LOG.warn("Scheduled payout skipped: no phone for driver account {}", acc.getAccountKey());
-                continue;
-            }
-            try {
-                requestPayout(acc.getOwnerPeopleId(), available, driver.getTelephone());
-                LOG.info("Scheduled payout initiated for {} amount {}", acc.getAccountKey(), available);
-            } catch (Exception e) {
-                LOG.error("Scheduled payout failed for {}: {}", acc.getAccountKey(), e.getMessage());
-            }
-        }
-    }
-
     /** Applique chaque ligne au solde du compte (verrou pessimiste). */
     private void applyEntries(LedgerTransaction tx) {
+        applyEntries(List.of(tx));
+    }
+
+    /** Applique les lignes de plusieurs transactions, avec un seul verrou et une seule écriture par compte. */
+    private void applyEntries(List<LedgerTransaction> txs) {
+        // Aggregate the signed delta of every line per DISTINCT account.
+        Map<String, BigDecimal> deltas = new TreeMap<>();
+        for (LedgerTransaction tx : txs) {
+            for (LedgerEntry e : tx.getEntries()) {
+                BigDecimal delta = e.getDirection() == LedgerDirection.CREDIT ? e.getAmount() : e.getAmount().negate();
+                deltas.merge(e.getAccount().getAccountKey(), delta, BigDecimal::add);
+            }
+        }
         // Lock each DISTINCT account exactly once, in a deterministic global order
         // (sorted by accountKey) so concurrent transactions touching shared accounts
-        // (ESCROW, PLATFORM) can never form a lock-ordering deadlock cycle.
+        // (ESCROW / PLATFORM shards) can never form a lock-ordering deadlock cycle.
         Map<String, LedgerAccount> locked = new LinkedHashMap<>();
-        tx
-            .getEntries()
-            .stream()
-            .map(e -> e.getAccount().getAccountKey())
-            .distinct()
-            .sorted()
+        deltas
+            .keySet()
             .forEach(key ->
                 locked.put(key, accountRepo.lockByAccountKey(key).orElseThrow(() -> new IllegalStateException("Account not found: " + key)))
             );
-        // Apply deltas in original entry order on the locked instances.
-        for (LedgerEntry e : tx.getEntries()) {
-            LedgerAccount acc = locked.get(e.getAccount().getAccountKey());
-            BigDecimal delta = e.getDirection() == LedgerDirection.CREDIT ? e.getAmount() : e.getAmount().negate();
-            acc.setBalance(acc.getBalance().add(delta));
-        }
-        // Persist each distinct locked account once.
+        // Apply the aggregated deltas on the locked instances, then persist each account once.
+        locked.forEach((key, acc) -> acc.setBalance(acc.getBalance().add(deltas.get(key))));
         locked.values().forEach(accountRepo::save);
+        addDailyTotals(txs);
+    }
+
+    private record DailyBucket(BigDecimal credits, BigDecimal debits, long lines) {
+        DailyBucket plus(DailyBucket other) {
+            return new DailyBucket(credits.add(other.credits), debits.add(other.debits), lines + other.lines);
+        }
+    }
+
+    /**
+     * Adds the posted lines to today's {@link com.binbash.mobigo.domain.LedgerDailyTotal}
+     * buckets, one upsert per (account type, transaction type). All upserts of a posting go
+     * to the same randomly chosen slot, in enum order, so concurrent postings spread over
+     * {@link #DAILY_TOTAL_SLOTS} rows per bucket and always lock them in the same order.
+     */
+    private void addDailyTotals(List<LedgerTransaction> txs) {
+        Map<LedgerAccountType, Map<LedgerTransactionType, DailyBucket>> buckets = new EnumMap<>(LedgerAccountType.class);
+        for (LedgerTransaction tx : txs) {
+            for (LedgerEntry e : tx.getEntries()) {
+                boolean credit = e.getDirection() == LedgerDirection.CREDIT;
+                DailyBucket line = new DailyBucket(credit ? e.getAmount() : BigDecimal.ZERO, credit ? BigDecimal.ZERO : e.getAmount(), 1);
+                buckets
+                    .computeIfAbsent(e.getAccount().getAccountType(), k -> new EnumMap<>(LedgerTransactionType.class))
+                    .merge(tx.getType(), line, DailyBucket::plus);
+            }
+        }
+        LocalDate day = LocalDate.now(ZoneId.systemDefault());
+        int slot = ThreadLocalRandom.current().nextInt(DAILY_TOTAL_SLOTS);
+        buckets.forEach((accountType, byTxType) ->
+            byTxType.forEach((txType, b) ->
+                dailyTotalRepo.addToBucket(day, accountType.name(), txType.name(), slot, b.credits(), b.debits(), b.lines())
+            )
+        );
     }
 }
@@ -1,5 +1,6 @@
 package com.binbash.mobigo.service.dto;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
 
@@ -25,9 +26,90 @@ public class AdminStatisticsDTO {
     private double totalCampayFees;
     private double totalNetRevenue;
     private Map<String, Long> paymentsByStatus;
+    private LedgerTotals ledgerTotals;
 
     // ── Inner classes ───────────────────────────────────────────────────
 
+    /**
+     * Money moved through the wallet ledger (POSTED lines only), read from the daily
+     * aggregates. {@code date} is null for all-time totals.
+     */
+    public static class LedgerTotals {
+
+        private LocalDate date;
+        private double walletRecharges;
+        private double escrowCollected;
+        private double driverEarnings;
+        private double commission;
+        private double driverPayouts;
+        private double payoutFees;
+        private long postedLines;
+
+        public LocalDate getDate() {
+            return date;
+        }
+
+        public void setDate(LocalDate date) {
+            this.date = date;
+        }
+
+        public double getWalletRecharges() {
+            return walletRecharges;
+        }
+
+        public void setWalletRecharges(double walletRecharges) {
+            this.walletRecharges = walletRecharges;
+        }
+
+        public double getEscrowCollected() {
+            return escrowCollected;
+        }
+
+        public void setEscrowCollected(double escrowCollected) {
+            this.escrowCollected = escrowCollected;
+        }
+
+        public double getDriverEarnings() {
+            return driverEarnings;
+        }
+
+        public void setDriverEarnings(double driverEarnings) {
+            this.driverEarnings = driverEarnings;
+        }
+
+        public double getCommission() {
+            return commission;
+        }
+
+        public void setCommission(double commission) {
+            this.commission = commission;
+        }
+
+        public double getDriverPayouts() {
+            return driverPayouts;
+        }
+
+        public void setDriverPayouts(double driverPayouts) {
+            this.driverPayouts = driverPayouts;
+        }
+
+        public double getPayoutFees() {
+            return payoutFees;
+        }
+
+        public void setPayoutFees(double payoutFees) {
+            this.payoutFees = payoutFees;
+        }
+
+        public long getPostedLines() {
+            return postedLines;
+        }
+
+        public void setPostedLines(long postedLines) {
+            this.postedLines = postedLines;
+        }
+    }
+
     public static class MonthlyStats {
 
         private String label;
@@ -254,4 +336,12 @@ public class AdminStatisticsDTO {
     public void setPaymentsByStatus(Map<String, Long> paymentsByStatus) {
         this.paymentsByStatus = paymentsByStatus;
     }
+
+    public LedgerTotals getLedgerTotals() {
+        return ledgerTotals;
+    }
+
+    public void setLedgerTotals(LedgerTotals ledgerTotals) {
+        this.ledgerTotals = ledgerTotals;
+    }
 }
@@ -7,16 +7,22 @@ import com.binbash.mobigo.domain.User;
 import com.binbash.mobigo.domain.enumeration.BookingStatusEnum;
 import com.binbash.mobigo.domain.enumeration.RideStatusEnum;
 import com.binbash.mobigo.repository.BookingRepository;
+import com.binbash.mobigo.repository.LedgerTransactionRepository.StaleDraft;
 import com.binbash.mobigo.repository.PeopleRepository;
 import com.binbash.mobigo.repository.RideRepository;
 import com.binbash.mobigo.repository.UserRepository;
 import com.binbash.mobigo.service.AdminStatisticsService;
+import com.binbash.mobigo.service.CampayReconciliationService;
 import com.binbash.mobigo.service.MailService;
 import com.binbash.mobigo.service.NotificationEventService;
 import com.binbash.mobigo.service.UserService;
 import com.binbash.mobigo.service.dto.AdminStatisticsDTO;
 import com.binbash.mobigo.service.dto.AdminUserDetailDTO;
+import com.binbash.mobigo.web.rest.errors.BadRequestAlertException;
+import com.binbash.mobigo.web.websocket.PresenceService;
+import com.binbash.mobigo.web.websocket.dto.ActivityDTO;
 import java.time.Instant;
+import java.time.LocalDate;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -47,9 +53,11 @@ public class AdminResource {
 
     private final AdminStatisticsService adminStatisticsService;
     private final BookingRepository bookingRepository;
+    private final CampayReconciliationService campayReconciliationService;
     private final MailService mailService;
     private final NotificationEventService notificationEventService;
     private final PeopleRepository peopleRepository;
+    private final PresenceService presenceService;
     private final RideRepository rideRepository;
     private final UserRepository userRepository;
     private final UserService userService;
@@ -57,18 +65,22 @@ public class AdminResource {
     public AdminResource(
         AdminStatisticsService adminStatisticsService,
         BookingRepository bookingRepository,
+        CampayReconciliationService campayReconciliationService,
         MailService mailService,
         NotificationEventService notificationEventService,
         PeopleRepository peopleRepository,
+        PresenceService presenceService,
         RideRepository rideRepository,
         UserRepository userRepository,
         UserService userService
     ) {
         this.adminStatisticsService = adminStatisticsService;
         this.bookingRepository = bookingRepository;
+        this.campayReconciliationService = campayReconciliationService;
         this.mailService = mailService;
         this.notificationEventService = notificationEventService;
         this.peopleRepository = peopleRepository;
+        this.presenceService = presenceService;
         this.rideRepository = rideRepository;
         this.userRepository = userRepository;
         this.userService = userService;
@@ -84,6 +96,61 @@ public class AdminResource {
         return ResponseEntity.ok(adminStatisticsService.getAdminStatistics());
     }
 
+    /**
+     * GET /api/admin/statistics/ledger : wallet ledger totals per day over [from, to] (at most one year).
+     */
+    @GetMapping("/statistics/ledger")
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    public ResponseEntity<List<AdminStatisticsDTO.LedgerTotals>> getLedgerDailyTotals(
+        @RequestParam LocalDate from,
+        @RequestParam LocalDate to
+    ) {
+        LOG.debug("REST request to get ledger daily totals from {} to {}", from, to);
+        if (from.isAfter(to) || from.plusYears(1).isBefore(to)) {
+            throw new BadRequestAlertException("Invalid date range", "adminStatistics", "invalidrange");
+        }
+        return ResponseEntity.ok(adminStatisticsService.getLedgerDailyTotals(from, to));
+    }
+
+    /**
+     * GET /api/admin/campay/unreferenced-drafts : stale recharge / payout DRAFTs without Campay reference (the Campay
+     * call timed out or failed with a 5xx), which only a webhook or an admin can settle. Keyset page after {@code afterId}.
+     */
+    @GetMapping("/campay/unreferenced-drafts")
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    public ResponseEntity<List<StaleDraft>> getUnreferencedCampayDrafts(@RequestParam(defaultValue = "0") long afterId) {
+        LOG.debug("REST request to get unreferenced Campay drafts after {}", afterId);
+        return ResponseEntity.ok(campayReconciliationService.findUnreferencedDrafts(afterId));
+    }
+
+    /**
+     * POST /api/admin/campay/unreferenced-drafts/:externalReference/resolve : settles a stale DRAFT without Campay
+     * reference with the terminal {@code status} (SUCCESSFUL / FAILED) read in the Campay dashboard.
+     */
+    @PostMapping("/campay/unreferenced-drafts/{externalReference}/resolve")
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    public ResponseEntity<Void> resolveUnreferencedCampayDraft(@PathVariable String externalReference, @RequestParam String status) {
+        LOG.info("REST request to resolve unreferenced Campay draft {} as {}", externalReference, status);
+        try {
+            campayReconciliationService.resolveUnreferenced(externalReference, status);
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            throw new BadRequestAlertException(e.getMessage(), "campayDraft", "notresolvable");
+        }
+        return ResponseEntity.accepted().build();
+    }
+
+    /**
+     * GET /api/admin/presence : sessions connected to this node with their current page and last-seen time.
+     * With several nodes behind the broker relay, sessions held by the other nodes are not listed; their
+     * totals are in the per-node snapshots published on {@code /topic/tracker}.
+     */
+    @GetMapping("/presence")
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    public ResponseEntity<List<ActivityDTO>> getPresence() {
+        LOG.debug("REST request to get user presence");
+        return ResponseEntity.ok(presenceService.getSessions());
+    }
+
     /**
      * GET /api/admin/users-detail : get paginated list of users enriched with People data.
      */
@@ -78,7 +78,7 @@ public class BookingResource {
                 .header("X-mobigo-shortfall", ex.getShortfall().toPlainString())
                 .build();
         }
-        webSocketNotificationService.notifyDataChanged("BOOKINGS_CHANGED");
+        webSocketNotificationService.notifyDataChanged("BOOKINGS_CHANGED", booking.getId());
         return ResponseEntity.created(new URI("/api/bookings/" + booking.getId()))
             .headers(HeaderUtil.createEntityCreationAlert(applicationName, true, ENTITY_NAME, booking.getId().toString()))
             .body(booking);
@@ -221,7 +221,7 @@ public class BookingResource {
         LOG.debug("REST request to delete Booking : {}", id);
         bookingRepository.deleteById(id);
         bookingSearchRepository.deleteFromIndexById(id);
-        webSocketNotificationService.notifyDataChanged("BOOKINGS_CHANGED");
+        webSocketNotificationService.notifyDataChanged("BOOKINGS_CHANGED", id);
         return ResponseEntity.noContent()
             .headers(HeaderUtil.createEntityDeletionAlert(applicationName, true, ENTITY_NAME, id.toString()))
             .build();
@@ -234,7 +234,7 @@ public class BookingResource {
     public ResponseEntity<Booking> acceptBooking(@PathVariable("id") Long id) {
         LOG.debug("REST request to accept Booking : {}", id);
         Booking booking = bookingService.acceptBooking(id);
-        webSocketNotificationService.notifyDataChanged("BOOKINGS_CHANGED");
+        webSocketNotificationService.notifyDataChanged("BOOKINGS_CHANGED", id);
         return ResponseEntity.ok()
             .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, id.toString()))
             .body(booking);
@@ -247,7 +247,7 @@ public class BookingResource {
     public ResponseEntity<Booking> rejectBooking(@PathVariable("id") Long id) {
         LOG.debug("REST request to reject Booking : {}", id);
         Booking booking = bookingService.rejectBooking(id);
-        webSocketNotificationService.notifyDataChanged("BOOKINGS_CHANGED");
+        webSocketNotificationService.notifyDataChanged("BOOKINGS_CHANGED", id);
         return ResponseEntity.ok()
             .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, id.toString()))
             .body(booking);
@@ -260,7 +260,7 @@ public class BookingResource {
     public ResponseEntity<Booking> cancelBooking(@PathVariable("id") Long id) {
         LOG.debug("REST request to cancel Booking : {}", id);
         Booking booking = bookingService.cancelBooking(id);
-        webSocketNotificationService.notifyDataChanged("BOOKINGS_CHANGED");
+        webSocketNotificationService.notifyDataChanged("BOOKINGS_CHANGED", id);
         return ResponseEntity.ok()
             .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, id.toString()))
             .body(booking);
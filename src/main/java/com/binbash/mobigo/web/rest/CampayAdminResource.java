@@ -0,0 +1,49 @@
+package com.binbash.mobigo.web.rest;
+
+import com.binbash.mobigo.domain.CampayWebhookEvent;
+import com.binbash.mobigo.domain.enumeration.CampayWebhookEventState;
+import com.binbash.mobigo.service.CampayWebhookQueueService;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Admin views over the Campay integration: inbound webhook queue and dead letters.
+ */
+@RestController
+@RequestMapping("/api/admin/campay")
+public class CampayAdminResource {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CampayAdminResource.class);
+
+    private final CampayWebhookQueueService webhookQueueService;
+
+    public CampayAdminResource(CampayWebhookQueueService webhookQueueService) {
+        this.webhookQueueService = webhookQueueService;
+    }
+
+    /**
+     * GET /api/admin/campay/webhook-events?state=DEAD : latest webhook events in a given state.
+     */
+    @GetMapping("/webhook-events")
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    public ResponseEntity<List<CampayWebhookEvent>> getWebhookEvents(
+        @RequestParam(defaultValue = "DEAD") CampayWebhookEventState state,
+        @RequestParam(defaultValue = "50") int size
+    ) {
+        return ResponseEntity.ok(webhookQueueService.findByState(state, size));
+    }
+
+    /**
+     * POST /api/admin/campay/webhook-events/{id}/requeue : put a dead-lettered event back in the queue.
+     */
+    @PostMapping("/webhook-events/{id}/requeue")
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    public ResponseEntity<CampayWebhookEvent> requeueWebhookEvent(@PathVariable Long id) {
+        LOG.info("REST request to requeue Campay webhook event {}", id);
+        return webhookQueueService.requeue(id).map(ResponseEntity::ok).orElse(ResponseEntity.notFound().build());
+    }
+}
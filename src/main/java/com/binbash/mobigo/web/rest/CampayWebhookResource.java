@@ -1,9 +1,7 @@
 package com.binbash.mobigo.web.rest;
 
 import com.binbash.mobigo.config.ApplicationProperties;
-import com.binbash.mobigo.repository.LedgerTransactionRepository;
-import com.binbash.mobigo.service.PaymentService;
-import com.binbash.mobigo.service.WalletService;
+import com.binbash.mobigo.service.CampayWebhookQueueService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import java.nio.charset.StandardCharsets;
 import java.util.Map;
@@ -11,6 +9,7 @@ import javax.crypto.Mac;
 import javax.crypto.spec.SecretKeySpec;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -20,6 +19,8 @@ import org.springframework.web.bind.annotation.*;
  * Configured in the Campay dashboard as: https://&lt;your-domain&gt;/api/webhooks/campay
  * When {@code application.campay.webhook-secret} is set, requests are verified using
  * HMAC-SHA256 of the raw body. Otherwise, signature verification is skipped (dev / sandbox).
+ * Verified events are only persisted here and answered 200 right away; they are applied
+ * asynchronously by {@link CampayWebhookQueueService}.
  */
 @RestController
 @RequestMapping("/api/webhooks")
@@ -27,24 +28,18 @@ public class CampayWebhookResource {
 
     private static final Logger LOG = LoggerFactory.getLogger(CampayWebhookResource.class);
 
-    private final PaymentService paymentService;
     private final ApplicationProperties.Campay campayConfig;
     private final ObjectMapper objectMapper;
-    private final WalletService walletService;
-    private final LedgerTransactionRepository ledgerTransactionRepository;
+    private final CampayWebhookQueueService webhookQueueService;
 
     public CampayWebhookResource(
-        PaymentService paymentService,
         ApplicationProperties applicationProperties,
         ObjectMapper objectMapper,
-        WalletService walletService,
-        LedgerTransactionRepository ledgerTransactionRepository
+        CampayWebhookQueueService webhookQueueService
     ) {
-        this.paymentService = paymentService;
         this.campayConfig = applicationProperties.getCampay();
         this.objectMapper = objectMapper;
-        this.walletService = walletService;
-        this.ledgerTransactionRepository = ledgerTransactionRepository;
+        this.webhookQueueService = webhookQueueService;
     }
 
     @PostMapping("/campay")
@@ -62,27 +57,32 @@ public class CampayWebhookResource {
             }
         }
 
+        String reference;
+        String status;
+        String externalReference;
         try {
             Map<String, Object> payload = objectMapper.readValue(rawBody, Map.class);
-            String reference = payload.get("reference") != null ? payload.get("reference").toString() : null;
-            String status = payload.get("status") != null ? payload.get("status").toString() : null;
-            String externalReference = payload.get("external_reference") != null ? payload.get("external_reference").toString() : null;
-
-            if (reference == null && externalReference == null) {
-                LOG.warn("Campay webhook missing reference fields");
-                return ResponseEntity.badRequest().build();
-            }
+            reference = payload.get("reference") != null ? payload.get("reference").toString() : null;
+            status = payload.get("status") != null ? payload.get("status").toString() : null;
+            externalReference = payload.get("external_reference") != null ? payload.get("external_reference").toString() : null;
+        } catch (Exception e) {
+            LOG.error("Error parsing Campay webhook: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+        if (reference == null && externalReference == null) {
+            LOG.warn("Campay webhook missing reference fields");
+            return ResponseEntity.badRequest().build();
+        }
 
-            if (externalReference != null && ledgerTransactionRepository.findByExternalReference(externalReference).isPresent()) {
-                walletService.handleCampayCallback(externalReference, status);
-                return ResponseEntity.ok().build();
+        try {
+            if (!webhookQueueService.enqueue(reference, externalReference, status, rawBody)) {
+                LOG.info("Campay webhook duplicate ignored (ref={}, extRef={}, status={})", reference, externalReference, status);
             }
-            // Fallback: legacy paymentService handler for non-ledger transactions
-            paymentService.handleWebhook(reference, status, externalReference);
             return ResponseEntity.ok().build();
-        } catch (Exception e) {
-            LOG.error("Error processing Campay webhook: {}", e.getMessage());
-            return ResponseEntity.badRequest().build();
+        } catch (RuntimeException e) {
+            // Not persisted (database or pool down, transaction not created...): answer 5xx so Campay redelivers.
+            LOG.error("Could not enqueue Campay webhook: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
         }
     }
 
@@ -43,4 +43,34 @@ public class ConfigResource {
         appSettingService.setCommissionRate(newRate);
         return ResponseEntity.ok(Map.of("commissionRate", newRate));
     }
+
+    @GetMapping("/config/notification-retention-days")
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    public ResponseEntity<Map<String, Object>> getNotificationRetentionDays() {
+        return ResponseEntity.ok(Map.of("notificationRetentionDays", appSettingService.getNotificationRetentionDays()));
+    }
+
+    /** 0 disables the purge of read notifications. */
+    @PutMapping("/config/notification-retention-days")
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    public ResponseEntity<Map<String, Object>> updateNotificationRetentionDays(@RequestBody Map<String, Object> request) {
+        Object daysObj = request.get("notificationRetentionDays");
+        if (daysObj == null) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        int newDays;
+        try {
+            newDays = Integer.parseInt(daysObj.toString());
+        } catch (NumberFormatException e) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        if (newDays < 0 || newDays > 3650) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        appSettingService.setNotificationRetentionDays(newDays);
+        return ResponseEntity.ok(Map.of("notificationRetentionDays", newDays));
+    }
 }
@@ -0,0 +1,72 @@
+package com.binbash.mobigo.web.rest;
+
+import com.binbash.mobigo.service.LedgerReconciliationService;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Admin views over the internal ledger: reconciliation report and point-in-time balances.
+ */
+@RestController
+@RequestMapping("/api/admin/ledger")
+public class LedgerAdminResource {
+
+    private static final Logger LOG = LoggerFactory.getLogger(LedgerAdminResource.class);
+
+    private final LedgerReconciliationService reconciliationService;
+
+    public LedgerAdminResource(LedgerReconciliationService reconciliationService) {
+        this.reconciliationService = reconciliationService;
+    }
+
+    /**
+     * GET /api/admin/ledger/reconciliation : report of the last reconciliation run (204 if none yet).
+     */
+    @GetMapping("/reconciliation")
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    public ResponseEntity<LedgerReconciliationService.ReconciliationReport> getLastReconciliation() {
+        LedgerReconciliationService.ReconciliationReport report = reconciliationService.getLastReport();
+        return report == null ? ResponseEntity.noContent().build() : ResponseEntity.ok(report);
+    }
+
+    /**
+     * POST /api/admin/ledger/reconciliation : run a reconciliation now (409 if one is already running).
+     */
+    @PostMapping("/reconciliation")
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    public ResponseEntity<LedgerReconciliationService.ReconciliationReport> runReconciliation() {
+        LOG.info("REST request to run ledger reconciliation");
+        LedgerReconciliationService.ReconciliationReport report = reconciliationService.reconcileAll();
+        return report == null ? ResponseEntity.status(HttpStatus.CONFLICT).build() : ResponseEntity.ok(report);
+    }
+
+    /**
+     * GET /api/admin/ledger/accounts/{accountKey}/balance?at=... : POSTED balance of an account at a past instant.
+     */
+    @GetMapping("/accounts/{accountKey}/balance")
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    public ResponseEntity<Map<String, Object>> getBalanceAt(
+        @PathVariable String accountKey,
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant at
+    ) {
+        Instant instant = at == null ? Instant.now() : at;
+        return reconciliationService
+            .balanceAt(accountKey, instant)
+            .map(balance -> {
+                Map<String, Object> body = new HashMap<>();
+                body.put("accountKey", accountKey);
+                body.put("at", instant);
+                body.put("balance", balance);
+                return ResponseEntity.ok(body);
+            })
+            .orElse(ResponseEntity.notFound().build());
+    }
+}
@@ -5,6 +5,9 @@ import com.binbash.mobigo.domain.People;
 import com.binbash.mobigo.repository.PeopleRepository;
 import com.binbash.mobigo.security.SecurityUtils;
 import com.binbash.mobigo.service.NotificationService;
+import com.binbash.mobigo.service.NotificationService.FeedCursor;
+import com.binbash.mobigo.service.NotificationService.FeedPage;
+import com.binbash.mobigo.web.rest.errors.BadRequestAlertException;
 import java.util.List;
 import java.util.Map;
 import org.slf4j.Logger;
@@ -23,6 +26,11 @@ public class NotificationResource {
 
     private static final Logger LOG = LoggerFactory.getLogger(NotificationResource.class);
 
+    private static final String ENTITY_NAME = "notification";
+
+    /** Max ids accepted by the bulk endpoints. */
+    static final int MAX_BULK_IDS = 500;
+
     private final NotificationService notificationService;
     private final PeopleRepository peopleRepository;
 
@@ -48,6 +56,44 @@ public class NotificationResource {
         return ResponseEntity.ok().headers(headers).body(page.getContent());
     }
 
+    /**
+     * Keyset-paginated feed of the current user, newest first. Pass the returned
+     * {@code nextBefore} as {@code before} to get the next (older) page, and keep
+     * {@code nextSince} to catch up with {@code /since} after a reconnect.
+     */
+    @GetMapping("/feed")
+    public ResponseEntity<FeedPage> getFeed(
+        @RequestParam(required = false) String before,
+        @RequestParam(defaultValue = "20") int size
+    ) {
+        LOG.debug("REST request to get notification feed before {}", before);
+        FeedCursor cursor = before == null ? null : parseCursor(before);
+        Long userId = getCurrentPeopleId();
+        return ResponseEntity.ok(notificationService.getFeed(userId, cursor, size));
+    }
+
+    /**
+     * Notifications of the current user created after the {@code since} cursor, oldest
+     * first. Call again with the returned {@code nextSince} while a full page comes back.
+     * Best effort: the last {@code nextSince} overlaps the most recent notifications, which
+     * the next call returns again; clients dedupe them by id.
+     */
+    @GetMapping("/since")
+    public ResponseEntity<FeedPage> getFeedSince(@RequestParam String since, @RequestParam(defaultValue = "50") int size) {
+        LOG.debug("REST request to get notifications since {}", since);
+        FeedCursor cursor = parseCursor(since);
+        Long userId = getCurrentPeopleId();
+        return ResponseEntity.ok(notificationService.getFeedSince(userId, cursor, size));
+    }
+
+    private static FeedCursor parseCursor(String value) {
+        try {
+            return FeedCursor.parse(value);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestAlertException("Invalid cursor, expected <createdDate>,<id>", ENTITY_NAME, "invalidcursor");
+        }
+    }
+
     @GetMapping("/unread-count")
     public ResponseEntity<Map<String, Long>> getUnreadCount() {
         Long userId = getCurrentPeopleId();
@@ -69,6 +115,32 @@ public class NotificationResource {
         return ResponseEntity.ok().build();
     }
 
+    /** Marks the given notifications of the current user as read; returns how many were unread. */
+    @PutMapping("/read")
+    public ResponseEntity<Map<String, Integer>> markAsRead(@RequestBody List<Long> ids) {
+        LOG.debug("REST request to mark {} notifications as read", ids.size());
+        checkBulkIds(ids);
+        Long userId = getCurrentPeopleId();
+        int updated = notificationService.markAsRead(userId, ids);
+        return ResponseEntity.ok(Map.of("count", updated));
+    }
+
+    /** Deletes the given notifications of the current user; returns how many were deleted. */
+    @DeleteMapping
+    public ResponseEntity<Map<String, Integer>> deleteNotifications(@RequestParam("ids") List<Long> ids) {
+        LOG.debug("REST request to delete {} notifications", ids.size());
+        checkBulkIds(ids);
+        Long userId = getCurrentPeopleId();
+        int deleted = notificationService.deleteNotifications(userId, ids);
+        return ResponseEntity.ok(Map.of("count", deleted));
+    }
+
+    private static void checkBulkIds(List<Long> ids) {
+        if (ids.isEmpty() || ids.size() > MAX_BULK_IDS) {
+            throw new BadRequestAlertException("Between 1 and " + MAX_BULK_IDS + " ids are expected", ENTITY_NAME, "invalidids");
+        }
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteNotification(@PathVariable("id") Long id) {
         LOG.debug("REST request to delete notification {}", id);
@@ -74,7 +74,7 @@ public class RatingResource {
         }
         rating = ratingRepository.save(rating);
         ratingSearchRepository.index(rating);
-        webSocketNotificationService.notifyDataChanged("RATINGS_CHANGED");
+        webSocketNotificationService.notifyDataChanged("RATINGS_CHANGED", rating.getId());
         try {
             if (rating.getConducteur() != null) {
                 notificationEventService.onRatingReceived(rating, rating.getConducteur());
@@ -116,7 +116,7 @@ public class RatingResource {
 
         rating = ratingRepository.save(rating);
         ratingSearchRepository.index(rating);
-        webSocketNotificationService.notifyDataChanged("RATINGS_CHANGED");
+        webSocketNotificationService.notifyDataChanged("RATINGS_CHANGED", rating.getId());
         return ResponseEntity.ok()
             .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, rating.getId().toString()))
             .body(rating);
@@ -212,7 +212,7 @@ public class RatingResource {
         LOG.debug("REST request to delete Rating : {}", id);
         ratingRepository.deleteById(id);
         ratingSearchRepository.deleteFromIndexById(id);
-        webSocketNotificationService.notifyDataChanged("RATINGS_CHANGED");
+        webSocketNotificationService.notifyDataChanged("RATINGS_CHANGED", id);
         return ResponseEntity.noContent()
             .headers(HeaderUtil.createEntityDeletionAlert(applicationName, true, ENTITY_NAME, id.toString()))
             .build();
@@ -8,6 +8,7 @@ import com.binbash.mobigo.service.RideService;
 import com.binbash.mobigo.web.rest.errors.BadRequestAlertException;
 import com.binbash.mobigo.web.rest.errors.ElasticsearchExceptionMapper;
 import com.binbash.mobigo.web.websocket.WebSocketNotificationService;
+import com.binbash.mobigo.web.websocket.dto.RideChangeDTO;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
 import java.net.URI;
@@ -80,7 +81,7 @@ public class RideResource {
         }
         ride = rideRepository.save(ride);
         rideSearchRepository.index(ride);
-        webSocketNotificationService.notifyDataChanged("RIDES_CHANGED");
+        webSocketNotificationService.notifyRideChanged(RideChangeDTO.Change.CREATED, ride);
         return ResponseEntity.created(new URI("/api/rides/" + ride.getId()))
             .headers(HeaderUtil.createEntityCreationAlert(applicationName, true, ENTITY_NAME, ride.getId().toString()))
             .body(ride);
@@ -107,13 +108,15 @@ public class RideResource {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
-        if (!rideRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
-        }
+        Ride previous = rideRepository
+            .findById(id)
+            .orElseThrow(() -> new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"));
+        String previousVilleDepart = previous.getVilleDepart();
+        String previousVilleArrivee = previous.getVilleArrivee();
 
         ride = rideRepository.save(ride);
         rideSearchRepository.index(ride);
-        webSocketNotificationService.notifyDataChanged("RIDES_CHANGED");
+        webSocketNotificationService.notifyRideChanged(RideChangeDTO.Change.UPDATED, ride, previousVilleDepart, previousVilleArrivee);
 
         // Send in-app notifications to booked passengers
         try {
@@ -155,9 +158,12 @@ public class RideResource {
             throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
         }
 
+        String[] previousRoute = new String[2];
         Optional<Ride> result = rideRepository
             .findById(ride.getId())
             .map(existingRide -> {
+                previousRoute[0] = existingRide.getVilleDepart();
+                previousRoute[1] = existingRide.getVilleArrivee();
                 if (ride.getVilleDepart() != null) {
                     existingRide.setVilleDepart(ride.getVilleDepart());
                 }
@@ -212,6 +218,7 @@ public class RideResource {
             .map(rideRepository::save)
             .map(savedRide -> {
                 rideSearchRepository.index(savedRide);
+                webSocketNotificationService.notifyRideChanged(RideChangeDTO.Change.UPDATED, savedRide, previousRoute[0], previousRoute[1]);
                 return savedRide;
             });
 
@@ -349,9 +356,10 @@ public class RideResource {
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteRide(@PathVariable("id") Long id) {
         LOG.debug("REST request to delete Ride : {}", id);
+        Optional<Ride> deleted = rideRepository.findById(id);
         rideRepository.deleteById(id);
         rideSearchRepository.deleteFromIndexById(id);
-        webSocketNotificationService.notifyDataChanged("RIDES_CHANGED");
+        deleted.ifPresent(r -> webSocketNotificationService.notifyRideChanged(RideChangeDTO.Change.DELETED, r));
         return ResponseEntity.noContent()
             .headers(HeaderUtil.createEntityDeletionAlert(applicationName, true, ENTITY_NAME, id.toString()))
             .build();
@@ -369,7 +377,7 @@ public class RideResource {
         LOG.debug("REST request to complete Ride : {}", id);
         try {
             Ride ride = rideService.completeRide(id);
-            webSocketNotificationService.notifyDataChanged("RIDES_CHANGED");
+            webSocketNotificationService.notifyRideChanged(RideChangeDTO.Change.COMPLETED, ride);
             return ResponseEntity.ok()
                 .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, id.toString()))
                 .body(ride);
@@ -392,7 +400,7 @@ public class RideResource {
         LOG.debug("REST request to cancel Ride : {}", id);
         try {
             Ride ride = rideService.cancelRide(id);
-            webSocketNotificationService.notifyDataChanged("RIDES_CHANGED");
+            webSocketNotificationService.notifyRideChanged(RideChangeDTO.Change.CANCELLED, ride);
             return ResponseEntity.ok()
                 .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, id.toString()))
                 .body(ride);
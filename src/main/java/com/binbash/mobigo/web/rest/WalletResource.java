@@ -1,19 +1,30 @@
 package com.binbash.mobigo.web.rest;
 
+import com.binbash.mobigo.domain.LedgerTransaction;
 import com.binbash.mobigo.domain.People;
 import com.binbash.mobigo.domain.enumeration.LedgerAccountType;
 import com.binbash.mobigo.repository.PeopleRepository;
 import com.binbash.mobigo.security.SecurityUtils;
 import com.binbash.mobigo.service.InsufficientWalletBalanceException;
 import com.binbash.mobigo.service.WalletService;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequestMapping("/api/wallet")
@@ -45,6 +56,81 @@ public class WalletResource {
         return ResponseEntity.ok(body);
     }
 
+    /**
+     * Keyset-paginated statement of the authenticated user's PASSENGER (default) or DRIVER
+     * account, newest first, each line with its running balance. Pass the returned
+     * {@code nextBefore} as {@code before} to get the next (older) page.
+     */
+    @GetMapping("/statement")
+    public ResponseEntity<WalletService.StatementPage> statement(
+        @RequestParam(defaultValue = "PASSENGER") LedgerAccountType type,
+        @RequestParam(required = false) Long before,
+        @RequestParam(defaultValue = "50") int size
+    ) {
+        if (type != LedgerAccountType.PASSENGER && type != LedgerAccountType.DRIVER) {
+            return ResponseEntity.badRequest().build();
+        }
+        People p = currentPeople();
+        return ResponseEntity.ok(walletService.statement(type.name() + ":" + p.getId(), before, size));
+    }
+
+    /**
+     * Full statement as CSV, streamed from a database cursor straight to the response.
+     */
+    @GetMapping(value = "/statement/export", produces = "text/csv")
+    public ResponseEntity<StreamingResponseBody> exportStatement(@RequestParam(defaultValue = "PASSENGER") LedgerAccountType type) {
+        if (type != LedgerAccountType.PASSENGER && type != LedgerAccountType.DRIVER) {
+            return ResponseEntity.badRequest().build();
+        }
+        People p = currentPeople();
+        String accountKey = type.name() + ":" + p.getId();
+        LOG.info("Wallet statement export requested: peopleId={} type={}", p.getId(), type);
+        StreamingResponseBody body = out -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            writer.write("entry_id,transaction_id,date,type,description,direction,amount,balance_after\n");
+            walletService.exportStatement(accountKey, line -> {
+                try {
+                    writer.write(toCsv(line));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            writer.flush();
+        };
+        return ResponseEntity.ok()
+            .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"releve-" + type.name().toLowerCase() + ".csv\"")
+            .contentType(new MediaType("text", "csv", StandardCharsets.UTF_8))
+            .body(body);
+    }
+
+    private static String toCsv(WalletService.StatementLine line) {
+        return (
+            line.entryId() +
+            "," +
+            line.transactionId() +
+            "," +
+            (line.createdDate() == null ? "" : line.createdDate()) +
+            "," +
+            line.type() +
+            "," +
+            csvQuote(line.description()) +
+            "," +
+            line.direction() +
+            "," +
+            line.amount().toPlainString() +
+            "," +
+            line.balanceAfter().toPlainString() +
+            "\n"
+        );
+    }
+
+    private static String csvQuote(String value) {
+        if (value == null) {
+            return "";
+        }
+        return "\"" + value.replace("\"", "\"\"") + "\"";
+    }
+
     public record RechargeRequest(BigDecimal amount, String phone) {}
 
     /**
@@ -54,25 +140,33 @@ public class WalletResource {
      * the wallet is actually credited when the Campay webhook confirms SUCCESS.
      */
     @PostMapping("/recharge")
-    public ResponseEntity<Map<String, Object>> recharge(@RequestBody RechargeRequest req) {
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> recharge(@RequestBody RechargeRequest req) {
         if (req == null || req.amount() == null || req.phone() == null) {
-            return ResponseEntity.badRequest().build();
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().build());
         }
         People p = currentPeople();
         LOG.info("Wallet recharge requested: peopleId={} amount={}", p.getId(), req.amount());
         try {
-            var tx = walletService.rechargeWallet(p.getId(), req.amount(), req.phone());
-            LOG.info("Wallet recharge initiated: peopleId={} externalReference={}", p.getId(), tx.getExternalReference());
-            Map<String, Object> body = new HashMap<>();
-            body.put("externalReference", tx.getExternalReference());
-            body.put("status", tx.getStatus().name());
-            return ResponseEntity.ok(body);
+            // The request thread is released while Campay answers the collect.
+            return walletService
+                .rechargeWalletAsync(p.getId(), req.amount(), req.phone())
+                .thenApply(tx -> {
+                    LOG.info("Wallet recharge initiated: peopleId={} externalReference={}", p.getId(), tx.getExternalReference());
+                    return ResponseEntity.ok(initiatedBody(tx));
+                });
         } catch (IllegalArgumentException ex) {
             LOG.warn("Wallet recharge rejected - invalid amount: peopleId={} reason={}", p.getId(), ex.getMessage());
-            return ResponseEntity.badRequest().header("X-mobigo-error", "invalid-amount").build();
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().header("X-mobigo-error", "invalid-amount").build());
         }
     }
 
+    private static Map<String, Object> initiatedBody(LedgerTransaction tx) {
+        Map<String, Object> body = new HashMap<>();
+        body.put("externalReference", tx.getExternalReference());
+        body.put("status", tx.getStatus().name());
+        return body;
+    }
+
     public record PayoutRequest(BigDecimal amount, String phone) {}
 
     /**
@@ -83,28 +177,30 @@ public class WalletResource {
      * 500 (RuntimeException from Campay) if the disbursement initiation fails.
      */
     @PostMapping("/payout")
-    public ResponseEntity<Map<String, Object>> payout(@RequestBody PayoutRequest req) {
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> payout(@RequestBody PayoutRequest req) {
         if (req == null || req.amount() == null || req.phone() == null) {
-            return ResponseEntity.badRequest().build();
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().build());
         }
         People p = currentPeople();
         LOG.info("Wallet payout requested: peopleId={} amount={}", p.getId(), req.amount());
         try {
-            var tx = walletService.requestPayout(p.getId(), req.amount(), req.phone());
-            LOG.info("Wallet payout initiated: peopleId={} externalReference={}", p.getId(), tx.getExternalReference());
-            Map<String, Object> body = new HashMap<>();
-            body.put("externalReference", tx.getExternalReference());
-            body.put("status", tx.getStatus().name());
-            return ResponseEntity.ok(body);
+            return walletService
+                .requestPayoutAsync(p.getId(), req.amount(), req.phone())
+                .thenApply(tx -> {
+                    LOG.info("Wallet payout initiated: peopleId={} externalReference={}", p.getId(), tx.getExternalReference());
+                    return ResponseEntity.ok(initiatedBody(tx));
+                });
         } catch (InsufficientWalletBalanceException ex) {
             LOG.warn("Wallet payout rejected - insufficient balance: peopleId={} shortfall={}", p.getId(), ex.getShortfall());
-            return ResponseEntity.status(HttpStatus.CONFLICT)
-                .header("X-mobigo-error", "wallet-insufficient")
-                .header("X-mobigo-shortfall", ex.getShortfall().toPlainString())
-                .build();
+            return CompletableFuture.completedFuture(
+                ResponseEntity.status(HttpStatus.CONFLICT)
+                    .header("X-mobigo-error", "wallet-insufficient")
+                    .header("X-mobigo-shortfall", ex.getShortfall().toPlainString())
+                    .build()
+            );
         } catch (IllegalArgumentException ex) {
             LOG.warn("Wallet payout rejected - invalid amount: peopleId={} reason={}", p.getId(), ex.getMessage());
-            return ResponseEntity.badRequest().header("X-mobigo-error", "invalid-amount").build();
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().header("X-mobigo-error", "invalid-amount").build());
         }
     }
 }
@@ -3,13 +3,14 @@ package com.binbash.mobigo.web.websocket;
 import static com.binbash.mobigo.config.WebsocketConfiguration.IP_ADDRESS;
 
 import com.binbash.mobigo.web.websocket.dto.ActivityDTO;
+import com.binbash.mobigo.web.websocket.dto.PresenceSnapshotDTO;
 import java.security.Principal;
 import java.time.Instant;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.context.ApplicationListener;
 import org.springframework.messaging.handler.annotation.*;
-import org.springframework.messaging.simp.SimpMessageSendingOperations;
+import org.springframework.messaging.simp.annotation.SubscribeMapping;
 import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.socket.messaging.SessionDisconnectEvent;
@@ -19,28 +20,37 @@ public class ActivityService implements ApplicationListener<SessionDisconnectEve
 
     private static final Logger LOG = LoggerFactory.getLogger(ActivityService.class);
 
-    private final SimpMessageSendingOperations messagingTemplate;
+    private final PresenceService presenceService;
 
-    public ActivityService(SimpMessageSendingOperations messagingTemplate) {
-        this.messagingTemplate = messagingTemplate;
+    public ActivityService(PresenceService presenceService) {
+        this.presenceService = presenceService;
     }
 
+    /**
+     * Records the page a client is on. Nothing is broadcast here: admins get periodic
+     * aggregated snapshots from {@link PresenceService}.
+     */
     @MessageMapping("/topic/activity")
-    @SendTo("/topic/tracker")
-    public ActivityDTO sendActivity(@Payload ActivityDTO activityDTO, StompHeaderAccessor stompHeaderAccessor, Principal principal) {
+    public void sendActivity(@Payload ActivityDTO activityDTO, StompHeaderAccessor stompHeaderAccessor, Principal principal) {
         activityDTO.setUserLogin(principal.getName());
         activityDTO.setSessionId(stompHeaderAccessor.getSessionId());
         activityDTO.setIpAddress(stompHeaderAccessor.getSessionAttributes().get(IP_ADDRESS).toString());
         activityDTO.setTime(Instant.now());
-        LOG.debug("Sending user tracking data {}", activityDTO);
-        return activityDTO;
+        LOG.debug("Recording user tracking data {}", activityDTO);
+        presenceService.record(activityDTO);
+    }
+
+    /**
+     * Replies to a new {@code /topic/tracker} subscriber with the current snapshot, so the
+     * admin screen does not wait for the next periodic one.
+     */
+    @SubscribeMapping(PresenceService.TRACKER_TOPIC)
+    public PresenceSnapshotDTO subscribeTracker() {
+        return presenceService.snapshot();
     }
 
     @Override
     public void onApplicationEvent(SessionDisconnectEvent event) {
-        ActivityDTO activityDTO = new ActivityDTO();
-        activityDTO.setSessionId(event.getSessionId());
-        activityDTO.setPage("logout");
-        messagingTemplate.convertAndSend("/topic/tracker", activityDTO);
+        presenceService.remove(event.getSessionId());
     }
 }
@@ -0,0 +1,129 @@
+package com.binbash.mobigo.web.websocket;
+
+import com.binbash.mobigo.config.ApplicationProperties;
+import com.binbash.mobigo.web.websocket.dto.DataChangeDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.messaging.simp.SimpMessageSendingOperations;
+import org.springframework.stereotype.Component;
+
+/**
+ * Debounces data-change broadcasts: changes submitted for the same (topic, type) within
+ * {@code application.websocket.broadcast-window-ms} of the first one are sent as a single
+ * {@link DataChangeDTO} frame carrying every changed id (and the latest delta of each),
+ * so a burst of writes costs one frame per topic instead of one per write.
+ */
+@Component
+public class DataChangeBroadcaster {
+
+    private static final Logger LOG = LoggerFactory.getLogger(DataChangeBroadcaster.class);
+
+    private record Key(String topic, String type) {}
+
+    /** Changed ids of a key, in first-change order, with the latest delta of each (may be null). */
+    private static final class Pending {
+
+        private final Map<Long, Object> changes = new LinkedHashMap<>();
+    }
+
+    private final SimpMessageSendingOperations messagingTemplate;
+    private final MeterRegistry registry;
+    private final long windowMs;
+    private final Map<Key, Pending> pending = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService scheduler;
+
+    public DataChangeBroadcaster(
+        SimpMessageSendingOperations messagingTemplate,
+        ApplicationProperties applicationProperties,
+        MeterRegistry registry
+    ) {
+        this.messagingTemplate = messagingTemplate;
+        this.registry = registry;
+        this.windowMs = Math.max(0, applicationProperties.getWebsocket().getBroadcastWindowMs());
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "websocket-broadcaster");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    @PreDestroy
+    public void stop() {
+        scheduler.shutdownNow();
+        flushAll();
+    }
+
+    /**
+     * Queues the change of entity {@code id} for the next frame of ({@code topic}, {@code type}).
+     * {@code change} is the delta sent for that id, or null for an id-only notification.
+     */
+    public void submit(String topic, String type, Long id, Object change) {
+        counter("websocket.broadcast.events", "Data changes submitted for broadcast", type).increment();
+        Key key = new Key(topic, type);
+        if (windowMs == 0) {
+            Pending single = new Pending();
+            single.changes.put(id, change);
+            send(key, single);
+            return;
+        }
+        boolean[] opened = new boolean[1];
+        pending.compute(key, (k, p) -> {
+            if (p == null) {
+                p = new Pending();
+                opened[0] = true;
+            }
+            p.changes.remove(id);
+            p.changes.put(id, change);
+            return p;
+        });
+        if (opened[0]) {
+            try {
+                scheduler.schedule(() -> flush(key), windowMs, TimeUnit.MILLISECONDS);
+            } catch (Exception e) {
+                // Shutting down: send right away rather than lose the change.
+                flush(key);
+            }
+        }
+    }
+
+    /** Sends every pending frame now. */
+    void flushAll() {
+        for (Key key : new ArrayList<>(pending.keySet())) {
+            flush(key);
+        }
+    }
+
+    private void flush(Key key) {
+        Pending p = pending.remove(key);
+        if (p != null) {
+            send(key, p);
+        }
+    }
+
+    private void send(Key key, Pending p) {
+        List<Object> deltas = p.changes.values().stream().anyMatch(Objects::nonNull) ? new ArrayList<>(p.changes.values()) : null;
+        DataChangeDTO frame = new DataChangeDTO(key.type(), List.copyOf(p.changes.keySet()), deltas);
+        try {
+            messagingTemplate.convertAndSend(key.topic(), frame);
+            counter("websocket.broadcast.frames", "Data-change frames sent", key.type()).increment();
+        } catch (Exception e) {
+            LOG.warn("Failed to broadcast {} on {}: {}", key.type(), key.topic(), e.getMessage());
+        }
+    }
+
+    private Counter counter(String name, String description, String type) {
+        return Counter.builder(name).description(description).tag("type", type).register(registry);
+    }
+}
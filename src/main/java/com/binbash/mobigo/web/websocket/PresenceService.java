@@ -0,0 +1,120 @@
+package com.binbash.mobigo.web.websocket;
+
+import com.binbash.mobigo.web.websocket.dto.ActivityDTO;
+import com.binbash.mobigo.web.websocket.dto.PresenceSnapshotDTO;
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.messaging.simp.SimpMessageSendingOperations;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * In-memory presence of the sessions connected to this node: login, IP address, current page
+ * and last-seen time. Page views and disconnects only update the registry; subscribers of
+ * {@link #TRACKER_TOPIC} receive an aggregated {@link PresenceSnapshotDTO} at most every
+ * {@code application.websocket.presence-snapshot-ms} when something changed, and at least every
+ * {@link #HEARTBEAT} otherwise.
+ * <p>
+ * The registry is per node. With the broker relay each node publishes its own snapshot, tagged
+ * with its {@link #getNode() node id}: clients merge the latest snapshot of every node and drop
+ * nodes that stopped sending heartbeats. {@link #getSessions()} only lists this node's sessions.
+ */
+@Service
+public class PresenceService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(PresenceService.class);
+
+    public static final String TRACKER_TOPIC = "/topic/tracker";
+
+    /** Longest gap between two snapshots of a node, so that clients can tell it is still up. */
+    static final Duration HEARTBEAT = Duration.ofSeconds(30);
+
+    private static final Pattern NUMERIC_SEGMENT = Pattern.compile("/\\d+(?=/|$)");
+
+    private final SimpMessageSendingOperations messagingTemplate;
+    private final Map<String, ActivityDTO> sessions = new ConcurrentHashMap<>();
+    private final AtomicBoolean changed = new AtomicBoolean();
+    private final String node = ManagementFactory.getRuntimeMXBean().getName();
+    private volatile Instant lastPublished = Instant.EPOCH;
+
+    public PresenceService(SimpMessageSendingOperations messagingTemplate) {
+        this.messagingTemplate = messagingTemplate;
+    }
+
+    /**
+     * Records the latest activity of a session (replacing its previous page).
+     */
+    public void record(ActivityDTO activity) {
+        sessions.put(activity.getSessionId(), activity);
+        changed.set(true);
+    }
+
+    public void remove(String sessionId) {
+        if (sessionId != null && sessions.remove(sessionId) != null) {
+            changed.set(true);
+        }
+    }
+
+    /** Identifies this node in its snapshots: {@code <pid>@<hostname>}. */
+    public String getNode() {
+        return node;
+    }
+
+    /**
+     * Every session of this node with its latest activity, most recently seen first. Sessions held
+     * by other nodes are not listed.
+     */
+    public List<ActivityDTO> getSessions() {
+        return sessions
+            .values()
+            .stream()
+            .sorted(Comparator.comparing(ActivityDTO::getTime, Comparator.nullsLast(Comparator.reverseOrder())))
+            .toList();
+    }
+
+    public PresenceSnapshotDTO snapshot() {
+        List<ActivityDTO> current = List.copyOf(sessions.values());
+        long users = current.stream().map(ActivityDTO::getUserLogin).filter(Objects::nonNull).distinct().count();
+        Map<String, Long> pages = current
+            .stream()
+            .collect(Collectors.groupingBy(a -> pageKey(a.getPage()), Collectors.counting()))
+            .entrySet()
+            .stream()
+            .sorted(Map.Entry.<String, Long>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+            .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue, (a, b) -> a, LinkedHashMap::new));
+        return new PresenceSnapshotDTO(node, Instant.now(), current.size(), users, pages);
+    }
+
+    @Scheduled(fixedDelayString = "${application.websocket.presence-snapshot-ms:5000}")
+    public void publishSnapshot() {
+        boolean heartbeatDue = lastPublished.plus(HEARTBEAT).isBefore(Instant.now());
+        if (!changed.getAndSet(false) && !heartbeatDue) {
+            return;
+        }
+        PresenceSnapshotDTO snapshot = snapshot();
+        lastPublished = snapshot.time();
+        LOG.debug("Publishing presence snapshot: {} sessions, {} users", snapshot.sessions(), snapshot.users());
+        messagingTemplate.convertAndSend(TRACKER_TOPIC, snapshot);
+    }
+
+    /**
+     * Folds the query string and numeric ids out of a page URL, so {@code /ride/12/view?x=1}
+     * and {@code /ride/13/view} are counted as the same page {@code /ride/:id/view}.
+     */
+    static String pageKey(String page) {
+        String path = page == null ? "" : page.split("[?#;]", 2)[0];
+        return path.isBlank() ? "/" : NUMERIC_SEGMENT.matcher(path).replaceAll("/:id");
+    }
+}
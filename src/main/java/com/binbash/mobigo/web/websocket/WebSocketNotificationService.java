@@ -1,24 +1,101 @@
 package com.binbash.mobigo.web.websocket;
 
-import java.util.Map;
+import com.binbash.mobigo.domain.Ride;
+import com.binbash.mobigo.web.websocket.dto.RideChangeDTO;
+import java.text.Normalizer;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.messaging.simp.SimpMessageSendingOperations;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 @Service
 public class WebSocketNotificationService {
 
     private static final Logger LOG = LoggerFactory.getLogger(WebSocketNotificationService.class);
 
-    private final SimpMessageSendingOperations messagingTemplate;
+    /** Every ride delta, whatever the route (admin and "my rides" screens). */
+    public static final String RIDES_TOPIC = "/topic/rides";
 
-    public WebSocketNotificationService(SimpMessageSendingOperations messagingTemplate) {
-        this.messagingTemplate = messagingTemplate;
+    /** Data-change frames ({@code BOOKINGS_CHANGED}, {@code RATINGS_CHANGED}...) with the changed ids. */
+    public static final String DATA_UPDATES_TOPIC = "/topic/data-updates";
+
+    static final String RIDES_CHANGED = "RIDES_CHANGED";
+
+    private final DataChangeBroadcaster broadcaster;
+
+    public WebSocketNotificationService(DataChangeBroadcaster broadcaster) {
+        this.broadcaster = broadcaster;
+    }
+
+    /**
+     * Broadcasts that entity {@code id} of {@code eventType} changed, once the current
+     * transaction commits; changes close in time are sent together (see {@link DataChangeBroadcaster}).
+     */
+    public void notifyDataChanged(String eventType, Long id) {
+        LOG.debug("Broadcasting data change event: {} {}", eventType, id);
+        afterCommit(() -> broadcaster.submit(DATA_UPDATES_TOPIC, eventType, id, null));
+    }
+
+    public void notifyRideChanged(RideChangeDTO.Change change, Ride ride) {
+        notifyRideChanged(change, ride, null, null);
+    }
+
+    /**
+     * Publishes a ride delta on {@link #RIDES_TOPIC} and on the topic of the ride's route,
+     * so only clients looking at that route receive it. When an update moved the ride to
+     * another route, the previous route's topic gets the delta too, so its clients can drop
+     * the ride from their lists. Inside a transaction the deltas are submitted once it
+     * commits; each frame carries the latest delta of every ride changed in the window.
+     */
+    public void notifyRideChanged(RideChangeDTO.Change change, Ride ride, String previousVilleDepart, String previousVilleArrivee) {
+        RideChangeDTO event = RideChangeDTO.of(change, ride);
+        Set<String> topics = new LinkedHashSet<>();
+        topics.add(RIDES_TOPIC);
+        topics.add(routeTopic(ride.getVilleDepart(), ride.getVilleArrivee()));
+        if (previousVilleDepart != null && previousVilleArrivee != null) {
+            topics.add(routeTopic(previousVilleDepart, previousVilleArrivee));
+        }
+        afterCommit(() -> {
+            LOG.debug("Broadcasting ride {} {} on {}", change, ride.getId(), topics);
+            for (String topic : topics) {
+                broadcaster.submit(topic, RIDES_CHANGED, ride.getId(), event);
+            }
+        });
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        action.run();
+                    }
+                }
+            );
+        } else {
+            action.run();
+        }
+    }
+
+    /**
+     * Topic of a route: {@code /topic/rides/<departure>-<arrival>}, each city lower-cased,
+     * without accents, with every other non-alphanumeric character replaced by {@code _}
+     * (e.g. "Yaoundé" / "Bafoussam" gives {@code /topic/rides/yaounde-bafoussam}).
+     */
+    public static String routeTopic(String villeDepart, String villeArrivee) {
+        return RIDES_TOPIC + "/" + routeSegment(villeDepart) + "-" + routeSegment(villeArrivee);
     }
 
-    public void notifyDataChanged(String eventType) {
-        LOG.debug("Broadcasting data change event: {}", eventType);
-        messagingTemplate.convertAndSend("/topic/data-updates", Map.of("type", eventType));
+    private static String routeSegment(String ville) {
+        if (ville == null) {
+            return "_";
+        }
+        String ascii = Normalizer.normalize(ville.trim(), Normalizer.Form.NFD).replaceAll("\\p{M}", "");
+        return ascii.toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9]", "_");
     }
 }
@@ -0,0 +1,155 @@
+package com.binbash.mobigo.web.websocket;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.MessageHandlingRunnable;
+import org.springframework.messaging.support.NativeMessageHeaderAccessor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.WebSocketHandlerDecorator;
+import org.springframework.web.socket.handler.WebSocketHandlerDecoratorFactory;
+import org.springframework.web.socket.messaging.AbstractSubProtocolEvent;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
+
+/**
+ * Micrometer view of the STOMP endpoint on this node: active sessions, subscriptions, frames queued on the client
+ * channels, broadcast frames dropped because the outbound channel was full, and sessions evicted for exceeding the
+ * send-time or send-buffer limits.
+ */
+@Component
+public class WebSocketSessionMetrics implements WebSocketHandlerDecoratorFactory {
+
+    private final MeterRegistry registry;
+    private final AtomicInteger activeSessions = new AtomicInteger();
+    private final Map<String, Set<String>> subscriptions = new ConcurrentHashMap<>();
+    private final Counter evicted;
+    private final Counter dropped;
+
+    public WebSocketSessionMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        Gauge.builder("websocket.sessions.active", activeSessions, AtomicInteger::get)
+            .description("Open WebSocket sessions on this node")
+            .register(registry);
+        Gauge.builder("websocket.subscriptions", subscriptions, WebSocketSessionMetrics::count)
+            .description("STOMP subscriptions held by sessions on this node")
+            .register(registry);
+        this.evicted = Counter.builder("websocket.sessions.evicted")
+            .description("Sessions closed for exceeding the send-time or send-buffer limit")
+            .register(registry);
+        this.dropped = Counter.builder("websocket.messages.dropped")
+            .description("Broadcast frames dropped because the outbound channel queue was full")
+            .register(registry);
+    }
+
+    private static double count(Map<String, Set<String>> subscriptions) {
+        return subscriptions.values().stream().mapToInt(Set::size).sum();
+    }
+
+    /**
+     * Exposes the queue length of a client channel executor as {@code websocket.channel.queued{channel}}.
+     */
+    public void monitorChannel(String channel, ThreadPoolTaskExecutor executor) {
+        Gauge.builder("websocket.channel.queued", executor, ThreadPoolTaskExecutor::getQueueSize)
+            .description("Frames waiting on a STOMP client channel")
+            .tag("channel", channel)
+            .register(registry);
+    }
+
+    /**
+     * Rejection policy for the outbound channel. Only broadcast MESSAGE frames (topic fan-out such as data updates or
+     * tracker snapshots, which the next frame supersedes) are dropped and counted. Control frames (CONNECTED, RECEIPT,
+     * ERROR, heartbeats) and messages to a user destination are run by the caller instead: the broker or publishing
+     * thread slows down, rather than a client waiting forever for its CONNECTED frame or missing a notification.
+     */
+    public RejectedExecutionHandler outboundRejectionPolicy() {
+        return (task, executor) -> {
+            if (isBroadcastMessage(task)) {
+                dropped.increment();
+            } else if (!executor.isShutdown()) {
+                task.run();
+            }
+        };
+    }
+
+    static boolean isBroadcastMessage(Runnable task) {
+        if (!(task instanceof MessageHandlingRunnable handling)) {
+            return false;
+        }
+        Map<String, Object> headers = handling.getMessage().getHeaders();
+        if (SimpMessageHeaderAccessor.getMessageType(headers) != SimpMessageType.MESSAGE) {
+            return false;
+        }
+        // Resolved user destinations keep the /user/... destination the client subscribed to.
+        return (
+            headers.get(SimpMessageHeaderAccessor.ORIGINAL_DESTINATION) == null &&
+            NativeMessageHeaderAccessor.getFirstNativeHeader(SimpMessageHeaderAccessor.ORIGINAL_DESTINATION, headers) == null
+        );
+    }
+
+    @Override
+    public WebSocketHandler decorate(WebSocketHandler handler) {
+        return new WebSocketHandlerDecorator(handler) {
+            @Override
+            public void afterConnectionEstablished(WebSocketSession session) throws Exception {
+                activeSessions.incrementAndGet();
+                super.afterConnectionEstablished(session);
+            }
+
+            @Override
+            public void afterConnectionClosed(WebSocketSession session, CloseStatus closeStatus) throws Exception {
+                activeSessions.decrementAndGet();
+                // Status used by the session decorator when a send-time or send-buffer limit is exceeded.
+                if (CloseStatus.SESSION_NOT_RELIABLE.equalsCode(closeStatus)) {
+                    evicted.increment();
+                }
+                super.afterConnectionClosed(session, closeStatus);
+            }
+        };
+    }
+
+    @EventListener
+    public void onSubscribe(SessionSubscribeEvent event) {
+        String sessionId = sessionId(event);
+        String subscriptionId = subscriptionId(event);
+        if (sessionId != null && subscriptionId != null) {
+            subscriptions.computeIfAbsent(sessionId, id -> ConcurrentHashMap.newKeySet()).add(subscriptionId);
+        }
+    }
+
+    @EventListener
+    public void onUnsubscribe(SessionUnsubscribeEvent event) {
+        String sessionId = sessionId(event);
+        String subscriptionId = subscriptionId(event);
+        Set<String> ids = sessionId != null ? subscriptions.get(sessionId) : null;
+        if (ids != null && subscriptionId != null) {
+            ids.remove(subscriptionId);
+        }
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        subscriptions.remove(event.getSessionId());
+    }
+
+    private static String sessionId(AbstractSubProtocolEvent event) {
+        return SimpMessageHeaderAccessor.getSessionId(event.getMessage().getHeaders());
+    }
+
+    private static String subscriptionId(AbstractSubProtocolEvent event) {
+        return SimpMessageHeaderAccessor.getSubscriptionId(event.getMessage().getHeaders());
+    }
+}
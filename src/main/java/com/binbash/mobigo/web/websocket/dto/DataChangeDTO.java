@@ -0,0 +1,12 @@
+package com.binbash.mobigo.web.websocket.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * One data-change frame: every entity of {@code type} changed during the broadcast window,
+ * with the latest delta of each when the topic carries deltas (e.g. {@link RideChangeDTO}).
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record DataChangeDTO(String type, Collection<Long> ids, List<Object> changes) {}
@@ -0,0 +1,13 @@
+package com.binbash.mobigo.web.websocket.dto;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Aggregated presence of the sessions connected to one node: number of sessions and distinct
+ * users, and number of sessions per page (numeric path segments folded into {@code :id}),
+ * most visited first. With the broker relay every node publishes its own snapshot on the same
+ * topic; {@code node} tells them apart so that clients keep the latest one per node and add
+ * them up.
+ */
+public record PresenceSnapshotDTO(String node, Instant time, int sessions, long users, Map<String, Long> pages) {}
@@ -0,0 +1,50 @@
+package com.binbash.mobigo.web.websocket.dto;
+
+import com.binbash.mobigo.domain.Ride;
+import com.binbash.mobigo.domain.enumeration.RideStatusEnum;
+import java.time.LocalDate;
+
+/**
+ * Delta sent on the ride topics (in the {@code changes} of a {@link DataChangeDTO} frame)
+ * when a ride changes, with enough of the ride for clients to patch their lists without
+ * refetching. Only {@code change} and {@code rideId} are
+ * set for {@link Change#DELETED}.
+ */
+public record RideChangeDTO(
+    Change change,
+    Long rideId,
+    String villeDepart,
+    String villeArrivee,
+    LocalDate dateDepart,
+    String heureDepart,
+    String minuteDepart,
+    Integer nbrePlaceDisponible,
+    Float prixParPlace,
+    RideStatusEnum statut
+) {
+    public enum Change {
+        CREATED,
+        UPDATED,
+        DELETED,
+        COMPLETED,
+        CANCELLED,
+    }
+
+    public static RideChangeDTO of(Change change, Ride ride) {
+        if (change == Change.DELETED) {
+            return new RideChangeDTO(change, ride.getId(), null, null, null, null, null, null, null, null);
+        }
+        return new RideChangeDTO(
+            change,
+            ride.getId(),
+            ride.getVilleDepart(),
+            ride.getVilleArrivee(),
+            ride.getDateDepart(),
+            ride.getHeureDepart(),
+            ride.getMinuteDepart(),
+            ride.getNbrePlaceDisponible(),
+            ride.getPrixParPlace(),
+            ride.getStatut()
+        );
+    }
+}
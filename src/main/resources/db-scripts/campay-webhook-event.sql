@@ -0,0 +1,30 @@
+-- =====================================================================
+-- Campay : file d'attente durable des webhooks entrants.
+--
+-- Ce script est INFORMATIF : Spring Boot est configuré avec
+-- `spring.jpa.hibernate.ddl-auto=update` (voir application.yml), donc
+-- la table est créée automatiquement au démarrage.
+--
+-- Lance ce script UNIQUEMENT si tu déploies sans ddl-auto=update.
+-- Il est idempotent (IF NOT EXISTS).
+-- =====================================================================
+
+CREATE TABLE IF NOT EXISTS campay_webhook_event (
+    id                  BIGINT        PRIMARY KEY,
+    dedupe_key          VARCHAR(64)   NOT NULL,
+    order_key           VARCHAR(255)  NOT NULL,
+    reference           VARCHAR(255),
+    external_reference  VARCHAR(255),
+    status              VARCHAR(32),
+    payload             TEXT,
+    state               VARCHAR(16)   NOT NULL,
+    attempts            INTEGER       NOT NULL,
+    received_at         TIMESTAMP     NOT NULL,
+    next_attempt_at     TIMESTAMP     NOT NULL,
+    processed_at        TIMESTAMP,
+    last_error          VARCHAR(500),
+    CONSTRAINT ux_campay_webhook_event_dedupe UNIQUE (dedupe_key)
+);
+
+CREATE INDEX IF NOT EXISTS idx_campay_webhook_event_due ON campay_webhook_event(state, next_attempt_at);
+CREATE INDEX IF NOT EXISTS idx_campay_webhook_event_order ON campay_webhook_event(order_key, id);
@@ -0,0 +1,14 @@
+-- =====================================================================
+-- Jetons FCM : index token, utilisé par la suppression en masse des
+-- jetons signalés morts par FCM (UNREGISTERED / SENDER_ID_MISMATCH) et
+-- par l'enregistrement d'un appareil (FirebaseService, DeviceTokenResource).
+--
+-- Ce script est INFORMATIF : Spring Boot est configuré avec
+-- `spring.jpa.hibernate.ddl-auto=update` (voir application.yml), donc
+-- l'index est créé automatiquement au démarrage.
+--
+-- Lance ce script UNIQUEMENT si tu déploies sans ddl-auto=update.
+-- Il est idempotent (IF NOT EXISTS).
+-- =====================================================================
+
+CREATE INDEX IF NOT EXISTS idx_device_token_token ON device_token(token);
@@ -0,0 +1,14 @@
+-- =====================================================================
+-- Jetons FCM : index user_id, utilisé pour charger en une requête les
+-- appareils de tous les destinataires d'un lot de notifications
+-- (NotificationDispatcher).
+--
+-- Ce script est INFORMATIF : Spring Boot est configuré avec
+-- `spring.jpa.hibernate.ddl-auto=update` (voir application.yml), donc
+-- l'index est créé automatiquement au démarrage.
+--
+-- Lance ce script UNIQUEMENT si tu déploies sans ddl-auto=update.
+-- Il est idempotent (IF NOT EXISTS).
+-- =====================================================================
+
+CREATE INDEX IF NOT EXISTS idx_device_token_user ON device_token(user_id);
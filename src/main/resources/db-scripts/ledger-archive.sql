@@ -0,0 +1,44 @@
+-- =====================================================================
+-- Grand livre : tables d'archive des transactions soldées (POSTED/VOID)
+-- couvertes par le dernier point de contrôle de solde (LedgerArchiveService),
+-- et index ledger_entry(transaction_id) utilisé par le déplacement.
+--
+-- Ce script est INFORMATIF : Spring Boot est configuré avec
+-- `spring.jpa.hibernate.ddl-auto=update` (voir application.yml), donc
+-- les tables et index sont créés automatiquement au démarrage.
+--
+-- Lance ce script UNIQUEMENT si tu déploies sans ddl-auto=update.
+-- Il est idempotent (IF NOT EXISTS).
+-- =====================================================================
+
+CREATE TABLE IF NOT EXISTS ledger_transaction_archive (
+    id                  BIGINT       PRIMARY KEY,
+    type                VARCHAR(255) NOT NULL,
+    status              VARCHAR(255) NOT NULL,
+    booking_id          BIGINT,
+    idempotency_key     VARCHAR(80),
+    external_reference  VARCHAR(80),
+    campay_reference    VARCHAR(120),
+    description         VARCHAR(240),
+    created_by          VARCHAR(50),
+    created_date        TIMESTAMP,
+    last_modified_by    VARCHAR(50),
+    last_modified_date  TIMESTAMP,
+    archived_at         TIMESTAMP    NOT NULL,
+    CONSTRAINT ux_ledger_tx_archive_idem UNIQUE (idempotency_key)
+);
+
+CREATE INDEX IF NOT EXISTS idx_ledger_tx_archive_extref ON ledger_transaction_archive(external_reference);
+
+CREATE TABLE IF NOT EXISTS ledger_entry_archive (
+    id              BIGINT         PRIMARY KEY,
+    transaction_id  BIGINT         NOT NULL,
+    account_id      BIGINT         NOT NULL,
+    direction       VARCHAR(255)   NOT NULL,
+    amount          NUMERIC(19, 0) NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_ledger_entry_archive_account_id ON ledger_entry_archive(account_id, id);
+CREATE INDEX IF NOT EXISTS idx_ledger_entry_archive_transaction ON ledger_entry_archive(transaction_id);
+
+CREATE INDEX IF NOT EXISTS idx_ledger_entry_transaction ON ledger_entry(transaction_id);
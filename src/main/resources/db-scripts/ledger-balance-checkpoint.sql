@@ -0,0 +1,20 @@
+-- =====================================================================
+-- Grand livre : points de contrôle de solde (rapprochement incrémental).
+--
+-- Ce script est INFORMATIF : Spring Boot est configuré avec
+-- `spring.jpa.hibernate.ddl-auto=update` (voir application.yml), donc
+-- la table est créée automatiquement au démarrage.
+--
+-- Lance ce script UNIQUEMENT si tu déploies sans ddl-auto=update.
+-- Il est idempotent (IF NOT EXISTS).
+-- =====================================================================
+
+CREATE TABLE IF NOT EXISTS ledger_balance_checkpoint (
+    id              BIGINT         PRIMARY KEY,
+    account_id      BIGINT         NOT NULL,
+    last_entry_id   BIGINT         NOT NULL,
+    balance         NUMERIC(19, 0) NOT NULL,
+    checkpoint_at   TIMESTAMP      NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_ledger_checkpoint_account ON ledger_balance_checkpoint(account_id, last_entry_id);
@@ -0,0 +1,51 @@
+-- =====================================================================
+-- Grand livre : agrégats quotidiens des lignes POSTED par type de compte
+-- et type de transaction (tableaux de bord admin, rapports par période).
+-- Alimentés par WalletService au moment où une transaction passe POSTED.
+--
+-- Ce script est INFORMATIF : Spring Boot est configuré avec
+-- `spring.jpa.hibernate.ddl-auto=update` (voir application.yml), donc
+-- la table est créée automatiquement au démarrage.
+--
+-- Lance ce script UNIQUEMENT si tu déploies sans ddl-auto=update.
+-- Il est idempotent (IF NOT EXISTS).
+--
+-- L'initialisation de l'historique (bloc final) n'est PAS faite au
+-- démarrage : lance-la une fois, juste après le déploiement, pour reprendre
+-- les transactions POSTED antérieures (tables chaudes + archive). Elle ne
+-- fait rien si la table contient déjà des lignes. Le jour de comptabilisation
+-- est approché par last_modified_date, en UTC.
+-- =====================================================================
+
+CREATE TABLE IF NOT EXISTS ledger_daily_total (
+    id                BIGINT         PRIMARY KEY,
+    total_date        DATE           NOT NULL,
+    account_type      VARCHAR(255)   NOT NULL,
+    transaction_type  VARCHAR(255)   NOT NULL,
+    slot              INTEGER        NOT NULL,
+    credit_total      NUMERIC(19, 0) NOT NULL,
+    debit_total       NUMERIC(19, 0) NOT NULL,
+    line_count        BIGINT         NOT NULL,
+    CONSTRAINT ux_ledger_daily_total_bucket UNIQUE (total_date, account_type, transaction_type, slot)
+);
+
+INSERT INTO ledger_daily_total (id, total_date, account_type, transaction_type, slot, credit_total, debit_total, line_count)
+SELECT nextval('sequence_generator'), l.total_date, l.account_type, l.transaction_type, 0,
+       SUM(CASE WHEN l.direction = 'CREDIT' THEN l.amount ELSE 0 END),
+       SUM(CASE WHEN l.direction = 'DEBIT' THEN l.amount ELSE 0 END),
+       COUNT(*)
+FROM (
+    SELECT CAST(t.last_modified_date AS DATE) AS total_date, a.account_type, t.type AS transaction_type, e.direction, e.amount
+    FROM ledger_entry e
+    JOIN ledger_transaction t ON t.id = e.transaction_id
+    JOIN ledger_account a ON a.id = e.account_id
+    WHERE t.status = 'POSTED'
+    UNION ALL
+    SELECT CAST(t.last_modified_date AS DATE), a.account_type, t.type, e.direction, e.amount
+    FROM ledger_entry_archive e
+    JOIN ledger_transaction_archive t ON t.id = e.transaction_id
+    JOIN ledger_account a ON a.id = e.account_id
+    WHERE t.status = 'POSTED'
+) l
+WHERE NOT EXISTS (SELECT 1 FROM ledger_daily_total)
+GROUP BY l.total_date, l.account_type, l.transaction_type;
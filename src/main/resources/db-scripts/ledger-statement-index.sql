@@ -0,0 +1,13 @@
+-- =====================================================================
+-- Relevé porte-monnaie : index keyset sur ledger_entry(account_id, id).
+--
+-- Ce script est INFORMATIF : Spring Boot est configuré avec
+-- `spring.jpa.hibernate.ddl-auto=update` (voir application.yml), donc
+-- l'index déclaré sur l'entité LedgerEntry est créé au démarrage.
+--
+-- Lance ce script UNIQUEMENT si tu déploies sans ddl-auto=update.
+-- Il est idempotent (IF NOT EXISTS). CONCURRENTLY évite de bloquer les
+-- écritures du grand livre pendant la construction.
+-- =====================================================================
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_ledger_entry_account_id ON ledger_entry(account_id, id);
@@ -0,0 +1,13 @@
+-- =====================================================================
+-- Grand livre : index des transactions par (statut, date de création),
+-- utilisé par le rapprochement Campay des DRAFT restés sans webhook.
+--
+-- Ce script est INFORMATIF : Spring Boot est configuré avec
+-- `spring.jpa.hibernate.ddl-auto=update` (voir application.yml), donc
+-- l'index est créé automatiquement au démarrage.
+--
+-- Lance ce script UNIQUEMENT si tu déploies sans ddl-auto=update.
+-- Il est idempotent (IF NOT EXISTS).
+-- =====================================================================
+
+CREATE INDEX IF NOT EXISTS idx_ledger_tx_status_created ON ledger_transaction(status, created_date);
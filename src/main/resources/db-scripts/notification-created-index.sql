@@ -0,0 +1,14 @@
+-- =====================================================================
+-- Notifications : index created_date, utilisé par la purge des
+-- notifications lues au-delà de la rétention (NotificationRetentionService,
+-- réglage admin notification_retention_days).
+--
+-- Ce script est INFORMATIF : Spring Boot est configuré avec
+-- `spring.jpa.hibernate.ddl-auto=update` (voir application.yml), donc
+-- l'index est créé automatiquement au démarrage.
+--
+-- Lance ce script UNIQUEMENT si tu déploies sans ddl-auto=update.
+-- Il est idempotent (IF NOT EXISTS).
+-- =====================================================================
+
+CREATE INDEX IF NOT EXISTS idx_notification_created ON notification(created_date);
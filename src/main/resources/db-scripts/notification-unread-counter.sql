@@ -0,0 +1,19 @@
+-- =====================================================================
+-- Notifications : compteur de notifications non lues par utilisateur,
+-- tenu à jour par NotificationUnreadCountService (badge de l'app).
+--
+-- Ce script est INFORMATIF : Spring Boot est configuré avec
+-- `spring.jpa.hibernate.ddl-auto=update` (voir application.yml), donc
+-- la table est créée automatiquement au démarrage.
+--
+-- Lance ce script UNIQUEMENT si tu déploies sans ddl-auto=update.
+-- Il est idempotent (IF NOT EXISTS).
+--
+-- Pas d'initialisation à lancer : un compteur absent est calculé à partir
+-- de la table notification la première fois qu'il est lu ou modifié.
+-- =====================================================================
+
+CREATE TABLE IF NOT EXISTS notification_unread_counter (
+    user_id       BIGINT PRIMARY KEY,
+    unread_count  BIGINT NOT NULL
+);
@@ -0,0 +1,14 @@
+-- =====================================================================
+-- Notifications : index (user_id, created_date, id) pour le fil paginé
+-- par curseur (/api/notifications/feed?before=... et /since?since=...),
+-- sans requête de comptage ni OFFSET.
+--
+-- Ce script est INFORMATIF : Spring Boot est configuré avec
+-- `spring.jpa.hibernate.ddl-auto=update` (voir application.yml), donc
+-- l'index est créé automatiquement au démarrage.
+--
+-- Lance ce script UNIQUEMENT si tu déploies sans ddl-auto=update.
+-- Il est idempotent (IF NOT EXISTS).
+-- =====================================================================
+
+CREATE INDEX IF NOT EXISTS idx_notification_user_created ON notification(user_id, created_date, id);
@@ -0,0 +1,15 @@
+-- =====================================================================
+-- Notifications : index composite (user_id, is_read, created_date),
+-- utilisé par le « tout marquer comme lu » ensembliste, les opérations
+-- groupées (lecture / suppression par liste d'ids), le recalcul du
+-- compteur de non-lues et le fil paginé d'un utilisateur.
+--
+-- Ce script est INFORMATIF : Spring Boot est configuré avec
+-- `spring.jpa.hibernate.ddl-auto=update` (voir application.yml), donc
+-- l'index est créé automatiquement au démarrage.
+--
+-- Lance ce script UNIQUEMENT si tu déploies sans ddl-auto=update.
+-- Il est idempotent (IF NOT EXISTS).
+-- =====================================================================
+
+CREATE INDEX IF NOT EXISTS idx_notification_user_read_created ON notification(user_id, is_read, created_date);
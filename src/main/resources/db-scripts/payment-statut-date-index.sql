@@ -0,0 +1,13 @@
+-- =====================================================================
+-- Paiements : index (statut, date_paiement), utilisé par l'expiration
+-- en masse des paiements EN_COURS restés sans réponse (PaymentScheduler).
+--
+-- Ce script est INFORMATIF : Spring Boot est configuré avec
+-- `spring.jpa.hibernate.ddl-auto=update` (voir application.yml), donc
+-- l'index est créé automatiquement au démarrage.
+--
+-- Lance ce script UNIQUEMENT si tu déploies sans ddl-auto=update.
+-- Il est idempotent (IF NOT EXISTS).
+-- =====================================================================
+
+CREATE INDEX IF NOT EXISTS idx_payment_statut_date ON payment(statut, date_paiement);
@@ -0,0 +1,23 @@
+-- =====================================================================
+-- Versements conducteurs planifiés : suivi / reprise des exécutions.
+--
+-- Ce script est INFORMATIF : Spring Boot est configuré avec
+-- `spring.jpa.hibernate.ddl-auto=update` (voir application.yml), donc
+-- la table est créée automatiquement au démarrage.
+--
+-- Lance ce script UNIQUEMENT si tu déploies sans ddl-auto=update.
+-- Il est idempotent (IF NOT EXISTS).
+-- =====================================================================
+
+CREATE TABLE IF NOT EXISTS payout_run (
+    id               BIGINT       PRIMARY KEY,
+    status           VARCHAR(16)  NOT NULL,
+    started_at       TIMESTAMP    NOT NULL,
+    finished_at      TIMESTAMP,
+    last_account_id  BIGINT       NOT NULL,
+    initiated_count  INTEGER      NOT NULL,
+    failed_count     INTEGER      NOT NULL,
+    skipped_count    INTEGER      NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_payout_run_status ON payout_run(status, id);
@@ -0,0 +1,16 @@
+import { Injectable, inject } from '@angular/core';
+import { HttpClient } from '@angular/common/http';
+import { Observable } from 'rxjs';
+
+import { ApplicationConfigService } from 'app/core/config/application-config.service';
+import { TrackerActivity } from 'app/core/tracker/tracker-activity.model';
+
+@Injectable({ providedIn: 'root' })
+export class PresenceService {
+  private readonly http = inject(HttpClient);
+  private readonly applicationConfigService = inject(ApplicationConfigService);
+
+  findAll(): Observable<TrackerActivity[]> {
+    return this.http.get<TrackerActivity[]>(this.applicationConfigService.getEndpointFor('api/admin/presence'));
+  }
+}
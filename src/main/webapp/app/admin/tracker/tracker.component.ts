@@ -3,7 +3,19 @@ import { Subscription } from 'rxjs';
 
 import { TrackerService } from 'app/core/tracker/tracker.service';
 import { TrackerActivity } from 'app/core/tracker/tracker-activity.model';
+import { PresenceSnapshot } from 'app/core/tracker/presence-snapshot.model';
 import SharedModule from 'app/shared/shared.module';
+import { PresenceService } from './presence.service';
+
+/** A node that sent no snapshot for this long (three heartbeats) is considered gone. */
+const NODE_TTL_MS = 90_000;
+
+interface PresenceSummary {
+  nodes: number;
+  sessions: number;
+  users: number;
+  time: string;
+}
 
 @Component({
   selector: 'jhi-tracker',
@@ -12,33 +24,48 @@ import SharedModule from 'app/shared/shared.module';
 })
 export default class TrackerComponent implements OnInit, OnDestroy {
   activities: TrackerActivity[] = [];
+  summary?: PresenceSummary;
+  pages: { page: string; count: number }[] = [];
   subscription?: Subscription;
 
+  // Each node publishes the presence of its own sessions: keep the latest snapshot per node and add them up.
+  private readonly snapshots = new Map<string, { snapshot: PresenceSnapshot; receivedAt: number }>();
+
   private readonly trackerService = inject(TrackerService);
+  private readonly presenceService = inject(PresenceService);
 
-  showActivity(activity: TrackerActivity): void {
-    let existingActivity = false;
-
-    for (let index = 0; index < this.activities.length; index++) {
-      if (this.activities[index].sessionId === activity.sessionId) {
-        existingActivity = true;
-        if (activity.page === 'logout') {
-          this.activities.splice(index, 1);
-        } else {
-          this.activities[index] = activity;
-        }
+  showSnapshot(snapshot: PresenceSnapshot): void {
+    const now = Date.now();
+    this.snapshots.set(snapshot.node, { snapshot, receivedAt: now });
+    this.snapshots.forEach((entry, node) => {
+      if (now - entry.receivedAt > NODE_TTL_MS) {
+        this.snapshots.delete(node);
       }
-    }
+    });
+    const current = [...this.snapshots.values()].map(entry => entry.snapshot);
+    // users is an upper bound: a user with sessions on two nodes is counted twice.
+    this.summary = {
+      nodes: current.length,
+      sessions: current.reduce((sum, s) => sum + s.sessions, 0),
+      users: current.reduce((sum, s) => sum + s.users, 0),
+      time: current.map(s => s.time).reduce((a, b) => (a > b ? a : b)),
+    };
+    const counts = new Map<string, number>();
+    current.forEach(s => Object.entries(s.pages).forEach(([page, count]) => counts.set(page, (counts.get(page) ?? 0) + count)));
+    this.pages = [...counts.entries()]
+      .map(([page, count]) => ({ page, count }))
+      .sort((a, b) => b.count - a.count || a.page.localeCompare(b.page));
+    this.loadActivities();
+  }
 
-    if (!existingActivity && activity.page !== 'logout') {
-      this.activities.push(activity);
-    }
+  loadActivities(): void {
+    this.presenceService.findAll().subscribe(activities => (this.activities = activities));
   }
 
   ngOnInit(): void {
     this.subscription = this.trackerService.subscribe({
-      next: (activity: TrackerActivity) => {
-        this.showActivity(activity);
+      next: (snapshot: PresenceSnapshot) => {
+        this.showSnapshot(snapshot);
       },
     });
     this.trackerService.sendActivity();
@@ -0,0 +1,7 @@
+export interface PresenceSnapshot {
+  node: string;
+  time: string;
+  sessions: number;
+  users: number;
+  pages: Record<string, number>;
+}
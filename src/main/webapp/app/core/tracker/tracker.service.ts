@@ -10,7 +10,7 @@ import { RxStomp } from '@stomp/rx-stomp';
 import { AuthServerProvider } from 'app/core/auth/auth-jwt.service';
 import { AccountService } from '../auth/account.service';
 import { Account } from '../auth/account.model';
-import { TrackerActivity } from './tracker-activity.model';
+import { PresenceSnapshot } from './presence-snapshot.model';
 
 const DESTINATION_TRACKER = '/topic/tracker';
 const DESTINATION_ACTIVITY = '/topic/activity';
@@ -58,7 +58,7 @@ export class TrackerService {
     return this.rxStomp;
   }
 
-  subscribe(observer: Partial<Observer<TrackerActivity>>): Subscription {
+  subscribe(observer: Partial<Observer<PresenceSnapshot>>): Subscription {
     return (
       this.stomp
         .watch(DESTINATION_TRACKER)
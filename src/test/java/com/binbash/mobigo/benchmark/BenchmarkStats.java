@@ -0,0 +1,104 @@
+package com.binbash.mobigo.benchmark;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Thread-safe collector of per-operation latencies and outcome counters for the benchmark
+ * harnesses. Latencies are kept raw (one long per call) so percentiles are exact.
+ */
+public class BenchmarkStats {
+
+    private final Map<String, ConcurrentLinkedQueue<Long>> latenciesNanos = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> counters = new ConcurrentHashMap<>();
+
+    public void record(String operation, long nanos) {
+        latenciesNanos.computeIfAbsent(operation, k -> new ConcurrentLinkedQueue<>()).add(nanos);
+    }
+
+    public void increment(String counter) {
+        counters.computeIfAbsent(counter, k -> new LongAdder()).increment();
+    }
+
+    public void add(String counter, long value) {
+        counters.computeIfAbsent(counter, k -> new LongAdder()).add(value);
+    }
+
+    public long count(String counter) {
+        LongAdder adder = counters.get(counter);
+        return adder == null ? 0 : adder.sum();
+    }
+
+    public long operations() {
+        return latenciesNanos.values().stream().mapToLong(ConcurrentLinkedQueue::size).sum();
+    }
+
+    public record OperationSummary(
+        String operation,
+        long count,
+        double throughputPerSecond,
+        double p50Millis,
+        double p99Millis,
+        double maxMillis
+    ) {}
+
+    public List<OperationSummary> summarize(double elapsedSeconds) {
+        List<OperationSummary> result = new ArrayList<>();
+        new TreeMap<>(latenciesNanos).forEach((op, queue) -> {
+            long[] sorted = queue.stream().mapToLong(Long::longValue).toArray();
+            Arrays.sort(sorted);
+            result.add(
+                new OperationSummary(
+                    op,
+                    sorted.length,
+                    sorted.length / elapsedSeconds,
+                    percentile(sorted, 0.50) / 1e6,
+                    percentile(sorted, 0.99) / 1e6,
+                    sorted.length == 0 ? 0 : sorted[sorted.length - 1] / 1e6
+                )
+            );
+        });
+        return result;
+    }
+
+    static long percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+    }
+
+    /** Human-readable report, one line per operation followed by the counters. */
+    public String format(String title, double elapsedSeconds) {
+        StringBuilder sb = new StringBuilder();
+        sb.append('\n').append("=== ").append(title).append(" ===\n");
+        sb.append(
+            String.format(Locale.ROOT, "%-12s %10s %12s %10s %10s %10s%n", "operation", "count", "ops/s", "p50 ms", "p99 ms", "max ms")
+        );
+        for (OperationSummary s : summarize(elapsedSeconds)) {
+            sb.append(
+                String.format(
+                    Locale.ROOT,
+                    "%-12s %10d %12.1f %10.2f %10.2f %10.2f%n",
+                    s.operation(),
+                    s.count(),
+                    s.throughputPerSecond(),
+                    s.p50Millis(),
+                    s.p99Millis(),
+                    s.maxMillis()
+                )
+            );
+        }
+        sb.append(String.format(Locale.ROOT, "total ops/s: %.1f%n", operations() / elapsedSeconds));
+        new TreeMap<>(counters).forEach((k, v) -> sb.append(k).append(": ").append(v.sum()).append('\n'));
+        return sb.toString();
+    }
+}
@@ -0,0 +1,362 @@
+package com.binbash.mobigo.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * In-process Campay API simulator for load tests and local runs: serves {@code /token/},
+ * {@code /collect/}, {@code /withdraw/} and {@code /transaction/{ref}/} with sampled latency and
+ * injected 500s, then settles each collect / withdrawal after a sampled delay and calls the
+ * webhook target back with an HMAC-SHA256 signed body, the way {@code CampayWebhookResource}
+ * expects it. Failed deliveries are retried a few times; a configurable share of callbacks is
+ * dropped on purpose so the status-polling path gets exercised too.
+ * <p>
+ * Point {@code application.campay.base-url} at {@link #baseUrl()} and set the same webhook
+ * secret on both sides.
+ */
+public class CampaySimulator implements AutoCloseable {
+
+    private static final int HTTP_THREADS = 64;
+    private static final int WEBHOOK_THREADS = 8;
+    private static final int WEBHOOK_ATTEMPTS = 3;
+    private static final Duration WEBHOOK_RETRY_DELAY = Duration.ofSeconds(1);
+
+    /**
+     * Log-normal latency described by its median and 99th percentile; {@code p99 <= median}
+     * means a constant latency.
+     */
+    public record Latency(long medianMillis, long p99Millis) {
+        public static final Latency NONE = new Latency(0, 0);
+
+        public static Latency fixed(long millis) {
+            return new Latency(millis, millis);
+        }
+
+        long sampleMillis() {
+            if (medianMillis <= 0) {
+                return 0;
+            }
+            if (p99Millis <= medianMillis) {
+                return medianMillis;
+            }
+            // z(0.99) = 2.326: sigma such that median * e^(2.326 sigma) = p99.
+            double sigma = Math.log((double) p99Millis / medianMillis) / 2.326;
+            return Math.round(medianMillis * Math.exp(sigma * ThreadLocalRandom.current().nextGaussian()));
+        }
+    }
+
+    /**
+     * Simulator knobs.
+     *
+     * @param apiLatency      latency of every API call
+     * @param errorRate       share of API calls answered 500 (nothing is created)
+     * @param failedRate      share of collects / withdrawals that end FAILED instead of SUCCESSFUL
+     * @param settleDelay     delay between initiation and the final status (and its webhook)
+     * @param lostWebhookRate share of final statuses that are never called back
+     * @param webhookSecret   HMAC key of the {@code x-campay-signature} header; blank = unsigned
+     */
+    public record Settings(
+        Latency apiLatency,
+        double errorRate,
+        double failedRate,
+        Latency settleDelay,
+        double lostWebhookRate,
+        String webhookSecret
+    ) {
+        /** Reads {@code -Dcampay.sim.*}, e.g. {@code -Dcampay.sim.apiMedianMs=120 -Dcampay.sim.errorRate=0.01}. */
+        public static Settings fromSystemProperties() {
+            return new Settings(
+                new Latency(Long.getLong("campay.sim.apiMedianMs", 80), Long.getLong("campay.sim.apiP99Ms", 400)),
+                Double.parseDouble(System.getProperty("campay.sim.errorRate", "0.01")),
+                Double.parseDouble(System.getProperty("campay.sim.failedRate", "0.05")),
+                new Latency(Long.getLong("campay.sim.settleMedianMs", 1500), Long.getLong("campay.sim.settleP99Ms", 6000)),
+                Double.parseDouble(System.getProperty("campay.sim.lostWebhookRate", "0")),
+                System.getProperty("campay.sim.webhookSecret", "campay-simulator-secret")
+            );
+        }
+    }
+
+    private static final class SimulatedTransaction {
+
+        final String reference;
+        final String externalReference;
+        final String kind;
+        final String amount;
+        final String phone;
+        volatile String status = "PENDING";
+
+        SimulatedTransaction(String reference, String externalReference, String kind, String amount, String phone) {
+            this.reference = reference;
+            this.externalReference = externalReference;
+            this.kind = kind;
+            this.amount = amount;
+            this.phone = phone;
+        }
+    }
+
+    private final Settings settings;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final String token = "sim-" + UUID.randomUUID();
+    private final Map<String, SimulatedTransaction> transactions = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> counters = new ConcurrentHashMap<>();
+    private final ExecutorService httpExecutor;
+    private final ScheduledExecutorService webhookScheduler;
+    private final HttpClient webhookClient;
+    private volatile URI webhookTarget;
+    private HttpServer server;
+
+    public CampaySimulator(Settings settings) {
+        this.settings = settings;
+        this.httpExecutor = Executors.newFixedThreadPool(HTTP_THREADS, daemon("campay-sim-http"));
+        this.webhookScheduler = Executors.newScheduledThreadPool(WEBHOOK_THREADS, daemon("campay-sim-webhook"));
+        this.webhookClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+    }
+
+    private static ThreadFactory daemon(String name) {
+        return r -> {
+            Thread t = new Thread(r, name);
+            t.setDaemon(true);
+            return t;
+        };
+    }
+
+    /** Binds an ephemeral localhost port. */
+    public CampaySimulator start() {
+        try {
+            server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        server.setExecutor(httpExecutor);
+        server.createContext("/token/", exchange -> handle(exchange, "token", this::token));
+        server.createContext("/collect/", exchange -> handle(exchange, "collect", ex -> initiate(ex, "collect", "from")));
+        server.createContext("/withdraw/", exchange -> handle(exchange, "withdraw", ex -> initiate(ex, "withdraw", "to")));
+        server.createContext("/transaction/", exchange -> handle(exchange, "transaction", this::transaction));
+        server.start();
+        return this;
+    }
+
+    public String baseUrl() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    /** The API token every call must carry, usable as {@code application.campay.permanent-token}. */
+    public String token() {
+        return token;
+    }
+
+    /** Where final statuses are POSTed, e.g. {@code http://localhost:8080/api/webhooks/campay}. */
+    public void webhookTarget(URI target) {
+        this.webhookTarget = target;
+    }
+
+    public long count(String counter) {
+        LongAdder adder = counters.get(counter);
+        return adder == null ? 0 : adder.sum();
+    }
+
+    public Map<String, Long> counters() {
+        Map<String, Long> snapshot = new TreeMap<>();
+        counters.forEach((k, v) -> snapshot.put(k, v.sum()));
+        return snapshot;
+    }
+
+    public void resetCounters() {
+        counters.clear();
+    }
+
+    @Override
+    public void close() {
+        if (server != null) {
+            server.stop(0);
+        }
+        webhookScheduler.shutdownNow();
+        httpExecutor.shutdownNow();
+    }
+
+    // ---------------------------------------------------------------------------
+    // API
+    // ---------------------------------------------------------------------------
+
+    private record Reply(int status, Object body) {}
+
+    private interface Endpoint {
+        Reply serve(HttpExchange exchange) throws IOException;
+    }
+
+    private void handle(HttpExchange exchange, String endpoint, Endpoint handler) throws IOException {
+        try {
+            increment("api." + endpoint);
+            sleep(settings.apiLatency().sampleMillis());
+            Reply reply;
+            if (!"token".equals(endpoint) && !("Token " + token).equals(exchange.getRequestHeaders().getFirst("Authorization"))) {
+                reply = new Reply(401, Map.of("detail", "Invalid token."));
+            } else if (ThreadLocalRandom.current().nextDouble() < settings.errorRate()) {
+                increment("api." + endpoint + ".error");
+                reply = new Reply(500, Map.of("message", "Simulated Campay error"));
+            } else {
+                reply = handler.serve(exchange);
+            }
+            byte[] body = objectMapper.writeValueAsBytes(reply.body());
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(reply.status(), body.length);
+            exchange.getResponseBody().write(body);
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private Reply token(HttpExchange exchange) {
+        return new Reply(200, Map.of("token", token, "expires_in", 3600));
+    }
+
+    private Reply initiate(HttpExchange exchange, String kind, String phoneField) throws IOException {
+        if (!"POST".equals(exchange.getRequestMethod())) {
+            return new Reply(405, Map.of("detail", "Method not allowed"));
+        }
+        JsonNode request = objectMapper.readTree(exchange.getRequestBody());
+        if (!request.hasNonNull("amount") || !request.hasNonNull(phoneField)) {
+            return new Reply(400, Map.of("message", "amount and " + phoneField + " are required"));
+        }
+        SimulatedTransaction tx = new SimulatedTransaction(
+            UUID.randomUUID().toString(),
+            request.path("external_reference").asText(null),
+            kind,
+            request.get("amount").asText(),
+            request.get(phoneField).asText()
+        );
+        transactions.put(tx.reference, tx);
+        webhookScheduler.schedule(() -> settle(tx), settings.settleDelay().sampleMillis(), TimeUnit.MILLISECONDS);
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("reference", tx.reference);
+        body.put("status", tx.status);
+        if ("collect".equals(kind)) {
+            body.put("ussd_code", "*126#");
+            body.put("operator", operator(tx.phone));
+        }
+        return new Reply(200, body);
+    }
+
+    private Reply transaction(HttpExchange exchange) {
+        String reference = exchange.getRequestURI().getPath().substring("/transaction/".length()).replace("/", "");
+        SimulatedTransaction tx = transactions.get(reference);
+        if (tx == null) {
+            return new Reply(404, Map.of("message", "Transaction not found"));
+        }
+        return new Reply(200, payload(tx));
+    }
+
+    // ---------------------------------------------------------------------------
+    // Settlement and webhooks
+    // ---------------------------------------------------------------------------
+
+    private void settle(SimulatedTransaction tx) {
+        tx.status = ThreadLocalRandom.current().nextDouble() < settings.failedRate() ? "FAILED" : "SUCCESSFUL";
+        increment(tx.kind + "." + tx.status.toLowerCase(Locale.ROOT));
+        URI target = webhookTarget;
+        if (target == null || ThreadLocalRandom.current().nextDouble() < settings.lostWebhookRate()) {
+            increment("webhook.lost");
+            return;
+        }
+        deliver(target, tx, 1);
+    }
+
+    private void deliver(URI target, SimulatedTransaction tx, int attempt) {
+        try {
+            String body = objectMapper.writeValueAsString(payload(tx));
+            HttpRequest.Builder request = HttpRequest.newBuilder(target)
+                .timeout(Duration.ofSeconds(10))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body));
+            if (settings.webhookSecret() != null && !settings.webhookSecret().isBlank()) {
+                request.header("x-campay-signature", hmacSha256Hex(body, settings.webhookSecret()));
+            }
+            int status = webhookClient.send(request.build(), HttpResponse.BodyHandlers.discarding()).statusCode();
+            if (status / 100 == 2) {
+                increment("webhook.delivered");
+                return;
+            }
+            increment("webhook.rejected." + status);
+        } catch (IOException e) {
+            increment("webhook.io_error");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        if (attempt < WEBHOOK_ATTEMPTS) {
+            webhookScheduler.schedule(() -> deliver(target, tx, attempt + 1), WEBHOOK_RETRY_DELAY.toMillis(), TimeUnit.MILLISECONDS);
+        } else {
+            increment("webhook.abandoned");
+        }
+    }
+
+    private static Map<String, Object> payload(SimulatedTransaction tx) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("status", tx.status);
+        body.put("reference", tx.reference);
+        body.put("amount", tx.amount);
+        body.put("currency", "XAF");
+        body.put("operator", operator(tx.phone));
+        body.put("code", "CP" + Math.abs(tx.reference.hashCode()));
+        body.put("operator_reference", "OP" + Math.abs(tx.reference.hashCode() * 31L));
+        body.put("external_reference", tx.externalReference);
+        return body;
+    }
+
+    private static String operator(String phone) {
+        return phone.replaceAll("\\D", "").matches("(237)?(69|65[5-9]|68[5-9]).*") ? "ORANGE" : "MTN";
+    }
+
+    private static String hmacSha256Hex(String data, String key) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(key.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+            return HexFormat.of().formatHex(mac.doFinal(data.getBytes(StandardCharsets.UTF_8)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void increment(String counter) {
+        counters.computeIfAbsent(counter, k -> new LongAdder()).increment();
+    }
+
+    private static void sleep(long millis) {
+        if (millis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
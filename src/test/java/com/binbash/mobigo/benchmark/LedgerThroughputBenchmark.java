@@ -0,0 +1,435 @@
+package com.binbash.mobigo.benchmark;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.binbash.mobigo.IntegrationTest;
+import com.binbash.mobigo.domain.Booking;
+import com.binbash.mobigo.domain.LedgerAccount;
+import com.binbash.mobigo.domain.People;
+import com.binbash.mobigo.domain.Ride;
+import com.binbash.mobigo.domain.Vehicle;
+import com.binbash.mobigo.domain.enumeration.BookingStatusEnum;
+import com.binbash.mobigo.domain.enumeration.LedgerAccountType;
+import com.binbash.mobigo.domain.enumeration.RideStatusEnum;
+import com.binbash.mobigo.repository.BookingRepository;
+import com.binbash.mobigo.repository.LedgerAccountRepository;
+import com.binbash.mobigo.repository.PeopleRepository;
+import com.binbash.mobigo.repository.RideRepository;
+import com.binbash.mobigo.repository.VehicleRepository;
+import com.binbash.mobigo.service.InsufficientWalletBalanceException;
+import com.binbash.mobigo.service.WalletService;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Throughput / contention benchmark of the wallet ledger against the Testcontainers PostgreSQL.
+ * Drives a mixed {@code holdForBooking} / {@code confirmBookingSettlement} / {@code requestPayout}
+ * workload at each configured concurrency level and reports ops/s, p50/p99 latency, retries
+ * (lock failures), deadlocks and sampled lock-wait time.
+ * <p>
+ * Not part of the regular build: run with {@code ./mvnw -Pbenchmark verify}. All knobs are
+ * system properties (see {@link Settings}); results are logged and appended to
+ * {@code target/benchmark/ledger-throughput.csv}.
+ */
+@IntegrationTest
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class LedgerThroughputBenchmark {
+
+    private static final Logger LOG = LoggerFactory.getLogger(LedgerThroughputBenchmark.class);
+
+    private static final int MAX_ATTEMPTS = 3;
+    private static final BigDecimal SEED_BALANCE = new BigDecimal("1000000000");
+    private static final BigDecimal PAYOUT_AMOUNT = new BigDecimal("1000");
+
+    /**
+     * Benchmark knobs, read from system properties.
+     *
+     * @param threads       concurrency levels to run, e.g. {@code -Dbenchmark.threads=1,8,32}
+     * @param warmupSeconds warm-up duration per level (not measured)
+     * @param seconds       measured duration per level
+     * @param passengers    number of passenger wallets
+     * @param hotPassengers size of the hot subset of passengers
+     * @param hotRatio      probability that an operation targets the hot subset
+     * @param drivers       number of drivers (one ride each)
+     * @param holdWeight    relative weight of holds in the mix
+     * @param confirmWeight relative weight of confirms in the mix
+     * @param payoutWeight  relative weight of payouts in the mix
+     */
+    record Settings(
+        int[] threads,
+        int warmupSeconds,
+        int seconds,
+        int passengers,
+        int hotPassengers,
+        double hotRatio,
+        int drivers,
+        int holdWeight,
+        int confirmWeight,
+        int payoutWeight
+    ) {
+        static Settings fromSystemProperties() {
+            return new Settings(
+                Arrays.stream(System.getProperty("benchmark.threads", "1,8,32").split(","))
+                    .map(String::trim)
+                    .mapToInt(Integer::parseInt)
+                    .toArray(),
+                Integer.getInteger("benchmark.warmupSeconds", 5),
+                Integer.getInteger("benchmark.seconds", 20),
+                Integer.getInteger("benchmark.passengers", 200),
+                Integer.getInteger("benchmark.hotPassengers", 5),
+                Double.parseDouble(System.getProperty("benchmark.hotRatio", "0.5")),
+                Integer.getInteger("benchmark.drivers", 20),
+                Integer.getInteger("benchmark.mix.hold", 50),
+                Integer.getInteger("benchmark.mix.confirm", 40),
+                Integer.getInteger("benchmark.mix.payout", 10)
+            );
+        }
+
+        int maxThreads() {
+            return Arrays.stream(threads).max().orElse(1);
+        }
+    }
+
+    private static final Settings SETTINGS = Settings.fromSystemProperties();
+
+    @DynamicPropertySource
+    static void benchmarkProperties(DynamicPropertyRegistry registry) {
+        // The test profiles keep a single connection and no DDL; the benchmark needs the schema
+        // and one connection per worker (+ headroom for the lock sampler).
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "update");
+        registry.add("spring.jpa.properties.hibernate.hbm2ddl.auto", () -> "update");
+        registry.add("spring.datasource.hikari.maximum-pool-size", () -> SETTINGS.maxThreads() + 4);
+    }
+
+    @Autowired
+    private WalletService walletService;
+
+    @Autowired
+    private LedgerAccountRepository ledgerAccountRepository;
+
+    @Autowired
+    private PeopleRepository peopleRepository;
+
+    @Autowired
+    private VehicleRepository vehicleRepository;
+
+    @Autowired
+    private RideRepository rideRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate txTemplate;
+    private final List<People> passengers = new ArrayList<>();
+    private final List<Ride> rides = new ArrayList<>();
+    private final ConcurrentLinkedQueue<Long> heldBookings = new ConcurrentLinkedQueue<>();
+
+    @BeforeAll
+    void seed() {
+        txTemplate = new TransactionTemplate(transactionManager);
+        String run = Long.toString(System.currentTimeMillis(), 36);
+        txTemplate.executeWithoutResult(st -> {
+            for (int i = 0; i < SETTINGS.drivers(); i++) {
+                People driver = peopleRepository.save(
+                    buildPerson("Driver" + i, "+2376" + String.format("%08d", i), "BENCH-DRV-" + run + "-" + i)
+                );
+                Vehicle vehicle = vehicleRepository.save(buildVehicle(driver, i));
+                rides.add(rideRepository.save(buildRide(vehicle)));
+                fund(walletService.getOrCreateAccount(LedgerAccountType.DRIVER, driver.getId()));
+            }
+            for (int i = 0; i < SETTINGS.passengers(); i++) {
+                People passenger = peopleRepository.save(
+                    buildPerson("Passenger" + i, "+2377" + String.format("%08d", i), "BENCH-PAS-" + run + "-" + i)
+                );
+                passengers.add(passenger);
+                fund(walletService.getOrCreateAccount(LedgerAccountType.PASSENGER, passenger.getId()));
+            }
+        });
+        LOG.info(
+            "Benchmark seeded: {} passengers ({} hot), {} drivers; {}",
+            SETTINGS.passengers(),
+            SETTINGS.hotPassengers(),
+            SETTINGS.drivers(),
+            describe()
+        );
+    }
+
+    @Test
+    void mixedWalletWorkload() throws Exception {
+        for (int threads : SETTINGS.threads()) {
+            runLevel(threads, SETTINGS.warmupSeconds(), null);
+            BenchmarkStats stats = new BenchmarkStats();
+            double elapsed;
+            long lockWaitMs;
+            long maxWaiting;
+            long deadlocks;
+            try (PostgresLockSampler sampler = new PostgresLockSampler(jdbcTemplate)) {
+                elapsed = runLevel(threads, SETTINGS.seconds(), stats);
+                lockWaitMs = sampler.lockWaitMillis();
+                maxWaiting = sampler.maxWaitingBackends();
+                deadlocks = sampler.deadlocksSinceStart();
+            }
+            stats.add("deadlocks", deadlocks);
+            stats.add("lock.wait.ms", lockWaitMs);
+            stats.add("lock.waiting.max", maxWaiting);
+            LOG.info(stats.format("ledger throughput, threads=" + threads, elapsed));
+            writeCsv(threads, elapsed, stats);
+            assertThat(stats.operations()).isPositive();
+        }
+    }
+
+    // ---------------------------------------------------------------------------
+    // Workload
+    // ---------------------------------------------------------------------------
+
+    /** Runs {@code threads} workers for {@code seconds}; returns the measured wall time in seconds. */
+    private double runLevel(int threads, int seconds, BenchmarkStats stats) throws InterruptedException {
+        if (seconds <= 0) {
+            return 0;
+        }
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        BenchmarkStats sink = stats == null ? new BenchmarkStats() : stats;
+        for (int t = 0; t < threads; t++) {
+            pool.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                while (System.nanoTime() < deadline && !Thread.currentThread().isInterrupted()) {
+                    runOne(sink);
+                }
+            });
+        }
+        long t0 = System.nanoTime();
+        start.countDown();
+        pool.shutdown();
+        if (!pool.awaitTermination(seconds + 60L, TimeUnit.SECONDS)) {
+            pool.shutdownNow();
+        }
+        return (System.nanoTime() - t0) / 1e9;
+    }
+
+    private void runOne(BenchmarkStats stats) {
+        int total = SETTINGS.holdWeight() + SETTINGS.confirmWeight() + SETTINGS.payoutWeight();
+        int pick = ThreadLocalRandom.current().nextInt(total);
+        if (pick < SETTINGS.holdWeight()) {
+            hold(stats);
+        } else if (pick < SETTINGS.holdWeight() + SETTINGS.confirmWeight()) {
+            Long bookingId = heldBookings.poll();
+            if (bookingId == null) {
+                hold(stats);
+            } else {
+                timed(stats, "confirm", () -> {
+                    txTemplate.executeWithoutResult(st -> walletService.confirmBookingSettlement(bookingId));
+                    return null;
+                });
+            }
+        } else {
+            Ride ride = rides.get(ThreadLocalRandom.current().nextInt(rides.size()));
+            Long driverId = ride.getVehicule().getProprietaire().getId();
+            timed(stats, "payout", () -> walletService.requestPayout(driverId, PAYOUT_AMOUNT, "+237600000000"));
+        }
+    }
+
+    private void hold(BenchmarkStats stats) {
+        Ride ride = rides.get(ThreadLocalRandom.current().nextInt(rides.size()));
+        Booking booking = bookingRepository.saveAndFlush(buildBooking(pickPassenger(), ride));
+        Boolean held = timed(stats, "hold", () -> {
+            txTemplate.executeWithoutResult(st -> walletService.holdForBooking(booking));
+            return Boolean.TRUE;
+        });
+        if (Boolean.TRUE.equals(held)) {
+            heldBookings.add(booking.getId());
+        }
+    }
+
+    private People pickPassenger() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int hot = Math.min(SETTINGS.hotPassengers(), passengers.size());
+        if (hot > 0 && random.nextDouble() < SETTINGS.hotRatio()) {
+            return passengers.get(random.nextInt(hot));
+        }
+        return passengers.get(random.nextInt(passengers.size()));
+    }
+
+    /**
+     * Times one operation including its retries. Lock failures are retried up to
+     * {@link #MAX_ATTEMPTS}; the latency of a failed operation is not recorded.
+     */
+    private <T> T timed(BenchmarkStats stats, String operation, Supplier<T> call) {
+        long t0 = System.nanoTime();
+        for (int attempt = 1; ; attempt++) {
+            try {
+                T result = call.get();
+                stats.record(operation, System.nanoTime() - t0);
+                return result;
+            } catch (ConcurrencyFailureException e) {
+                stats.increment(operation + ".retries");
+                if (attempt >= MAX_ATTEMPTS) {
+                    stats.increment(operation + ".failures");
+                    return null;
+                }
+            } catch (InsufficientWalletBalanceException e) {
+                stats.increment(operation + ".rejected");
+                return null;
+            } catch (RuntimeException e) {
+                stats.increment(operation + ".errors");
+                LOG.debug("{} failed: {}", operation, e.getMessage());
+                return null;
+            }
+        }
+    }
+
+    // ---------------------------------------------------------------------------
+    // Helpers
+    // ---------------------------------------------------------------------------
+
+    private void fund(LedgerAccount account) {
+        account.setBalance(SEED_BALANCE);
+        ledgerAccountRepository.save(account);
+    }
+
+    private People buildPerson(String nom, String telephone, String cni) {
+        People p = new People();
+        p.setNom(nom);
+        p.setTelephone(telephone);
+        p.setCni(cni);
+        p.setActif("Y");
+        p.setDateNaissance(LocalDate.of(1990, 1, 1));
+        return p;
+    }
+
+    private Vehicle buildVehicle(People owner, int index) {
+        Vehicle v = new Vehicle();
+        v.setMarque("Toyota");
+        v.setModele("Corolla");
+        v.setAnnee("2020");
+        v.setCarteGrise("CG-BENCH-" + index);
+        v.setImmatriculation("BENCH-" + index);
+        v.setNbPlaces(4);
+        v.setCouleur("Blanc");
+        v.setActif("Y");
+        v.setProprietaire(owner);
+        return v;
+    }
+
+    private Ride buildRide(Vehicle vehicle) {
+        Ride r = new Ride();
+        r.setVilleDepart("Yaoundé");
+        r.setVilleArrivee("Douala");
+        r.setDateDepart(LocalDate.now().plusDays(1));
+        r.setDateArrivee(LocalDate.now().plusDays(1));
+        r.setHeureDepart("08");
+        r.setHeureArrivee("12");
+        r.setMinuteDepart("00");
+        r.setMinuteArrivee("00");
+        r.setPrixParPlace(5000f);
+        r.setNbrePlaceDisponible(3);
+        r.setStatut(RideStatusEnum.OUVERT);
+        r.setVehicule(vehicle);
+        return r;
+    }
+
+    private Booking buildBooking(People passenger, Ride ride) {
+        Booking booking = new Booking();
+        booking.setNbPlacesReservees(1L);
+        booking.setMontantTotal(6000f);
+        booking.setCommission(1000f);
+        booking.setDateReservation(LocalDate.now());
+        booking.setStatut(BookingStatusEnum.EN_ATTENTE);
+        booking.setPassager(passenger);
+        booking.setTrajet(ride);
+        return booking;
+    }
+
+    private String describe() {
+        return String.format(
+            Locale.ROOT,
+            "threads=%s warmup=%ds duration=%ds hotRatio=%.2f mix=%d/%d/%d",
+            Arrays.toString(SETTINGS.threads()),
+            SETTINGS.warmupSeconds(),
+            SETTINGS.seconds(),
+            SETTINGS.hotRatio(),
+            SETTINGS.holdWeight(),
+            SETTINGS.confirmWeight(),
+            SETTINGS.payoutWeight()
+        );
+    }
+
+    private void writeCsv(int threads, double elapsed, BenchmarkStats stats) {
+        Path file = Path.of("target", "benchmark", "ledger-throughput.csv");
+        StringBuilder sb = new StringBuilder();
+        try {
+            Files.createDirectories(file.getParent());
+            if (!Files.exists(file)) {
+                sb.append(
+                    "run_at,threads,hot_ratio,operation,count,ops_per_s,p50_ms,p99_ms,max_ms,retries,failures,deadlocks,lock_wait_ms\n"
+                );
+            }
+            for (BenchmarkStats.OperationSummary s : stats.summarize(elapsed)) {
+                sb.append(
+                    String.format(
+                        Locale.ROOT,
+                        "%s,%d,%.2f,%s,%d,%.1f,%.2f,%.2f,%.2f,%d,%d,%d,%d%n",
+                        Instant.now(),
+                        threads,
+                        SETTINGS.hotRatio(),
+                        s.operation(),
+                        s.count(),
+                        s.throughputPerSecond(),
+                        s.p50Millis(),
+                        s.p99Millis(),
+                        s.maxMillis(),
+                        stats.count(s.operation() + ".retries"),
+                        stats.count(s.operation() + ".failures"),
+                        stats.count("deadlocks"),
+                        stats.count("lock.wait.ms")
+                    )
+                );
+            }
+            Files.writeString(file, sb.toString(), StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,427 @@
+package com.binbash.mobigo.benchmark;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.binbash.mobigo.MobigoApp;
+import com.binbash.mobigo.config.AsyncSyncConfiguration;
+import com.binbash.mobigo.config.EmbeddedElasticsearch;
+import com.binbash.mobigo.config.EmbeddedSQL;
+import com.binbash.mobigo.config.JacksonConfiguration;
+import com.binbash.mobigo.domain.Booking;
+import com.binbash.mobigo.domain.LedgerAccount;
+import com.binbash.mobigo.domain.LedgerTransaction;
+import com.binbash.mobigo.domain.People;
+import com.binbash.mobigo.domain.Ride;
+import com.binbash.mobigo.domain.Vehicle;
+import com.binbash.mobigo.domain.enumeration.BookingStatusEnum;
+import com.binbash.mobigo.domain.enumeration.LedgerAccountType;
+import com.binbash.mobigo.domain.enumeration.LedgerTransactionStatus;
+import com.binbash.mobigo.domain.enumeration.RideStatusEnum;
+import com.binbash.mobigo.repository.BookingRepository;
+import com.binbash.mobigo.repository.LedgerAccountRepository;
+import com.binbash.mobigo.repository.LedgerTransactionRepository;
+import com.binbash.mobigo.repository.PeopleRepository;
+import com.binbash.mobigo.repository.RideRepository;
+import com.binbash.mobigo.repository.VehicleRepository;
+import com.binbash.mobigo.service.AppSettingService;
+import com.binbash.mobigo.service.WalletService;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * End-to-end payment-flow load test: each journey recharges a passenger wallet through Campay,
+ * books a seat on the credited balance, settles it to the driver and pays the driver out.
+ * Campay is the in-process {@link CampaySimulator}, whose signed webhooks come back through
+ * the real HTTP endpoint, the webhook queue and the ledger — so the measured latencies include
+ * Campay delays, the webhook round trip and queue polling.
+ * <p>
+ * Run with {@code ./mvnw -Pbenchmark verify -Dit.test=PaymentFlowBenchmark}; knobs are
+ * {@code -Dbenchmark.*} (see {@link Settings}) and {@code -Dcampay.sim.*} (see
+ * {@link CampaySimulator.Settings}). Results are logged and appended to
+ * {@code target/benchmark/payment-flow.csv}.
+ */
+@SpringBootTest(
+    classes = { MobigoApp.class, JacksonConfiguration.class, AsyncSyncConfiguration.class },
+    webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT
+)
+@EmbeddedElasticsearch
+@EmbeddedSQL
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class PaymentFlowBenchmark {
+
+    private static final Logger LOG = LoggerFactory.getLogger(PaymentFlowBenchmark.class);
+
+    private static final BigDecimal FARE = new BigDecimal("6000");
+    private static final BigDecimal DRIVER_SEED_BALANCE = new BigDecimal("1000000000");
+    private static final long POLL_MILLIS = 25;
+
+    /**
+     * Load-test knobs, read from system properties.
+     *
+     * @param threads        concurrent journeys per level, e.g. {@code -Dbenchmark.threads=1,8,32}
+     * @param warmupSeconds  warm-up duration per level (not measured)
+     * @param seconds        measured duration per level
+     * @param passengers     number of passenger wallets
+     * @param drivers        number of drivers (one ride each)
+     * @param settleTimeoutS how long a journey waits for a Campay webhook before giving up
+     */
+    record Settings(int[] threads, int warmupSeconds, int seconds, int passengers, int drivers, int settleTimeoutS) {
+        static Settings fromSystemProperties() {
+            return new Settings(
+                Arrays.stream(System.getProperty("benchmark.threads", "1,8,32").split(","))
+                    .map(String::trim)
+                    .mapToInt(Integer::parseInt)
+                    .toArray(),
+                Integer.getInteger("benchmark.warmupSeconds", 10),
+                Integer.getInteger("benchmark.seconds", 60),
+                Integer.getInteger("benchmark.passengers", 500),
+                Integer.getInteger("benchmark.drivers", 50),
+                Integer.getInteger("benchmark.settleTimeoutSeconds", 30)
+            );
+        }
+
+        int maxThreads() {
+            return Arrays.stream(threads).max().orElse(1);
+        }
+    }
+
+    private static final Settings SETTINGS = Settings.fromSystemProperties();
+    private static final CampaySimulator.Settings SIMULATOR_SETTINGS = CampaySimulator.Settings.fromSystemProperties();
+    private static final CampaySimulator SIMULATOR = new CampaySimulator(SIMULATOR_SETTINGS).start();
+
+    @DynamicPropertySource
+    static void benchmarkProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "update");
+        registry.add("spring.jpa.properties.hibernate.hbm2ddl.auto", () -> "update");
+        // One connection per journey, plus the webhook workers and headroom.
+        registry.add("spring.datasource.hikari.maximum-pool-size", () -> SETTINGS.maxThreads() + 12);
+        registry.add("application.campay.enabled", () -> "true");
+        registry.add("application.campay.base-url", SIMULATOR::baseUrl);
+        registry.add("application.campay.permanent-token", () -> "");
+        registry.add("application.campay.api-username", () -> "benchmark");
+        registry.add("application.campay.api-password", () -> "benchmark");
+        registry.add("application.campay.webhook-secret", SIMULATOR_SETTINGS::webhookSecret);
+        registry.add("application.campay.webhook-poll-delay-ms", () -> "50");
+    }
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private WalletService walletService;
+
+    @Autowired
+    private AppSettingService appSettingService;
+
+    @Autowired
+    private LedgerAccountRepository ledgerAccountRepository;
+
+    @Autowired
+    private LedgerTransactionRepository ledgerTransactionRepository;
+
+    @Autowired
+    private PeopleRepository peopleRepository;
+
+    @Autowired
+    private VehicleRepository vehicleRepository;
+
+    @Autowired
+    private RideRepository rideRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate txTemplate;
+    private final List<People> passengers = new ArrayList<>();
+    private final List<Ride> rides = new ArrayList<>();
+
+    @BeforeAll
+    void seed() {
+        SIMULATOR.webhookTarget(URI.create("http://localhost:" + port + "/api/webhooks/campay"));
+        txTemplate = new TransactionTemplate(transactionManager);
+        String run = Long.toString(System.currentTimeMillis(), 36);
+        txTemplate.executeWithoutResult(st -> {
+            for (int i = 0; i < SETTINGS.drivers(); i++) {
+                People driver = peopleRepository.save(
+                    buildPerson("Driver" + i, "+2376" + String.format("%08d", i), "FLOW-DRV-" + run + "-" + i)
+                );
+                Vehicle vehicle = vehicleRepository.save(buildVehicle(driver, run, i));
+                rides.add(rideRepository.save(buildRide(vehicle)));
+                // Payouts must not depend on which journeys happened to settle to which driver.
+                LedgerAccount account = walletService.getOrCreateAccount(LedgerAccountType.DRIVER, driver.getId());
+                account.setBalance(DRIVER_SEED_BALANCE);
+                ledgerAccountRepository.save(account);
+            }
+            for (int i = 0; i < SETTINGS.passengers(); i++) {
+                // Passenger wallets start empty: every booking is paid by its own recharge.
+                passengers.add(
+                    peopleRepository.save(buildPerson("Passenger" + i, "+2377" + String.format("%08d", i), "FLOW-PAS-" + run + "-" + i))
+                );
+            }
+        });
+        LOG.info(
+            "Payment-flow benchmark seeded: {} passengers, {} drivers; Campay simulator {}",
+            passengers.size(),
+            rides.size(),
+            SIMULATOR_SETTINGS
+        );
+    }
+
+    @AfterAll
+    void stopSimulator() {
+        SIMULATOR.close();
+    }
+
+    @Test
+    void rechargeBookSettlePayout() throws Exception {
+        BigDecimal payoutAmount = appSettingService.getMinWithdrawal();
+        for (int threads : SETTINGS.threads()) {
+            runLevel(threads, SETTINGS.warmupSeconds(), null, payoutAmount);
+            SIMULATOR.resetCounters();
+            BenchmarkStats stats = new BenchmarkStats();
+            double elapsed = runLevel(threads, SETTINGS.seconds(), stats, payoutAmount);
+            SIMULATOR.counters().forEach((k, v) -> stats.add("campay." + k, v));
+            LOG.info(stats.format("payment flow, threads=" + threads, elapsed));
+            writeCsv(threads, elapsed, stats);
+            assertThat(stats.count("journey.completed")).isPositive();
+        }
+    }
+
+    // ---------------------------------------------------------------------------
+    // Workload
+    // ---------------------------------------------------------------------------
+
+    /** Runs {@code threads} journey loops for {@code seconds}; returns the measured wall time in seconds. */
+    private double runLevel(int threads, int seconds, BenchmarkStats stats, BigDecimal payoutAmount) throws InterruptedException {
+        if (seconds <= 0) {
+            return 0;
+        }
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        BenchmarkStats sink = stats == null ? new BenchmarkStats() : stats;
+        for (int t = 0; t < threads; t++) {
+            pool.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                while (System.nanoTime() < deadline && !Thread.currentThread().isInterrupted()) {
+                    journey(sink, payoutAmount);
+                }
+            });
+        }
+        long t0 = System.nanoTime();
+        start.countDown();
+        pool.shutdown();
+        // A journey started just before the deadline may still wait for its webhooks.
+        if (!pool.awaitTermination(seconds + 2L * SETTINGS.settleTimeoutS() + 60, TimeUnit.SECONDS)) {
+            pool.shutdownNow();
+        }
+        return (System.nanoTime() - t0) / 1e9;
+    }
+
+    /** recharge → (webhook) → hold → settle → payout → (webhook); stops at the first failed step. */
+    private void journey(BenchmarkStats stats, BigDecimal payoutAmount) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        People passenger = passengers.get(random.nextInt(passengers.size()));
+        Ride ride = rides.get(random.nextInt(rides.size()));
+        People driver = ride.getVehicule().getProprietaire();
+        long t0 = System.nanoTime();
+
+        LedgerTransactionStatus recharged = step(stats, "recharge", () ->
+            awaitCampay(walletService.rechargeWallet(passenger.getId(), FARE, passenger.getTelephone()))
+        );
+        if (recharged != LedgerTransactionStatus.POSTED) {
+            stats.increment("journey.failed.recharge");
+            return;
+        }
+        Booking booking = bookingRepository.saveAndFlush(buildBooking(passenger, ride));
+        if (step(stats, "hold", () -> run(() -> walletService.holdForBooking(booking))) == null) {
+            stats.increment("journey.failed.hold");
+            return;
+        }
+        if (step(stats, "settle", () -> run(() -> walletService.confirmBookingSettlement(booking.getId()))) == null) {
+            stats.increment("journey.failed.settle");
+            return;
+        }
+        LedgerTransactionStatus paid = step(stats, "payout", () ->
+            awaitCampay(walletService.requestPayout(driver.getId(), payoutAmount, driver.getTelephone()))
+        );
+        if (paid != LedgerTransactionStatus.POSTED) {
+            stats.increment("journey.failed.payout");
+            return;
+        }
+        stats.record("journey", System.nanoTime() - t0);
+        stats.increment("journey.completed");
+    }
+
+    private Boolean run(Runnable inTransaction) {
+        txTemplate.executeWithoutResult(st -> inTransaction.run());
+        return Boolean.TRUE;
+    }
+
+    /** Times one step; a step that throws is counted as an error and returns {@code null}. */
+    private <T> T step(BenchmarkStats stats, String operation, Supplier<T> call) {
+        long t0 = System.nanoTime();
+        try {
+            T result = call.get();
+            stats.record(operation, System.nanoTime() - t0);
+            return result;
+        } catch (RuntimeException e) {
+            stats.increment(operation + ".errors");
+            LOG.debug("{} failed: {}", operation, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Waits until the Campay webhook moved the DRAFT to POSTED / VOID; throws (counted as an
+     * error of the step) if it is still DRAFT after the settle timeout.
+     */
+    private LedgerTransactionStatus awaitCampay(LedgerTransaction draft) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(SETTINGS.settleTimeoutS());
+        while (System.nanoTime() < deadline) {
+            LedgerTransactionStatus status = ledgerTransactionRepository
+                .findByExternalReference(draft.getExternalReference())
+                .map(LedgerTransaction::getStatus)
+                .orElse(null);
+            if (status != null && status != LedgerTransactionStatus.DRAFT) {
+                return status;
+            }
+            try {
+                Thread.sleep(POLL_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            }
+        }
+        throw new IllegalStateException("No Campay callback for " + draft.getExternalReference() + " within the settle timeout");
+    }
+
+    // ---------------------------------------------------------------------------
+    // Helpers
+    // ---------------------------------------------------------------------------
+
+    private People buildPerson(String nom, String telephone, String cni) {
+        People p = new People();
+        p.setNom(nom);
+        p.setTelephone(telephone);
+        p.setCni(cni);
+        p.setActif("Y");
+        p.setDateNaissance(LocalDate.of(1990, 1, 1));
+        return p;
+    }
+
+    private Vehicle buildVehicle(People owner, String run, int index) {
+        Vehicle v = new Vehicle();
+        v.setMarque("Toyota");
+        v.setModele("Corolla");
+        v.setAnnee("2020");
+        v.setCarteGrise("CG-FLOW-" + run + "-" + index);
+        v.setImmatriculation("FLOW-" + run + "-" + index);
+        v.setNbPlaces(4);
+        v.setCouleur("Blanc");
+        v.setActif("Y");
+        v.setProprietaire(owner);
+        return v;
+    }
+
+    private Ride buildRide(Vehicle vehicle) {
+        Ride r = new Ride();
+        r.setVilleDepart("Yaoundé");
+        r.setVilleArrivee("Douala");
+        r.setDateDepart(LocalDate.now().plusDays(1));
+        r.setDateArrivee(LocalDate.now().plusDays(1));
+        r.setHeureDepart("08");
+        r.setHeureArrivee("12");
+        r.setMinuteDepart("00");
+        r.setMinuteArrivee("00");
+        r.setPrixParPlace(5000f);
+        r.setNbrePlaceDisponible(3);
+        r.setStatut(RideStatusEnum.OUVERT);
+        r.setVehicule(vehicle);
+        return r;
+    }
+
+    private Booking buildBooking(People passenger, Ride ride) {
+        Booking booking = new Booking();
+        booking.setNbPlacesReservees(1L);
+        booking.setMontantTotal(FARE.floatValue());
+        booking.setCommission(1000f);
+        booking.setDateReservation(LocalDate.now());
+        booking.setStatut(BookingStatusEnum.EN_ATTENTE);
+        booking.setPassager(passenger);
+        booking.setTrajet(ride);
+        return booking;
+    }
+
+    private void writeCsv(int threads, double elapsed, BenchmarkStats stats) {
+        Path file = Path.of("target", "benchmark", "payment-flow.csv");
+        StringBuilder sb = new StringBuilder();
+        try {
+            Files.createDirectories(file.getParent());
+            if (!Files.exists(file)) {
+                sb.append("run_at,threads,operation,count,ops_per_s,p50_ms,p99_ms,max_ms,errors,campay_error_rate,campay_settle_p50_ms\n");
+            }
+            for (BenchmarkStats.OperationSummary s : stats.summarize(elapsed)) {
+                sb.append(
+                    String.format(
+                        Locale.ROOT,
+                        "%s,%d,%s,%d,%.2f,%.2f,%.2f,%.2f,%d,%.3f,%d%n",
+                        Instant.now(),
+                        threads,
+                        s.operation(),
+                        s.count(),
+                        s.throughputPerSecond(),
+                        s.p50Millis(),
+                        s.p99Millis(),
+                        s.maxMillis(),
+                        stats.count(s.operation() + ".errors"),
+                        SIMULATOR_SETTINGS.errorRate(),
+                        SIMULATOR_SETTINGS.settleDelay().medianMillis()
+                    )
+                );
+            }
+            Files.writeString(file, sb.toString(), StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.binbash.mobigo.benchmark;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Samples {@code pg_locks} at a fixed interval while a benchmark runs. PostgreSQL does not
+ * keep a cumulative lock-wait time, so it is estimated as Σ(waiting backends × interval).
+ * Deadlocks are read from the cumulative {@code pg_stat_database.deadlocks} counter.
+ */
+public class PostgresLockSampler implements AutoCloseable {
+
+    private static final long INTERVAL_MS = 20;
+
+    private final JdbcTemplate jdbc;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "pg-lock-sampler");
+        t.setDaemon(true);
+        return t;
+    });
+    private final AtomicLong waitingSamples = new AtomicLong();
+    private final AtomicLong maxWaiting = new AtomicLong();
+    private final long deadlocksAtStart;
+
+    public PostgresLockSampler(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+        this.deadlocksAtStart = deadlocks();
+        scheduler.scheduleAtFixedRate(this::sample, 0, INTERVAL_MS, TimeUnit.MILLISECONDS);
+    }
+
+    private void sample() {
+        try {
+            Long waiting = jdbc.queryForObject("select count(*) from pg_locks where not granted", Long.class);
+            long w = waiting == null ? 0 : waiting;
+            waitingSamples.addAndGet(w);
+            maxWaiting.accumulateAndGet(w, Math::max);
+        } catch (Exception ignored) {
+            // Sampling is best effort; a missed sample only lowers the estimate.
+        }
+    }
+
+    private long deadlocks() {
+        Long d = jdbc.queryForObject("select deadlocks from pg_stat_database where datname = current_database()", Long.class);
+        return d == null ? 0 : d;
+    }
+
+    /** Estimated total time (ms) backends spent waiting on a lock since start. */
+    public long lockWaitMillis() {
+        return waitingSamples.get() * INTERVAL_MS;
+    }
+
+    public long maxWaitingBackends() {
+        return maxWaiting.get();
+    }
+
+    public long deadlocksSinceStart() {
+        return deadlocks() - deadlocksAtStart;
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+}
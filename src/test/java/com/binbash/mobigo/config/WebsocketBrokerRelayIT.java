@@ -0,0 +1,157 @@
+package com.binbash.mobigo.config;
+
+import static org.awaitility.Awaitility.await;
+
+import com.binbash.mobigo.web.websocket.WebSocketSessionMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.net.ServerSocket;
+import java.nio.charset.StandardCharsets;
+import java.security.Principal;
+import java.time.Duration;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import org.apache.activemq.artemis.core.server.embedded.EmbeddedActiveMQ;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.SubscribableChannel;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.broker.AbstractBrokerMessageHandler;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.web.socket.messaging.SessionConnectedEvent;
+import tech.jhipster.config.JHipsterProperties;
+
+/**
+ * Runs two nodes of the WebSocket configuration in relay mode against one embedded STOMP broker, and checks that
+ * messages published on one node reach a session connected to the other.
+ */
+class WebsocketBrokerRelayIT {
+
+    private static final String SESSION_ID = "session-on-b";
+
+    private static final Principal ALICE = () -> "alice";
+
+    private final Queue<Message<?>> sentToClientsOfB = new ConcurrentLinkedQueue<>();
+
+    private EmbeddedActiveMQ broker;
+    private AnnotationConfigApplicationContext nodeA;
+    private AnnotationConfigApplicationContext nodeB;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        ApplicationProperties props = new ApplicationProperties();
+        props.getWebsocket().setRelayEnabled(true);
+        props.getWebsocket().setRelayPort(freePort());
+        broker = new EmbeddedStompBrokerConfiguration().embeddedStompBroker(props);
+
+        nodeA = startNode(props);
+        nodeB = startNode(props);
+        nodeB.getBean("clientOutboundChannel", SubscribableChannel.class).subscribe(sentToClientsOfB::add);
+        await().atMost(Duration.ofSeconds(15)).until(() -> brokerAvailable(nodeA) && brokerAvailable(nodeB));
+
+        connectAliceOnB();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        nodeA.close();
+        nodeB.close();
+        broker.stop();
+    }
+
+    @Test
+    void userDestinationSentOnOneNodeReachesSessionOnAnother() {
+        subscribeOnB("sub-user", "/user/topic/notifications");
+        SimpMessagingTemplate templateA = nodeA.getBean(SimpMessagingTemplate.class);
+
+        // The subscription reaches the broker asynchronously: resend until it is delivered.
+        await()
+            .atMost(Duration.ofSeconds(15))
+            .pollInterval(Duration.ofMillis(250))
+            .until(() -> {
+                templateA.convertAndSendToUser("alice", "/topic/notifications", "unread from A");
+                return deliveredToB("sub-user", "unread from A");
+            });
+    }
+
+    @Test
+    void topicSentOnOneNodeReachesSessionOnAnother() {
+        subscribeOnB("sub-topic", "/topic/data-updates");
+        SimpMessagingTemplate templateA = nodeA.getBean(SimpMessagingTemplate.class);
+
+        await()
+            .atMost(Duration.ofSeconds(15))
+            .pollInterval(Duration.ofMillis(250))
+            .until(() -> {
+                templateA.convertAndSend("/topic/data-updates", "rides changed on A");
+                return deliveredToB("sub-topic", "rides changed on A");
+            });
+    }
+
+    private static AnnotationConfigApplicationContext startNode(ApplicationProperties props) {
+        AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+        context.registerBean(JHipsterProperties.class, JHipsterProperties::new);
+        context.registerBean(ApplicationProperties.class, () -> props);
+        context.registerBean(MeterRegistry.class, SimpleMeterRegistry::new);
+        context.registerBean(WebSocketSessionMetrics.class);
+        context.register(WebsocketConfiguration.class);
+        context.refresh();
+        return context;
+    }
+
+    private static boolean brokerAvailable(AnnotationConfigApplicationContext node) {
+        return node.getBean("stompBrokerRelayMessageHandler", AbstractBrokerMessageHandler.class).isBrokerAvailable();
+    }
+
+    /**
+     * Does what the STOMP endpoint does for a new socket: forwards the CONNECT frame and registers the session in the
+     * node's user registry.
+     */
+    private void connectAliceOnB() {
+        StompHeaderAccessor connect = StompHeaderAccessor.create(StompCommand.CONNECT);
+        connect.setSessionId(SESSION_ID);
+        connect.setUser(ALICE);
+        connect.setAcceptVersion("1.2");
+        connect.setHeartbeat(0, 0);
+        Message<byte[]> message = MessageBuilder.createMessage(new byte[0], connect.getMessageHeaders());
+        clientInboundOfB().send(message);
+        nodeB.publishEvent(new SessionConnectedEvent(this, message, ALICE));
+
+        await()
+            .atMost(Duration.ofSeconds(15))
+            .until(() -> sentToClientsOfB.stream().anyMatch(m -> StompHeaderAccessor.wrap(m).getCommand() == StompCommand.CONNECTED));
+    }
+
+    private void subscribeOnB(String subscriptionId, String destination) {
+        StompHeaderAccessor subscribe = StompHeaderAccessor.create(StompCommand.SUBSCRIBE);
+        subscribe.setSessionId(SESSION_ID);
+        subscribe.setUser(ALICE);
+        subscribe.setSubscriptionId(subscriptionId);
+        subscribe.setDestination(destination);
+        clientInboundOfB().send(MessageBuilder.createMessage(new byte[0], subscribe.getMessageHeaders()));
+    }
+
+    private boolean deliveredToB(String subscriptionId, String payload) {
+        return sentToClientsOfB
+            .stream()
+            .filter(m -> StompHeaderAccessor.wrap(m).getCommand() == StompCommand.MESSAGE)
+            .filter(m -> subscriptionId.equals(StompHeaderAccessor.wrap(m).getSubscriptionId()))
+            .anyMatch(m -> m.getPayload() instanceof byte[] bytes && new String(bytes, StandardCharsets.UTF_8).equals(payload));
+    }
+
+    private MessageChannel clientInboundOfB() {
+        return nodeB.getBean("clientInboundChannel", MessageChannel.class);
+    }
+
+    private static int freePort() throws Exception {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -7,12 +7,16 @@ import com.binbash.mobigo.domain.Booking;
 import com.binbash.mobigo.domain.People;
 import com.binbash.mobigo.domain.Ride;
 import com.binbash.mobigo.domain.enumeration.BookingStatusEnum;
+import com.binbash.mobigo.domain.enumeration.LedgerAccountType;
+import com.binbash.mobigo.domain.enumeration.LedgerTransactionType;
 import com.binbash.mobigo.domain.enumeration.RideStatusEnum;
 import com.binbash.mobigo.repository.BookingRepository;
+import com.binbash.mobigo.repository.LedgerDailyTotalRepository;
 import com.binbash.mobigo.repository.PeopleRepository;
 import com.binbash.mobigo.repository.RideRepository;
 import com.binbash.mobigo.repository.UserRepository;
 import com.binbash.mobigo.service.dto.AdminStatisticsDTO;
+import java.math.BigDecimal;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.util.Arrays;
@@ -45,11 +49,21 @@ class AdminStatisticsServiceTest {
     @Mock
     private com.binbash.mobigo.repository.PaymentRepository paymentRepository;
 
+    @Mock
+    private LedgerDailyTotalRepository ledgerDailyTotalRepository;
+
     private AdminStatisticsService service;
 
     @BeforeEach
     void setUp() {
-        service = new AdminStatisticsService(userRepository, peopleRepository, rideRepository, bookingRepository, paymentRepository);
+        service = new AdminStatisticsService(
+            userRepository,
+            peopleRepository,
+            rideRepository,
+            bookingRepository,
+            paymentRepository,
+            ledgerDailyTotalRepository
+        );
     }
 
     @Test
@@ -152,6 +166,30 @@ class AdminStatisticsServiceTest {
         assertThat(result.getRecentActivity()).isEmpty();
     }
 
+    @Test
+    void shouldGroupLedgerDailyTotalsByDay() {
+        LocalDate d1 = LocalDate.of(2026, 3, 1);
+        LocalDate d2 = LocalDate.of(2026, 3, 2);
+        when(ledgerDailyTotalRepository.findDailyTotals(d1, d2)).thenReturn(
+            List.of(
+                bucket(d1, LedgerAccountType.EXTERNAL, LedgerTransactionType.RECHARGE, "0", "10000", 1),
+                bucket(d1, LedgerAccountType.PLATFORM, LedgerTransactionType.BOOKING_SETTLEMENT, "500", "0", 1),
+                bucket(d2, LedgerAccountType.DRIVER, LedgerTransactionType.WITHDRAWAL, "0", "4000", 2),
+                bucket(d2, LedgerAccountType.PLATFORM, LedgerTransactionType.WITHDRAWAL, "0", "80", 1)
+            )
+        );
+
+        List<AdminStatisticsDTO.LedgerTotals> days = service.getLedgerDailyTotals(d1, d2);
+
+        assertThat(days).hasSize(2);
+        assertThat(days.get(0).getDate()).isEqualTo(d1);
+        assertThat(days.get(0).getWalletRecharges()).isEqualTo(10000);
+        assertThat(days.get(0).getCommission()).isEqualTo(500);
+        assertThat(days.get(1).getDriverPayouts()).isEqualTo(4000);
+        assertThat(days.get(1).getPayoutFees()).isEqualTo(80);
+        assertThat(days.get(1).getPostedLines()).isEqualTo(3);
+    }
+
     // ── Helpers ──────────────────────────────────────────────────────────
 
     private List<People> createPeopleList() {
@@ -203,4 +241,45 @@ class AdminStatisticsServiceTest {
 
         return Arrays.asList(b1, b2);
     }
+
+    private static LedgerDailyTotalRepository.BucketTotal bucket(
+        LocalDate day,
+        LedgerAccountType accountType,
+        LedgerTransactionType transactionType,
+        String credits,
+        String debits,
+        long lines
+    ) {
+        return new LedgerDailyTotalRepository.BucketTotal() {
+            @Override
+            public LocalDate getDay() {
+                return day;
+            }
+
+            @Override
+            public LedgerAccountType getAccountType() {
+                return accountType;
+            }
+
+            @Override
+            public LedgerTransactionType getTransactionType() {
+                return transactionType;
+            }
+
+            @Override
+            public BigDecimal getCredits() {
+                return new BigDecimal(credits);
+            }
+
+            @Override
+            public BigDecimal getDebits() {
+                return new BigDecimal(debits);
+            }
+
+            @Override
+            public Long getLines() {
+                return lines;
+            }
+        };
+    }
 }
@@ -48,4 +48,20 @@ class AppSettingServiceWalletTest {
         when(repository.findById("campay_fee_rate")).thenReturn(Optional.of(new AppSetting("campay_fee_rate", "not-a-number")));
         assertThat(service.getCampayFeeRate()).isEqualTo(0.02);
     }
+
+    @Test
+    void ledgerHotAccountShardsDefaultsTo8() {
+        assertThat(service.getLedgerHotAccountShards()).isEqualTo(8);
+    }
+
+    @Test
+    void ledgerHotAccountShardsIsAtLeastOne() {
+        when(repository.findById("ledger_hot_account_shards")).thenReturn(Optional.of(new AppSetting("ledger_hot_account_shards", "0")));
+        assertThat(service.getLedgerHotAccountShards()).isEqualTo(1);
+    }
+
+    @Test
+    void notificationRetentionDaysDefaultsTo90() {
+        assertThat(service.getNotificationRetentionDays()).isEqualTo(90);
+    }
 }
@@ -0,0 +1,182 @@
+package com.binbash.mobigo.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+import com.binbash.mobigo.config.ApplicationProperties;
+import com.binbash.mobigo.domain.LedgerTransaction;
+import com.binbash.mobigo.domain.enumeration.LedgerTransactionStatus;
+import com.binbash.mobigo.domain.enumeration.LedgerTransactionType;
+import com.binbash.mobigo.repository.LedgerTransactionRepository;
+import com.binbash.mobigo.repository.LedgerTransactionRepository.StaleDraft;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+/**
+ * Runs the poller against a local Campay stub serving {@code GET /transaction/{ref}/}.
+ */
+@ExtendWith(MockitoExtension.class)
+class CampayReconciliationServiceTest {
+
+    private static final Map<String, String> STUB_STATUSES = Map.of("CP-OK", "SUCCESSFUL", "CP-KO", "FAILED", "CP-WAIT", "PENDING");
+
+    @Mock
+    private LedgerTransactionRepository txRepo;
+
+    @Mock
+    private CampayWebhookQueueService webhookQueueService;
+
+    private HttpServer campayStub;
+
+    private SimpleMeterRegistry registry;
+
+    private CampayReconciliationService service;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        campayStub = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        campayStub.createContext("/transaction/", exchange -> {
+            String ref = exchange.getRequestURI().getPath().replace("/transaction/", "").replace("/", "");
+            String status = STUB_STATUSES.get(ref);
+            String json = status == null
+                ? "{\"message\":\"not found\"}"
+                : "{\"reference\":\"" + ref + "\",\"status\":\"" + status + "\"}";
+            byte[] body = json.getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(status == null ? 404 : 200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        campayStub.start();
+
+        ApplicationProperties props = new ApplicationProperties();
+        props.getCampay().setEnabled(true);
+        props.getCampay().setPermanentToken("stub-token");
+        props.getCampay().setBaseUrl("http://localhost:" + campayStub.getAddress().getPort());
+        props.getCampay().setReconciliationRatePerSecond(0);
+        registry = new SimpleMeterRegistry();
+        CampayService campayService = new CampayService(props, new ObjectMapper(), registry);
+        service = new CampayReconciliationService(txRepo, campayService, webhookQueueService, props, registry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        campayStub.stop(0);
+    }
+
+    private StaleDraft draft(long id, LedgerTransactionType type, String extRef, String campayRef) {
+        return new StaleDraft() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public LedgerTransactionType getType() {
+                return type;
+            }
+
+            @Override
+            public String getExternalReference() {
+                return extRef;
+            }
+
+            @Override
+            public String getCampayReference() {
+                return campayRef;
+            }
+        };
+    }
+
+    @Test
+    void terminalStatusesAreReplayedThroughTheWebhookQueue() {
+        when(txRepo.findStaleDrafts(eq(CampayReconciliationService.CAMPAY_TYPES), any(), eq(0L), any())).thenReturn(
+            List.of(
+                draft(1L, LedgerTransactionType.RECHARGE, "RCG-1", "CP-OK"),
+                draft(2L, LedgerTransactionType.WITHDRAWAL, "WDR-2", "CP-KO"),
+                draft(3L, LedgerTransactionType.RECHARGE, "RCG-3", "CP-WAIT"),
+                draft(4L, LedgerTransactionType.RECHARGE, "RCG-4", null)
+            )
+        );
+
+        CampayReconciliationService.ReconciliationSummary summary = service.reconcileStaleDrafts();
+
+        verify(webhookQueueService).enqueue("CP-OK", "RCG-1", "SUCCESSFUL", null);
+        verify(webhookQueueService).enqueue("CP-KO", "WDR-2", "FAILED", null);
+        verifyNoMoreInteractions(webhookQueueService);
+        assertThat(summary.resolved()).isEqualTo(2);
+        assertThat(summary.pending()).isEqualTo(1);
+        assertThat(summary.unreferenced()).isEqualTo(1);
+        assertThat(registry.get("campay.reconciliation.drafts").tag("outcome", "resolved").counter().count()).isEqualTo(2);
+    }
+
+    @Test
+    void unknownReferenceIsLeftPending() {
+        when(txRepo.findStaleDrafts(any(), any(), anyLong(), any())).thenReturn(
+            List.of(draft(5L, LedgerTransactionType.WITHDRAWAL, "WDR-5", "CP-GONE"))
+        );
+
+        CampayReconciliationService.ReconciliationSummary summary = service.reconcileStaleDrafts();
+
+        verify(webhookQueueService, never()).enqueue(any(), any(), any(), isNull());
+        assertThat(summary.resolved()).isZero();
+        assertThat(summary.pending() + summary.errors()).isEqualTo(1);
+    }
+
+    @Test
+    void terminalStatusDetectionMatchesCallbackHandling() {
+        assertThat(CampayService.isTerminalStatus("SUCCESSFUL")).isTrue();
+        assertThat(CampayService.isTerminalStatus("failed")).isTrue();
+        assertThat(CampayService.isTerminalStatus("EXPIRED")).isTrue();
+        assertThat(CampayService.isTerminalStatus("PENDING")).isFalse();
+        assertThat(CampayService.isTerminalStatus(null)).isFalse();
+    }
+
+    @Test
+    void adminSettlesStaleDraftWithoutReferenceThroughTheWebhookQueue() {
+        when(txRepo.findByExternalReference("WDR-6")).thenReturn(Optional.of(ledgerTx(LedgerTransactionType.WITHDRAWAL, null, 3)));
+        when(webhookQueueService.enqueue(null, "WDR-6", "FAILED", null)).thenReturn(true);
+
+        assertThat(service.resolveUnreferenced("WDR-6", "failed")).isTrue();
+
+        verify(webhookQueueService).enqueue(null, "WDR-6", "FAILED", null);
+    }
+
+    @Test
+    void adminCannotResolveReferencedRecentOrNonTerminalDrafts() {
+        when(txRepo.findByExternalReference("WDR-7")).thenReturn(Optional.of(ledgerTx(LedgerTransactionType.WITHDRAWAL, "CP-7", 3)));
+        when(txRepo.findByExternalReference("RCG-8")).thenReturn(Optional.of(ledgerTx(LedgerTransactionType.RECHARGE, null, 0)));
+
+        assertThatThrownBy(() -> service.resolveUnreferenced("WDR-7", "FAILED")).isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> service.resolveUnreferenced("RCG-8", "FAILED")).isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> service.resolveUnreferenced("RCG-8", "PENDING")).isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(webhookQueueService);
+    }
+
+    private static LedgerTransaction ledgerTx(LedgerTransactionType type, String campayRef, long hoursAgo) {
+        LedgerTransaction tx = new LedgerTransaction();
+        tx.setType(type);
+        tx.setStatus(LedgerTransactionStatus.DRAFT);
+        tx.setCampayReference(campayRef);
+        tx.setCreatedDate(Instant.now().minus(Duration.ofHours(hoursAgo)));
+        return tx;
+    }
+}
@@ -0,0 +1,175 @@
+package com.binbash.mobigo.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.binbash.mobigo.config.ApplicationProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.InetSocketAddress;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Exercises the asynchronous Campay client against a local stub.
+ */
+class CampayServiceTest {
+
+    private final AtomicInteger tokenCalls = new AtomicInteger();
+    private final AtomicInteger collectCalls = new AtomicInteger();
+    private final AtomicInteger transactionCalls = new AtomicInteger();
+
+    private HttpServer campayStub;
+    private ApplicationProperties props;
+    private SimpleMeterRegistry registry;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        campayStub = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        campayStub.setExecutor(Executors.newFixedThreadPool(8));
+        campayStub.createContext("/token/", exchange -> {
+            tokenCalls.incrementAndGet();
+            sleep(200);
+            respond(exchange, 200, "{\"token\":\"tok\"}");
+        });
+        campayStub.createContext("/collect/", exchange -> {
+            collectCalls.incrementAndGet();
+            respond(exchange, 500, "{\"message\":\"boom\"}");
+        });
+        campayStub.createContext("/transaction/", exchange -> {
+            // The first lookup hits a transient 503, the retry succeeds.
+            int n = transactionCalls.incrementAndGet();
+            respond(exchange, n == 1 ? 503 : 200, "{\"status\":\"SUCCESSFUL\"}");
+        });
+        campayStub.createContext("/transaction/CP-unknown/", exchange -> respond(exchange, 404, "{\"message\":\"Transaction not found\"}"));
+        campayStub.start();
+
+        props = new ApplicationProperties();
+        props.getCampay().setEnabled(true);
+        props.getCampay().setApiUsername("user");
+        props.getCampay().setApiPassword("secret");
+        props.getCampay().setBaseUrl("http://localhost:" + campayStub.getAddress().getPort());
+        props.getCampay().setMaxRetries(2);
+        registry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() {
+        campayStub.stop(0);
+    }
+
+    private static void respond(HttpExchange exchange, int status, String json) throws IOException {
+        byte[] body = json.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(status, body.length);
+        exchange.getResponseBody().write(body);
+        exchange.close();
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Test
+    void concurrentCallersShareOneTokenRefresh() {
+        CampayService service = new CampayService(props, new ObjectMapper(), registry);
+
+        List<CompletableFuture<String>> tokens = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            tokens.add(service.getTokenAsync());
+        }
+
+        assertThat(tokens).allSatisfy(f -> assertThat(f.join()).isEqualTo("tok"));
+        assertThat(tokenCalls.get()).isEqualTo(1);
+        assertThat(service.getTokenAsync().join()).isEqualTo("tok");
+        assertThat(tokenCalls.get()).isEqualTo(1);
+    }
+
+    @Test
+    void statusLookupIsRetriedButCollectIsNot() throws Exception {
+        CampayService service = new CampayService(props, new ObjectMapper(), registry);
+
+        assertThat(service.getTransactionStatus("CP-1")).isEqualTo("SUCCESSFUL");
+        assertThat(transactionCalls.get()).isEqualTo(2);
+
+        assertThatThrownBy(() -> service.collect("237670000000", 1000, "RCG-1", "test")).hasMessageContaining("500");
+        assertThat(collectCalls.get()).isEqualTo(1);
+        assertThat(
+            registry.get("campay.client.requests").tag("endpoint", "collect").tag("outcome", "server_error").timer().count()
+        ).isEqualTo(1);
+    }
+
+    @Test
+    void openCircuitRejectsWithoutCallingCampay() {
+        props.getCampay().setCircuitFailureThreshold(2);
+        props.getCampay().setCircuitOpenMs(60000);
+        CampayService service = new CampayService(props, new ObjectMapper(), registry);
+
+        for (int i = 0; i < 2; i++) {
+            assertThatThrownBy(() -> service.collect("237670000000", 1000, "RCG-2", "test")).hasMessageContaining("500");
+        }
+        assertThatThrownBy(() -> service.collect("237670000000", 1000, "RCG-3", "test")).isInstanceOf(
+            CampayService.CampayUnavailableException.class
+        );
+        assertThat(collectCalls.get()).isEqualTo(2);
+        assertThat(registry.get("campay.client.circuit.open").gauge().value()).isEqualTo(1.0);
+    }
+
+    @Test
+    void tokenRequestThatCannotBeBuiltReleasesTheRefreshSlot() {
+        props.getCampay().setApiUsername(null);
+        CampayService service = new CampayService(props, new ObjectMapper(), registry);
+
+        assertThat(service.getTokenAsync()).isCompletedExceptionally();
+
+        props.getCampay().setApiUsername("user");
+        assertThat(service.getTokenAsync().join()).isEqualTo("tok");
+        assertThat(tokenCalls.get()).isEqualTo(1);
+    }
+
+    @Test
+    void statusLookupFailsOnNon200() {
+        CampayService service = new CampayService(props, new ObjectMapper(), registry);
+
+        assertThatThrownBy(() -> service.getTransactionStatus("CP-unknown"))
+            .isInstanceOf(CampayService.CampayHttpException.class)
+            .hasMessageContaining("404");
+    }
+
+    @Test
+    void onlyFailuresThatCannotHaveReachedCampayCountAsNotExecuted() {
+        assertThat(CampayService.isNotExecuted(new CampayService.CampayUnavailableException("open"))).isTrue();
+        assertThat(CampayService.isNotExecuted(new CompletionException(new ConnectException("refused")))).isTrue();
+        assertThat(CampayService.isNotExecuted(httpError(400))).isTrue();
+        assertThat(CampayService.isNotExecuted(httpError(401))).isTrue();
+        assertThat(CampayService.isNotExecuted(httpError(429))).isTrue();
+        assertThat(CampayService.isNotExecuted(httpError(500))).isFalse();
+        assertThat(CampayService.isNotExecuted(new HttpTimeoutException("read timed out"))).isFalse();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static CampayService.CampayHttpException httpError(int status) {
+        HttpResponse<String> response = mock(HttpResponse.class);
+        when(response.statusCode()).thenReturn(status);
+        return new CampayService.CampayHttpException("Campay withdraw failed", response);
+    }
+}
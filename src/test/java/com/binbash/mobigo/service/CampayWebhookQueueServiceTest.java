@@ -0,0 +1,127 @@
+package com.binbash.mobigo.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import com.binbash.mobigo.config.ApplicationProperties;
+import com.binbash.mobigo.domain.CampayWebhookEvent;
+import com.binbash.mobigo.domain.LedgerTransaction;
+import com.binbash.mobigo.domain.enumeration.CampayWebhookEventState;
+import com.binbash.mobigo.repository.CampayWebhookEventRepository;
+import com.binbash.mobigo.repository.LedgerTransactionRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+
+@ExtendWith(MockitoExtension.class)
+class CampayWebhookQueueServiceTest {
+
+    @Mock
+    private CampayWebhookEventRepository eventRepo;
+
+    @Mock
+    private LedgerTransactionRepository ledgerTransactionRepository;
+
+    @Mock
+    private WalletService walletService;
+
+    @Mock
+    private PaymentService paymentService;
+
+    @Mock
+    private PlatformTransactionManager ptm;
+
+    private SimpleMeterRegistry registry;
+
+    private CampayWebhookQueueService service;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(ptm.getTransaction(any())).thenReturn(mock(TransactionStatus.class));
+        lenient().when(eventRepo.save(any(CampayWebhookEvent.class))).thenAnswer(i -> i.getArgument(0));
+        registry = new SimpleMeterRegistry();
+        ApplicationProperties props = new ApplicationProperties();
+        props.getCampay().setWebhookMaxAttempts(2);
+        service = new CampayWebhookQueueService(eventRepo, ledgerTransactionRepository, walletService, paymentService, ptm, props, registry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    private CampayWebhookEvent pending(long id, String extRef, String status) {
+        return new CampayWebhookEvent()
+            .id(id)
+            .orderKey(extRef)
+            .externalReference(extRef)
+            .reference("CP-" + id)
+            .status(status)
+            .state(CampayWebhookEventState.PENDING)
+            .receivedAt(Instant.now())
+            .nextAttemptAt(Instant.now());
+    }
+
+    @Test
+    void duplicateCallbackIsNotEnqueuedTwice() {
+        String key = CampayWebhookQueueService.dedupeKey("CP-1", "RCH-1", "successful");
+        when(eventRepo.existsByDedupeKey(key)).thenReturn(true);
+
+        boolean accepted = service.enqueue("CP-1", "RCH-1", "SUCCESSFUL", "{}");
+
+        assertThat(accepted).isFalse();
+        verify(eventRepo, never()).saveAndFlush(any());
+        assertThat(registry.get("campay.webhook.events").tag("outcome", "duplicate").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void ledgerEventIsAppliedThroughWalletAndMarkedProcessed() {
+        CampayWebhookEvent event = pending(1L, "RCH-1", "SUCCESSFUL");
+        when(eventRepo.findById(1L)).thenReturn(Optional.of(event));
+        when(ledgerTransactionRepository.findByExternalReference("RCH-1")).thenReturn(Optional.of(new LedgerTransaction()));
+
+        service.process(1L);
+
+        verify(walletService).handleCampayCallback("RCH-1", "SUCCESSFUL");
+        verifyNoInteractions(paymentService);
+        assertThat(event.getState()).isEqualTo(CampayWebhookEventState.PROCESSED);
+        assertThat(event.getProcessedAt()).isNotNull();
+    }
+
+    @Test
+    void failingEventIsRetriedThenDeadLettered() {
+        CampayWebhookEvent event = pending(2L, "PAY-2", "FAILED");
+        when(eventRepo.findById(2L)).thenReturn(Optional.of(event));
+        when(ledgerTransactionRepository.findByExternalReference("PAY-2")).thenReturn(Optional.empty());
+        doThrow(new IllegalStateException("db down")).when(paymentService).handleWebhook("CP-2", "FAILED", "PAY-2");
+
+        service.process(2L);
+
+        assertThat(event.getState()).isEqualTo(CampayWebhookEventState.PENDING);
+        assertThat(event.getAttempts()).isEqualTo(1);
+        assertThat(event.getLastError()).isEqualTo("db down");
+        assertThat(event.getNextAttemptAt()).isAfter(Instant.now());
+
+        service.process(2L);
+
+        assertThat(event.getState()).isEqualTo(CampayWebhookEventState.DEAD);
+        assertThat(event.getAttempts()).isEqualTo(2);
+    }
+
+    @Test
+    void backoffIsExponentialAndCapped() {
+        assertThat(CampayWebhookQueueService.backoff(1)).isEqualTo(Duration.ofSeconds(2));
+        assertThat(CampayWebhookQueueService.backoff(4)).isEqualTo(Duration.ofSeconds(16));
+        assertThat(CampayWebhookQueueService.backoff(30)).isEqualTo(CampayWebhookQueueService.MAX_BACKOFF);
+    }
+}
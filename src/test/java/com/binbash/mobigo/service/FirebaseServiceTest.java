@@ -0,0 +1,142 @@
+package com.binbash.mobigo.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import com.binbash.mobigo.config.ApplicationProperties;
+import com.binbash.mobigo.repository.DeviceTokenRepository;
+import com.binbash.mobigo.service.FirebaseService.PushMessage;
+import com.binbash.mobigo.service.FirebaseService.PushResult;
+import com.google.api.client.http.LowLevelHttpRequest;
+import com.google.api.client.testing.http.MockHttpTransport;
+import com.google.api.client.testing.http.MockLowLevelHttpRequest;
+import com.google.api.client.testing.http.MockLowLevelHttpResponse;
+import com.google.auth.oauth2.AccessToken;
+import com.google.auth.oauth2.GoogleCredentials;
+import com.google.firebase.FirebaseApp;
+import com.google.firebase.FirebaseOptions;
+import com.google.firebase.messaging.FirebaseMessaging;
+import com.google.firebase.messaging.Message;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+/**
+ * Runs the batched push path through the real Firebase Admin SDK against a local stub of
+ * the FCM v1 {@code messages:send} endpoint.
+ */
+class FirebaseServiceTest {
+
+    private static final String FCM_ERROR =
+        "{\"error\":{\"code\":%d,\"message\":\"%s\",\"status\":\"%s\",\"details\":[{\"@type\":" +
+        "\"type.googleapis.com/google.firebase.fcm.v1.FcmError\",\"errorCode\":\"%s\"}]}}";
+
+    private final AtomicInteger fcmCalls = new AtomicInteger();
+    private final DeviceTokenRepository deviceTokenRepository = mock(DeviceTokenRepository.class);
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private FirebaseApp app;
+    private FirebaseService service;
+
+    /** FCM stub: the outcome depends on the token prefix of the message. */
+    private final MockHttpTransport fcmStub = new MockHttpTransport() {
+        @Override
+        public LowLevelHttpRequest buildRequest(String method, String url) {
+            return new MockLowLevelHttpRequest(url) {
+                @Override
+                public MockLowLevelHttpResponse execute() throws IOException {
+                    fcmCalls.incrementAndGet();
+                    String body = getContentAsString();
+                    MockLowLevelHttpResponse response = new MockLowLevelHttpResponse().setContentType("application/json");
+                    if (body.contains("\"dead-")) {
+                        return response
+                            .setStatusCode(404)
+                            .setContent(String.format(FCM_ERROR, 404, "Requested entity was not found.", "NOT_FOUND", "UNREGISTERED"));
+                    }
+                    if (body.contains("\"other-")) {
+                        return response
+                            .setStatusCode(403)
+                            .setContent(String.format(FCM_ERROR, 403, "SenderId mismatch", "PERMISSION_DENIED", "SENDER_ID_MISMATCH"));
+                    }
+                    if (body.contains("\"bad-")) {
+                        return response
+                            .setStatusCode(400)
+                            .setContent(String.format(FCM_ERROR, 400, "Invalid payload", "INVALID_ARGUMENT", "INVALID_ARGUMENT"));
+                    }
+                    return response.setStatusCode(200).setContent("{\"name\":\"projects/mobigo-test/messages/" + fcmCalls.get() + "\"}");
+                }
+            };
+        }
+    };
+
+    @BeforeEach
+    void setUp() {
+        FirebaseOptions options = FirebaseOptions.builder()
+            .setProjectId("mobigo-test")
+            .setCredentials(GoogleCredentials.create(new AccessToken("test-token", new Date(System.currentTimeMillis() + 3600_000))))
+            .setHttpTransport(fcmStub)
+            .build();
+        app = FirebaseApp.initializeApp(options, "fcm-stub-" + System.nanoTime());
+        service = new FirebaseService(new ApplicationProperties(), deviceTokenRepository, registry);
+        service.initialize(app);
+    }
+
+    @AfterEach
+    void tearDown() {
+        app.delete();
+    }
+
+    private static PushMessage push(String token) {
+        return new PushMessage(token, "Trajet annulé", "Le trajet a été annulé.", "{\"rideId\":5}");
+    }
+
+    @Test
+    void deadTokensArePrunedInOneDeleteAndBadPayloadsAreNot() {
+        when(deviceTokenRepository.deleteByTokenIn(any())).thenReturn(2);
+
+        PushResult result = service.sendPushes(List.of(push("ok-1"), push("dead-1"), push("ok-2"), push("other-1"), push("bad-1")));
+
+        assertThat(result).isEqualTo(new PushResult(2, 3, 2));
+        verify(deviceTokenRepository, times(1)).deleteByTokenIn(Set.of("dead-1", "other-1"));
+        assertThat(registry.get("firebase.push.messages").tag("outcome", "sent").counter().count()).isEqualTo(2);
+        assertThat(registry.get("firebase.push.messages").tag("outcome", "failed").counter().count()).isEqualTo(3);
+        assertThat(registry.get("firebase.push.tokens.pruned").counter().count()).isEqualTo(2);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void largeBatchesAreSplitIntoFcmSizedCalls() throws Exception {
+        FirebaseMessaging fcm = spy(FirebaseMessaging.getInstance(app));
+        service.initialize(fcm);
+        List<PushMessage> pushes = new ArrayList<>();
+        for (int i = 0; i < FirebaseService.MAX_MESSAGES_PER_CALL + 20; i++) {
+            pushes.add(push("ok-" + i));
+        }
+
+        PushResult result = service.sendPushes(pushes);
+
+        assertThat(result.sent()).isEqualTo(pushes.size());
+        ArgumentCaptor<List<Message>> chunks = ArgumentCaptor.forClass(List.class);
+        verify(fcm, times(2)).sendEach(chunks.capture());
+        assertThat(chunks.getAllValues()).extracting(List::size).containsExactly(FirebaseService.MAX_MESSAGES_PER_CALL, 20);
+        // sendEach still makes one HTTP request per message.
+        assertThat(fcmCalls.get()).isEqualTo(pushes.size());
+        verifyNoInteractions(deviceTokenRepository);
+    }
+
+    @Test
+    void nothingIsSentWhenFirebaseIsNotInitialized() {
+        FirebaseService disabled = new FirebaseService(new ApplicationProperties(), deviceTokenRepository, registry);
+
+        assertThat(disabled.sendPushes(List.of(push("ok-1")))).isEqualTo(PushResult.NONE);
+        assertThat(disabled.isInitialized()).isFalse();
+    }
+}
@@ -0,0 +1,80 @@
+package com.binbash.mobigo.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import com.binbash.mobigo.config.ApplicationProperties;
+import com.binbash.mobigo.repository.LedgerEntryRepository;
+import com.binbash.mobigo.repository.LedgerTransactionArchiveRepository;
+import com.binbash.mobigo.repository.LedgerTransactionRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+
+@ExtendWith(MockitoExtension.class)
+class LedgerArchiveServiceTest {
+
+    @Mock
+    private LedgerTransactionRepository txRepo;
+
+    @Mock
+    private LedgerEntryRepository entryRepo;
+
+    @Mock
+    private LedgerTransactionArchiveRepository archiveRepo;
+
+    @Mock
+    private PlatformTransactionManager ptm;
+
+    private SimpleMeterRegistry registry;
+    private LedgerArchiveService service;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(ptm.getTransaction(any())).thenReturn(mock(TransactionStatus.class));
+        ApplicationProperties props = new ApplicationProperties();
+        props.getLedger().setArchiveBatchSize(2);
+        registry = new SimpleMeterRegistry();
+        service = new LedgerArchiveService(txRepo, entryRepo, archiveRepo, ptm, props, registry);
+    }
+
+    @Test
+    void movesEachBatchCopyBeforeDeleteAndFollowsTheKeyset() {
+        when(txRepo.lockArchivableIds(any(), eq(0L), eq(2))).thenReturn(List.of(3L, 8L));
+        when(txRepo.lockArchivableIds(any(), eq(8L), eq(2))).thenReturn(List.of(12L));
+        when(archiveRepo.copyEntries(List.of(3L, 8L))).thenReturn(10);
+        when(archiveRepo.copyEntries(List.of(12L))).thenReturn(2);
+
+        LedgerArchiveService.ArchiveRun run = service.archive();
+
+        assertThat(run).isEqualTo(new LedgerArchiveService.ArchiveRun(3, 12));
+        InOrder order = inOrder(archiveRepo, entryRepo, txRepo);
+        order.verify(archiveRepo).copyTransactions(eq(List.of(3L, 8L)), any());
+        order.verify(archiveRepo).copyEntries(List.of(3L, 8L));
+        order.verify(entryRepo).deleteByTransactionIds(List.of(3L, 8L));
+        order.verify(txRepo).deleteByIds(List.of(3L, 8L));
+        verify(ptm, times(2)).commit(any());
+        assertThat(registry.get("ledger.archive.transactions").counter().count()).isEqualTo(3.0);
+    }
+
+    @Test
+    void nothingEligibleTouchesNothing() {
+        when(txRepo.lockArchivableIds(any(), anyLong(), anyInt())).thenReturn(List.of());
+
+        assertThat(service.archive()).isEqualTo(new LedgerArchiveService.ArchiveRun(0, 0));
+
+        verifyNoInteractions(archiveRepo, entryRepo);
+        verify(txRepo, never()).deleteByIds(any());
+    }
+}
@@ -0,0 +1,131 @@
+package com.binbash.mobigo.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import com.binbash.mobigo.config.ApplicationProperties;
+import com.binbash.mobigo.domain.LedgerAccount;
+import com.binbash.mobigo.domain.LedgerBalanceCheckpoint;
+import com.binbash.mobigo.domain.enumeration.LedgerTransactionStatus;
+import com.binbash.mobigo.repository.LedgerAccountRepository;
+import com.binbash.mobigo.repository.LedgerBalanceCheckpointRepository;
+import com.binbash.mobigo.repository.LedgerEntryRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+
+@ExtendWith(MockitoExtension.class)
+class LedgerReconciliationServiceTest {
+
+    @Mock
+    private LedgerAccountRepository accountRepo;
+
+    @Mock
+    private LedgerEntryRepository entryRepo;
+
+    @Mock
+    private LedgerBalanceCheckpointRepository checkpointRepo;
+
+    @Mock
+    private PlatformTransactionManager ptm;
+
+    private SimpleMeterRegistry registry;
+
+    private LedgerReconciliationService service;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(ptm.getTransaction(any())).thenReturn(mock(TransactionStatus.class));
+        registry = new SimpleMeterRegistry();
+        service = new LedgerReconciliationService(accountRepo, entryRepo, checkpointRepo, ptm, new ApplicationProperties(), registry);
+    }
+
+    private LedgerAccount account(long id, String key, String balance) {
+        LedgerAccount a = new LedgerAccount();
+        a.setId(id);
+        a.setAccountKey(key);
+        a.setBalance(new BigDecimal(balance));
+        return a;
+    }
+
+    @Test
+    void checkpointStopsBelowOldestDraftLine() {
+        when(accountRepo.findById(1L)).thenReturn(Optional.of(account(1L, "PASSENGER:7", "9000")));
+        when(checkpointRepo.findFirstByAccountIdOrderByLastEntryIdDesc(1L)).thenReturn(
+            Optional.of(new LedgerBalanceCheckpoint().accountId(1L).lastEntryId(10L).balance(new BigDecimal("5000")))
+        );
+        when(entryRepo.findMaxIdByAccountId(1L)).thenReturn(30L);
+        when(entryRepo.findMaxIdByAccountIdAfterIdCreatedBefore(eq(1L), eq(10L), any(Instant.class))).thenReturn(30L);
+        when(entryRepo.findMinIdByAccountIdAfterIdAndStatus(1L, 10L, LedgerTransactionStatus.DRAFT)).thenReturn(21L);
+        when(entryRepo.sumPostedDeltaInRange(1L, 10L, 20L)).thenReturn(new BigDecimal("3000"));
+        when(entryRepo.sumPostedDeltaInRange(1L, 20L, 30L)).thenReturn(new BigDecimal("1000"));
+
+        LedgerReconciliationService.AccountResult result = service.reconcileAccount(1L);
+
+        assertThat(result.drift()).isNull();
+        assertThat(result.checkpointWritten()).isTrue();
+        ArgumentCaptor<LedgerBalanceCheckpoint> cap = ArgumentCaptor.forClass(LedgerBalanceCheckpoint.class);
+        verify(checkpointRepo).save(cap.capture());
+        assertThat(cap.getValue().getLastEntryId()).isEqualTo(20L);
+        assertThat(cap.getValue().getBalance()).isEqualByComparingTo(new BigDecimal("8000"));
+    }
+
+    @Test
+    void checkpointSkipsLinesYoungerThanGracePeriod() {
+        when(accountRepo.findById(4L)).thenReturn(Optional.of(account(4L, "DRIVER:4", "900")));
+        when(checkpointRepo.findFirstByAccountIdOrderByLastEntryIdDesc(4L)).thenReturn(Optional.empty());
+        when(entryRepo.findMaxIdByAccountId(4L)).thenReturn(30L);
+        when(entryRepo.findMaxIdByAccountIdAfterIdCreatedBefore(eq(4L), eq(0L), any(Instant.class))).thenReturn(15L);
+        when(entryRepo.sumPostedDeltaInRange(4L, 0L, 15L)).thenReturn(new BigDecimal("600"));
+        when(entryRepo.sumPostedDeltaInRange(4L, 15L, 30L)).thenReturn(new BigDecimal("300"));
+
+        LedgerReconciliationService.AccountResult result = service.reconcileAccount(4L);
+
+        assertThat(result.drift()).isNull();
+        ArgumentCaptor<LedgerBalanceCheckpoint> cap = ArgumentCaptor.forClass(LedgerBalanceCheckpoint.class);
+        verify(checkpointRepo).save(cap.capture());
+        assertThat(cap.getValue().getLastEntryId()).isEqualTo(15L);
+        assertThat(cap.getValue().getBalance()).isEqualByComparingTo(new BigDecimal("600"));
+    }
+
+    @Test
+    void reportsDriftAndExposesMetrics() {
+        when(accountRepo.findAllIds()).thenReturn(List.of(2L));
+        when(accountRepo.findById(2L)).thenReturn(Optional.of(account(2L, "DRIVER:9", "7000")));
+        when(checkpointRepo.findFirstByAccountIdOrderByLastEntryIdDesc(2L)).thenReturn(Optional.empty());
+        when(entryRepo.findMaxIdByAccountId(2L)).thenReturn(5L);
+        when(entryRepo.sumPostedDeltaInRange(2L, 0L, 5L)).thenReturn(new BigDecimal("5000"));
+
+        LedgerReconciliationService.ReconciliationReport report = service.reconcileAll();
+
+        assertThat(report.accountsChecked()).isEqualTo(1);
+        assertThat(report.drifts()).hasSize(1);
+        assertThat(report.drifts().get(0).drift()).isEqualByComparingTo(new BigDecimal("2000"));
+        assertThat(service.getLastReport()).isSameAs(report);
+        assertThat(registry.get("ledger.reconciliation.drifted.accounts").gauge().value()).isEqualTo(1.0);
+    }
+
+    @Test
+    void balanceAtStartsFromCheckpointTakenBeforeInstant() {
+        Instant at = Instant.parse("2026-01-01T00:00:00Z");
+        when(accountRepo.findByAccountKey("ESCROW")).thenReturn(Optional.of(account(3L, "ESCROW", "0")));
+        when(checkpointRepo.findFirstByAccountIdAndCheckpointAtLessThanEqualOrderByLastEntryIdDesc(3L, at)).thenReturn(
+            Optional.of(new LedgerBalanceCheckpoint().accountId(3L).lastEntryId(40L).balance(new BigDecimal("1200")))
+        );
+        when(entryRepo.sumPostedDeltaAfterIdPostedBy(3L, 40L, at)).thenReturn(new BigDecimal("-200"));
+
+        assertThat(service.balanceAt("ESCROW", at)).contains(new BigDecimal("1000"));
+    }
+}
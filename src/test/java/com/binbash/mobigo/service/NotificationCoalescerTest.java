@@ -0,0 +1,96 @@
+package com.binbash.mobigo.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import com.binbash.mobigo.config.ApplicationProperties;
+import com.binbash.mobigo.domain.enumeration.NotificationType;
+import com.binbash.mobigo.service.NotificationDispatcher.NotificationIntent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class NotificationCoalescerTest {
+
+    @Mock
+    private NotificationDispatcher dispatcher;
+
+    private SimpleMeterRegistry registry;
+    private NotificationCoalescer coalescer;
+
+    @BeforeEach
+    void setUp() {
+        ApplicationProperties props = new ApplicationProperties();
+        props.getNotification().setDigestTypes(List.of(NotificationType.RATING_RECEIVED));
+        registry = new SimpleMeterRegistry();
+        coalescer = new NotificationCoalescer(dispatcher, props, registry);
+    }
+
+    private static NotificationIntent modified(Long userId, long rideId) {
+        Map<String, Object> data = Map.of("rideId", rideId);
+        return new NotificationIntent("u" + userId, userId, NotificationType.TRIP_MODIFIED, "Trajet modifié", "Modifié", data);
+    }
+
+    @Test
+    void editsOfTheSameRideBecomeOneNotificationWhenTheWindowCloses() {
+        coalescer.coalesce(modified(1L, 5L), 5L);
+        coalescer.coalesce(modified(1L, 5L), 5L);
+        coalescer.coalesce(modified(1L, 5L), 5L);
+        coalescer.coalesce(modified(1L, 6L), 6L);
+        coalescer.coalesce(modified(2L, 5L), 5L);
+
+        coalescer.flushDue(System.currentTimeMillis());
+        verifyNoInteractions(dispatcher);
+
+        coalescer.flushDue(Long.MAX_VALUE);
+
+        ArgumentCaptor<NotificationIntent> sent = ArgumentCaptor.forClass(NotificationIntent.class);
+        verify(dispatcher, times(3)).enqueue(sent.capture());
+        NotificationIntent merged = sent
+            .getAllValues()
+            .stream()
+            .filter(i -> Integer.valueOf(3).equals(i.data().get("count")))
+            .findFirst()
+            .orElseThrow();
+        assertThat(merged.userId()).isEqualTo(1L);
+        assertThat(merged.data()).containsEntry("rideId", 5L);
+        assertThat(merged.message()).contains("3 mises");
+        assertThat(registry.get("notification.coalesce.merged").counter().count()).isEqualTo(2);
+        assertThat(registry.get("notification.coalesce.pending").gauge().value()).isZero();
+    }
+
+    @Test
+    void digestTypesAreHeldPerUserAndType() {
+        assertThat(coalescer.isDigestType(NotificationType.RATING_RECEIVED)).isTrue();
+        assertThat(coalescer.isDigestType(NotificationType.TRIP_CANCELLED)).isFalse();
+        NotificationIntent rating = new NotificationIntent("u1", 1L, NotificationType.RATING_RECEIVED, "Note", "5 étoiles", null);
+
+        coalescer.digest(rating);
+        coalescer.digest(rating);
+        coalescer.flushDue(Long.MAX_VALUE);
+
+        ArgumentCaptor<NotificationIntent> sent = ArgumentCaptor.forClass(NotificationIntent.class);
+        verify(dispatcher, times(1)).enqueue(sent.capture());
+        assertThat(sent.getValue().message()).startsWith("2 nouvelles notifications");
+        assertThat(sent.getValue().data()).containsEntry("count", 2);
+    }
+
+    @Test
+    void zeroWindowDispatchesImmediately() {
+        ApplicationProperties props = new ApplicationProperties();
+        props.getNotification().setCoalesceWindowMs(0);
+        NotificationCoalescer immediate = new NotificationCoalescer(dispatcher, props, registry);
+
+        immediate.coalesce(modified(1L, 5L), 5L);
+
+        verify(dispatcher).enqueue(any());
+    }
+}
@@ -0,0 +1,154 @@
+package com.binbash.mobigo.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import com.binbash.mobigo.config.ApplicationProperties;
+import com.binbash.mobigo.domain.DeviceToken;
+import com.binbash.mobigo.domain.Notification;
+import com.binbash.mobigo.domain.enumeration.NotificationType;
+import com.binbash.mobigo.repository.DeviceTokenRepository;
+import com.binbash.mobigo.repository.NotificationRepository;
+import com.binbash.mobigo.service.FirebaseService.PushMessage;
+import com.binbash.mobigo.service.NotificationDispatcher.NotificationIntent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.messaging.simp.SimpMessageSendingOperations;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+
+@ExtendWith(MockitoExtension.class)
+class NotificationDispatcherTest {
+
+    @Mock
+    private NotificationRepository notificationRepository;
+
+    @Mock
+    private DeviceTokenRepository deviceTokenRepository;
+
+    @Mock
+    private SimpMessageSendingOperations messagingTemplate;
+
+    @Mock
+    private FirebaseService firebaseService;
+
+    @Mock
+    private NotificationUnreadCountService unreadCountService;
+
+    @Mock
+    private PlatformTransactionManager ptm;
+
+    @Captor
+    private ArgumentCaptor<List<PushMessage>> pushesCaptor;
+
+    private ApplicationProperties props;
+    private SimpleMeterRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(ptm.getTransaction(any())).thenReturn(mock(TransactionStatus.class));
+        lenient().when(notificationRepository.saveAllAndFlush(any())).thenAnswer(i -> i.getArgument(0));
+        props = new ApplicationProperties();
+        registry = new SimpleMeterRegistry();
+    }
+
+    private NotificationDispatcher dispatcher() {
+        return new NotificationDispatcher(
+            notificationRepository,
+            deviceTokenRepository,
+            messagingTemplate,
+            firebaseService,
+            unreadCountService,
+            new ObjectMapper(),
+            ptm,
+            props,
+            registry
+        );
+    }
+
+    private static NotificationIntent intent(String login, Long userId) {
+        return new NotificationIntent(login, userId, NotificationType.TRIP_CANCELLED, "Trajet annulé", "msg", Map.of("rideId", 5));
+    }
+
+    private static DeviceToken token(Long userId, String token) {
+        DeviceToken d = new DeviceToken();
+        d.setUserId(userId);
+        d.setToken(token);
+        return d;
+    }
+
+    @Test
+    void batchIsSavedOnceAndTokensAreLoadedOnce() {
+        when(deviceTokenRepository.findByUserIdIn(Set.of(1L, 2L, 3L))).thenReturn(
+            List.of(token(1L, "t1a"), token(1L, "t1b"), token(3L, "t3"))
+        );
+
+        List<Notification> saved = dispatcher().dispatch(List.of(intent("u1", 1L), intent("u2", 2L), intent("u3", 3L), intent("u1", 1L)));
+
+        assertThat(saved).hasSize(4);
+        assertThat(saved.get(0).getData()).isEqualTo("{\"rideId\":5}");
+        verify(notificationRepository, times(1)).saveAllAndFlush(any());
+        verify(deviceTokenRepository, times(1)).findByUserIdIn(any());
+        verify(unreadCountService).add(1L, "u1", 2);
+        verify(unreadCountService).add(2L, "u2", 1);
+        verify(unreadCountService).add(3L, "u3", 1);
+        verify(messagingTemplate, times(2)).convertAndSendToUser(eq("u1"), eq("/topic/notifications"), any(Notification.class));
+        verify(messagingTemplate).convertAndSendToUser(eq("u2"), eq("/topic/notifications"), any(Notification.class));
+        verify(messagingTemplate).convertAndSendToUser(eq("u3"), eq("/topic/notifications"), any(Notification.class));
+        verify(firebaseService, times(1)).sendPushes(pushesCaptor.capture());
+        assertThat(pushesCaptor.getValue()).extracting(PushMessage::token).containsExactly("t1a", "t1b", "t3", "t1a", "t1b");
+    }
+
+    @Test
+    void fullQueueDispatchesOnTheCallerThread() {
+        props.getNotification().setQueueCapacity(1);
+        NotificationDispatcher dispatcher = dispatcher();
+
+        dispatcher.enqueue(intent("u1", 1L));
+        verifyNoInteractions(notificationRepository);
+
+        dispatcher.enqueue(intent("u2", 2L));
+
+        verify(notificationRepository, times(1)).saveAllAndFlush(any());
+        verify(messagingTemplate).convertAndSendToUser(eq("u2"), eq("/topic/notifications"), any(Notification.class));
+        assertThat(registry.get("notification.dispatch.intents").tag("outcome", "caller_runs").counter().count()).isEqualTo(1);
+        assertThat(registry.get("notification.dispatch.queue.size").gauge().value()).isEqualTo(1);
+    }
+
+    @Test
+    void failedBatchIsRetriedIntentByIntent() {
+        when(notificationRepository.saveAllAndFlush(any())).thenAnswer(i -> {
+            List<Notification> rows = i.getArgument(0);
+            if (rows.stream().anyMatch(n -> n.getUserId() == 2L)) {
+                throw new DataIntegrityViolationException("user 2 does not exist");
+            }
+            return rows;
+        });
+        NotificationDispatcher dispatcher = dispatcher();
+        dispatcher.enqueue(intent("u1", 1L));
+        dispatcher.enqueue(intent("u2", 2L));
+        dispatcher.enqueue(intent("u3", 3L));
+
+        // Never started: stop() flushes the queue as one batch on this thread.
+        dispatcher.stop();
+
+        verify(notificationRepository, times(4)).saveAllAndFlush(any());
+        verify(messagingTemplate).convertAndSendToUser(eq("u1"), eq("/topic/notifications"), any(Notification.class));
+        verify(messagingTemplate).convertAndSendToUser(eq("u3"), eq("/topic/notifications"), any(Notification.class));
+        verify(messagingTemplate, never()).convertAndSendToUser(eq("u2"), any(), any());
+        assertThat(registry.get("notification.dispatch.intents").tag("outcome", "failed").counter().count()).isEqualTo(1);
+    }
+}
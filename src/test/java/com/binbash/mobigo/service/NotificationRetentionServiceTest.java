@@ -0,0 +1,64 @@
+package com.binbash.mobigo.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import com.binbash.mobigo.config.ApplicationProperties;
+import com.binbash.mobigo.repository.NotificationRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+
+@ExtendWith(MockitoExtension.class)
+class NotificationRetentionServiceTest {
+
+    @Mock
+    private NotificationRepository notificationRepository;
+
+    @Mock
+    private AppSettingService appSettingService;
+
+    @Mock
+    private PlatformTransactionManager ptm;
+
+    private SimpleMeterRegistry registry;
+    private NotificationRetentionService service;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(ptm.getTransaction(any())).thenReturn(mock(TransactionStatus.class));
+        ApplicationProperties props = new ApplicationProperties();
+        props.getNotification().setRetentionBatchSize(100);
+        registry = new SimpleMeterRegistry();
+        service = new NotificationRetentionService(notificationRepository, appSettingService, ptm, props, registry);
+    }
+
+    @Test
+    void deletesInBatchesUntilAShortOne() {
+        when(appSettingService.getNotificationRetentionDays()).thenReturn(90);
+        when(notificationRepository.deleteReadBefore(any(), eq(100))).thenReturn(100, 100, 7);
+
+        assertThat(service.purge()).isEqualTo(207);
+
+        verify(notificationRepository, times(3)).deleteReadBefore(any(), eq(100));
+        verify(ptm, times(3)).commit(any());
+        assertThat(registry.get("notification.retention.purged").counter().count()).isEqualTo(207);
+    }
+
+    @Test
+    void zeroRetentionDisablesThePurge() {
+        when(appSettingService.getNotificationRetentionDays()).thenReturn(0);
+
+        assertThat(service.purge()).isZero();
+
+        verify(notificationRepository, never()).deleteReadBefore(any(), anyInt());
+    }
+}
@@ -0,0 +1,131 @@
+package com.binbash.mobigo.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.binbash.mobigo.domain.Notification;
+import com.binbash.mobigo.repository.NotificationRepository;
+import com.binbash.mobigo.service.NotificationService.FeedCursor;
+import com.binbash.mobigo.service.NotificationService.FeedPage;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+
+@ExtendWith(MockitoExtension.class)
+class NotificationServiceTest {
+
+    private static final Instant T0 = Instant.parse("2026-10-01T08:00:00Z");
+
+    @Mock
+    private NotificationRepository notificationRepository;
+
+    @Mock
+    private NotificationDispatcher notificationDispatcher;
+
+    @Mock
+    private NotificationUnreadCountService unreadCountService;
+
+    @Mock
+    private NotificationCoalescer notificationCoalescer;
+
+    private NotificationService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new NotificationService(notificationRepository, notificationDispatcher, unreadCountService, notificationCoalescer);
+    }
+
+    private static Notification notification(long id, long secondsAfterT0) {
+        Notification n = new Notification().id(id);
+        n.setCreatedDate(T0.plusSeconds(secondsAfterT0));
+        return n;
+    }
+
+    @Test
+    void cursorRoundTrips() {
+        FeedCursor cursor = FeedCursor.parse("2026-10-01T08:00:00Z,42");
+
+        assertThat(cursor).isEqualTo(new FeedCursor(T0, 42L));
+        assertThat(FeedCursor.parse(cursor.toString())).isEqualTo(cursor);
+        assertThatThrownBy(() -> FeedCursor.parse("42")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> FeedCursor.parse("yesterday,42")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void fullFirstPageReturnsBothCursors() {
+        when(notificationRepository.findFeed(eq(7L), any(Limit.class))).thenReturn(List.of(notification(9, 20), notification(8, 10)));
+
+        FeedPage page = service.getFeed(7L, null, 2);
+
+        assertThat(page.nextBefore()).isEqualTo(T0.plusSeconds(10) + ",8");
+        assertThat(page.nextSince()).isEqualTo(T0.plusSeconds(20) + ",9");
+    }
+
+    @Test
+    void lastOlderPageHasNoNextBefore() {
+        when(notificationRepository.findFeedBefore(eq(7L), eq(T0), eq(8L), any(Limit.class))).thenReturn(List.of(notification(3, -5)));
+
+        FeedPage page = service.getFeed(7L, new FeedCursor(T0, 8L), 2);
+
+        assertThat(page.notifications()).hasSize(1);
+        assertThat(page.nextBefore()).isNull();
+        assertThat(page.nextSince()).isNull();
+    }
+
+    @Test
+    void sinceKeepsTheCursorWhenNothingIsNew() {
+        FeedCursor since = new FeedCursor(T0, 8L);
+        when(notificationRepository.findFeedSince(eq(7L), eq(T0), eq(8L), any(Limit.class))).thenReturn(List.of());
+
+        assertThat(service.getFeedSince(7L, since, 50).nextSince()).isEqualTo(since.toString());
+    }
+
+    @Test
+    void caughtUpSinceCursorOverlapsRecentNotifications() {
+        FeedCursor since = new FeedCursor(T0, 8L);
+        Notification recent = new Notification().id(9L);
+        recent.setCreatedDate(Instant.now());
+        when(notificationRepository.findFeedSince(eq(7L), eq(T0), eq(8L), any(Limit.class))).thenReturn(List.of(recent));
+
+        FeedCursor next = FeedCursor.parse(service.getFeedSince(7L, since, 50).nextSince());
+
+        assertThat(next.createdDate()).isBetween(recent.getCreatedDate().minus(NotificationService.SINCE_OVERLAP), recent.getCreatedDate());
+        assertThat(next.id()).isZero();
+    }
+
+    @Test
+    void fullSincePageResumesAfterItsLastRow() {
+        FeedCursor since = new FeedCursor(T0, 8L);
+        Notification recent = new Notification().id(10L);
+        recent.setCreatedDate(Instant.now());
+        when(notificationRepository.findFeedSince(eq(7L), eq(T0), eq(8L), any(Limit.class))).thenReturn(
+            List.of(notification(9, 10), recent)
+        );
+
+        assertThat(service.getFeedSince(7L, since, 2).nextSince()).isEqualTo(FeedCursor.of(recent).toString());
+    }
+
+    @Test
+    void concurrentMarkAsReadDecrementsOnlyForTheUpdatedRow() {
+        Notification unread = notification(9, 0);
+        unread.setUserId(7L);
+        unread.setRead(false);
+        when(notificationRepository.findById(9L)).thenReturn(Optional.of(unread));
+        // The other request already flipped the row: the guarded UPDATE matches nothing.
+        when(notificationRepository.markRead(eq(7L), eq(List.of(9L)), any(), any())).thenReturn(0);
+
+        service.markAsRead(9L);
+
+        verify(unreadCountService).add(eq(7L), any(), eq(0L));
+    }
+}
@@ -0,0 +1,96 @@
+package com.binbash.mobigo.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import com.binbash.mobigo.config.ApplicationProperties;
+import com.binbash.mobigo.domain.NotificationUnreadCounter;
+import com.binbash.mobigo.repository.NotificationUnreadCounterRepository;
+import com.binbash.mobigo.service.NotificationUnreadCountService.UnreadCountEvent;
+import java.util.Optional;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.messaging.simp.SimpMessageSendingOperations;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+@ExtendWith(MockitoExtension.class)
+class NotificationUnreadCountServiceTest {
+
+    @Mock
+    private NotificationUnreadCounterRepository counterRepository;
+
+    @Mock
+    private SimpMessageSendingOperations messagingTemplate;
+
+    @Mock
+    private PlatformTransactionManager ptm;
+
+    private NotificationUnreadCountService service;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(ptm.getTransaction(any())).thenReturn(mock(TransactionStatus.class));
+        service = new NotificationUnreadCountService(counterRepository, messagingTemplate, ptm, new ApplicationProperties());
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void countIsReadOnceThenServedFromTheCache() {
+        when(counterRepository.findById(7L)).thenReturn(Optional.of(new NotificationUnreadCounter().userId(7L).unreadCount(3L)));
+
+        assertThat(service.getUnreadCount(7L)).isEqualTo(3);
+        assertThat(service.getUnreadCount(7L)).isEqualTo(3);
+
+        verify(counterRepository, times(1)).findById(7L);
+    }
+
+    @Test
+    void missingCounterIsSeededFromTheNotificationTable() {
+        when(counterRepository.findById(7L)).thenReturn(Optional.empty());
+        when(counterRepository.addAndGet(7L, 0)).thenReturn(5L);
+
+        assertThat(service.getUnreadCount(7L)).isEqualTo(5);
+    }
+
+    @Test
+    void changeIsCachedAndPushedOnlyAfterCommit() {
+        when(counterRepository.addAndGet(7L, -1)).thenReturn(2L);
+        TransactionSynchronizationManager.initSynchronization();
+
+        service.add(7L, "alice", -1);
+
+        verifyNoInteractions(messagingTemplate);
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+        verify(messagingTemplate).convertAndSendToUser("alice", "/topic/notifications", new UnreadCountEvent(2));
+        assertThat(service.getUnreadCount(7L)).isEqualTo(2);
+        verify(counterRepository, never()).findById(any());
+    }
+
+    @Test
+    void recountLocksTheCounterRowBeforeCounting() {
+        when(counterRepository.recount(7L)).thenReturn(4L);
+
+        service.recount(7L, "alice");
+
+        InOrder inOrder = inOrder(counterRepository);
+        inOrder.verify(counterRepository).addAndGet(7L, 0);
+        inOrder.verify(counterRepository).recount(7L);
+        verify(messagingTemplate).convertAndSendToUser("alice", "/topic/notifications", new UnreadCountEvent(4));
+    }
+}
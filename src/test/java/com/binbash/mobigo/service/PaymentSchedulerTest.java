@@ -0,0 +1,81 @@
+package com.binbash.mobigo.service;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import com.binbash.mobigo.repository.PaymentRepository;
+import com.binbash.mobigo.repository.PaymentRepository.ExpiredPayment;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.LongStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+
+@ExtendWith(MockitoExtension.class)
+class PaymentSchedulerTest {
+
+    @Mock
+    private PaymentRepository paymentRepository;
+
+    @Mock
+    private NotificationEventService notificationEventService;
+
+    @Mock
+    private PlatformTransactionManager ptm;
+
+    private PaymentScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(ptm.getTransaction(any())).thenReturn(mock(TransactionStatus.class));
+        scheduler = new PaymentScheduler(paymentRepository, notificationEventService, ptm);
+    }
+
+    private static ExpiredPayment expired(long id, Long bookingId) {
+        return new ExpiredPayment() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Long getBookingId() {
+                return bookingId;
+            }
+        };
+    }
+
+    @Test
+    void expiresInChunksAndNotifiesEachChunkAfterCommit() {
+        List<ExpiredPayment> full = new ArrayList<>();
+        LongStream.rangeClosed(1, PaymentScheduler.EXPIRY_CHUNK_SIZE).forEach(i -> full.add(expired(i, 1000 + i)));
+        when(paymentRepository.expireStaleChunk(eq(LocalDate.now()), eq(PaymentScheduler.EXPIRY_CHUNK_SIZE))).thenReturn(
+            full,
+            List.of(expired(9001L, 7L), expired(9002L, null))
+        );
+
+        scheduler.expireStalePayments();
+
+        verify(paymentRepository, times(2)).expireStaleChunk(any(), anyInt());
+        verify(ptm, times(2)).commit(any());
+        verify(notificationEventService).onPaymentsFailed(full.stream().map(ExpiredPayment::getBookingId).toList());
+        verify(notificationEventService).onPaymentsFailed(List.of(7L));
+    }
+
+    @Test
+    void nothingToExpireSendsNothing() {
+        when(paymentRepository.expireStaleChunk(any(), anyInt())).thenReturn(List.of());
+
+        scheduler.expireStalePayments();
+
+        verifyNoInteractions(notificationEventService);
+    }
+}
@@ -0,0 +1,132 @@
+package com.binbash.mobigo.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import com.binbash.mobigo.config.ApplicationProperties;
+import com.binbash.mobigo.domain.PayoutRun;
+import com.binbash.mobigo.domain.enumeration.LedgerAccountType;
+import com.binbash.mobigo.domain.enumeration.PayoutRunStatus;
+import com.binbash.mobigo.repository.LedgerAccountRepository;
+import com.binbash.mobigo.repository.LedgerAccountRepository.PayoutCandidate;
+import com.binbash.mobigo.repository.PayoutRunRepository;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+
+@ExtendWith(MockitoExtension.class)
+class PayoutBatchRunnerTest {
+
+    private static final BigDecimal MIN = new BigDecimal("5000");
+
+    @Mock
+    private WalletService walletService;
+
+    @Mock
+    private AppSettingService appSettingService;
+
+    @Mock
+    private LedgerAccountRepository accountRepo;
+
+    @Mock
+    private PayoutRunRepository runRepo;
+
+    @Mock
+    private PlatformTransactionManager ptm;
+
+    private PayoutBatchRunner runner;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(ptm.getTransaction(any())).thenReturn(mock(TransactionStatus.class));
+        lenient().when(runRepo.save(any(PayoutRun.class))).thenAnswer(i -> i.getArgument(0));
+        lenient().when(appSettingService.getMinWithdrawal()).thenReturn(MIN);
+        ApplicationProperties props = new ApplicationProperties();
+        props.getWallet().setPayoutRatePerSecond(0);
+        runner = new PayoutBatchRunner(walletService, appSettingService, accountRepo, runRepo, ptm, props);
+    }
+
+    private PayoutCandidate candidate(long accountId, long ownerId, String phone, String available) {
+        return new PayoutCandidate() {
+            public Long getAccountId() {
+                return accountId;
+            }
+
+            public String getAccountKey() {
+                return "DRIVER:" + ownerId;
+            }
+
+            public Long getOwnerPeopleId() {
+                return ownerId;
+            }
+
+            public String getTelephone() {
+                return phone;
+            }
+
+            public BigDecimal getAvailable() {
+                return new BigDecimal(available);
+            }
+        };
+    }
+
+    @Test
+    void disbursesEligibleCandidatesAndCompletesRun() {
+        when(runRepo.findFirstByStatusOrderByIdDesc(PayoutRunStatus.RUNNING)).thenReturn(Optional.empty());
+        when(accountRepo.findPayoutCandidates(eq(LedgerAccountType.DRIVER), eq(MIN), eq(0L), any())).thenReturn(
+            List.of(
+                candidate(1L, 9L, "237690000000", "12000"),
+                candidate(2L, 10L, null, "8000"),
+                candidate(3L, 11L, "237670000000", "4000")
+            )
+        );
+
+        PayoutRun run = runner.run();
+
+        verify(walletService).requestPayout(9L, new BigDecimal("12000"), "237690000000");
+        verifyNoMoreInteractions(walletService);
+        assertThat(run.getStatus()).isEqualTo(PayoutRunStatus.COMPLETED);
+        assertThat(run.getLastAccountId()).isEqualTo(3L);
+        assertThat(run.getInitiatedCount()).isEqualTo(1);
+        assertThat(run.getSkippedCount()).isEqualTo(2);
+        assertThat(run.getFinishedAt()).isNotNull();
+    }
+
+    @Test
+    void resumesInterruptedRunAfterCheckpoint() {
+        PayoutRun interrupted = new PayoutRun().id(5L).status(PayoutRunStatus.RUNNING).lastAccountId(40L);
+        interrupted.setInitiatedCount(3);
+        when(runRepo.findFirstByStatusOrderByIdDesc(PayoutRunStatus.RUNNING)).thenReturn(Optional.of(interrupted));
+        when(accountRepo.findPayoutCandidates(eq(LedgerAccountType.DRIVER), eq(MIN), eq(40L), any())).thenReturn(
+            List.of(candidate(41L, 12L, "237650000000", "6000"))
+        );
+        when(walletService.requestPayout(12L, new BigDecimal("6000"), "237650000000")).thenThrow(new RuntimeException("timeout"));
+
+        PayoutRun run = runner.run();
+
+        assertThat(run.getId()).isEqualTo(5L);
+        assertThat(run.getLastAccountId()).isEqualTo(41L);
+        assertThat(run.getInitiatedCount()).isEqualTo(3);
+        assertThat(run.getFailedCount()).isEqualTo(1);
+        assertThat(run.getStatus()).isEqualTo(PayoutRunStatus.COMPLETED);
+        verify(accountRepo, never()).findPayoutCandidates(any(), any(), eq(0L), any());
+    }
+
+    @Test
+    void providerIsDetectedFromCameroonianPrefix() {
+        assertThat(PayoutBatchRunner.provider("+237 677 00 00 00")).isEqualTo("MTN");
+        assertThat(PayoutBatchRunner.provider("651000000")).isEqualTo("MTN");
+        assertThat(PayoutBatchRunner.provider("237690000000")).isEqualTo("ORANGE");
+        assertThat(PayoutBatchRunner.provider("656000000")).isEqualTo("ORANGE");
+        assertThat(PayoutBatchRunner.provider("33612345678")).isEqualTo("OTHER");
+    }
+}
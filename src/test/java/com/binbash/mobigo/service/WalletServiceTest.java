@@ -1,11 +1,15 @@
 package com.binbash.mobigo.service;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
+import com.binbash.mobigo.benchmark.CampaySimulator;
+import com.binbash.mobigo.config.ApplicationProperties;
 import com.binbash.mobigo.domain.LedgerAccount;
 import com.binbash.mobigo.domain.LedgerTransaction;
 import com.binbash.mobigo.domain.enumeration.LedgerAccountType;
@@ -13,8 +17,14 @@ import com.binbash.mobigo.domain.enumeration.LedgerDirection;
 import com.binbash.mobigo.domain.enumeration.LedgerTransactionStatus;
 import com.binbash.mobigo.domain.enumeration.LedgerTransactionType;
 import com.binbash.mobigo.repository.*;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import java.math.BigDecimal;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -36,10 +46,10 @@ class WalletServiceTest {
     private LedgerEntryRepository entryRepo;
 
     @Mock
-    private BookingRepository bookingRepo;
+    private LedgerDailyTotalRepository dailyTotalRepo;
 
     @Mock
-    private PeopleRepository peopleRepo;
+    private BookingRepository bookingRepo;
 
     @Mock
     private CampayService campayService;
@@ -57,7 +67,7 @@ class WalletServiceTest {
         org.mockito.Mockito.lenient()
             .when(ptm.getTransaction(org.mockito.ArgumentMatchers.any()))
             .thenReturn(org.mockito.Mockito.mock(TransactionStatus.class));
-        wallet = new WalletService(accountRepo, txRepo, entryRepo, bookingRepo, peopleRepo, campayService, appSettingService, ptm);
+        wallet = new WalletService(accountRepo, txRepo, entryRepo, dailyTotalRepo, bookingRepo, campayService, appSettingService, ptm);
     }
 
     @Test
@@ -84,6 +94,28 @@ class WalletServiceTest {
         assertThat(acc.getOwnerPeopleId()).isNull();
     }
 
+    @Test
+    void systemAccountShardZeroKeepsLegacyKey() {
+        assertThat(WalletService.shardKey(LedgerAccountType.ESCROW, 0)).isEqualTo("ESCROW");
+        assertThat(WalletService.shardKey(LedgerAccountType.ESCROW, 3)).isEqualTo("ESCROW#3");
+        assertThat(WalletService.shardIndex(42L, 1)).isZero();
+        assertThat(WalletService.shardIndex(null, 8)).isZero();
+        assertThat(WalletService.shardIndex(-5L, 8)).isBetween(0, 7);
+    }
+
+    @Test
+    void getOrCreateSystemAccountPicksShardByDiscriminator() {
+        when(appSettingService.getLedgerHotAccountShards()).thenReturn(8);
+        when(accountRepo.findByAccountKey("PLATFORM#5")).thenReturn(Optional.empty());
+        when(accountRepo.save(any(LedgerAccount.class))).thenAnswer(i -> i.getArgument(0));
+
+        LedgerAccount acc = wallet.getOrCreateSystemAccount(LedgerAccountType.PLATFORM, 13L);
+
+        assertThat(acc.getAccountKey()).isEqualTo("PLATFORM#5");
+        assertThat(acc.getAccountType()).isEqualTo(LedgerAccountType.PLATFORM);
+        assertThat(acc.getOwnerPeopleId()).isNull();
+    }
+
     @Test
     void availableBalanceSubtractsDraftDebits() {
         LedgerAccount acc = new LedgerAccount();
@@ -99,6 +131,28 @@ class WalletServiceTest {
         assertThat(available).isEqualByComparingTo(new BigDecimal("7000"));
     }
 
+    @Test
+    void statementPageIsAnchoredBelowNewerLines() {
+        LedgerAccount acc = new LedgerAccount();
+        acc.setId(5L);
+        acc.setAccountKey("PASSENGER:7");
+        acc.setBalance(new BigDecimal("10000"));
+        when(accountRepo.findByAccountKey("PASSENGER:7")).thenReturn(Optional.of(acc));
+        when(entryRepo.sumPostedDeltaFromId(5L, 40L)).thenReturn(new BigDecimal("2500"));
+        when(entryRepo.findStatementPage(5L, new BigDecimal("7500"), 40L, 2)).thenReturn(
+            java.util.List.of(
+                new Object[] { 39L, 12L, "RECHARGE", "r", null, "CREDIT", new BigDecimal("3000"), new BigDecimal("7500") },
+                new Object[] { 38L, 11L, "RECHARGE", "r", null, "CREDIT", new BigDecimal("4500"), new BigDecimal("4500") }
+            )
+        );
+
+        WalletService.StatementPage page = wallet.statement("PASSENGER:7", 40L, 2);
+
+        assertThat(page.lines()).hasSize(2);
+        assertThat(page.lines().get(0).balanceAfter()).isEqualByComparingTo(new BigDecimal("7500"));
+        assertThat(page.nextBefore()).isEqualTo(38L);
+    }
+
     @Test
     void getOrCreateAccountReturnsExistingAccount() {
         LedgerAccount existing = new LedgerAccount();
@@ -272,11 +326,14 @@ class WalletServiceTest {
     void confirmAppliesEntriesToBalancesAndPosts() {
         LedgerAccount pass = new LedgerAccount();
         pass.setAccountKey("PASSENGER:7");
+        pass.setAccountType(LedgerAccountType.PASSENGER);
         pass.setBalance(new BigDecimal("10000"));
         LedgerAccount esc = new LedgerAccount();
         esc.setAccountKey("ESCROW");
+        esc.setAccountType(LedgerAccountType.ESCROW);
         esc.setBalance(BigDecimal.ZERO);
         com.binbash.mobigo.domain.LedgerTransaction tx = new com.binbash.mobigo.domain.LedgerTransaction();
+        tx.setType(LedgerTransactionType.BOOKING_SETTLEMENT);
         tx.setStatus(LedgerTransactionStatus.DRAFT);
         tx.setIdempotencyKey("SETTLE-100");
         tx.addEntry(com.binbash.mobigo.domain.LedgerEntry.of(pass, LedgerDirection.DEBIT, new BigDecimal("6000")));
@@ -294,6 +351,73 @@ class WalletServiceTest {
         assertThat(esc.getBalance()).isEqualByComparingTo(new BigDecimal("6000"));
     }
 
+    @Test
+    void confirmRideSettlementsLocksAndSavesEachAccountOnce() {
+        LedgerAccount pass1 = new LedgerAccount();
+        pass1.setAccountKey("PASSENGER:7");
+        pass1.setAccountType(LedgerAccountType.PASSENGER);
+        pass1.setBalance(new BigDecimal("10000"));
+        LedgerAccount pass2 = new LedgerAccount();
+        pass2.setAccountKey("PASSENGER:8");
+        pass2.setAccountType(LedgerAccountType.PASSENGER);
+        pass2.setBalance(new BigDecimal("10000"));
+        LedgerAccount drv = new LedgerAccount();
+        drv.setAccountKey("DRIVER:9");
+        drv.setAccountType(LedgerAccountType.DRIVER);
+        drv.setBalance(BigDecimal.ZERO);
+        LedgerTransaction tx1 = new LedgerTransaction();
+        tx1.setType(LedgerTransactionType.BOOKING_SETTLEMENT);
+        tx1.setStatus(LedgerTransactionStatus.DRAFT);
+        tx1.setIdempotencyKey("SETTLE-100");
+        tx1.addEntry(com.binbash.mobigo.domain.LedgerEntry.of(pass1, LedgerDirection.DEBIT, new BigDecimal("6000")));
+        tx1.addEntry(com.binbash.mobigo.domain.LedgerEntry.of(drv, LedgerDirection.CREDIT, new BigDecimal("6000")));
+        LedgerTransaction tx2 = new LedgerTransaction();
+        tx2.setType(LedgerTransactionType.BOOKING_SETTLEMENT);
+        tx2.setStatus(LedgerTransactionStatus.DRAFT);
+        tx2.setIdempotencyKey("SETTLE-101");
+        tx2.addEntry(com.binbash.mobigo.domain.LedgerEntry.of(pass2, LedgerDirection.DEBIT, new BigDecimal("4000")));
+        tx2.addEntry(com.binbash.mobigo.domain.LedgerEntry.of(drv, LedgerDirection.CREDIT, new BigDecimal("4000")));
+        LedgerTransaction posted = new LedgerTransaction();
+        posted.setStatus(LedgerTransactionStatus.POSTED);
+        posted.setIdempotencyKey("SETTLE-102");
+        when(txRepo.lockByIdempotencyKeyIn(java.util.List.of("SETTLE-100", "SETTLE-101", "SETTLE-102"))).thenReturn(
+            java.util.List.of(tx1, tx2, posted)
+        );
+        when(accountRepo.lockByAccountKey("PASSENGER:7")).thenReturn(Optional.of(pass1));
+        when(accountRepo.lockByAccountKey("PASSENGER:8")).thenReturn(Optional.of(pass2));
+        when(accountRepo.lockByAccountKey("DRIVER:9")).thenReturn(Optional.of(drv));
+
+        int count = wallet.confirmRideSettlements(java.util.List.of(100L, 101L, 102L));
+
+        assertThat(count).isEqualTo(2);
+        assertThat(tx1.getStatus()).isEqualTo(LedgerTransactionStatus.POSTED);
+        assertThat(tx2.getStatus()).isEqualTo(LedgerTransactionStatus.POSTED);
+        assertThat(pass1.getBalance()).isEqualByComparingTo(new BigDecimal("4000"));
+        assertThat(pass2.getBalance()).isEqualByComparingTo(new BigDecimal("6000"));
+        assertThat(drv.getBalance()).isEqualByComparingTo(new BigDecimal("10000"));
+        verify(accountRepo, times(1)).lockByAccountKey("DRIVER:9");
+        verify(accountRepo, times(1)).save(drv);
+        verify(txRepo).saveAll(java.util.List.of(tx1, tx2));
+        verify(dailyTotalRepo).addToBucket(
+            any(),
+            eq("PASSENGER"),
+            eq("BOOKING_SETTLEMENT"),
+            anyInt(),
+            eq(BigDecimal.ZERO),
+            eq(new BigDecimal("10000")),
+            eq(2L)
+        );
+        verify(dailyTotalRepo).addToBucket(
+            any(),
+            eq("DRIVER"),
+            eq("BOOKING_SETTLEMENT"),
+            anyInt(),
+            eq(new BigDecimal("10000")),
+            eq(BigDecimal.ZERO),
+            eq(2L)
+        );
+    }
+
     @Test
     void confirmIsIdempotentWhenAlreadyPosted() {
         com.binbash.mobigo.domain.LedgerTransaction tx = new com.binbash.mobigo.domain.LedgerTransaction();
@@ -344,8 +468,8 @@ class WalletServiceTest {
         when(accountRepo.save(any(LedgerAccount.class))).thenAnswer(i -> i.getArgument(0));
         when(txRepo.save(any(com.binbash.mobigo.domain.LedgerTransaction.class))).thenAnswer(i -> i.getArgument(0));
         when(txRepo.findByExternalReference(org.mockito.ArgumentMatchers.any())).thenReturn(Optional.empty());
-        when(campayService.collect(eq("237600000000"), eq(10200), any(), any())).thenReturn(
-            new CampayService.CollectResponse("CR-1", "PENDING", "#150#")
+        when(campayService.collectAsync(eq("237600000000"), eq(10200), any(), any())).thenReturn(
+            CompletableFuture.completedFuture(new CampayService.CollectResponse("CR-1", "PENDING", "#150#"))
         );
 
         com.binbash.mobigo.domain.LedgerTransaction tx = wallet.rechargeWallet(7L, new BigDecimal("10000"), "237600000000");
@@ -353,7 +477,7 @@ class WalletServiceTest {
         assertThat(tx.getType()).isEqualTo(com.binbash.mobigo.domain.enumeration.LedgerTransactionType.RECHARGE);
         assertThat(tx.getStatus()).isEqualTo(LedgerTransactionStatus.DRAFT);
         assertThat(tx.getCampayReference()).isEqualTo("CR-1");
-        verify(campayService).collect(eq("237600000000"), eq(10200), any(), any());
+        verify(campayService).collectAsync(eq("237600000000"), eq(10200), any(), any());
         assertThat(tx.getEntries()).hasSize(2);
         BigDecimal extDebit = tx
             .getEntries()
@@ -375,9 +499,11 @@ class WalletServiceTest {
     void rechargeCallbackSuccessPostsAndCreditsPassenger() {
         LedgerAccount ext = new LedgerAccount();
         ext.setAccountKey("EXTERNAL");
+        ext.setAccountType(LedgerAccountType.EXTERNAL);
         ext.setBalance(BigDecimal.ZERO);
         LedgerAccount pass = new LedgerAccount();
         pass.setAccountKey("PASSENGER:7");
+        pass.setAccountType(LedgerAccountType.PASSENGER);
         pass.setBalance(BigDecimal.ZERO);
         com.binbash.mobigo.domain.LedgerTransaction tx = new com.binbash.mobigo.domain.LedgerTransaction();
         tx.setType(com.binbash.mobigo.domain.enumeration.LedgerTransactionType.RECHARGE);
@@ -453,8 +579,8 @@ class WalletServiceTest {
         when(accountRepo.save(any(LedgerAccount.class))).thenAnswer(i -> i.getArgument(0));
         when(txRepo.findByExternalReference(any())).thenReturn(Optional.empty());
         when(txRepo.save(any(com.binbash.mobigo.domain.LedgerTransaction.class))).thenAnswer(i -> i.getArgument(0));
-        when(campayService.disburse(eq("237690000000"), eq(10000), any(), any())).thenReturn(
-            new CampayService.DisbursementResponse("DR-1", "PENDING")
+        when(campayService.disburseAsync(eq("237690000000"), eq(10000), any(), any())).thenReturn(
+            CompletableFuture.completedFuture(new CampayService.DisbursementResponse("DR-1", "PENDING"))
         );
 
         com.binbash.mobigo.domain.LedgerTransaction tx = wallet.requestPayout(9L, new BigDecimal("10000"), "237690000000");
@@ -475,7 +601,7 @@ class WalletServiceTest {
             .map(com.binbash.mobigo.domain.LedgerEntry::getAmount)
             .reduce(BigDecimal.ZERO, BigDecimal::add);
         assertThat(debitSum).isEqualByComparingTo(creditSum);
-        verify(campayService).disburse(eq("237690000000"), eq(10000), any(), any());
+        verify(campayService).disburseAsync(eq("237690000000"), eq(10000), any(), any());
     }
 
     @Test
@@ -501,55 +627,79 @@ class WalletServiceTest {
             return t;
         });
         when(txRepo.findByExternalReference(any())).thenAnswer(i -> Optional.ofNullable(saved.get()));
-        when(campayService.disburse(any(), anyInt(), any(), any())).thenThrow(new RuntimeException("network down"));
+        when(campayService.disburseAsync(any(), anyInt(), any(), any())).thenReturn(
+            CompletableFuture.failedFuture(new java.net.ConnectException("network down"))
+        );
 
         org.assertj.core.api.Assertions.assertThatThrownBy(() -> wallet.requestPayout(9L, new BigDecimal("10000"), "237690000000")
-        ).isInstanceOf(RuntimeException.class);
+        )
+            .isInstanceOf(RuntimeException.class)
+            .hasMessageContaining("network down");
 
         assertThat(saved.get()).isNotNull();
         assertThat(saved.get().getStatus()).isEqualTo(LedgerTransactionStatus.VOID);
     }
 
     @Test
-    void scheduledPayoutsTriggersForDriversAboveThreshold() throws Exception {
+    void requestPayoutKeepsDraftWhenDisburseTimesOut() throws Exception {
         when(appSettingService.getMinWithdrawal()).thenReturn(new BigDecimal("5000"));
         when(appSettingService.getCampayFeeRate()).thenReturn(0.02);
-
-        LedgerAccount d1 = new LedgerAccount();
-        d1.setAccountKey("DRIVER:9");
-        d1.setAccountType(com.binbash.mobigo.domain.enumeration.LedgerAccountType.DRIVER);
-        d1.setOwnerPeopleId(9L);
-        d1.setBalance(new BigDecimal("12000"));
-        when(
-            accountRepo.findByAccountTypeAndBalanceGreaterThanEqual(
-                com.binbash.mobigo.domain.enumeration.LedgerAccountType.DRIVER,
-                new BigDecimal("5000")
-            )
-        ).thenReturn(java.util.List.of(d1));
-
+        LedgerAccount drv = new LedgerAccount();
+        drv.setAccountKey("DRIVER:9");
+        drv.setBalance(new BigDecimal("20000"));
+        when(accountRepo.lockByAccountKey("DRIVER:9")).thenReturn(Optional.of(drv));
+        when(accountRepo.findByAccountKey("DRIVER:9")).thenReturn(Optional.of(drv));
+        when(accountRepo.findByAccountKey("EXTERNAL")).thenReturn(Optional.empty());
+        when(accountRepo.findByAccountKey("PLATFORM")).thenReturn(Optional.empty());
         when(entryRepo.sumByAccountDirectionAndStatus("DRIVER:9", LedgerDirection.DEBIT, LedgerTransactionStatus.DRAFT)).thenReturn(
             BigDecimal.ZERO
         );
-
-        com.binbash.mobigo.domain.People driver = new com.binbash.mobigo.domain.People();
-        driver.setId(9L);
-        driver.setTelephone("237690000000");
-        when(peopleRepo.findById(9L)).thenReturn(Optional.of(driver));
-
-        // requestPayout path stubs (re-uses accountRepo/txRepo/campayService inside txTemplate)
-        when(accountRepo.lockByAccountKey("DRIVER:9")).thenReturn(Optional.of(d1));
-        when(accountRepo.findByAccountKey("DRIVER:9")).thenReturn(Optional.of(d1));
-        when(accountRepo.findByAccountKey("EXTERNAL")).thenReturn(Optional.empty());
-        when(accountRepo.findByAccountKey("PLATFORM")).thenReturn(Optional.empty());
         when(accountRepo.save(any(LedgerAccount.class))).thenAnswer(i -> i.getArgument(0));
-        when(txRepo.findByExternalReference(any())).thenReturn(Optional.empty());
-        when(txRepo.save(any(com.binbash.mobigo.domain.LedgerTransaction.class))).thenAnswer(i -> i.getArgument(0));
-        when(campayService.disburse(eq("237690000000"), eq(12000), any(), any())).thenReturn(
-            new CampayService.DisbursementResponse("DR-9", "PENDING")
+        AtomicReference<LedgerTransaction> saved = new AtomicReference<>();
+        when(txRepo.save(any(LedgerTransaction.class))).thenAnswer(i -> {
+            LedgerTransaction t = i.getArgument(0);
+            saved.set(t);
+            return t;
+        });
+        lenient().when(txRepo.findByExternalReference(any())).thenAnswer(i -> Optional.ofNullable(saved.get()));
+
+        // Campay answers after the client has given up, but still executes the withdrawal.
+        CampaySimulator.Settings settings = new CampaySimulator.Settings(
+            CampaySimulator.Latency.fixed(1000),
+            0,
+            0,
+            CampaySimulator.Latency.NONE,
+            0,
+            ""
         );
-
-        wallet.runScheduledPayouts();
-
-        verify(campayService).disburse(eq("237690000000"), eq(12000), any(), any());
+        try (CampaySimulator simulator = new CampaySimulator(settings).start()) {
+            ApplicationProperties props = new ApplicationProperties();
+            props.getCampay().setEnabled(true);
+            props.getCampay().setBaseUrl(simulator.baseUrl());
+            props.getCampay().setPermanentToken(simulator.token());
+            props.getCampay().setRequestTimeoutMs(200);
+            CampayService campay = new CampayService(props, new ObjectMapper(), new SimpleMeterRegistry());
+            try {
+                WalletService walletOnSimulator = new WalletService(
+                    accountRepo,
+                    txRepo,
+                    entryRepo,
+                    dailyTotalRepo,
+                    bookingRepo,
+                    campay,
+                    appSettingService,
+                    ptm
+                );
+
+                assertThatThrownBy(() -> walletOnSimulator.requestPayout(9L, new BigDecimal("10000"), "237690000000"))
+                    .hasRootCauseInstanceOf(HttpTimeoutException.class);
+
+                assertThat(saved.get().getStatus()).isEqualTo(LedgerTransactionStatus.DRAFT);
+                await().atMost(Duration.ofSeconds(5)).until(() -> simulator.count("withdraw.successful") == 1);
+                assertThat(saved.get().getStatus()).isEqualTo(LedgerTransactionStatus.DRAFT);
+            } finally {
+                campay.shutdown();
+            }
+        }
     }
 }
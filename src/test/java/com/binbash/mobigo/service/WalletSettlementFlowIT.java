@@ -145,13 +145,11 @@ class WalletSettlementFlowIT {
         LedgerAccount driverAcc = ledgerAccountRepository.findByAccountKey("DRIVER:" + driver.getId()).orElseThrow();
         assertThat(driverAcc.getBalance()).isEqualByComparingTo(new BigDecimal("5000"));
 
-        // Platform: commission = 1000 posted
-        LedgerAccount platform = ledgerAccountRepository.findByAccountKey("PLATFORM").orElseThrow();
-        assertThat(platform.getBalance()).isEqualByComparingTo(new BigDecimal("1000"));
+        // Platform: commission = 1000 posted (logical balance = sum of shards)
+        assertThat(walletService.systemBalance(LedgerAccountType.PLATFORM)).isEqualByComparingTo(new BigDecimal("1000"));
 
         // Escrow: all movements cancel out → balance = 0
-        LedgerAccount escrow = ledgerAccountRepository.findByAccountKey("ESCROW").orElseThrow();
-        assertThat(escrow.getBalance()).isEqualByComparingTo(BigDecimal.ZERO);
+        assertThat(walletService.systemBalance(LedgerAccountType.ESCROW)).isEqualByComparingTo(BigDecimal.ZERO);
     }
 
     @Test
@@ -0,0 +1,63 @@
+package com.binbash.mobigo.web.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import com.binbash.mobigo.config.ApplicationProperties;
+import com.binbash.mobigo.service.CampayWebhookQueueService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.http.HttpStatus;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+@ExtendWith(MockitoExtension.class)
+class CampayWebhookResourceTest {
+
+    private static final String BODY = "{\"reference\":\"CP-1\",\"external_reference\":\"WDR-1\",\"status\":\"SUCCESSFUL\"}";
+
+    @Mock
+    private CampayWebhookQueueService webhookQueueService;
+
+    private CampayWebhookResource resource;
+
+    @BeforeEach
+    void setUp() {
+        resource = new CampayWebhookResource(new ApplicationProperties(), new ObjectMapper(), webhookQueueService);
+    }
+
+    @Test
+    void persistedWebhookIsAcknowledged() {
+        when(webhookQueueService.enqueue("CP-1", "WDR-1", "SUCCESSFUL", BODY)).thenReturn(true);
+
+        assertThat(resource.handleCampayWebhook(BODY, null).getStatusCode()).isEqualTo(HttpStatus.OK);
+    }
+
+    @Test
+    void webhookIsRedeliveredWhenNoTransactionCanBeOpened() {
+        when(webhookQueueService.enqueue(any(), any(), any(), any())).thenThrow(
+            new CannotCreateTransactionException("Could not open JPA EntityManager for transaction")
+        );
+
+        assertThat(resource.handleCampayWebhook(BODY, null).getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    @Test
+    void webhookIsRedeliveredOnDataAccessFailure() {
+        when(webhookQueueService.enqueue(any(), any(), any(), any())).thenThrow(new QueryTimeoutException("timeout"));
+
+        assertThat(resource.handleCampayWebhook(BODY, null).getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    @Test
+    void invalidPayloadsAreRejected() {
+        assertThat(resource.handleCampayWebhook("not json", null).getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(resource.handleCampayWebhook("{\"status\":\"SUCCESSFUL\"}", null).getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        verifyNoInteractions(webhookQueueService);
+    }
+}
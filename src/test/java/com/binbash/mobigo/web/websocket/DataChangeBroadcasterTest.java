@@ -0,0 +1,69 @@
+package com.binbash.mobigo.web.websocket;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import com.binbash.mobigo.config.ApplicationProperties;
+import com.binbash.mobigo.web.websocket.dto.DataChangeDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.messaging.simp.SimpMessageSendingOperations;
+
+@ExtendWith(MockitoExtension.class)
+class DataChangeBroadcasterTest {
+
+    @Mock
+    private SimpMessageSendingOperations messagingTemplate;
+
+    private SimpleMeterRegistry registry;
+    private DataChangeBroadcaster broadcaster;
+
+    @BeforeEach
+    void setUp() {
+        ApplicationProperties props = new ApplicationProperties();
+        props.getWebsocket().setBroadcastWindowMs(60000);
+        registry = new SimpleMeterRegistry();
+        broadcaster = new DataChangeBroadcaster(messagingTemplate, props, registry);
+    }
+
+    @Test
+    void burstOnOneTopicBecomesOneFrameWithEveryChangedId() {
+        broadcaster.submit("/topic/data-updates", "BOOKINGS_CHANGED", 1L, null);
+        broadcaster.submit("/topic/data-updates", "BOOKINGS_CHANGED", 2L, null);
+        broadcaster.submit("/topic/data-updates", "BOOKINGS_CHANGED", 1L, null);
+        broadcaster.submit("/topic/data-updates", "RATINGS_CHANGED", 9L, null);
+        verifyNoInteractions(messagingTemplate);
+
+        broadcaster.flushAll();
+
+        ArgumentCaptor<DataChangeDTO> frames = ArgumentCaptor.forClass(DataChangeDTO.class);
+        verify(messagingTemplate, times(2)).convertAndSend(eq("/topic/data-updates"), frames.capture());
+        DataChangeDTO bookings = frames.getAllValues().stream().filter(f -> f.type().equals("BOOKINGS_CHANGED")).findFirst().orElseThrow();
+        assertThat(bookings.ids()).containsExactly(2L, 1L);
+        assertThat(bookings.changes()).isNull();
+        assertThat(registry.get("websocket.broadcast.events").tag("type", "BOOKINGS_CHANGED").counter().count()).isEqualTo(3);
+        assertThat(registry.get("websocket.broadcast.frames").tag("type", "BOOKINGS_CHANGED").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void latestDeltaOfEachIdIsKept() {
+        broadcaster.submit("/topic/rides", "RIDES_CHANGED", 5L, "v1");
+        broadcaster.submit("/topic/rides", "RIDES_CHANGED", 5L, "v2");
+
+        broadcaster.flushAll();
+        broadcaster.flushAll();
+
+        ArgumentCaptor<DataChangeDTO> frame = ArgumentCaptor.forClass(DataChangeDTO.class);
+        verify(messagingTemplate, times(1)).convertAndSend(eq("/topic/rides"), frame.capture());
+        assertThat(frame.getValue().ids()).containsExactly(5L);
+        assertThat(frame.getValue().changes()).containsExactly("v2");
+        verify(messagingTemplate, never()).convertAndSend(eq("/topic/data-updates"), any(Object.class));
+    }
+}
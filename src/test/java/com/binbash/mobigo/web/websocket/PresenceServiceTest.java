@@ -0,0 +1,98 @@
+package com.binbash.mobigo.web.websocket;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import com.binbash.mobigo.web.websocket.dto.ActivityDTO;
+import com.binbash.mobigo.web.websocket.dto.PresenceSnapshotDTO;
+import java.time.Instant;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.messaging.simp.SimpMessageSendingOperations;
+
+@ExtendWith(MockitoExtension.class)
+class PresenceServiceTest {
+
+    @Mock
+    private SimpMessageSendingOperations messagingTemplate;
+
+    private PresenceService presenceService;
+
+    @BeforeEach
+    void setUp() {
+        presenceService = new PresenceService(messagingTemplate);
+    }
+
+    @Test
+    void pageViewsAreAggregatedIntoOneSnapshotPerInterval() {
+        presenceService.record(activity("s1", "alice", "/ride/12/view?from=search"));
+        presenceService.record(activity("s2", "bob", "/ride/13/view"));
+        presenceService.record(activity("s3", "alice", "/"));
+        presenceService.record(activity("s3", "alice", "/booking"));
+        verifyNoInteractions(messagingTemplate);
+
+        presenceService.publishSnapshot();
+        presenceService.publishSnapshot();
+
+        ArgumentCaptor<PresenceSnapshotDTO> snapshot = ArgumentCaptor.forClass(PresenceSnapshotDTO.class);
+        verify(messagingTemplate, times(1)).convertAndSend(eq(PresenceService.TRACKER_TOPIC), snapshot.capture());
+        assertThat(snapshot.getValue().sessions()).isEqualTo(3);
+        assertThat(snapshot.getValue().users()).isEqualTo(2);
+        assertThat(snapshot.getValue().pages()).containsExactly(entry("/ride/:id/view", 2L), entry("/booking", 1L));
+    }
+
+    @Test
+    void disconnectUpdatesTheNextSnapshotWithoutBroadcasting() {
+        presenceService.record(activity("s1", "alice", "/"));
+        presenceService.publishSnapshot();
+        clearInvocations(messagingTemplate);
+
+        presenceService.remove("s1");
+        presenceService.remove("unknown");
+        verifyNoInteractions(messagingTemplate);
+
+        presenceService.publishSnapshot();
+
+        ArgumentCaptor<PresenceSnapshotDTO> snapshot = ArgumentCaptor.forClass(PresenceSnapshotDTO.class);
+        verify(messagingTemplate).convertAndSend(eq(PresenceService.TRACKER_TOPIC), snapshot.capture());
+        assertThat(snapshot.getValue().sessions()).isZero();
+        assertThat(presenceService.getSessions()).isEmpty();
+    }
+
+    @Test
+    void idleNodeStillPublishesItsSnapshotAsHeartbeat() {
+        presenceService.publishSnapshot();
+
+        ArgumentCaptor<PresenceSnapshotDTO> snapshot = ArgumentCaptor.forClass(PresenceSnapshotDTO.class);
+        verify(messagingTemplate).convertAndSend(eq(PresenceService.TRACKER_TOPIC), snapshot.capture());
+        assertThat(snapshot.getValue().node()).isNotBlank().isEqualTo(presenceService.getNode());
+        assertThat(snapshot.getValue().sessions()).isZero();
+    }
+
+    @Test
+    void sessionsAreListedMostRecentlySeenFirst() {
+        ActivityDTO older = activity("s1", "alice", "/");
+        older.setTime(Instant.parse("2026-01-01T10:00:00Z"));
+        ActivityDTO newer = activity("s2", "bob", "/");
+        newer.setTime(Instant.parse("2026-01-01T10:05:00Z"));
+        presenceService.record(older);
+        presenceService.record(newer);
+
+        assertThat(presenceService.getSessions()).extracting(ActivityDTO::getSessionId).containsExactly("s2", "s1");
+    }
+
+    private static ActivityDTO activity(String sessionId, String login, String page) {
+        ActivityDTO activity = new ActivityDTO();
+        activity.setSessionId(sessionId);
+        activity.setUserLogin(login);
+        activity.setPage(page);
+        activity.setTime(Instant.now());
+        return activity;
+    }
+}
@@ -0,0 +1,69 @@
+package com.binbash.mobigo.web.websocket;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import com.binbash.mobigo.config.ApplicationProperties;
+import com.binbash.mobigo.domain.Ride;
+import com.binbash.mobigo.domain.enumeration.RideStatusEnum;
+import com.binbash.mobigo.web.websocket.dto.DataChangeDTO;
+import com.binbash.mobigo.web.websocket.dto.RideChangeDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.messaging.simp.SimpMessageSendingOperations;
+
+@ExtendWith(MockitoExtension.class)
+class WebSocketNotificationServiceTest {
+
+    @Mock
+    private SimpMessageSendingOperations messagingTemplate;
+
+    private WebSocketNotificationService service() {
+        ApplicationProperties props = new ApplicationProperties();
+        props.getWebsocket().setBroadcastWindowMs(0);
+        return new WebSocketNotificationService(new DataChangeBroadcaster(messagingTemplate, props, new SimpleMeterRegistry()));
+    }
+
+    private static Ride ride() {
+        Ride ride = new Ride().villeDepart("Yaoundé").villeArrivee("Douala").nbrePlaceDisponible(3).statut(RideStatusEnum.OUVERT);
+        ride.setId(5L);
+        return ride;
+    }
+
+    @Test
+    void routeTopicIsNormalized() {
+        assertThat(WebSocketNotificationService.routeTopic("Yaoundé", "Bafoussam")).isEqualTo("/topic/rides/yaounde-bafoussam");
+        assertThat(WebSocketNotificationService.routeTopic(" Ngaoundéré ", "Kribi-Centre")).isEqualTo(
+            "/topic/rides/ngaoundere-kribi_centre"
+        );
+    }
+
+    @Test
+    void deltaGoesToTheRouteTopicAndTheGlobalRideTopic() {
+        service().notifyRideChanged(RideChangeDTO.Change.UPDATED, ride());
+
+        ArgumentCaptor<DataChangeDTO> frame = ArgumentCaptor.forClass(DataChangeDTO.class);
+        verify(messagingTemplate).convertAndSend(eq("/topic/rides/yaounde-douala"), frame.capture());
+        verify(messagingTemplate).convertAndSend(eq("/topic/rides"), any(DataChangeDTO.class));
+        assertThat(frame.getValue().type()).isEqualTo("RIDES_CHANGED");
+        assertThat(frame.getValue().ids()).containsExactly(5L);
+        RideChangeDTO delta = (RideChangeDTO) frame.getValue().changes().get(0);
+        assertThat(delta.nbrePlaceDisponible()).isEqualTo(3);
+        verify(messagingTemplate, never()).convertAndSend(eq("/topic/data-updates"), any(Object.class));
+    }
+
+    @Test
+    void routeChangeAlsoNotifiesThePreviousRoute() {
+        service().notifyRideChanged(RideChangeDTO.Change.UPDATED, ride(), "Yaoundé", "Kribi");
+
+        verify(messagingTemplate).convertAndSend(eq("/topic/rides/yaounde-kribi"), any(DataChangeDTO.class));
+        verify(messagingTemplate).convertAndSend(eq("/topic/rides/yaounde-douala"), any(DataChangeDTO.class));
+        verify(messagingTemplate).convertAndSend(eq("/topic/rides"), any(DataChangeDTO.class));
+    }
+}
@@ -0,0 +1,148 @@
+package com.binbash.mobigo.web.websocket;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.messaging.support.MessageHandlingRunnable;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
+
+class WebSocketSessionMetricsTest {
+
+    private SimpleMeterRegistry registry;
+    private WebSocketSessionMetrics metrics;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        metrics = new WebSocketSessionMetrics(registry);
+    }
+
+    @Test
+    void sessionsClosedForExceedingLimitsAreCountedAsEvicted() throws Exception {
+        WebSocketHandler handler = metrics.decorate(mock(WebSocketHandler.class));
+        WebSocketSession fast = mock(WebSocketSession.class);
+        WebSocketSession slow = mock(WebSocketSession.class);
+
+        handler.afterConnectionEstablished(fast);
+        handler.afterConnectionEstablished(slow);
+        handler.afterConnectionClosed(slow, CloseStatus.SESSION_NOT_RELIABLE);
+
+        assertThat(registry.get("websocket.sessions.active").gauge().value()).isEqualTo(1.0);
+        assertThat(registry.get("websocket.sessions.evicted").counter().count()).isEqualTo(1);
+
+        handler.afterConnectionClosed(fast, CloseStatus.NORMAL);
+
+        assertThat(registry.get("websocket.sessions.active").gauge().value()).isZero();
+        assertThat(registry.get("websocket.sessions.evicted").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void subscriptionsFollowSubscribeUnsubscribeAndDisconnect() {
+        metrics.onSubscribe(new SessionSubscribeEvent(this, frame(StompCommand.SUBSCRIBE, "s1", "sub-0")));
+        metrics.onSubscribe(new SessionSubscribeEvent(this, frame(StompCommand.SUBSCRIBE, "s1", "sub-1")));
+        metrics.onSubscribe(new SessionSubscribeEvent(this, frame(StompCommand.SUBSCRIBE, "s2", "sub-0")));
+        assertThat(registry.get("websocket.subscriptions").gauge().value()).isEqualTo(3.0);
+
+        metrics.onUnsubscribe(new SessionUnsubscribeEvent(this, frame(StompCommand.UNSUBSCRIBE, "s1", "sub-0")));
+        assertThat(registry.get("websocket.subscriptions").gauge().value()).isEqualTo(2.0);
+
+        metrics.onDisconnect(new SessionDisconnectEvent(this, frame(StompCommand.DISCONNECT, "s1", null), "s1", CloseStatus.NORMAL));
+        assertThat(registry.get("websocket.subscriptions").gauge().value()).isEqualTo(1.0);
+    }
+
+    @Test
+    void fullOutboundQueueDropsBroadcastsButRunsControlAndUserFramesInCaller() throws Exception {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(1);
+        executor.setRejectedExecutionHandler(metrics.outboundRejectionPolicy());
+        executor.initialize();
+        metrics.monitorChannel("outbound", executor);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        List<String> ranInCaller = new CopyOnWriteArrayList<>();
+
+        try {
+            executor.execute(() -> {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            started.await();
+            executor.execute(() -> {});
+            executor.execute(sendTask("broadcast", outbound(SimpMessageType.MESSAGE, null), ranInCaller));
+            executor.execute(sendTask("connected", outbound(SimpMessageType.CONNECT_ACK, null), ranInCaller));
+            executor.execute(sendTask("notification", outbound(SimpMessageType.MESSAGE, "/user/topic/notifications"), ranInCaller));
+
+            assertThat(registry.get("websocket.channel.queued").tag("channel", "outbound").gauge().value()).isEqualTo(1.0);
+            assertThat(registry.get("websocket.messages.dropped").counter().count()).isEqualTo(1);
+            assertThat(ranInCaller).containsExactly("connected", "notification");
+        } finally {
+            release.countDown();
+            executor.shutdown();
+        }
+    }
+
+    private static Message<byte[]> outbound(SimpMessageType type, String userDestination) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(type);
+        if (userDestination != null) {
+            accessor.setNativeHeader(SimpMessageHeaderAccessor.ORIGINAL_DESTINATION, userDestination);
+        }
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+
+    /** Stands in for the channel's send task, recording frames handled on the test thread. */
+    private static MessageHandlingRunnable sendTask(String name, Message<byte[]> message, List<String> ranInCaller) {
+        Thread caller = Thread.currentThread();
+        return new MessageHandlingRunnable() {
+            @Override
+            public Message<?> getMessage() {
+                return message;
+            }
+
+            @Override
+            public MessageHandler getMessageHandler() {
+                return m -> {};
+            }
+
+            @Override
+            public void run() {
+                if (Thread.currentThread() == caller) {
+                    ranInCaller.add(name);
+                }
+            }
+        };
+    }
+
+    private static Message<byte[]> frame(StompCommand command, String sessionId, String subscriptionId) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(command);
+        accessor.setSessionId(sessionId);
+        if (subscriptionId != null) {
+            accessor.setSubscriptionId(subscriptionId);
+        }
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+}